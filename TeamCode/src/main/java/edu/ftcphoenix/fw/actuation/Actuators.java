@@ -5,6 +5,7 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.DoubleSupplier;
 
 import edu.ftcphoenix.fw.core.hal.Direction;
 import edu.ftcphoenix.fw.core.hal.PowerOutput;
@@ -108,9 +109,45 @@ public final class Actuators {
      */
     public static final class HardwareStep {
         private final HardwareMap hw;
+        private final BudgetSpec budget;
 
         private HardwareStep(HardwareMap hw) {
+            this(hw, null);
+        }
+
+        private HardwareStep(HardwareMap hw, BudgetSpec budget) {
             this.hw = Objects.requireNonNull(hw, "HardwareMap is required");
+            this.budget = budget;
+        }
+
+        /**
+         * Route the outputs of this plant through a shared {@link PowerBudget}.
+         *
+         * <p>Motor and CR servo power outputs join a throttleable channel; motor velocity outputs
+         * have their draw reserved at {@code priority}. Position outputs are not budgeted.</p>
+         *
+         * <pre>{@code
+         * Plant intake = Actuators.plant(hardwareMap)
+         *     .powerBudget(budget, "intake", 2, PowerBudget.MotorModel.goBilda5203(384.5, 435))
+         *     .motor("intakeMotor", FORWARD)
+         *     .power()
+         *     .build();
+         * }</pre>
+         *
+         * @param budget   shared budget (if {@code null}, this call has no effect)
+         * @param channel  budget channel name for this mechanism
+         * @param priority higher values are served first
+         * @param model    motor model for each actuator in this plant
+         * @return a hardware step whose outputs are budgeted
+         */
+        public HardwareStep powerBudget(PowerBudget budget,
+                                        String channel,
+                                        int priority,
+                                        PowerBudget.MotorModel model) {
+            if (budget == null) {
+                return this;
+            }
+            return new HardwareStep(hw, new BudgetSpec(budget, channel, priority, model));
         }
 
         /**
@@ -136,7 +173,7 @@ public final class Actuators {
          */
 
         public MotorSingleStep motor(String name, Direction direction) {
-            return new MotorBuilder(hw, name, direction);
+            return new MotorBuilder(hw, budget, name, direction);
         }
 
         /**
@@ -186,7 +223,33 @@ public final class Actuators {
          */
 
         public CrServoSingleStep crServo(String name, Direction direction) {
-            return new CrServoBuilder(hw, name, direction);
+            return new CrServoBuilder(hw, budget, name, direction);
+        }
+    }
+
+    /**
+     * Power budget registration captured by {@link HardwareStep#powerBudget}. A {@code null}
+     * spec means "not budgeted".
+     */
+    private static final class BudgetSpec {
+        final PowerBudget budget;
+        final String channel;
+        final int priority;
+        final PowerBudget.MotorModel model;
+
+        BudgetSpec(PowerBudget budget, String channel, int priority, PowerBudget.MotorModel model) {
+            this.budget = Objects.requireNonNull(budget, "budget");
+            this.channel = Objects.requireNonNull(channel, "channel");
+            this.priority = priority;
+            this.model = Objects.requireNonNull(model, "model");
+        }
+
+        static PowerOutput wrap(BudgetSpec spec, PowerOutput out) {
+            return (spec == null) ? out : spec.budget.power(spec.channel, spec.priority, spec.model, out);
+        }
+
+        static VelocityOutput wrap(BudgetSpec spec, VelocityOutput out) {
+            return (spec == null) ? out : spec.budget.velocity(spec.channel, spec.priority, spec.model, out);
         }
     }
 
@@ -359,6 +422,19 @@ public final class Actuators {
          * @throws IllegalArgumentException if {@code toleranceNative < 0}
          */
         ModifiersStep position(double toleranceNative);
+
+        /**
+         * Choose motion-profiled position control run in the robot loop.
+         *
+         * <p>Unlike {@link #position()}, the motor runs on raw power and the loop is closed by a
+         * {@link ProfiledPositionPlant} on the (bulk-cached) encoder reading, with a trapezoid or
+         * S-curve profile and gravity / velocity / acceleration feedforward. Intended for arms
+         * and slides. The encoder is zeroed when the plant is built.</p>
+         *
+         * @param cfg profile, feedforward and feedback settings
+         * @return modifier stage for optional rate limiting and {@link ModifiersStep#build()}
+         */
+        ModifiersStep profiledPosition(ProfiledPositionPlant.Config cfg);
     }
 
     /**
@@ -420,6 +496,18 @@ public final class Actuators {
          * @throws IllegalArgumentException if {@code toleranceNative < 0}
          */
         ModifiersStep position(double toleranceNative);
+
+        /**
+         * Choose motion-profiled position control for the motor group.
+         *
+         * <p>One {@link ProfiledPositionPlant} drives all motors from the <b>first</b> motor's
+         * encoder. Each motor receives {@code scale * power}; {@code bias} does not apply to
+         * power and is ignored.</p>
+         *
+         * @param cfg profile, feedforward and feedback settings
+         * @return modifier stage for optional rate limiting and {@link ModifiersStep#build()}
+         */
+        ModifiersStep profiledPosition(ProfiledPositionPlant.Config cfg);
     }
 
     /**
@@ -511,11 +599,13 @@ public final class Actuators {
         }
 
         private final HardwareMap hw;
+        private final BudgetSpec budget;
         private final List<Spec> specs = new ArrayList<>();
         private int lastIndex = 0;
 
-        MotorBuilder(HardwareMap hw, String name, Direction direction) {
+        MotorBuilder(HardwareMap hw, BudgetSpec budget, String name, Direction direction) {
             this.hw = Objects.requireNonNull(hw, "hw");
+            this.budget = budget;
             specs.add(new Spec(name, direction));
             lastIndex = 0;
         }
@@ -602,16 +692,25 @@ public final class Actuators {
             return new ModifiersStepImpl(plant);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public ModifiersStep profiledPosition(ProfiledPositionPlant.Config cfg) {
+            Plant plant = buildProfiledPositionPlant(cfg);
+            return new ModifiersStepImpl(plant);
+        }
+
         private Plant buildPowerPlant() {
             if (specs.size() == 1) {
                 Spec s = specs.get(0);
-                PowerOutput out = FtcHardware.motorPower(hw, s.name, s.direction);
+                PowerOutput out = BudgetSpec.wrap(budget, FtcHardware.motorPower(hw, s.name, s.direction));
                 return Plants.power(out);
             }
 
             MultiPlant.Builder mp = MultiPlant.builder();
             for (Spec s : specs) {
-                PowerOutput out = FtcHardware.motorPower(hw, s.name, s.direction);
+                PowerOutput out = BudgetSpec.wrap(budget, FtcHardware.motorPower(hw, s.name, s.direction));
                 mp.add(Plants.power(out), s.scale, s.bias);
             }
             return mp.build();
@@ -620,13 +719,13 @@ public final class Actuators {
         private Plant buildVelocityPlant(double toleranceNative) {
             if (specs.size() == 1) {
                 Spec s = specs.get(0);
-                VelocityOutput out = FtcHardware.motorVelocity(hw, s.name, s.direction);
+                VelocityOutput out = BudgetSpec.wrap(budget, FtcHardware.motorVelocity(hw, s.name, s.direction));
                 return Plants.velocity(out, toleranceNative);
             }
 
             MultiPlant.Builder mp = MultiPlant.builder();
             for (Spec s : specs) {
-                VelocityOutput out = FtcHardware.motorVelocity(hw, s.name, s.direction);
+                VelocityOutput out = BudgetSpec.wrap(budget, FtcHardware.motorVelocity(hw, s.name, s.direction));
                 mp.add(Plants.velocity(out, toleranceNative), s.scale, s.bias);
             }
             return mp.build();
@@ -646,6 +745,44 @@ public final class Actuators {
             }
             return mp.build();
         }
+
+        private Plant buildProfiledPositionPlant(ProfiledPositionPlant.Config cfg) {
+            final int n = specs.size();
+            final PowerOutput[] outs = new PowerOutput[n];
+            final double[] scales = new double[n];
+            for (int i = 0; i < n; i++) {
+                Spec s = specs.get(i);
+                outs[i] = BudgetSpec.wrap(budget, FtcHardware.motorPower(hw, s.name, s.direction));
+                scales[i] = s.scale;
+            }
+            DoubleSupplier encoder = FtcHardware.motorPositionTicks(hw, specs.get(0).name, true);
+            // The followers take the same raw power; left in the SDK's velocity mode they would
+            // fight the profile.
+            for (int i = 1; i < n; i++) {
+                FtcHardware.motorRawPowerMode(hw, specs.get(i).name);
+            }
+
+            if (n == 1) {
+                return new ProfiledPositionPlant(outs[0], encoder, cfg);
+            }
+            PowerOutput fanOut = new PowerOutput() {
+                private double last;
+
+                @Override
+                public void setPower(double power) {
+                    last = power;
+                    for (int i = 0; i < n; i++) {
+                        outs[i].setPower(scales[i] * power);
+                    }
+                }
+
+                @Override
+                public double getCommandedPower() {
+                    return last;
+                }
+            };
+            return new ProfiledPositionPlant(fanOut, encoder, cfg);
+        }
     }
 
     // =====================================================================
@@ -962,11 +1099,13 @@ public final class Actuators {
         }
 
         private final HardwareMap hw;
+        private final BudgetSpec budget;
         private final List<Spec> specs = new ArrayList<>();
         private int lastIndex = 0;
 
-        CrServoBuilder(HardwareMap hw, String name, Direction direction) {
+        CrServoBuilder(HardwareMap hw, BudgetSpec budget, String name, Direction direction) {
             this.hw = Objects.requireNonNull(hw, "hw");
+            this.budget = budget;
             specs.add(new Spec(name, direction));
             lastIndex = 0;
         }
@@ -1022,13 +1161,13 @@ public final class Actuators {
         private Plant buildPowerPlant() {
             if (specs.size() == 1) {
                 Spec s = specs.get(0);
-                PowerOutput out = FtcHardware.crServoPower(hw, s.name, s.direction);
+                PowerOutput out = BudgetSpec.wrap(budget, FtcHardware.crServoPower(hw, s.name, s.direction));
                 return Plants.power(out);
             }
 
             MultiPlant.Builder mp = MultiPlant.builder();
             for (Spec s : specs) {
-                PowerOutput out = FtcHardware.crServoPower(hw, s.name, s.direction);
+                PowerOutput out = BudgetSpec.wrap(budget, FtcHardware.crServoPower(hw, s.name, s.direction));
                 mp.add(Plants.power(out), s.scale, s.bias);
             }
             return mp.build();
@@ -2,6 +2,7 @@ package edu.ftcphoenix.fw.actuation;
 
 import java.util.Objects;
 
+import edu.ftcphoenix.fw.task.ResettableTask;
 import edu.ftcphoenix.fw.task.Task;
 import edu.ftcphoenix.fw.task.TaskOutcome;
 import edu.ftcphoenix.fw.core.time.LoopClock;
@@ -569,8 +570,10 @@ public final class PlantTasks {
     /**
      * Unified task that supports both time-based and setpoint-based completion
      * modes and reports its outcome via {@link Task#getOutcome()}.
+     *
+     * <p>Resettable so plant macros can be reused through {@code TaskTemplate}.</p>
      */
-    private static final class TargetTask implements Task {
+    private static final class TargetTask implements ResettableTask {
 
         private final Plant plant;
         private final double initialTarget;
@@ -635,6 +638,19 @@ public final class PlantTasks {
             }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void reset() {
+            started = false;
+            finished = false;
+            postApplied = false;
+            outcome = TaskOutcome.UNKNOWN;
+            elapsedSec = 0.0;
+            remainingSec = 0.0;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,718 @@
+package edu.ftcphoenix.fw.actuation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.hal.PowerOutput;
+import edu.ftcphoenix.fw.core.hal.VelocityOutput;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+
+/**
+ * Robot-wide current budget shared by the drivebase and mechanisms.
+ *
+ * <p>Each subsystem normally commands its motors on its own. When a full-speed drive and a
+ * flywheel spin-up happen at the same time, the battery sags and <em>everything</em> slows
+ * down, including the flywheel recovery we care about most. A {@code PowerBudget} estimates how
+ * much current each output is about to draw and, when the total would exceed the budget, scales
+ * down the lowest-priority outputs first so the important ones keep full voltage.</p>
+ *
+ * <h2>How it works</h2>
+ * <ul>
+ *   <li>Outputs are registered into named <b>channels</b> (for example {@code "drive"} with four
+ *       motors). All outputs in a channel are scaled together, so a mecanum mix keeps its wheel
+ *       ratios.</li>
+ *   <li>Current is estimated with a simple DC motor model: current is proportional to applied
+ *       voltage minus back-EMF. Speed comes from the measured velocity when available, otherwise
+ *       from a first-order model driven by the commanded power.</li>
+ *   <li>Higher {@code priority} channels are served first. Channels with the same priority share
+ *       what is left proportionally.</li>
+ *   <li><b>Power</b> channels ({@link #power}) are throttled by scaling their power command.
+ *       <b>Velocity</b> channels ({@link #velocity}) are closed-loop in the motor controller and
+ *       are never throttled; their estimated draw is reserved at their priority.</li>
+ *   <li>The budget itself shrinks when the measured battery voltage falls (optional voltage
+ *       source), as a backstop when the model underestimates.</li>
+ * </ul>
+ *
+ * <h2>Usage</h2>
+ *
+ * <pre>{@code
+ * PowerBudget budget = new PowerBudget(PowerBudget.Config.defaults(),
+ *         FtcHardware.batteryVoltage(hardwareMap));
+ *
+ * Plant flywheel = Actuators.plant(hardwareMap)
+ *     .powerBudget(budget, "shooter", 3, PowerBudget.MotorModel.goBilda5203(28, 6000))
+ *     .motor("shooter", FORWARD)
+ *     .velocity()
+ *     .build();
+ *
+ * MecanumDrivebase drive = FtcDrives.mecanum(hardwareMap, wiring, driveCfg,
+ *         budget, 1, PowerBudget.MotorModel.goBilda5203(537.7, 312));
+ *
+ * // loop(), after all outputs were commanded:
+ * budget.update(clock);
+ * }</pre>
+ *
+ * <p>New scales take effect immediately for outputs whose scale changed during
+ * {@link #update(LoopClock)}, and for every command after that.</p>
+ *
+ * <p>Registration is thread-safe so outputs can be created from parallel init steps. Output
+ * writes synchronize on the budget, the same lock {@link #update(LoopClock)} holds while it
+ * re-applies scales, so an output may be commanded from another thread (for example the drive
+ * motors under {@code DriveControlThread}) without a rescale overwriting a newer command with a
+ * stale one.</p>
+ */
+public final class PowerBudget {
+
+    /**
+     * Configuration for {@link PowerBudget}.
+     *
+     * <p>Mutable data object: start from {@link #defaults()} and override fields. The budget
+     * copies the config at construction time.</p>
+     */
+    public static final class Config {
+
+        /**
+         * Total estimated current (amps) all registered outputs may draw together.
+         *
+         * <p>Default: {@code 20.0}. This is well below what a fresh battery can supply in a burst;
+         * lower it if you still see voltage dips under combined load.</p>
+         */
+        public double budgetAmps = 20.0;
+
+        /**
+         * Battery voltage the motor models are rated at.
+         *
+         * <p>Default: {@code 12.0}.</p>
+         */
+        public double nominalVolts = 12.0;
+
+        /**
+         * Measured voltage at which the budget starts to shrink.
+         *
+         * <p>Default: {@code 11.0}. Ignored when no voltage source is provided.</p>
+         */
+        public double sagStartVolts = 11.0;
+
+        /**
+         * Measured voltage at which the budget reaches {@link #sagFloorFraction}.
+         *
+         * <p>Default: {@code 9.0}.</p>
+         */
+        public double sagFloorVolts = 9.0;
+
+        /**
+         * Fraction of {@link #budgetAmps} left at (or below) {@link #sagFloorVolts}.
+         *
+         * <p>Default: {@code 0.5}.</p>
+         */
+        public double sagFloorFraction = 0.5;
+
+        /**
+         * Minimum time between battery voltage reads, in seconds.
+         *
+         * <p>Voltage reads are separate hub transactions, so they are rate-limited.
+         * Default: {@code 0.25}.</p>
+         */
+        public double voltagePeriodSec = 0.25;
+
+        /**
+         * Lowest scale a throttled power channel is ever given (0..1).
+         *
+         * <p>Keeps low-priority mechanisms (typically the drive) responsive instead of stalling
+         * outright. Default: {@code 0.2}.</p>
+         */
+        public double minScale = 0.2;
+
+        /**
+         * Time constant (seconds) of the speed model used for power outputs without a velocity
+         * measurement.
+         *
+         * <p>Default: {@code 0.15}.</p>
+         */
+        public double motorTimeConstantSec = 0.15;
+
+        /**
+         * How hard the motor controller's velocity loop is assumed to push on velocity error,
+         * used to estimate the power a velocity channel is applying.
+         *
+         * <p>Estimated power is {@code (target + gain * (target - measured)) / freeSpeed}, clamped
+         * to [-1, +1]. Default: {@code 4.0}.</p>
+         */
+        public double velocityLoopGain = 4.0;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Create a deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.budgetAmps = this.budgetAmps;
+            c.nominalVolts = this.nominalVolts;
+            c.sagStartVolts = this.sagStartVolts;
+            c.sagFloorVolts = this.sagFloorVolts;
+            c.sagFloorFraction = this.sagFloorFraction;
+            c.voltagePeriodSec = this.voltagePeriodSec;
+            c.minScale = this.minScale;
+            c.motorTimeConstantSec = this.motorTimeConstantSec;
+            c.velocityLoopGain = this.velocityLoopGain;
+            return c;
+        }
+
+        /**
+         * Set {@link #budgetAmps} and return this config.
+         */
+        public Config withBudgetAmps(double budgetAmps) {
+            this.budgetAmps = budgetAmps;
+            return this;
+        }
+
+        /**
+         * Set {@link #minScale} and return this config.
+         */
+        public Config withMinScale(double minScale) {
+            this.minScale = minScale;
+            return this;
+        }
+    }
+
+    /**
+     * Electrical model of one motor (or motor-like actuator) at {@link Config#nominalVolts}.
+     */
+    public static final class MotorModel {
+
+        /**
+         * Current at stall and full power, in amps.
+         */
+        public final double stallAmps;
+
+        /**
+         * Current at free speed and full power, in amps.
+         */
+        public final double freeAmps;
+
+        /**
+         * Free speed at full power, in the output's native velocity units (for example
+         * ticks/sec), or {@code 0} if unknown.
+         */
+        public final double freeSpeedNative;
+
+        private MotorModel(double stallAmps, double freeAmps, double freeSpeedNative) {
+            this.stallAmps = stallAmps;
+            this.freeAmps = freeAmps;
+            this.freeSpeedNative = freeSpeedNative;
+        }
+
+        /**
+         * Create a motor model.
+         *
+         * @param stallAmps       stall current at full power (&gt; 0)
+         * @param freeAmps        free-running current at full power (&gt;= 0)
+         * @param freeSpeedNative free speed in native velocity units, or {@code 0} if unknown
+         */
+        public static MotorModel of(double stallAmps, double freeAmps, double freeSpeedNative) {
+            if (!(stallAmps > 0.0)) {
+                throw new IllegalArgumentException("stallAmps must be > 0, got " + stallAmps);
+            }
+            if (freeAmps < 0.0 || freeSpeedNative < 0.0) {
+                throw new IllegalArgumentException("freeAmps and freeSpeedNative must be >= 0");
+            }
+            return new MotorModel(stallAmps, freeAmps, freeSpeedNative);
+        }
+
+        /**
+         * goBILDA 5203/5204 Yellow Jacket motor (9.2 A stall, 0.25 A free at 12 V).
+         *
+         * @param ticksPerRev encoder ticks per output revolution (for example 537.7 for 312 RPM)
+         * @param freeRpm     output free speed in RPM (for example 312)
+         */
+        public static MotorModel goBilda5203(double ticksPerRev, double freeRpm) {
+            return of(9.2, 0.25, ticksPerRev * freeRpm / 60.0);
+        }
+
+        /**
+         * Typical continuous-rotation servo, expressed as battery-side current.
+         */
+        public static MotorModel crServo() {
+            return of(1.0, 0.1, 0.0);
+        }
+
+        /**
+         * Estimate battery current for one actuator.
+         *
+         * @param power     applied power command (-1..+1)
+         * @param speedFrac speed as a fraction of nominal free speed (signed)
+         * @param voltRatio measured battery voltage / nominal voltage
+         */
+        double amps(double power, double speedFrac, double voltRatio) {
+            if (power == 0.0) {
+                // Coasting or shorted (BRAKE) windings do not draw from the battery.
+                return 0.0;
+            }
+            double i = stallAmps * (power * voltRatio - speedFrac);
+            if (i * power < 0.0) {
+                // Back-EMF exceeds the applied voltage: the motor is braking, not drawing.
+                i = 0.0;
+            }
+            return Math.abs(i) + freeAmps * Math.abs(power);
+        }
+    }
+
+    /**
+     * A named group of outputs that share a priority and a scale.
+     */
+    private static final class Channel {
+        final String name;
+        final int priority;
+        final boolean scalable;
+        final List<Member> members = new ArrayList<>();
+
+        double scale = 1.0;
+        double demandAmps;
+        double grantAmps;
+
+        Channel(String name, int priority, boolean scalable) {
+            this.name = name;
+            this.priority = priority;
+            this.scalable = scalable;
+        }
+
+        double ampsAt(double k, double voltRatio) {
+            double sum = 0.0;
+            for (int i = 0; i < members.size(); i++) {
+                Member m = members.get(i);
+                sum += m.model.amps(m.estimatedPower() * k, m.speedFrac, voltRatio);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * One registered output. Power members are handed out as {@link PowerOutput}s, velocity
+     * members as {@link VelocityOutput}s; both forward to the wrapped output.
+     */
+    private final class Member implements PowerOutput, VelocityOutput {
+        final Channel channel;
+        final MotorModel model;
+        final PowerOutput powerOut;
+        final VelocityOutput velocityOut;
+
+        double requested;
+        double speedFrac;
+
+        Member(Channel channel, MotorModel model, PowerOutput powerOut, VelocityOutput velocityOut) {
+            this.channel = channel;
+            this.model = model;
+            this.powerOut = powerOut;
+            this.velocityOut = velocityOut;
+        }
+
+        double estimatedPower() {
+            if (powerOut != null) {
+                return requested;
+            }
+            if (requested == 0.0) {
+                return 0.0;
+            }
+            if (model.freeSpeedNative <= 0.0) {
+                return Math.signum(requested); // unknown motor: assume worst case
+            }
+            double err = requested - velocityOut.getMeasuredVelocity();
+            double p = (requested + cfg.velocityLoopGain * err) / model.freeSpeedNative;
+            return MathUtil.clampAbs(p / voltRatio, 1.0);
+        }
+
+        // --- PowerOutput ---
+
+        @Override
+        public void setPower(double power) {
+            synchronized (PowerBudget.this) {
+                requested = MathUtil.clampAbs(power, 1.0);
+                powerOut.setPower(requested * channel.scale);
+            }
+        }
+
+        /**
+         * @return the power requested by the caller, before budget scaling
+         */
+        @Override
+        public double getCommandedPower() {
+            synchronized (PowerBudget.this) {
+                return requested;
+            }
+        }
+
+        // --- VelocityOutput ---
+
+        @Override
+        public void setVelocity(double velocity) {
+            synchronized (PowerBudget.this) {
+                requested = velocity;
+                velocityOut.setVelocity(velocity);
+            }
+        }
+
+        @Override
+        public double getCommandedVelocity() {
+            synchronized (PowerBudget.this) {
+                return requested;
+            }
+        }
+
+        @Override
+        public double getMeasuredVelocity() {
+            return velocityOut.getMeasuredVelocity();
+        }
+
+        @Override
+        public void stop() {
+            if (powerOut != null) {
+                setPower(0.0);
+            } else {
+                setVelocity(0.0);
+            }
+        }
+    }
+
+    private static final double SCALE_EPS = 1e-3;
+    private static final int SOLVE_ITERATIONS = 16;
+
+    private final Config cfg;
+    private final DoubleSupplier voltage;
+
+    // Sorted by descending priority; registration order within a priority.
+    private final List<Channel> channels = new ArrayList<>();
+
+    private double volts;
+    private double voltRatio = 1.0;
+    private double lastVoltageReadSec = Double.NaN;
+
+    private double budgetAmps;
+    private double demandAmps;
+    private double grantedAmps;
+    private boolean throttling;
+
+    /**
+     * Create a budget without battery voltage feedback.
+     *
+     * @param cfg configuration (may be {@code null} to use defaults)
+     */
+    public PowerBudget(Config cfg) {
+        this(cfg, null);
+    }
+
+    /**
+     * Create a budget.
+     *
+     * @param cfg     configuration (may be {@code null} to use defaults)
+     * @param voltage battery voltage source in volts (may be {@code null}); non-positive
+     *                readings are ignored
+     */
+    public PowerBudget(Config cfg, DoubleSupplier voltage) {
+        this.cfg = (cfg != null ? cfg.copy() : Config.defaults());
+        this.voltage = voltage;
+        this.volts = this.cfg.nominalVolts;
+        this.budgetAmps = this.cfg.budgetAmps;
+    }
+
+    /**
+     * Register a power output in a throttleable channel.
+     *
+     * @param channel  channel name; outputs with the same name are scaled together
+     * @param priority higher values are served first
+     * @param model    motor model for the output
+     * @param out      output to wrap
+     * @return a wrapper that applies the channel's current scale to every command
+     * @throws IllegalArgumentException if {@code channel} already exists with a different
+     *                                  priority or kind
+     */
+    public synchronized PowerOutput power(String channel, int priority, MotorModel model, PowerOutput out) {
+        Objects.requireNonNull(model, "model is required");
+        Objects.requireNonNull(out, "out is required");
+        Channel ch = channel(channel, priority, true);
+        Member m = new Member(ch, model, out, null);
+        ch.members.add(m);
+        return m;
+    }
+
+    /**
+     * Register a closed-loop velocity output. Its estimated draw is reserved at {@code priority};
+     * it is never throttled.
+     *
+     * @param channel  channel name; outputs with the same name are reported together
+     * @param priority higher values are served first
+     * @param model    motor model for the output ({@link MotorModel#freeSpeedNative} should be set)
+     * @param out      output to wrap
+     * @return a pass-through wrapper that lets the budget observe commands
+     * @throws IllegalArgumentException if {@code channel} already exists with a different
+     *                                  priority or kind
+     */
+    public synchronized VelocityOutput velocity(String channel, int priority, MotorModel model, VelocityOutput out) {
+        Objects.requireNonNull(model, "model is required");
+        Objects.requireNonNull(out, "out is required");
+        Channel ch = channel(channel, priority, false);
+        Member m = new Member(ch, model, null, out);
+        ch.members.add(m);
+        return m;
+    }
+
+    /**
+     * Re-estimate demand and reallocate the budget. Call once per loop, after all registered
+     * outputs have been commanded.
+     *
+     * @param clock loop clock
+     */
+    public synchronized void update(LoopClock clock) {
+        double now = clock.nowSec();
+        double dt = clock.dtSec();
+
+        readVoltage(now);
+        budgetAmps = cfg.budgetAmps * sagFactor(volts);
+
+        // Advance the speed model for power outputs using what was actually applied.
+        double alpha = (cfg.motorTimeConstantSec > 0.0)
+                ? MathUtil.clamp(dt / cfg.motorTimeConstantSec, 0.0, 1.0)
+                : 1.0;
+        for (int c = 0; c < channels.size(); c++) {
+            Channel ch = channels.get(c);
+            for (int i = 0; i < ch.members.size(); i++) {
+                Member m = ch.members.get(i);
+                if (m.powerOut != null) {
+                    double target = m.requested * ch.scale * voltRatio;
+                    m.speedFrac += (target - m.speedFrac) * alpha;
+                } else if (m.model.freeSpeedNative > 0.0) {
+                    m.speedFrac = m.velocityOut.getMeasuredVelocity() / m.model.freeSpeedNative;
+                } else {
+                    m.speedFrac = 0.0;
+                }
+            }
+            ch.demandAmps = ch.ampsAt(1.0, voltRatio);
+        }
+
+        // Allocate by priority group.
+        double remaining = budgetAmps;
+        demandAmps = 0.0;
+        grantedAmps = 0.0;
+        throttling = false;
+
+        int start = 0;
+        while (start < channels.size()) {
+            int priority = channels.get(start).priority;
+            int end = start;
+            double fixed = 0.0;
+            double scalable = 0.0;
+            while (end < channels.size() && channels.get(end).priority == priority) {
+                Channel ch = channels.get(end);
+                if (ch.scalable) {
+                    scalable += ch.demandAmps;
+                } else {
+                    fixed += ch.demandAmps;
+                }
+                end++;
+            }
+
+            remaining -= fixed;
+            double fraction = (scalable <= Math.max(remaining, 0.0))
+                    ? 1.0
+                    : Math.max(remaining, 0.0) / scalable;
+
+            for (int c = start; c < end; c++) {
+                Channel ch = channels.get(c);
+                double newScale = 1.0;
+                if (ch.scalable && fraction < 1.0) {
+                    newScale = Math.max(cfg.minScale, solveScale(ch, fraction * ch.demandAmps));
+                    throttling = true;
+                }
+                setScale(ch, newScale);
+                ch.grantAmps = ch.scalable ? ch.ampsAt(ch.scale, voltRatio) : ch.demandAmps;
+                if (ch.scalable) {
+                    remaining -= ch.grantAmps;
+                }
+                demandAmps += ch.demandAmps;
+                grantedAmps += ch.grantAmps;
+            }
+            start = end;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return current budget in amps, after any low-voltage reduction
+     */
+    public double budgetAmps() {
+        return budgetAmps;
+    }
+
+    /**
+     * @return estimated total current if nothing were throttled, in amps
+     */
+    public double demandAmps() {
+        return demandAmps;
+    }
+
+    /**
+     * @return estimated total current after throttling, in amps
+     */
+    public double grantedAmps() {
+        return grantedAmps;
+    }
+
+    /**
+     * @return whether any channel is currently scaled below 1
+     */
+    public boolean isThrottling() {
+        return throttling;
+    }
+
+    /**
+     * @return most recent battery voltage reading (nominal voltage if none)
+     */
+    public double volts() {
+        return volts;
+    }
+
+    /**
+     * @param channel channel name
+     * @return current scale for {@code channel}, or {@code 1.0} if it is not registered
+     */
+    public synchronized double scale(String channel) {
+        Channel ch = find(channel);
+        return (ch != null) ? ch.scale : 1.0;
+    }
+
+    /**
+     * Debug helper: emit the budget and per-channel allocation.
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "power"
+     */
+    public synchronized void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "powerBudget" : prefix;
+
+        dbg.addData(p + ".volts", volts)
+                .addData(p + ".budgetAmps", budgetAmps)
+                .addData(p + ".demandAmps", demandAmps)
+                .addData(p + ".grantedAmps", grantedAmps)
+                .addData(p + ".throttling", throttling);
+
+        for (int c = 0; c < channels.size(); c++) {
+            Channel ch = channels.get(c);
+            String cp = p + "." + ch.name;
+            dbg.addData(cp + ".priority", ch.priority)
+                    .addData(cp + ".demandAmps", ch.demandAmps)
+                    .addData(cp + ".grantAmps", ch.grantAmps)
+                    .addData(cp + ".scale", ch.scale);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Internals
+    // ------------------------------------------------------------------------
+
+    private Channel find(String name) {
+        for (int i = 0; i < channels.size(); i++) {
+            if (channels.get(i).name.equals(name)) {
+                return channels.get(i);
+            }
+        }
+        return null;
+    }
+
+    private Channel channel(String name, int priority, boolean scalable) {
+        Objects.requireNonNull(name, "channel is required");
+        Channel ch = find(name);
+        if (ch != null) {
+            if (ch.priority != priority || ch.scalable != scalable) {
+                throw new IllegalArgumentException("Power budget channel '" + name
+                        + "' already registered with a different priority or output kind");
+            }
+            return ch;
+        }
+        ch = new Channel(name, priority, scalable);
+        int idx = 0;
+        while (idx < channels.size() && channels.get(idx).priority >= priority) {
+            idx++;
+        }
+        channels.add(idx, ch);
+        return ch;
+    }
+
+    private void readVoltage(double nowSec) {
+        if (voltage == null) {
+            return;
+        }
+        if (!Double.isNaN(lastVoltageReadSec) && nowSec - lastVoltageReadSec < cfg.voltagePeriodSec) {
+            return;
+        }
+        lastVoltageReadSec = nowSec;
+        double v = voltage.getAsDouble();
+        if (v > 0.0 && Double.isFinite(v)) {
+            volts = v;
+            voltRatio = (cfg.nominalVolts > 0.0) ? v / cfg.nominalVolts : 1.0;
+        }
+    }
+
+    private double sagFactor(double v) {
+        if (voltage == null || v >= cfg.sagStartVolts) {
+            return 1.0;
+        }
+        double span = cfg.sagStartVolts - cfg.sagFloorVolts;
+        if (span <= 0.0 || v <= cfg.sagFloorVolts) {
+            return cfg.sagFloorFraction;
+        }
+        double t = (cfg.sagStartVolts - v) / span;
+        return 1.0 - t * (1.0 - cfg.sagFloorFraction);
+    }
+
+    /**
+     * Find the largest scale in [0, 1] whose estimated draw fits {@code targetAmps}. Draw is
+     * monotonic in scale, so a short bisection is enough.
+     */
+    private double solveScale(Channel ch, double targetAmps) {
+        double lo = 0.0;
+        double hi = 1.0;
+        for (int i = 0; i < SOLVE_ITERATIONS; i++) {
+            double mid = 0.5 * (lo + hi);
+            if (ch.ampsAt(mid, voltRatio) <= targetAmps) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void setScale(Channel ch, double newScale) {
+        if (Math.abs(newScale - ch.scale) <= SCALE_EPS && !(newScale == 1.0 && ch.scale != 1.0)) {
+            return;
+        }
+        ch.scale = newScale;
+        if (!ch.scalable) {
+            return;
+        }
+        // Apply now rather than waiting for the next command.
+        for (int i = 0; i < ch.members.size(); i++) {
+            Member m = ch.members.get(i);
+            m.powerOut.setPower(m.requested * newScale);
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package edu.ftcphoenix.fw.actuation;
+
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+import edu.ftcphoenix.fw.core.control.TrapezoidProfile;
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.hal.PowerOutput;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+
+/**
+ * Motion-profiled position {@link Plant} for arms and slides, closed in our own loop.
+ *
+ * <p>{@link Plants#motorPosition} hands the target to the SDK's {@code RUN_TO_POSITION}, which
+ * runs a plain P loop at a fixed power: moves are either slow or overshoot, and nothing
+ * compensates for gravity. This plant drives the motor with raw power instead and each loop:</p>
+ * <ol>
+ *   <li>advances a reference (position, velocity, acceleration) toward the target with the
+ *       online trapezoidal profile from {@link TrapezoidProfile}, optionally jerk-limited
+ *       (S-curve) via {@link Config#maxJerk};</li>
+ *   <li>computes the power as feedforward plus feedback:
+ *   <pre>{@code
+ * power = gravity(position) + kS*sign(vRef) + kV*vRef + kA*aRef
+ *       + kP*(posRef - position) + kD*(vRef - velocity)
+ *   }</pre>
+ *   where {@code gravity} is {@code kG} (slide), {@code kG*cos(angle)} (arm) or zero.</li>
+ * </ol>
+ *
+ * <p>Position feedback is any {@link DoubleSupplier} of native units (encoder ticks); with bulk
+ * caching enabled on the hubs, reading it costs nothing extra per loop. Velocity is
+ * differentiated from it.</p>
+ *
+ * <p>Changing the target mid-move continues smoothly from the current reference state.
+ * {@link #atSetpoint()} is true once the reference has arrived and the measured position is
+ * within {@link Config#toleranceNative}, so {@link PlantTasks#moveTo} works as usual.</p>
+ *
+ * <pre>{@code
+ * ProfiledPositionPlant.Config arm = ProfiledPositionPlant.Config.defaults();
+ * arm.maxVelocity = 1500;  arm.maxAccel = 4000;          // ticks/s, ticks/s^2
+ * arm.kV = 1.0 / 2600;     arm.kA = 0.00004;  arm.kS = 0.04;
+ * arm.gravity = ProfiledPositionPlant.Gravity.COSINE;
+ * arm.kG = 0.12;  arm.horizontalNative = 300;  arm.radiansPerNative = 2 * Math.PI / 2786.2;
+ * arm.kP = 0.004;
+ *
+ * Plant armPlant = Actuators.plant(hardwareMap)
+ *     .motor("arm", FORWARD)
+ *     .profiledPosition(arm)
+ *     .build();
+ *
+ * // Call armPlant.update(dtSec) every loop; then from a macro:
+ * Task raise = PlantTasks.moveTo(armPlant, 1200, 2.0);
+ * }</pre>
+ */
+public final class ProfiledPositionPlant implements Plant {
+
+    /**
+     * Gravity model used for the feedforward.
+     */
+    public enum Gravity {
+        /**
+         * No gravity load (horizontal mechanism, or counterbalanced).
+         */
+        NONE,
+        /**
+         * Constant load: {@code kG} (vertical slide / elevator).
+         */
+        CONSTANT,
+        /**
+         * Rotating arm: {@code kG * cos(angle)}, with angle measured from horizontal.
+         */
+        COSINE
+    }
+
+    /**
+     * Configuration for {@link ProfiledPositionPlant}. All units are native (encoder ticks).
+     */
+    public static final class Config {
+
+        /**
+         * Cruise velocity (native units/sec). Default: {@code 2000}.
+         */
+        public double maxVelocity = 2000.0;
+
+        /**
+         * Acceleration limit (native units/sec^2). Default: {@code 6000}.
+         */
+        public double maxAccel = 6000.0;
+
+        /**
+         * Deceleration limit (native units/sec^2); {@code <= 0} uses {@link #maxAccel}.
+         * Default: {@code 0}.
+         */
+        public double maxDecel = 0.0;
+
+        /**
+         * Jerk limit (native units/sec^3) for an S-curve; {@code <= 0} gives a trapezoid.
+         * Default: {@code 0}.
+         */
+        public double maxJerk = 0.0;
+
+        /**
+         * Static friction feedforward (power), applied in the direction of travel.
+         * Default: {@code 0}.
+         */
+        public double kS = 0.0;
+
+        /**
+         * Velocity feedforward (power per native unit/sec). Default: {@code 0}.
+         */
+        public double kV = 0.0;
+
+        /**
+         * Acceleration feedforward (power per native unit/sec^2). Default: {@code 0}.
+         */
+        public double kA = 0.0;
+
+        /**
+         * Gravity model. Default: {@link Gravity#NONE}.
+         */
+        public Gravity gravity = Gravity.NONE;
+
+        /**
+         * Gravity feedforward (power): the whole load for {@link Gravity#CONSTANT}, the load with
+         * the arm horizontal for {@link Gravity#COSINE}. Default: {@code 0}.
+         */
+        public double kG = 0.0;
+
+        /**
+         * Position (native, plant frame) at which the arm is horizontal. Default: {@code 0}.
+         */
+        public double horizontalNative = 0.0;
+
+        /**
+         * Arm radians per native unit ({@code 2π / ticks per arm revolution}).
+         * Default: {@code 2π / 537.7}.
+         */
+        public double radiansPerNative = 2.0 * Math.PI / 537.7;
+
+        /**
+         * Position feedback gain (power per native unit of error). Default: {@code 0.005}.
+         */
+        public double kP = 0.005;
+
+        /**
+         * Velocity feedback gain (power per native unit/sec of error). Default: {@code 0}.
+         */
+        public double kD = 0.0;
+
+        /**
+         * Position tolerance for {@link #atSetpoint()} (native units). Default: {@code 10}.
+         */
+        public double toleranceNative = 10.0;
+
+        /**
+         * Power magnitude limit. Default: {@code 1.0}.
+         */
+        public double maxPower = 1.0;
+
+        /**
+         * Soft limits on the target (native, plant frame); NaN disables. Default: NaN.
+         */
+        public double minTargetNative = Double.NaN;
+
+        /**
+         * Soft limits on the target (native, plant frame); NaN disables. Default: NaN.
+         */
+        public double maxTargetNative = Double.NaN;
+
+        /**
+         * Smoothing for the differentiated velocity (weight of the newest sample, 0..1].
+         * Default: {@code 0.5}.
+         */
+        public double velocityFilterAlpha = 0.5;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.maxVelocity = this.maxVelocity;
+            c.maxAccel = this.maxAccel;
+            c.maxDecel = this.maxDecel;
+            c.maxJerk = this.maxJerk;
+            c.kS = this.kS;
+            c.kV = this.kV;
+            c.kA = this.kA;
+            c.gravity = this.gravity;
+            c.kG = this.kG;
+            c.horizontalNative = this.horizontalNative;
+            c.radiansPerNative = this.radiansPerNative;
+            c.kP = this.kP;
+            c.kD = this.kD;
+            c.toleranceNative = this.toleranceNative;
+            c.maxPower = this.maxPower;
+            c.minTargetNative = this.minTargetNative;
+            c.maxTargetNative = this.maxTargetNative;
+            c.velocityFilterAlpha = this.velocityFilterAlpha;
+            return c;
+        }
+    }
+
+    private final PowerOutput out;
+    private final DoubleSupplier positionNative;
+    private final Config cfg;
+
+    // hardware_position = plant_position + offsetNative
+    private double offsetNative = 0.0;
+
+    private double target = 0.0;
+    private boolean active = false;
+    private boolean seeded = false;
+
+    // Reference state (plant frame).
+    private double refPos = 0.0;
+    private double refVel = 0.0;
+    private double refAcc = 0.0;
+
+    // Measurement state.
+    private double lastPos = Double.NaN;
+    private double velocity = 0.0;
+    private double measured = 0.0;
+    private double lastPower = 0.0;
+
+    /**
+     * @param out            power output driving the mechanism (all coupled motors)
+     * @param positionNative position feedback in native units, same sign as positive power
+     * @param cfg            configuration (may be {@code null} to use defaults)
+     */
+    public ProfiledPositionPlant(PowerOutput out, DoubleSupplier positionNative, Config cfg) {
+        this.out = Objects.requireNonNull(out, "PowerOutput is required");
+        this.positionNative = Objects.requireNonNull(positionNative, "positionNative is required");
+        this.cfg = (cfg != null) ? cfg.copy() : Config.defaults();
+        if (this.cfg.toleranceNative < 0.0) {
+            throw new IllegalArgumentException("toleranceNative must be >= 0");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The target is clamped to the configured soft limits.</p>
+     */
+    @Override
+    public void setTarget(double target) {
+        double t = target;
+        if (!Double.isNaN(cfg.minTargetNative)) {
+            t = Math.max(cfg.minTargetNative, t);
+        }
+        if (!Double.isNaN(cfg.maxTargetNative)) {
+            t = Math.min(cfg.maxTargetNative, t);
+        }
+        this.target = t;
+        this.active = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTarget() {
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(double dtSec) {
+        measured = positionNative.getAsDouble() - offsetNative;
+        double dt = Math.max(0.0, dtSec);
+        if (!Double.isNaN(lastPos) && dt > 0.0) {
+            double raw = (measured - lastPos) / dt;
+            double a = MathUtil.clamp(cfg.velocityFilterAlpha, 1e-3, 1.0);
+            velocity += a * (raw - velocity);
+        }
+        lastPos = measured;
+
+        if (!active) {
+            return;
+        }
+        if (!seeded) {
+            // Start the reference where the mechanism actually is.
+            refPos = measured;
+            refVel = 0.0;
+            refAcc = 0.0;
+            seeded = true;
+        }
+
+        advanceReference(dt);
+
+        double ff = gravityFeedforward(measured);
+        if (Math.abs(refVel) > 1e-9) {
+            ff += cfg.kS * Math.signum(refVel);
+        }
+        ff += cfg.kV * refVel + cfg.kA * refAcc;
+        double fb = cfg.kP * (refPos - measured) + cfg.kD * (refVel - velocity);
+
+        lastPower = MathUtil.clampAbs(ff + fb, cfg.maxPower);
+        out.setPower(lastPower);
+    }
+
+    /**
+     * Step the reference one loop toward the target.
+     */
+    private void advanceReference(double dt) {
+        if (dt <= 0.0) {
+            return;
+        }
+        double remaining = target - refPos;
+        double decel = (cfg.maxDecel > 0.0) ? cfg.maxDecel : cfg.maxAccel;
+
+        double vNext;
+        if (cfg.maxJerk > 0.0 && decel > 0.0) {
+            // S-curve, worked in the direction of travel toward the target: brake along the
+            // jerk-limited stopping curve once it reaches the target, otherwise accelerate
+            // toward cruise. Acceleration moves by at most maxJerk*dt per step.
+            double sign = remaining >= 0.0 ? 1.0 : -1.0;
+            double dist = Math.abs(remaining);
+            double v = sign * refVel;
+            double a = sign * refAcc;
+            double j = cfg.maxJerk;
+            double vMax = cfg.maxVelocity > 0.0 ? cfg.maxVelocity : Double.POSITIVE_INFINITY;
+            double accel = cfg.maxAccel > 0.0 ? cfg.maxAccel : Double.POSITIVE_INFINITY;
+
+            double aWanted;
+            if (v > 0.0 && stoppingDistance(v, a, j, decel) >= dist - v * dt) {
+                aWanted = -Math.min(decel, Math.sqrt(2.0 * j * v));
+            } else if (v < vMax) {
+                aWanted = Math.min(accel, Math.sqrt(2.0 * j * (vMax - v)));
+            } else {
+                aWanted = -Math.min(decel, Math.sqrt(2.0 * j * (v - vMax)));
+            }
+            double aNext = MathUtil.clamp(aWanted, a - j * dt, a + j * dt);
+            double vn = v + aNext * dt;
+            if (v >= 0.0 && vn < 0.0) {
+                vn = 0.0; // stop short rather than back up; the next step creeps on
+            }
+            vNext = sign * vn;
+        } else {
+            vNext = TrapezoidProfile.nextVelocity(remaining, refVel, cfg.maxVelocity, cfg.maxAccel, cfg.maxDecel, dt);
+        }
+
+        double pNext = refPos + 0.5 * (refVel + vNext) * dt;
+        // Arrive exactly: never step past the target.
+        if ((target - pNext) * remaining <= 0.0) {
+            pNext = target;
+            vNext = 0.0;
+        }
+        refAcc = (vNext - refVel) / dt;
+        refVel = vNext;
+        refPos = pNext;
+        if (refPos == target) {
+            refAcc = 0.0;
+        }
+    }
+
+    /**
+     * Distance needed to stop from speed {@code v >= 0} and acceleration {@code a} (positive =
+     * speeding up) with jerk {@code j} and deceleration {@code d}.
+     */
+    private static double stoppingDistance(double v, double a, double j, double d) {
+        double t = Math.abs(a) / j;
+        if (a < 0.0 && v <= a * a / (2.0 * j)) {
+            // Already on the final ramp: release the brake at jerk j.
+            return v * t + 0.5 * a * t * t + j * t * t * t / 6.0;
+        }
+
+        // Equivalent state with zero acceleration: after ramping a positive a down to zero, or
+        // before the braking ramp already done.
+        double v0 = v + a * a / (2.0 * j);
+        double ramp = (a >= 0.0)
+                ? v * t + 0.5 * a * t * t - j * t * t * t / 6.0
+                : -(v0 * t - j * t * t * t / 6.0);
+
+        // Symmetric S-curve stop from (v0, 0).
+        double stop = (v0 * j >= d * d)
+                ? 0.5 * v0 * (v0 / d + d / j)
+                : v0 * Math.sqrt(v0 / j);
+        return ramp + stop;
+    }
+
+    private double gravityFeedforward(double position) {
+        switch (cfg.gravity) {
+            case CONSTANT:
+                return cfg.kG;
+            case COSINE:
+                return cfg.kG * Math.cos((position - cfg.horizontalNative) * cfg.radiansPerNative);
+            case NONE:
+            default:
+                return 0.0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cuts power; the next {@link #setTarget(double)} restarts the profile from wherever the
+     * mechanism has come to rest.</p>
+     */
+    @Override
+    public void stop() {
+        out.stop();
+        lastPower = 0.0;
+        active = false;
+        seeded = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Re-zeros the plant frame at the current measured position (like
+     * {@link Plants#motorPosition}) and stops.</p>
+     */
+    @Override
+    public void reset() {
+        stop();
+        offsetNative = positionNative.getAsDouble();
+        target = 0.0;
+        lastPos = Double.NaN;
+        velocity = 0.0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean atSetpoint() {
+        return refPos == target && Math.abs(measured - target) <= cfg.toleranceNative;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasFeedback() {
+        return true;
+    }
+
+    /**
+     * @return the current profile reference position (native, plant frame)
+     */
+    public double getReferencePosition() {
+        return refPos;
+    }
+
+    /**
+     * @return the measured position from the last update (native, plant frame)
+     */
+    public double getMeasuredPosition() {
+        return measured;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "profiledPosition" : prefix;
+        dbg.addData(p + ".target", target)
+                .addData(p + ".atSetpoint", atSetpoint())
+                .addData(p + ".active", active)
+                .addData(p + ".measured", measured)
+                .addData(p + ".velocity", velocity)
+                .addData(p + ".refPos", refPos)
+                .addData(p + ".refVel", refVel)
+                .addData(p + ".refAcc", refAcc)
+                .addData(p + ".power", lastPower);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ProfiledPositionPlant{target=" + target +
+                ", refPos=" + refPos +
+                ", measured=" + measured + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package edu.ftcphoenix.fw.core.control;
+
+/**
+ * Online trapezoidal velocity profile helpers.
+ *
+ * <p>A classic trapezoidal profile is planned once (accelerate, cruise, decelerate) and then
+ * replayed over time. On a robot whose pose estimate is corrected every loop (vision, odometry
+ * resets, the driver nudging the robot), a pre-planned profile goes stale quickly. The helpers
+ * here instead <b>replan every loop</b> from the remaining distance and the previous profile
+ * velocity:</p>
+ *
+ * <pre>{@code
+ * vStop   = sqrt(2 * maxDecel * remaining)        // fastest speed we can still stop from
+ * vTarget = min(maxVelocity, vStop)
+ * v       = step previous v toward vTarget, limited by maxAccel / maxDecel * dt
+ * }</pre>
+ *
+ * <p>The result is a velocity <em>feedforward</em>: callers typically add a small proportional
+ * feedback term on the remaining error so the final approach converges exactly even when the
+ * plant does not track the profile perfectly.</p>
+ *
+ * <p>All methods are allocation-free and safe to call every loop.</p>
+ */
+public final class TrapezoidProfile {
+
+    private TrapezoidProfile() {
+        // utility
+    }
+
+    /**
+     * Compute the next profile velocity for covering a signed remaining distance.
+     *
+     * <p>Units are up to the caller (inches and inches/sec, radians and rad/sec, ...), but must be
+     * consistent across all arguments.</p>
+     *
+     * @param remaining       signed distance still to travel (target - current)
+     * @param currentVelocity previous profile velocity (signed, same sign convention as {@code remaining})
+     * @param maxVelocity     cruise velocity magnitude; {@code <= 0} means unlimited
+     * @param maxAccel        acceleration magnitude limit; {@code <= 0} means unlimited
+     * @param maxDecel        deceleration magnitude limit; {@code <= 0} uses {@code maxAccel}
+     * @param dtSec           loop period in seconds; {@code <= 0} holds {@code currentVelocity}
+     * @return next signed profile velocity
+     */
+    public static double nextVelocity(double remaining,
+                                      double currentVelocity,
+                                      double maxVelocity,
+                                      double maxAccel,
+                                      double maxDecel,
+                                      double dtSec) {
+        if (!Double.isFinite(remaining) || remaining == 0.0) {
+            return 0.0;
+        }
+        if (!Double.isFinite(currentVelocity)) {
+            currentVelocity = 0.0;
+        }
+
+        double dir = Math.signum(remaining);
+        double dist = Math.abs(remaining);
+        double v = currentVelocity * dir; // speed along the direction of travel (may be negative)
+
+        double decel = (maxDecel > 0.0) ? maxDecel : maxAccel;
+
+        double target = (maxVelocity > 0.0) ? maxVelocity : Double.POSITIVE_INFINITY;
+        if (decel > 0.0) {
+            target = Math.min(target, Math.sqrt(2.0 * decel * dist));
+        }
+
+        double dt = Math.max(0.0, dtSec);
+        double next;
+        if (v < target) {
+            next = (maxAccel > 0.0) ? Math.min(target, v + maxAccel * dt) : target;
+            if (Double.isInfinite(next)) {
+                // Unlimited acceleration and velocity: nothing to shape.
+                next = v;
+            }
+        } else {
+            next = (decel > 0.0) ? Math.max(target, v - decel * dt) : target;
+        }
+
+        return next * dir;
+    }
+}
@@ -0,0 +1,462 @@
+package edu.ftcphoenix.fw.core.init;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+
+/**
+ * Runs independent init steps (device setup, camera open, IMU reset waits, ...) concurrently and
+ * reports how long each took.
+ *
+ * <p>Robot init is usually a long list of constructors, several of which mostly <em>wait</em>:
+ * a Pinpoint reset sleeps, a {@code VisionPortal} blocks while the camera opens, motor setup
+ * does one Lynx round trip per call. None of these depend on each other, so running them side by
+ * side makes the robot ready sooner after the OpMode is selected.</p>
+ *
+ * <pre>{@code
+ * InitOrchestrator init = new InitOrchestrator(4);
+ *
+ * InitOrchestrator.Step<PinpointPoseEstimator> odo =
+ *         init.step("pinpoint", () -> new PinpointPoseEstimator(hardwareMap, cfg));
+ * InitOrchestrator.Step<AprilTagSensor> tags =
+ *         init.step("vision", () -> FtcVision.aprilTags(hardwareMap, "Webcam 1"));
+ * InitOrchestrator.Step<MecanumDrivebase> drive =
+ *         init.step("drive", () -> FtcDrives.mecanum(hardwareMap));
+ * init.run("brake", () -> FtcDrives.setDriveBrake(hardwareMap, wiring, true), drive);
+ *
+ * init.awaitAll();            // rethrows the first failure
+ * pinpoint = odo.get();
+ * init.debugDump(dbg, "init"); // per-step timeline
+ * }</pre>
+ *
+ * <h2>Semantics</h2>
+ * <ul>
+ *   <li>A step starts as soon as it is declared and all of its dependencies have finished.
+ *       Dependencies must be declared first, so the graph can never have a cycle.</li>
+ *   <li>If a step throws, every step that depends on it (directly or not) is skipped and
+ *       reports the original failure.</li>
+ *   <li>Steps run on a small pool of daemon threads. Steps that touch the same device must
+ *       declare a dependency; steps on different devices are safe to overlap.</li>
+ *   <li>{@link #awaitAll()} shuts the executor down once every step has finished; declare all
+ *       steps before calling it.</li>
+ * </ul>
+ */
+public final class InitOrchestrator {
+
+    /**
+     * Lifecycle state of a {@link Step}.
+     */
+    public enum State {
+        /**
+         * Declared, waiting for dependencies.
+         */
+        WAITING,
+        /**
+         * Running on the executor.
+         */
+        RUNNING,
+        /**
+         * Finished successfully.
+         */
+        DONE,
+        /**
+         * Threw an exception.
+         */
+        FAILED,
+        /**
+         * Not run because a dependency failed.
+         */
+        SKIPPED
+    }
+
+    /**
+     * Init work that may throw (constructors that sleep, camera opens, ...).
+     */
+    public interface Action {
+        /**
+         * Perform the work.
+         *
+         * @throws Exception any failure; it is reported by {@link #awaitAll()}
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Handle for one declared step: a readiness future plus timeline data.
+     *
+     * @param <T> value produced by the step
+     */
+    public static final class Step<T> {
+        private final InitOrchestrator owner;
+        private final String name;
+        private final Callable<T> work;
+        private final List<Step<?>> dependents = new ArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        // Guarded by owner's lock until published through the latch.
+        private int pendingDeps;
+        private volatile State state = State.WAITING;
+        private volatile T value;
+        private volatile Throwable error;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile String threadName = "";
+
+        private Step(InitOrchestrator owner, String name, Callable<T> work) {
+            this.owner = owner;
+            this.name = name;
+            this.work = work;
+        }
+
+        /**
+         * @return the step name used in the timeline
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return current lifecycle state
+         */
+        public State state() {
+            return state;
+        }
+
+        /**
+         * @return true once the step has finished (successfully or not)
+         */
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * Block until the step has finished and return its value.
+         *
+         * @throws IllegalStateException if the step failed or was skipped
+         */
+        public T get() {
+            await();
+            if (state != State.DONE) {
+                throw new IllegalStateException("init step '" + name + "' " + state, error);
+            }
+            return value;
+        }
+
+        /**
+         * Block until the step has finished (successfully or not).
+         */
+        public void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @return wall time the step ran for, in milliseconds (0 if it never ran)
+         */
+        public double durationMs() {
+            if (startNanos == 0L || endNanos == 0L) {
+                return 0.0;
+            }
+            return (endNanos - startNanos) / 1e6;
+        }
+
+        /**
+         * @return start time relative to the orchestrator's creation, in milliseconds
+         */
+        public double startOffsetMs() {
+            return startNanos == 0L ? 0.0 : (startNanos - owner.t0Nanos) / 1e6;
+        }
+
+        /**
+         * @return the failure, or {@code null}
+         */
+        public Throwable error() {
+            return error;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final long t0Nanos = System.nanoTime();
+    private final Object lock = new Object();
+    private final List<Step<?>> steps = new ArrayList<>();
+    private int unfinished = 0;
+    private long finishedNanos = 0L;
+
+    /**
+     * Create an orchestrator with a fixed number of worker threads.
+     *
+     * @param threads worker count (&gt;= 1); 3–4 covers typical FTC init
+     */
+    public InitOrchestrator(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be >= 1, got " + threads);
+        }
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private int n = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "init-" + (n++));
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Declare a step that produces a value.
+     *
+     * @param name      label used in the timeline and error messages
+     * @param work      the init work
+     * @param dependsOn steps that must finish successfully first (declared on this orchestrator)
+     * @return a handle for the step's result
+     */
+    public <T> Step<T> step(String name, Callable<T> work, Step<?>... dependsOn) {
+        Objects.requireNonNull(name, "name is required");
+        Objects.requireNonNull(work, "work is required");
+        Step<?>[] deps = (dependsOn != null) ? dependsOn.clone() : new Step<?>[0];
+        for (Step<?> d : deps) {
+            if (d == null || d.owner != this) {
+                throw new IllegalArgumentException("dependency of '" + name + "' is null or from another InitOrchestrator");
+            }
+        }
+
+        Step<T> s = new Step<>(this, name, work);
+        boolean skipped = false;
+        boolean submitNow;
+        synchronized (lock) {
+            if (executor.isShutdown()) {
+                throw new IllegalStateException("InitOrchestrator already finished; declare all steps before awaitAll()");
+            }
+            steps.add(s);
+            unfinished++;
+            for (Step<?> d : deps) {
+                if (!d.isDone()) {
+                    d.dependents.add(s);
+                    s.pendingDeps++;
+                } else if (d.state != State.DONE && !skipped) {
+                    markSkipped(s, d);
+                    skipped = true;
+                }
+            }
+            // Decide under the lock: once it is released, a finishing dependency may drop
+            // pendingDeps to 0 and submit the step itself.
+            submitNow = !skipped && s.pendingDeps == 0;
+        }
+
+        if (skipped) {
+            finish(s);
+        } else if (submitNow) {
+            submit(s);
+        }
+        return s;
+    }
+
+    /**
+     * Declare a step that produces no value.
+     *
+     * @see #step(String, Callable, Step[])
+     */
+    public Step<Void> run(String name, Action work, Step<?>... dependsOn) {
+        Objects.requireNonNull(work, "work is required");
+        return step(name, () -> {
+            work.run();
+            return null;
+        }, dependsOn);
+    }
+
+    /**
+     * Block until every declared step has finished.
+     *
+     * @throws IllegalStateException wrapping the first failure, if any step failed
+     */
+    public void awaitAll() {
+        List<Step<?>> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(steps);
+        }
+        Step<?> firstFailure = null;
+        for (Step<?> s : snapshot) {
+            s.await();
+            if (s.state == State.FAILED && firstFailure == null) {
+                firstFailure = s;
+            }
+        }
+        executor.shutdown();
+        if (firstFailure != null) {
+            throw new IllegalStateException("init step '" + firstFailure.name + "' failed: "
+                    + firstFailure.error, firstFailure.error);
+        }
+    }
+
+    /**
+     * Block until every declared step has finished or the timeout elapses.
+     *
+     * @return true if all steps finished (successfully or not)
+     */
+    public boolean awaitAll(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Step<?>> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(steps);
+        }
+        for (Step<?> s : snapshot) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0 || !s.done.await(left, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return wall time from creation until the last step finished (or until now if still
+     * running), in milliseconds
+     */
+    public double totalMs() {
+        synchronized (lock) {
+            long end = (unfinished == 0 && finishedNanos != 0L) ? finishedNanos : System.nanoTime();
+            return (end - t0Nanos) / 1e6;
+        }
+    }
+
+    /**
+     * @return sum of all step durations, in milliseconds (what a sequential init would have taken)
+     */
+    public double serialMs() {
+        double sum = 0.0;
+        synchronized (lock) {
+            for (Step<?> s : steps) {
+                sum += s.durationMs();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Debug helper: emit the init timeline, one line per step.
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "init"
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "init" : prefix;
+
+        dbg.addData(p + ".totalMs", totalMs())
+                .addData(p + ".serialMs", serialMs());
+        List<Step<?>> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(steps);
+        }
+        for (Step<?> s : snapshot) {
+            dbg.addLine(timelineLine(p, s));
+        }
+    }
+
+    /**
+     * @return the timeline as text (one line per step), e.g. for {@code RobotLog}
+     */
+    public String timelineString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "init total %.0f ms (serial %.0f ms)%n", totalMs(), serialMs()));
+        List<Step<?>> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(steps);
+        }
+        for (Step<?> s : snapshot) {
+            sb.append(timelineLine("init", s)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // ------------------------------------------------------------------------
+    // Internals
+    // ------------------------------------------------------------------------
+
+    private static String timelineLine(String p, Step<?> s) {
+        String line = String.format(Locale.US, "%s.%s: %s @%.0f ms +%.0f ms [%s]",
+                p, s.name, s.state, s.startOffsetMs(), s.durationMs(), s.threadName);
+        if (s.error != null) {
+            line += " " + s.error;
+        }
+        return line;
+    }
+
+    private <T> void submit(Step<T> s) {
+        executor.execute(() -> execute(s));
+    }
+
+    private <T> void execute(Step<T> s) {
+        s.threadName = Thread.currentThread().getName();
+        s.startNanos = System.nanoTime();
+        s.state = State.RUNNING;
+        try {
+            s.value = s.work.call();
+            s.endNanos = System.nanoTime();
+            s.state = State.DONE;
+        } catch (Throwable t) {
+            s.endNanos = System.nanoTime();
+            s.error = t;
+            s.state = State.FAILED;
+        }
+        finish(s);
+    }
+
+    // Caller holds lock.
+    private static void markSkipped(Step<?> s, Step<?> cause) {
+        s.error = (cause.error != null) ? cause.error
+                : new IllegalStateException("dependency '" + cause.name + "' " + cause.state);
+        s.state = State.SKIPPED;
+    }
+
+    private void finish(Step<?> s) {
+        List<Step<?>> ready = new ArrayList<>();
+        List<Step<?>> skipped = new ArrayList<>();
+        synchronized (lock) {
+            for (Step<?> d : s.dependents) {
+                if (d.state != State.WAITING) {
+                    continue; // already skipped via another failed dependency
+                }
+                if (s.state != State.DONE) {
+                    markSkipped(d, s);
+                    skipped.add(d);
+                } else if (--d.pendingDeps == 0) {
+                    ready.add(d);
+                }
+            }
+            s.done.countDown();
+            unfinished--;
+            if (unfinished == 0) {
+                finishedNanos = System.nanoTime();
+            }
+        }
+        for (Step<?> d : skipped) {
+            finish(d);
+        }
+        for (Step<?> d : ready) {
+            submit(d);
+        }
+    }
+}
@@ -24,6 +24,9 @@ import edu.ftcphoenix.fw.core.debug.DebugSink;
  *   <li>Values above the last x clamp to the last y.</li>
  *   <li>Values in-between are linearly interpolated.</li>
  * </ul>
+ *
+ * <p>For lookups that depend on a second input (for example, distance and battery
+ * voltage), see {@link InterpolatingTable2D}.</p>
  */
 public final class InterpolatingTable1D implements DoubleUnaryOperator {
 
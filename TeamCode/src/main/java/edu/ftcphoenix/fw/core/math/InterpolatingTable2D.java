@@ -0,0 +1,467 @@
+package edu.ftcphoenix.fw.core.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+
+/**
+ * Immutable 2D lookup table with bilinear interpolation.
+ *
+ * <p>This is the two-input sibling of {@link InterpolatingTable1D}. Typical usage:</p>
+ * <ul>
+ *   <li>Distance (inches) × battery voltage (V) → shooter velocity.</li>
+ *   <li>Distance (inches) × hood angle (rad) → shooter velocity.</li>
+ * </ul>
+ *
+ * <p>The table stores values on a rectilinear grid: a strictly increasing set of
+ * x-values, a strictly increasing set of y-values, and one value per (x, y) grid node.</p>
+ *
+ * <p>Semantics:</p>
+ * <ul>
+ *   <li>Queries outside the grid clamp to the nearest edge (per axis).</li>
+ *   <li>Queries inside a grid cell are bilinearly interpolated from its four corners.</li>
+ *   <li>An axis with a single sample is treated as constant along that axis.</li>
+ * </ul>
+ *
+ * <h2>Lookup modes</h2>
+ *
+ * <ul>
+ *   <li><b>Rectilinear</b> (default): arbitrary axis spacing, each lookup does one binary
+ *       search per axis.</li>
+ *   <li><b>Uniform</b>: evenly spaced axes (see {@link #resampleUniform(int, int)} or
+ *       {@link #ofUniform(double, double, int, double, double, int, double[])}). The cell
+ *       index is computed directly with index arithmetic, so each lookup is O(1).</li>
+ * </ul>
+ *
+ * <p>Both modes are allocation-free per lookup, so a table can be queried every loop.</p>
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>{@code
+ * // Tester captures: distance sweeps at a few battery voltages.
+ * InterpolatingTable2D table = InterpolatingTable2D.builder()
+ *         .add(48.0, 12.0, 1600).add(96.0, 12.0, 1650).add(144.0, 12.0, 1760)
+ *         .add(48.0, 13.5, 1560).add(96.0, 13.5, 1610).add(144.0, 13.5, 1710)
+ *         .build()
+ *         .resampleUniform(25, 7);
+ *
+ * double velocity = table.interpolate(distanceInches, batteryVolts);
+ * }</pre>
+ */
+public final class InterpolatingTable2D {
+
+    private final double[] xs;
+    private final double[] ys;
+    /**
+     * Row-major grid values: {@code values[iy * xs.length + ix]}.
+     */
+    private final double[] values;
+
+    private final boolean uniform;
+    private final double invDx;
+    private final double invDy;
+
+    private InterpolatingTable2D(double[] xs, double[] ys, double[] values, boolean uniform) {
+        this.xs = xs;
+        this.ys = ys;
+        this.values = values;
+        this.uniform = uniform;
+        this.invDx = (uniform && xs.length > 1) ? (xs.length - 1) / (xs[xs.length - 1] - xs[0]) : 0.0;
+        this.invDy = (uniform && ys.length > 1) ? (ys.length - 1) / (ys[ys.length - 1] - ys[0]) : 0.0;
+    }
+
+    /**
+     * Create a rectilinear table from sorted axes and a row-major value grid.
+     *
+     * <p>Preconditions:</p>
+     * <ul>
+     *   <li>{@code xs} and {@code ys} each contain at least one value and are strictly increasing.</li>
+     *   <li>{@code values.length == xs.length * ys.length}, laid out as
+     *       {@code values[iy * xs.length + ix]}.</li>
+     * </ul>
+     *
+     * @param xs     sorted x-axis samples
+     * @param ys     sorted y-axis samples
+     * @param values row-major grid values (one row per y-sample)
+     * @return a new {@link InterpolatingTable2D}
+     */
+    public static InterpolatingTable2D ofGrid(double[] xs, double[] ys, double[] values) {
+        Objects.requireNonNull(xs, "xs is required");
+        Objects.requireNonNull(ys, "ys is required");
+        Objects.requireNonNull(values, "values is required");
+        requireStrictlyIncreasing(xs, "xs");
+        requireStrictlyIncreasing(ys, "ys");
+        if (values.length != xs.length * ys.length) {
+            throw new IllegalArgumentException(
+                    "values must have xs.length * ys.length entries (row-major, one row per y)");
+        }
+        return new InterpolatingTable2D(xs.clone(), ys.clone(), values.clone(), false);
+    }
+
+    /**
+     * Create a uniform table with evenly spaced axes and O(1) lookups.
+     *
+     * @param xMin   first x-axis sample
+     * @param xMax   last x-axis sample (must be greater than {@code xMin} when {@code nx > 1})
+     * @param nx     number of x-axis samples (at least 1)
+     * @param yMin   first y-axis sample
+     * @param yMax   last y-axis sample (must be greater than {@code yMin} when {@code ny > 1})
+     * @param ny     number of y-axis samples (at least 1)
+     * @param values row-major grid values: {@code values[iy * nx + ix]}
+     * @return a new uniform {@link InterpolatingTable2D}
+     */
+    public static InterpolatingTable2D ofUniform(double xMin, double xMax, int nx,
+                                                 double yMin, double yMax, int ny,
+                                                 double[] values) {
+        Objects.requireNonNull(values, "values is required");
+        double[] xs = uniformAxis(xMin, xMax, nx, "x");
+        double[] ys = uniformAxis(yMin, yMax, ny, "y");
+        if (values.length != nx * ny) {
+            throw new IllegalArgumentException("values must have nx * ny entries (row-major, one row per y)");
+        }
+        return new InterpolatingTable2D(xs, ys, values.clone(), true);
+    }
+
+    /**
+     * Builder that ingests calibration points captured on the robot.
+     *
+     * @see Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Evaluate the table at (x, y) using bilinear interpolation with per-axis clamping.
+     *
+     * <p>This method does not allocate.</p>
+     *
+     * @param x query x-value
+     * @param y query y-value
+     * @return interpolated value
+     */
+    public double interpolate(double x, double y) {
+        int nx = xs.length;
+        int ny = ys.length;
+
+        int ix;
+        double tx;
+        if (nx == 1 || x <= xs[0]) {
+            ix = 0;
+            tx = 0.0;
+        } else if (x >= xs[nx - 1]) {
+            ix = nx - 2;
+            tx = 1.0;
+        } else {
+            ix = uniform ? uniformCell(x, xs[0], invDx, nx) : searchCell(xs, x);
+            tx = (x - xs[ix]) / (xs[ix + 1] - xs[ix]);
+        }
+
+        int iy;
+        double ty;
+        if (ny == 1 || y <= ys[0]) {
+            iy = 0;
+            ty = 0.0;
+        } else if (y >= ys[ny - 1]) {
+            iy = ny - 2;
+            ty = 1.0;
+        } else {
+            iy = uniform ? uniformCell(y, ys[0], invDy, ny) : searchCell(ys, y);
+            ty = (y - ys[iy]) / (ys[iy + 1] - ys[iy]);
+        }
+
+        int ix1 = (nx == 1) ? ix : ix + 1;
+        int row0 = iy * nx;
+        int row1 = (ny == 1) ? row0 : row0 + nx;
+
+        double v00 = values[row0 + ix];
+        double v10 = values[row0 + ix1];
+        double v01 = values[row1 + ix];
+        double v11 = values[row1 + ix1];
+
+        double bottom = MathUtil.lerp(v00, v10, tx);
+        double top = MathUtil.lerp(v01, v11, tx);
+        return MathUtil.lerp(bottom, top, ty);
+    }
+
+    /**
+     * Resample this table onto an evenly spaced grid spanning the same axis ranges.
+     *
+     * <p>The returned table uses O(1) index arithmetic for lookups. Choose a resolution fine
+     * enough to preserve the shape of the original data; the resampled grid is itself
+     * bilinearly interpolated.</p>
+     *
+     * @param nx number of x-axis samples in the resampled grid (at least 2 if the x-range is non-empty)
+     * @param ny number of y-axis samples in the resampled grid (at least 2 if the y-range is non-empty)
+     * @return a new uniform {@link InterpolatingTable2D}
+     */
+    public InterpolatingTable2D resampleUniform(int nx, int ny) {
+        double xMin = xs[0];
+        double xMax = xs[xs.length - 1];
+        double yMin = ys[0];
+        double yMax = ys[ys.length - 1];
+        if (xs.length == 1) {
+            nx = 1;
+        }
+        if (ys.length == 1) {
+            ny = 1;
+        }
+
+        double[] uxs = uniformAxis(xMin, xMax, nx, "x");
+        double[] uys = uniformAxis(yMin, yMax, ny, "y");
+        double[] out = new double[nx * ny];
+        for (int iy = 0; iy < ny; iy++) {
+            for (int ix = 0; ix < nx; ix++) {
+                out[iy * nx + ix] = interpolate(uxs[ix], uys[iy]);
+            }
+        }
+        return new InterpolatingTable2D(uxs, uys, out, true);
+    }
+
+    /**
+     * @return true if this table uses evenly spaced axes and O(1) lookups.
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    /**
+     * @return number of x-axis samples.
+     */
+    public int sizeX() {
+        return xs.length;
+    }
+
+    /**
+     * @return number of y-axis samples.
+     */
+    public int sizeY() {
+        return ys.length;
+    }
+
+    /**
+     * @return defensive copy of x-axis samples.
+     */
+    public double[] xs() {
+        return xs.clone();
+    }
+
+    /**
+     * @return defensive copy of y-axis samples.
+     */
+    public double[] ys() {
+        return ys.clone();
+    }
+
+    /**
+     * @return defensive copy of the row-major grid values ({@code values[iy * sizeX() + ix]}).
+     */
+    public double[] values() {
+        return values.clone();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "InterpolatingTable2D{"
+                + "nx=" + xs.length
+                + ", ny=" + ys.length
+                + ", x=[" + xs[0] + ", " + xs[xs.length - 1] + "]"
+                + ", y=[" + ys[0] + ", " + ys[ys.length - 1] + "]"
+                + ", uniform=" + uniform
+                + '}';
+    }
+
+    /**
+     * Emit a small summary of this table (size, ranges and lookup mode).
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "lookup.shooterVelocity"
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "table2d" : prefix;
+        dbg.addData(p + ".nx", xs.length)
+                .addData(p + ".ny", ys.length)
+                .addData(p + ".xMin", xs[0])
+                .addData(p + ".xMax", xs[xs.length - 1])
+                .addData(p + ".yMin", ys[0])
+                .addData(p + ".yMax", ys[ys.length - 1])
+                .addData(p + ".uniform", uniform);
+    }
+
+    // ------------------------------------------------------------------------
+    // Internals
+    // ------------------------------------------------------------------------
+
+    /**
+     * Index of the cell containing {@code v}, assuming {@code axis[0] < v < axis[n-1]}.
+     */
+    private static int searchCell(double[] axis, double v) {
+        int idx = Arrays.binarySearch(axis, v);
+        if (idx >= 0) {
+            // Exact match: use the cell starting here (last node handled by caller clamp).
+            return Math.min(idx, axis.length - 2);
+        }
+        return (-idx - 1) - 1;
+    }
+
+    /**
+     * O(1) cell index on an evenly spaced axis, assuming {@code axis[0] < v < axis[n-1]}.
+     */
+    private static int uniformCell(double v, double min, double invStep, int n) {
+        int i = (int) ((v - min) * invStep);
+        // Guard against floating point landing exactly on the last node.
+        return MathUtil.clamp(i, 0, n - 2);
+    }
+
+    private static double[] uniformAxis(double min, double max, int n, String name) {
+        if (n < 1) {
+            throw new IllegalArgumentException(name + " sample count must be >= 1");
+        }
+        if (n == 1) {
+            return new double[]{min};
+        }
+        if (!(max > min)) {
+            throw new IllegalArgumentException(name + "Max must be greater than " + name + "Min");
+        }
+        double[] axis = new double[n];
+        double step = (max - min) / (n - 1);
+        for (int i = 0; i < n; i++) {
+            axis[i] = min + i * step;
+        }
+        axis[n - 1] = max;
+        return axis;
+    }
+
+    private static void requireStrictlyIncreasing(double[] axis, String name) {
+        if (axis.length == 0) {
+            throw new IllegalArgumentException(name + " must contain at least one value");
+        }
+        for (int i = 1; i < axis.length; i++) {
+            if (!(axis[i] > axis[i - 1])) {
+                throw new IllegalArgumentException(name + " must be strictly increasing");
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link InterpolatingTable2D} from calibration points.
+     *
+     * <p>Testers usually capture calibration data as a few sweeps along x (for example, a
+     * distance sweep) at a handful of fixed y-values (for example, battery voltages). The
+     * builder accepts such points in any order and groups them into rows by their exact
+     * y-value:</p>
+     *
+     * <ul>
+     *   <li>The grid x-axis is the union of every x-value seen in any row.</li>
+     *   <li>The grid y-axis is the set of distinct y-values.</li>
+     *   <li>Rows do not need to share x-values. A grid node missing from a row is filled by
+     *       1D interpolation within that row (clamped at the row's ends), exactly like
+     *       {@link InterpolatingTable1D}.</li>
+     * </ul>
+     *
+     * <p>Duplicate (x, y) points are rejected.</p>
+     */
+    public static final class Builder {
+        private final List<double[]> points = new ArrayList<>();
+
+        /**
+         * Add a single calibration point.
+         *
+         * @param x     x-coordinate (e.g., distance)
+         * @param y     y-coordinate (e.g., battery voltage)
+         * @param value value measured at (x, y)
+         * @return this builder for chaining
+         */
+        public Builder add(double x, double y, double value) {
+            points.add(new double[]{x, y, value});
+            return this;
+        }
+
+        /**
+         * Add a full row of points sharing the same y-value.
+         *
+         * @param y          y-coordinate shared by the row
+         * @param xsAndVals  flattened pairs: x0, v0, x1, v1, ...
+         * @return this builder for chaining
+         */
+        public Builder addRow(double y, double... xsAndVals) {
+            Objects.requireNonNull(xsAndVals, "xsAndVals is required");
+            if (xsAndVals.length == 0 || xsAndVals.length % 2 != 0) {
+                throw new IllegalArgumentException(
+                        "xsAndVals must contain an even number of values (x0, v0, x1, v1, ...)");
+            }
+            for (int i = 0; i < xsAndVals.length; i += 2) {
+                add(xsAndVals[i], y, xsAndVals[i + 1]);
+            }
+            return this;
+        }
+
+        /**
+         * Build a rectilinear table from the added points.
+         */
+        public InterpolatingTable2D build() {
+            if (points.isEmpty()) {
+                throw new IllegalStateException("No points added to table");
+            }
+
+            double[] xs = distinctSorted(0);
+            double[] ys = distinctSorted(1);
+            int nx = xs.length;
+            double[] values = new double[nx * ys.length];
+
+            for (int iy = 0; iy < ys.length; iy++) {
+                InterpolatingTable1D row = rowTable(ys[iy]);
+                for (int ix = 0; ix < nx; ix++) {
+                    values[iy * nx + ix] = row.interpolate(xs[ix]);
+                }
+            }
+            return new InterpolatingTable2D(xs, ys, values, false);
+        }
+
+        private InterpolatingTable1D rowTable(double y) {
+            int count = 0;
+            for (double[] p : points) {
+                if (p[1] == y) {
+                    count++;
+                }
+            }
+            double[] rx = new double[count];
+            double[] rv = new double[count];
+            int i = 0;
+            for (double[] p : points) {
+                if (p[1] == y) {
+                    rx[i] = p[0];
+                    rv[i] = p[2];
+                    i++;
+                }
+            }
+            try {
+                return InterpolatingTable1D.ofUnsorted(rx, rv);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Duplicate x-values in row y=" + y, e);
+            }
+        }
+
+        private double[] distinctSorted(int component) {
+            double[] all = new double[points.size()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = points.get(i)[component];
+            }
+            Arrays.sort(all);
+            int n = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (n == 0 || all[i] != all[n - 1]) {
+                    all[n++] = all[i];
+                }
+            }
+            return Arrays.copyOf(all, n);
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package edu.ftcphoenix.fw.drive;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.localization.PoseEstimator;
+
+/**
+ * Runs one pose-based {@link DriveOverlay} (pose lock, field-pose guidance) on a dedicated
+ * high-rate thread while it is enabled.
+ *
+ * <p>Inside a {@link DriveOverlayStack} an overlay is evaluated once per main loop, so its
+ * bandwidth is capped by everything else the loop does (telemetry, vision, tasks). While enabled,
+ * this class instead runs <em>pose update &rarr; overlay &rarr; wheel-power write</em> at
+ * {@link Config#periodMs} on its own thread. The main loop keeps producing the base command
+ * (sticks, other overlays) and posts it every loop.</p>
+ *
+ * <h2>Threading</h2>
+ * <ul>
+ *   <li><b>Mailbox:</b> the main loop publishes an immutable command (base signal, enable flag,
+ *       main-clock time) through an {@link AtomicReference}; the control thread always reads the
+ *       newest one. No locks on this path.</li>
+ *   <li><b>Ownership:</b> an owner state (idle / main / the generation of the owning control
+ *       thread) is claimed by compare-and-set before either side writes the drivebase. A thread
+ *       retired by a handoff timeout never touches the overlay or the owner again, so it cannot
+ *       release its replacement's claim. The thread only claims it from idle and then
+ *       re-reads the mailbox, releasing again if the overlay was disabled meanwhile; the main
+ *       loop claims it around each of its own writes. On disable, {@link #drive} waits (at most
+ *       {@link Config#handoffTimeoutMs}) for the thread to finish its last write and release, so
+ *       the two never write the drivebase at the same time. While the thread owns the drivebase
+ *       it also owns the pose estimator's {@code update()}.</li>
+ *   <li><b>Time base:</b> the thread's clock is the main loop clock from the newest command plus
+ *       the elapsed {@link System#nanoTime()}, so pose timestamps stay on one time base.</li>
+ *   <li><b>Safety:</b> if the main loop stops posting for {@link Config#staleCommandSec}, the
+ *       thread stops the drivebase and releases it. The thread exits by itself after
+ *       {@link Config#idleStopSec} without use and is restarted on demand.</li>
+ * </ul>
+ *
+ * <p>Only use overlays whose inputs are safe to read off the main loop: the pose estimator
+ * given here (updated by this class) and constant tuning. Observation-based guidance (camera
+ * bearings) belongs on the main loop.</p>
+ *
+ * <h2>Typical usage</h2>
+ *
+ * <pre>{@code
+ * DriveControlThread lock = new DriveControlThread(drivebase, pose,
+ *         DriveGuidance.poseLock(pose, tuning), DriveOverlayMask.TRANSLATION_ONLY,
+ *         DriveControlThread.Config.defaults());
+ *
+ * // In the main loop (instead of pose.update / drivebase.drive):
+ * lock.updatePose(clock);
+ * lock.drive(clock, driveSource.get(clock).clamped(), braceEnabled);
+ * }</pre>
+ */
+public final class DriveControlThread {
+
+    /**
+     * Configuration for {@link DriveControlThread}.
+     */
+    public static final class Config {
+
+        /**
+         * Control period, in milliseconds.
+         */
+        public double periodMs = 5.0;
+
+        /**
+         * Stop the drivebase if the main loop has not posted a command for this long (seconds).
+         */
+        public double staleCommandSec = 0.15;
+
+        /**
+         * Longest the main loop waits for the thread to release the drivebase, in milliseconds.
+         */
+        public double handoffTimeoutMs = 20.0;
+
+        /**
+         * Exit the thread after this long without an enabled command (seconds).
+         */
+        public double idleStopSec = 1.0;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.periodMs = this.periodMs;
+            c.staleCommandSec = this.staleCommandSec;
+            c.handoffTimeoutMs = this.handoffTimeoutMs;
+            c.idleStopSec = this.idleStopSec;
+            return c;
+        }
+    }
+
+    /**
+     * Immutable mailbox entry posted by the main loop.
+     */
+    private static final class Command {
+        final DriveSignal base;
+        final boolean enabled;
+        final double mainNowSec;
+        final long postedNanos;
+
+        Command(DriveSignal base, boolean enabled, double mainNowSec, long postedNanos) {
+            this.base = base;
+            this.enabled = enabled;
+            this.mainNowSec = mainNowSec;
+            this.postedNanos = postedNanos;
+        }
+    }
+
+    private final MecanumDrivebase drivebase;
+    private final PoseEstimator pose;
+    private final DriveOverlay overlay;
+    private final DriveOverlayMask requestedMask;
+    private final Config cfg;
+
+    // Drivebase owner states; a positive owner is the generation of the control thread holding it.
+    private static final int IDLE = 0;
+    private static final int MAIN = -1;
+
+    private final AtomicReference<Command> mailbox = new AtomicReference<>();
+    private final AtomicInteger owner = new AtomicInteger(IDLE);
+    // Guards pose.update(): the main loop and the thread may both update across a handoff.
+    private final Object poseLock = new Object();
+
+    private volatile boolean running = false;
+    private volatile int generation = 0;
+    private volatile String lastError = null;
+    private volatile boolean failed = false;
+    private Thread thread = null;
+
+    // Stats (written by the control thread).
+    private volatile long controlCycles = 0L;
+    private volatile double rateHz = 0.0;
+    private volatile double lastCycleMs = 0.0;
+    private volatile long overruns = 0L;
+    private volatile DriveSignal lastOut = DriveSignal.zero();
+
+    // Main-loop side.
+    private boolean fallbackEnabled = false;
+    private long handoffTimeouts = 0L;
+
+    /**
+     * @param drivebase     drivebase written by whichever side currently owns it
+     * @param pose          estimator the overlay reads; updated by the thread while enabled
+     * @param overlay       pose-based overlay to run at high rate
+     * @param requestedMask DOFs the overlay may override (like {@link DriveOverlayStack} layers)
+     * @param cfg           configuration (may be {@code null})
+     */
+    public DriveControlThread(MecanumDrivebase drivebase,
+                              PoseEstimator pose,
+                              DriveOverlay overlay,
+                              DriveOverlayMask requestedMask,
+                              Config cfg) {
+        this.drivebase = Objects.requireNonNull(drivebase, "drivebase");
+        this.pose = Objects.requireNonNull(pose, "pose");
+        this.overlay = Objects.requireNonNull(overlay, "overlay");
+        this.requestedMask = Objects.requireNonNull(requestedMask, "requestedMask");
+        this.cfg = cfg != null ? cfg.copy() : Config.defaults();
+    }
+
+    /**
+     * Update the pose estimator from the main loop, unless the control thread currently owns it.
+     *
+     * <p>Call once per loop in place of {@code pose.update(clock)}.</p>
+     */
+    public void updatePose(LoopClock clock) {
+        if (owner.get() > 0 && !failed) {
+            return;
+        }
+        synchronized (poseLock) {
+            pose.update(clock);
+        }
+    }
+
+    /**
+     * Post this loop's base command.
+     *
+     * <p>When {@code overlayEnabled}, the control thread applies the overlay on top of
+     * {@code base} and writes the drivebase; otherwise the base command is written here, on the
+     * caller's thread, once the thread has released the drivebase. Call once per loop in place of
+     * {@code drivebase.update(clock); drivebase.drive(base)}.</p>
+     *
+     * @param clock          main loop clock
+     * @param base           base drive command (already clamped)
+     * @param overlayEnabled whether the overlay should run this loop
+     */
+    public void drive(LoopClock clock, DriveSignal base, boolean overlayEnabled) {
+        Objects.requireNonNull(base, "base");
+        mailbox.set(new Command(base, overlayEnabled, clock.nowSec(), System.nanoTime()));
+
+        if (overlayEnabled && failed) {
+            // The thread hit an error; keep the overlay working at loop rate.
+            if (!fallbackEnabled) {
+                overlay.onEnable(clock);
+                fallbackEnabled = true;
+            }
+            acquireMain();
+            try {
+                step(clock, base, false);
+            } finally {
+                owner.set(IDLE);
+            }
+            return;
+        }
+        if (fallbackEnabled) {
+            overlay.onDisable(clock);
+            fallbackEnabled = false;
+        }
+
+        if (overlayEnabled) {
+            ensureRunning();
+            return;
+        }
+
+        acquireMain();
+        try {
+            drivebase.update(clock);
+            drivebase.drive(base);
+        } finally {
+            owner.set(IDLE);
+        }
+    }
+
+    /**
+     * @return true if the control thread stopped on an error; the overlay then runs on the
+     * main loop inside {@link #drive}
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * @return true while the control thread owns the drivebase
+     */
+    public boolean isOwning() {
+        return owner.get() > 0;
+    }
+
+    /**
+     * Stop the thread and the drivebase. Safe to call from the stop hook.
+     */
+    public void stop() {
+        mailbox.set(null);
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+        }
+        // Wait for the thread's own release (it runs onDisable on the way out) before retiring it.
+        acquireMain();
+        try {
+            generation++;
+            running = false;
+            drivebase.stop();
+        } finally {
+            owner.set(IDLE);
+        }
+    }
+
+    /**
+     * Claim the drivebase for the caller's thread, waiting for the control thread to release it.
+     */
+    private void acquireMain() {
+        long deadline = System.nanoTime() + (long) (cfg.handoffTimeoutMs * 1e6);
+        while (!owner.compareAndSet(IDLE, MAIN)) {
+            if (System.nanoTime() >= deadline) {
+                // The thread is stuck in a hardware call; take over anyway and retire it.
+                handoffTimeouts++;
+                generation++;
+                running = false;
+                owner.set(MAIN);
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    private void ensureRunning() {
+        if (running) {
+            return;
+        }
+        running = true;
+        // Generations start at 1, so a thread's generation never collides with IDLE or MAIN.
+        final int gen = ++generation;
+        thread = new Thread(() -> controlLoop(gen), "DriveControlThread");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    private void controlLoop(int gen) {
+        final long periodNanos = Math.max(1_000_000L, (long) (cfg.periodMs * 1e6));
+        final long staleNanos = (long) (cfg.staleCommandSec * 1e9);
+        final long idleNanos = (long) (cfg.idleStopSec * 1e9);
+        final LoopClock clock = new LoopClock();
+
+        long next = System.nanoTime();
+        long lastUsedNanos = next;
+        long rateWindowStart = next;
+        long rateWindowCycles = 0L;
+        boolean owned = false;
+
+        try {
+            while (generation == gen && !Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                Command cmd = mailbox.get();
+                boolean fresh = cmd != null && start - cmd.postedNanos <= staleNanos;
+
+                if (owned && owner.get() != gen) {
+                    // Forcibly taken over after a handoff timeout; generation changes too.
+                    owned = false;
+                    break;
+                }
+
+                if (cmd != null && cmd.enabled && fresh && !owned) {
+                    // Claim only from idle, then re-read: the main loop may have disabled the
+                    // overlay (and be about to write) between the read above and the claim.
+                    if (owner.compareAndSet(IDLE, gen)) {
+                        owned = true;
+                        cmd = mailbox.get();
+                        fresh = cmd != null && start - cmd.postedNanos <= staleNanos;
+                        if (cmd != null && cmd.enabled && fresh) {
+                            clock.reset(cmd.mainNowSec + (start - cmd.postedNanos) * 1e-9);
+                            overlay.onEnable(clock);
+                        } else {
+                            owned = false;
+                            owner.compareAndSet(gen, IDLE);
+                        }
+                    }
+                    if (owned) {
+                        step(clock, cmd.base, true);
+                        lastUsedNanos = start;
+                    }
+                } else if (cmd != null && cmd.enabled && fresh) {
+                    clock.update(cmd.mainNowSec + (start - cmd.postedNanos) * 1e-9);
+                    step(clock, cmd.base, true);
+                    lastUsedNanos = start;
+
+                    rateWindowCycles++;
+                    if (start - rateWindowStart >= 500_000_000L) {
+                        rateHz = rateWindowCycles * 1e9 / (start - rateWindowStart);
+                        rateWindowStart = start;
+                        rateWindowCycles = 0L;
+                    }
+                    lastCycleMs = (System.nanoTime() - start) * 1e-6;
+                    controlCycles++;
+                } else if (owned) {
+                    if (!fresh) {
+                        // Main loop went away: do not keep driving on an old command.
+                        drivebase.stop();
+                    }
+                    overlay.onDisable(clock);
+                    owned = false;
+                    owner.compareAndSet(gen, IDLE);
+                } else if (start - lastUsedNanos > idleNanos) {
+                    break;
+                }
+
+                next += periodNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    overruns++;
+                    next = System.nanoTime();
+                }
+            }
+        } catch (RuntimeException e) {
+            if (generation == gen) {
+                // A retired thread's error is stale; the drivebase may have a new owner.
+                lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+                failed = true;
+                try {
+                    drivebase.stop();
+                } catch (RuntimeException ignored) {
+                    // Best effort.
+                }
+            }
+        } finally {
+            // Release what this thread claimed, whatever the exit reason, unless it was retired:
+            // after a forced takeover the overlay and the owner may already belong to a newer
+            // thread.
+            if (owned && generation == gen && owner.get() == gen) {
+                try {
+                    overlay.onDisable(clock);
+                } catch (RuntimeException ignored) {
+                    // Best effort.
+                }
+                owner.compareAndSet(gen, IDLE);
+            }
+            if (generation == gen) {
+                running = false;
+            }
+        }
+    }
+
+    private void step(LoopClock clock, DriveSignal base, boolean updatePose) {
+        if (updatePose) {
+            synchronized (poseLock) {
+                pose.update(clock);
+            }
+        }
+
+        DriveSignal sig = base;
+        DriveOverlayOutput out = overlay.get(clock);
+        if (out != null) {
+            DriveOverlayMask eff = out.mask.intersect(requestedMask);
+            if (!eff.isNone()) {
+                sig = new DriveSignal(
+                        eff.axial ? out.signal.axial : base.axial,
+                        eff.lateral ? out.signal.lateral : base.lateral,
+                        eff.omega ? out.signal.omega : base.omega).clamped();
+            }
+        }
+
+        drivebase.update(clock);
+        drivebase.drive(sig);
+        lastOut = sig;
+    }
+
+    /**
+     * Dump thread state and statistics to a {@link DebugSink}.
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "driveControl" : prefix;
+
+        dbg.addData(p + ".running", running)
+                .addData(p + ".owner", owner.get())
+                .addData(p + ".rateHz", rateHz)
+                .addData(p + ".lastCycleMs", lastCycleMs)
+                .addData(p + ".cycles", controlCycles)
+                .addData(p + ".overruns", overruns)
+                .addData(p + ".handoffTimeouts", handoffTimeouts)
+                .addData(p + ".failed", failed)
+                .addData(p + ".lastOut", lastOut);
+        if (lastError != null) {
+            dbg.addData(p + ".error", lastError);
+        }
+        overlay.debugDump(dbg, p + ".overlay");
+    }
+}
@@ -1,6 +1,8 @@
 package edu.ftcphoenix.fw.drive;
 
 import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
 
 import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.core.hal.PowerOutput;
@@ -8,9 +10,10 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
 import edu.ftcphoenix.fw.core.math.MathUtil;
 
 /**
- * Simple open-loop mecanum mixer.
+ * Mecanum mixer with optional closed-loop wheel velocity control.
  *
- * <p>Maps a high-level {@link DriveSignal} to four wheel power commands.</p>
+ * <p>Maps a high-level {@link DriveSignal} to four wheel power commands, either open loop (the
+ * default) or through per-wheel velocity control (see {@link WheelVelocityConfig}).</p>
  *
  * <h2>Sign conventions</h2>
  *
@@ -48,6 +51,36 @@ import edu.ftcphoenix.fw.core.math.MathUtil;
  * clamping each wheel. A final clamp to [-1, +1] is applied for numerical safety.
  * </p>
  *
+ * <h2>Closed-loop wheel velocity</h2>
+ *
+ * <p>With {@link Config#wheelVelocity} enabled, the (scaled, rate-limited) command is treated as
+ * a fraction of {@link Config#maxVxInchesPerSec}, {@link Config#maxVyInchesPerSec} and
+ * {@link Config#maxOmegaRadPerSec}, turned into wheel surface speeds by mecanum inverse
+ * kinematics, and each wheel is driven with</p>
+ *
+ * <pre>
+ * volts = kS * sign(v) + kV * v + kA * a + kP * (v - measured) + kI * integral
+ * power = volts / batteryVolts
+ * </pre>
+ *
+ * <p>so the robot reaches the same speed regardless of battery, carpet or wheel wear. Without
+ * wheel velocity sources the loop runs feedforward-only (still voltage compensated). Per-wheel
+ * tracking error is available from the accessors and {@link #debugDump(DebugSink, String)}.
+ * {@code FtcDrives} wires the encoders and battery voltage automatically when the mode is
+ * enabled.</p>
+ *
+ * <h2>Traction control</h2>
+ *
+ * <p>With {@link Config#traction} enabled, wheel encoder velocities are compared every loop
+ * with the wheel speeds implied by an independent chassis-motion source (typically Pinpoint
+ * odometry, see {@link #setChassisSpeedsSource(Supplier)}). A wheel whose speed disagrees with
+ * the chassis is flagged as slipping: its encoder is not used for velocity feedback, and every
+ * axis the slip projects onto has its rate limit cut and its ramp restarted from the measured
+ * chassis speed. Limits recover slowly while no slip
+ * is seen, so each axis settles near the fastest acceleration the surface allows. The adaptive
+ * limits apply on top of any fixed {@code max*RatePerSec} limits. Wheel geometry and
+ * {@link WheelVelocityConfig#ticksPerInch} come from {@link Config#wheelVelocity}.</p>
+ *
  * <h2>Typical usage</h2>
  *
  * <pre>{@code
@@ -64,6 +97,197 @@ import edu.ftcphoenix.fw.core.math.MathUtil;
  */
 public final class MecanumDrivebase {
 
+    /**
+     * Closed-loop wheel velocity settings for {@link MecanumDrivebase}.
+     *
+     * <p>Feedforward gains use the units reported by the {@code Calib: Motor SysId} tester
+     * (volts, encoder ticks/sec); run it with all four drive motors selected. Geometry is in
+     * inches.</p>
+     */
+    public static final class WheelVelocityConfig {
+
+        /**
+         * Enable closed-loop wheel velocity control.
+         *
+         * <p>Default: {@code false} (open-loop power mixing).</p>
+         */
+        public boolean enabled = false;
+
+        /**
+         * Encoder ticks per inch of wheel surface travel.
+         *
+         * <p>Required when enabled: {@code ticksPerRev / (PI * wheelDiameterInches)}. Example:
+         * goBILDA 312 RPM (537.7 ticks/rev) with 104 mm wheels is about {@code 41.6}.</p>
+         */
+        public double ticksPerInch = 0.0;
+
+        /**
+         * Left-right distance between wheel contact patches, in inches.
+         */
+        public double trackWidthInches = 14.0;
+
+        /**
+         * Front-back distance between wheel contact patches, in inches.
+         */
+        public double wheelBaseInches = 12.0;
+
+        /**
+         * Maximum wheel surface speed, in inches/sec. Targets are scaled down together so no
+         * wheel exceeds it.
+         *
+         * <p>Default: {@code 0.0}, meaning {@link Config#maxVxInchesPerSec}.</p>
+         */
+        public double maxWheelInchesPerSec = 0.0;
+
+        /**
+         * Static friction feedforward, in volts.
+         */
+        public double kS = 0.0;
+
+        /**
+         * Velocity feedforward, in volts per (tick/sec).
+         */
+        public double kV = 0.0;
+
+        /**
+         * Acceleration feedforward, in volts per (tick/sec^2).
+         */
+        public double kA = 0.0;
+
+        /**
+         * Proportional feedback on wheel velocity error, in volts per (tick/sec).
+         */
+        public double kP = 0.002;
+
+        /**
+         * Integral feedback on wheel velocity error, in volts per tick.
+         */
+        public double kI = 0.0;
+
+        /**
+         * Clamp on the integral term's contribution, in volts.
+         */
+        public double maxIntegralVolts = 2.0;
+
+        /**
+         * Battery voltage assumed when no voltage source is available, in volts.
+         */
+        public double nominalVolts = 12.0;
+
+        /**
+         * Minimum time between battery voltage reads, in seconds.
+         *
+         * <p>Voltage reads are separate hub transactions, so they are rate-limited.</p>
+         */
+        public double voltagePeriodSec = 0.25;
+
+        private WheelVelocityConfig() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults (disabled).
+         */
+        public static WheelVelocityConfig defaults() {
+            return new WheelVelocityConfig();
+        }
+
+        /**
+         * Create a deep copy of this config.
+         */
+        public WheelVelocityConfig copy() {
+            WheelVelocityConfig c = new WheelVelocityConfig();
+            c.enabled = this.enabled;
+            c.ticksPerInch = this.ticksPerInch;
+            c.trackWidthInches = this.trackWidthInches;
+            c.wheelBaseInches = this.wheelBaseInches;
+            c.maxWheelInchesPerSec = this.maxWheelInchesPerSec;
+            c.kS = this.kS;
+            c.kV = this.kV;
+            c.kA = this.kA;
+            c.kP = this.kP;
+            c.kI = this.kI;
+            c.maxIntegralVolts = this.maxIntegralVolts;
+            c.nominalVolts = this.nominalVolts;
+            c.voltagePeriodSec = this.voltagePeriodSec;
+            return c;
+        }
+    }
+
+    /**
+     * Traction-aware acceleration limiting settings for {@link MecanumDrivebase}.
+     *
+     * <p>Rates are in command units per second, like {@link Config#maxAxialRatePerSec}.</p>
+     */
+    public static final class TractionConfig {
+
+        /**
+         * Enable slip detection and adaptive rate limits.
+         *
+         * <p>Requires wheel velocity sources, a chassis speeds source and
+         * {@link WheelVelocityConfig#ticksPerInch}; without them the stage stays inactive.</p>
+         *
+         * <p>Default: {@code false}.</p>
+         */
+        public boolean enabled = false;
+
+        /**
+         * Wheel-vs-chassis speed mismatch that always counts as slip, in inches/sec.
+         */
+        public double slipThresholdInchesPerSec = 6.0;
+
+        /**
+         * Additional mismatch allowance as a fraction of the expected wheel speed.
+         */
+        public double slipFraction = 0.2;
+
+        /**
+         * Starting (and maximum) adaptive rate limit per axis.
+         */
+        public double maxRatePerSec = 8.0;
+
+        /**
+         * Lowest adaptive rate limit per axis.
+         */
+        public double minRatePerSec = 1.0;
+
+        /**
+         * Factor applied to an axis rate limit on each loop where slip is detected on that axis.
+         */
+        public double decreaseFactor = 0.7;
+
+        /**
+         * Rate-limit recovery while no slip is seen, in (command units/sec) per second.
+         */
+        public double recoveryPerSec = 2.0;
+
+        private TractionConfig() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults (disabled).
+         */
+        public static TractionConfig defaults() {
+            return new TractionConfig();
+        }
+
+        /**
+         * Create a deep copy of this config.
+         */
+        public TractionConfig copy() {
+            TractionConfig c = new TractionConfig();
+            c.enabled = this.enabled;
+            c.slipThresholdInchesPerSec = this.slipThresholdInchesPerSec;
+            c.slipFraction = this.slipFraction;
+            c.maxRatePerSec = this.maxRatePerSec;
+            c.minRatePerSec = this.minRatePerSec;
+            c.decreaseFactor = this.decreaseFactor;
+            c.recoveryPerSec = this.recoveryPerSec;
+            return c;
+        }
+    }
+
     /**
      * Configuration for {@link MecanumDrivebase}.
      *
@@ -114,9 +338,9 @@ public final class MecanumDrivebase {
         /**
          * Approximate maximum forward speed of the robot at full command, in inches/sec.
          *
-         * <p>Used only when converting a {@link ChassisSpeeds} command into a normalized
-         * {@link DriveSignal}. This is a <b>best-effort mapping</b>, not closed-loop velocity
-         * control.</p>
+         * <p>Used when converting a {@link ChassisSpeeds} command into a normalized
+         * {@link DriveSignal}. In open-loop mode this is a <b>best-effort mapping</b>; with
+         * {@link #wheelVelocity} enabled, a full axial command requests exactly this speed.</p>
          */
         public double maxVxInchesPerSec = 40.0;
 
@@ -170,6 +394,20 @@ public final class MecanumDrivebase {
          */
         public double maxOmegaRatePerSec = 0.0;
 
+        // --------------------------------------------------------------------
+        // Optional closed-loop wheel velocity control
+        // --------------------------------------------------------------------
+
+        /**
+         * Closed-loop wheel velocity settings (disabled by default).
+         */
+        public WheelVelocityConfig wheelVelocity = WheelVelocityConfig.defaults();
+
+        /**
+         * Traction-aware acceleration limiting (disabled by default).
+         */
+        public TractionConfig traction = TractionConfig.defaults();
+
         private Config() {
             // Defaults assigned in field initializers.
         }
@@ -197,6 +435,9 @@ public final class MecanumDrivebase {
             c.maxAxialRatePerSec = this.maxAxialRatePerSec;
             c.maxLateralRatePerSec = this.maxLateralRatePerSec;
             c.maxOmegaRatePerSec = this.maxOmegaRatePerSec;
+
+            c.wheelVelocity = this.wheelVelocity.copy();
+            c.traction = this.traction.copy();
             return c;
         }
     }
@@ -208,6 +449,30 @@ public final class MecanumDrivebase {
 
     private final Config cfg;
 
+    // Optional closed-loop inputs (ticks/sec, volts); null when unavailable.
+    private final DoubleSupplier flVelocity;
+    private final DoubleSupplier frVelocity;
+    private final DoubleSupplier blVelocity;
+    private final DoubleSupplier brVelocity;
+    private final DoubleSupplier batteryVoltage;
+
+    // Closed-loop state per wheel, indexed FL, FR, BL, BR (ticks/sec, ticks).
+    private final double[] wheelTargetTps = new double[4];
+    private final double[] wheelMeasuredTps = new double[4];
+    private final double[] wheelIntegral = new double[4];
+    private final double[] wheelPower = new double[4];
+    private double batteryVolts;
+    private double lastVoltageReadSec = Double.NaN;
+
+    // Traction stage: chassis reference, per-wheel slip flags, adaptive per-axis rate limits.
+    private Supplier<ChassisSpeeds> chassisSpeeds;
+    private final boolean[] wheelSlipping = new boolean[4];
+    private final double[] expectedWheelIps = new double[4];
+    private boolean tractionActive;
+    private double axialTractionRate;
+    private double lateralTractionRate;
+    private double omegaTractionRate;
+
     // Last commanded drive components (after scaling and rate limiting).
     private double lastAxialCmd;
     private double lastLateralCmd;
@@ -236,6 +501,41 @@ public final class MecanumDrivebase {
                             PowerOutput blPower,
                             PowerOutput brPower,
                             Config cfg) {
+        this(flPower, frPower, blPower, brPower, null, null, null, null, null, cfg);
+    }
+
+    /**
+     * Construct a mecanum drivebase with wheel velocity and battery voltage sources for
+     * closed-loop wheel velocity control ({@link Config#wheelVelocity}).
+     *
+     * <p>Velocity sources must be given for all four wheels or none; with none, the
+     * closed-loop mode runs feedforward-only. The sources are ignored when the mode is
+     * disabled.</p>
+     *
+     * @param flPower        power output for the front-left wheel (non-null)
+     * @param frPower        power output for the front-right wheel (non-null)
+     * @param blPower        power output for the back-left wheel (non-null)
+     * @param brPower        power output for the back-right wheel (non-null)
+     * @param flVelocity     front-left encoder velocity in ticks/sec, positive driving forward (may be {@code null})
+     * @param frVelocity     front-right encoder velocity in ticks/sec (may be {@code null})
+     * @param blVelocity     back-left encoder velocity in ticks/sec (may be {@code null})
+     * @param brVelocity     back-right encoder velocity in ticks/sec (may be {@code null})
+     * @param batteryVoltage battery voltage in volts (may be {@code null}; nominal voltage is used)
+     * @param cfg            configuration (may be {@code null})
+     * @throws IllegalArgumentException if closed-loop mode is enabled without a positive
+     *                                  {@link WheelVelocityConfig#ticksPerInch}, or only some
+     *                                  velocity sources are given
+     */
+    public MecanumDrivebase(PowerOutput flPower,
+                            PowerOutput frPower,
+                            PowerOutput blPower,
+                            PowerOutput brPower,
+                            DoubleSupplier flVelocity,
+                            DoubleSupplier frVelocity,
+                            DoubleSupplier blVelocity,
+                            DoubleSupplier brVelocity,
+                            DoubleSupplier batteryVoltage,
+                            Config cfg) {
         this.fl = flPower;
         this.fr = frPower;
         this.bl = blPower;
@@ -243,15 +543,56 @@ public final class MecanumDrivebase {
 
         // Defensive copy so callers can't change behavior by mutating cfg later.
         this.cfg = (cfg != null ? cfg.copy() : Config.defaults());
+
+        int sources = (flVelocity != null ? 1 : 0) + (frVelocity != null ? 1 : 0)
+                + (blVelocity != null ? 1 : 0) + (brVelocity != null ? 1 : 0);
+        if (this.cfg.wheelVelocity.enabled) {
+            if (this.cfg.wheelVelocity.ticksPerInch <= 0.0) {
+                throw new IllegalArgumentException("wheelVelocity.ticksPerInch must be > 0 when closed-loop velocity is enabled");
+            }
+        }
+        if (sources != 0 && sources != 4) {
+            throw new IllegalArgumentException("Wheel velocity sources must be given for all four wheels or none");
+        }
+        this.flVelocity = flVelocity;
+        this.frVelocity = frVelocity;
+        this.blVelocity = blVelocity;
+        this.brVelocity = brVelocity;
+        this.batteryVoltage = batteryVoltage;
+        this.batteryVolts = this.cfg.wheelVelocity.nominalVolts;
+
+        this.axialTractionRate = this.cfg.traction.maxRatePerSec;
+        this.lateralTractionRate = this.cfg.traction.maxRatePerSec;
+        this.omegaTractionRate = this.cfg.traction.maxRatePerSec;
+    }
+
+    /**
+     * Set the independent chassis-motion reference used for slip detection
+     * ({@link Config#traction}), for example {@code pinpoint::getRobotSpeeds}.
+     *
+     * <p>Speeds must be robot-centric. Pass {@code null} to disable slip detection.</p>
+     *
+     * @param source supplier of measured robot-centric chassis speeds (may be {@code null})
+     */
+    public void setChassisSpeedsSource(Supplier<ChassisSpeeds> source) {
+        this.chassisSpeeds = source;
+    }
+
+    /**
+     * @return true if closed-loop wheel velocity control is enabled
+     */
+    public boolean isVelocityControlled() {
+        return cfg.wheelVelocity.enabled;
     }
 
 
     /**
      * Command the drivebase using a {@link ChassisSpeeds} velocity intent.
      *
-     * <p>This is a <b>best-effort</b> mapping from physical units to a normalized
-     * {@link DriveSignal}. It does <em>not</em> perform closed-loop velocity control.
-     * Battery voltage, carpet, friction, and load will change the actual achieved speeds.</p>
+     * <p>In open-loop mode this is a <b>best-effort</b> mapping from physical units to a
+     * normalized {@link DriveSignal}; battery voltage, carpet, friction, and load will change
+     * the actual achieved speeds. With {@link Config#wheelVelocity} enabled, the speeds are
+     * tracked by the per-wheel velocity loops instead.</p>
      *
      * <p>All components are robot-centric, aligned with Phoenix pose conventions
      * (+X forward, +Y left, yaw CCW-positive).</p>
@@ -327,16 +668,33 @@ public final class MecanumDrivebase {
         double desiredLateral = s.lateral * cfg.maxLateral;
         double desiredOmega = s.omega * cfg.maxOmega;
 
-        // 2) Optionally apply per-axis rate limiting based on lastDtSec.
+        // 2) Optionally apply per-axis rate limiting based on lastDtSec, tightened by the
+        //    traction stage when it is active.
         double dt = lastDtSec;
-        double axialCmd = limitRate(desiredAxial, lastAxialCmd, cfg.maxAxialRatePerSec, dt);
-        double lateralCmd = limitRate(desiredLateral, lastLateralCmd, cfg.maxLateralRatePerSec, dt);
-        double omegaCmd = limitRate(desiredOmega, lastOmegaCmd, cfg.maxOmegaRatePerSec, dt);
+        boolean sensed = readWheelVelocities();
+        updateTraction(sensed, dt);
+
+        double axialRate = cfg.maxAxialRatePerSec;
+        double lateralRate = cfg.maxLateralRatePerSec;
+        double omegaRate = cfg.maxOmegaRatePerSec;
+        if (tractionActive) {
+            axialRate = combineRates(axialRate, axialTractionRate);
+            lateralRate = combineRates(lateralRate, lateralTractionRate);
+            omegaRate = combineRates(omegaRate, omegaTractionRate);
+        }
+        double axialCmd = limitRate(desiredAxial, lastAxialCmd, axialRate, dt);
+        double lateralCmd = limitRate(desiredLateral, lastLateralCmd, lateralRate, dt);
+        double omegaCmd = limitRate(desiredOmega, lastOmegaCmd, omegaRate, dt);
 
         lastAxialCmd = axialCmd;
         lastLateralCmd = lateralCmd;
         lastOmegaCmd = omegaCmd;
 
+        if (cfg.wheelVelocity.enabled) {
+            driveWheelVelocities(axialCmd, lateralCmd, omegaCmd, dt, sensed);
+            return;
+        }
+
         // 3) Basic mecanum mixing with the (possibly rate-limited) components.
         //    Sign conventions (robot-centric):
         //      axial   > 0 -> forward
@@ -373,6 +731,182 @@ public final class MecanumDrivebase {
         br.setPower(lastBrPower);
     }
 
+    /**
+     * Closed-loop path of {@link #drive(DriveSignal)}: commands in, wheel velocity loops out.
+     */
+    private void driveWheelVelocities(double axialCmd, double lateralCmd, double omegaCmd, double dt,
+                                      boolean measured) {
+        WheelVelocityConfig wv = cfg.wheelVelocity;
+
+        // Command fractions -> chassis speeds -> wheel surface speeds (inverse kinematics).
+        double vx = axialCmd * cfg.maxVxInchesPerSec;
+        double vy = lateralCmd * cfg.maxVyInchesPerSec;
+        double turn = omegaCmd * cfg.maxOmegaRadPerSec * 0.5 * (wv.trackWidthInches + wv.wheelBaseInches);
+
+        double flIps = vx - vy - turn;
+        double frIps = vx + vy + turn;
+        double blIps = vx + vy - turn;
+        double brIps = vx - vy + turn;
+
+        // Scale all wheels together if any exceeds the achievable wheel speed.
+        double maxWheel = wv.maxWheelInchesPerSec > 0.0 ? wv.maxWheelInchesPerSec : cfg.maxVxInchesPerSec;
+        double peak = Math.max(Math.max(Math.abs(flIps), Math.abs(frIps)), Math.max(Math.abs(blIps), Math.abs(brIps)));
+        double scale = (maxWheel > 0.0 && peak > maxWheel) ? maxWheel / peak : 1.0;
+
+        boolean idle = peak == 0.0;
+
+        double k = scale * wv.ticksPerInch;
+        wheelPower[0] = wheelVolts(0, flIps * k, measured, idle, dt, wv);
+        wheelPower[1] = wheelVolts(1, frIps * k, measured, idle, dt, wv);
+        wheelPower[2] = wheelVolts(2, blIps * k, measured, idle, dt, wv);
+        wheelPower[3] = wheelVolts(3, brIps * k, measured, idle, dt, wv);
+
+        // Volts -> power at the current battery voltage, normalized to preserve direction.
+        double volts = batteryVolts > 0.0 ? batteryVolts : wv.nominalVolts;
+        double maxMag = 1.0;
+        for (int i = 0; i < 4; i++) {
+            wheelPower[i] /= volts;
+            maxMag = Math.max(maxMag, Math.abs(wheelPower[i]));
+        }
+
+        lastFlPower = MathUtil.clamp(wheelPower[0] / maxMag, -1.0, 1.0);
+        lastFrPower = MathUtil.clamp(wheelPower[1] / maxMag, -1.0, 1.0);
+        lastBlPower = MathUtil.clamp(wheelPower[2] / maxMag, -1.0, 1.0);
+        lastBrPower = MathUtil.clamp(wheelPower[3] / maxMag, -1.0, 1.0);
+
+        fl.setPower(lastFlPower);
+        fr.setPower(lastFrPower);
+        bl.setPower(lastBlPower);
+        br.setPower(lastBrPower);
+    }
+
+    /**
+     * Read all four wheel velocity sources (if present) into {@code wheelMeasuredTps}.
+     */
+    private boolean readWheelVelocities() {
+        if (flVelocity == null || !(cfg.wheelVelocity.enabled || cfg.traction.enabled)) {
+            return false;
+        }
+        wheelMeasuredTps[0] = flVelocity.getAsDouble();
+        wheelMeasuredTps[1] = frVelocity.getAsDouble();
+        wheelMeasuredTps[2] = blVelocity.getAsDouble();
+        wheelMeasuredTps[3] = brVelocity.getAsDouble();
+        return true;
+    }
+
+    /**
+     * Traction stage: flag slipping wheels and adapt the per-axis rate limits.
+     */
+    private void updateTraction(boolean sensed, double dt) {
+        TractionConfig tc = cfg.traction;
+        WheelVelocityConfig wv = cfg.wheelVelocity;
+        ChassisSpeeds chassis = (tc.enabled && sensed && chassisSpeeds != null && wv.ticksPerInch > 0.0)
+                ? chassisSpeeds.get() : null;
+        tractionActive = chassis != null;
+        if (!tractionActive) {
+            wheelSlipping[0] = wheelSlipping[1] = wheelSlipping[2] = wheelSlipping[3] = false;
+            return;
+        }
+
+        // Wheel speeds the measured chassis motion implies (inverse kinematics).
+        double turn = chassis.omegaRobotRadPerSec * 0.5 * (wv.trackWidthInches + wv.wheelBaseInches);
+        expectedWheelIps[0] = chassis.vxRobotIps - chassis.vyRobotIps - turn;
+        expectedWheelIps[1] = chassis.vxRobotIps + chassis.vyRobotIps + turn;
+        expectedWheelIps[2] = chassis.vxRobotIps + chassis.vyRobotIps - turn;
+        expectedWheelIps[3] = chassis.vxRobotIps - chassis.vyRobotIps + turn;
+
+        // Per-wheel mismatch, then projected back onto the chassis axes (forward kinematics).
+        double r0 = wheelMeasuredTps[0] / wv.ticksPerInch - expectedWheelIps[0];
+        double r1 = wheelMeasuredTps[1] / wv.ticksPerInch - expectedWheelIps[1];
+        double r2 = wheelMeasuredTps[2] / wv.ticksPerInch - expectedWheelIps[2];
+        double r3 = wheelMeasuredTps[3] / wv.ticksPerInch - expectedWheelIps[3];
+        wheelSlipping[0] = Math.abs(r0) > slipLimit(expectedWheelIps[0], tc);
+        wheelSlipping[1] = Math.abs(r1) > slipLimit(expectedWheelIps[1], tc);
+        wheelSlipping[2] = Math.abs(r2) > slipLimit(expectedWheelIps[2], tc);
+        wheelSlipping[3] = Math.abs(r3) > slipLimit(expectedWheelIps[3], tc);
+
+        boolean anySlip = wheelSlipping[0] || wheelSlipping[1] || wheelSlipping[2] || wheelSlipping[3];
+        double threshold = tc.slipThresholdInchesPerSec;
+        boolean axialSlip = anySlip && Math.abs(r0 + r1 + r2 + r3) * 0.25 > 0.5 * threshold;
+        boolean lateralSlip = anySlip && Math.abs(-r0 + r1 + r2 - r3) * 0.25 > 0.5 * threshold;
+        boolean omegaSlip = anySlip && Math.abs(-r0 + r1 - r2 + r3) * 0.25 > 0.5 * threshold;
+
+        // A slipping axis also restarts its ramp from the speed the chassis actually has, so the
+        // tighter limit takes effect even if the command had already reached its target.
+        if (axialSlip && cfg.maxVxInchesPerSec > 0.0) {
+            lastAxialCmd = pullBack(lastAxialCmd, chassis.vxRobotIps / cfg.maxVxInchesPerSec);
+        }
+        if (lateralSlip && cfg.maxVyInchesPerSec > 0.0) {
+            lastLateralCmd = pullBack(lastLateralCmd, chassis.vyRobotIps / cfg.maxVyInchesPerSec);
+        }
+        if (omegaSlip && cfg.maxOmegaRadPerSec > 0.0) {
+            lastOmegaCmd = pullBack(lastOmegaCmd, chassis.omegaRobotRadPerSec / cfg.maxOmegaRadPerSec);
+        }
+
+        double recovery = tc.recoveryPerSec * Math.max(0.0, dt);
+        axialTractionRate = adaptRate(axialTractionRate, axialSlip, recovery, tc);
+        lateralTractionRate = adaptRate(lateralTractionRate, lateralSlip, recovery, tc);
+        omegaTractionRate = adaptRate(omegaTractionRate, omegaSlip, recovery, tc);
+    }
+
+    /**
+     * Reduce {@code cmd} toward the measured fraction {@code actual}, never increasing its magnitude.
+     */
+    private static double pullBack(double cmd, double actual) {
+        if (cmd > 0.0) {
+            return Math.max(0.0, Math.min(cmd, actual));
+        }
+        if (cmd < 0.0) {
+            return Math.min(0.0, Math.max(cmd, actual));
+        }
+        return cmd;
+    }
+
+    private static double slipLimit(double expectedIps, TractionConfig tc) {
+        return tc.slipThresholdInchesPerSec + tc.slipFraction * Math.abs(expectedIps);
+    }
+
+    private static double adaptRate(double rate, boolean slipping, double recovery, TractionConfig tc) {
+        double next = slipping ? rate * tc.decreaseFactor : rate + recovery;
+        return MathUtil.clamp(next, tc.minRatePerSec, tc.maxRatePerSec);
+    }
+
+    /**
+     * Tighter of a fixed rate limit ({@code <= 0} = none) and an adaptive one.
+     */
+    private static double combineRates(double fixedRate, double adaptiveRate) {
+        return fixedRate > 0.0 ? Math.min(fixedRate, adaptiveRate) : adaptiveRate;
+    }
+
+    /**
+     * Feedforward + feedback voltage for one wheel; updates that wheel's target and integral.
+     */
+    private double wheelVolts(int i, double targetTps, boolean measured, boolean idle, double dt,
+                              WheelVelocityConfig wv) {
+        double accel = dt > 0.0 ? (targetTps - wheelTargetTps[i]) / dt : 0.0;
+        wheelTargetTps[i] = targetTps;
+
+        if (idle) {
+            // Zero command: let the motors coast/brake instead of holding zero velocity.
+            wheelIntegral[i] = 0.0;
+            return 0.0;
+        }
+
+        double v = wv.kS * Math.signum(targetTps) + wv.kV * targetTps + wv.kA * accel;
+        if (measured) {
+            // A slipping wheel's encoder says nothing about ground speed; use the chassis instead.
+            boolean slipping = tractionActive && wheelSlipping[i];
+            double speed = slipping ? expectedWheelIps[i] * wv.ticksPerInch : wheelMeasuredTps[i];
+            double err = targetTps - speed;
+            if (wv.kI != 0.0 && dt > 0.0 && !slipping) {
+                double limit = Math.abs(wv.maxIntegralVolts / wv.kI);
+                wheelIntegral[i] = MathUtil.clamp(wheelIntegral[i] + err * dt, -limit, limit);
+            }
+            v += wv.kP * err + wv.kI * wheelIntegral[i];
+        }
+        return v;
+    }
+
     /**
      * Internal helper to limit the rate of change of a command.
      *
@@ -412,6 +946,9 @@ public final class MecanumDrivebase {
      * {@link #drive(ChassisSpeeds)}) if you want rate limiting to use the most recent dt.
      * </p>
      *
+     * <p>In closed-loop wheel velocity mode this also refreshes the battery voltage reading
+     * (rate-limited by {@link WheelVelocityConfig#voltagePeriodSec}).</p>
+     *
      * @param clock loop timing helper (may be {@code null})
      */
     public void update(LoopClock clock) {
@@ -419,6 +956,15 @@ public final class MecanumDrivebase {
             return;
         }
         lastDtSec = clock.dtSec();
+
+        if (cfg.wheelVelocity.enabled && batteryVoltage != null) {
+            double now = clock.nowSec();
+            if (Double.isNaN(lastVoltageReadSec) || now - lastVoltageReadSec >= cfg.wheelVelocity.voltagePeriodSec) {
+                lastVoltageReadSec = now;
+                double v = batteryVoltage.getAsDouble();
+                batteryVolts = (v > 0.0) ? v : cfg.wheelVelocity.nominalVolts;
+            }
+        }
     }
 
     /**
@@ -434,6 +980,12 @@ public final class MecanumDrivebase {
         lastBlPower = 0.0;
         lastBrPower = 0.0;
 
+        for (int i = 0; i < 4; i++) {
+            wheelTargetTps[i] = 0.0;
+            wheelIntegral[i] = 0.0;
+            wheelSlipping[i] = false;
+        }
+
         fl.setPower(0.0);
         fr.setPower(0.0);
         bl.setPower(0.0);
@@ -475,12 +1027,99 @@ public final class MecanumDrivebase {
         dbg.addData(p + "lastOmegaCmd", lastOmegaCmd);
 
         dbg.addData(p + "lastDtSec", lastDtSec);
+
+        if (cfg.wheelVelocity.enabled) {
+            dbg.addData(p + "velocity.batteryVolts", batteryVolts);
+            dbg.addData(p + "velocity.flTargetIps", getWheelTargetIps(WHEEL_FL));
+            dbg.addData(p + "velocity.frTargetIps", getWheelTargetIps(WHEEL_FR));
+            dbg.addData(p + "velocity.blTargetIps", getWheelTargetIps(WHEEL_BL));
+            dbg.addData(p + "velocity.brTargetIps", getWheelTargetIps(WHEEL_BR));
+            dbg.addData(p + "velocity.flErrorIps", getWheelErrorIps(WHEEL_FL));
+            dbg.addData(p + "velocity.frErrorIps", getWheelErrorIps(WHEEL_FR));
+            dbg.addData(p + "velocity.blErrorIps", getWheelErrorIps(WHEEL_BL));
+            dbg.addData(p + "velocity.brErrorIps", getWheelErrorIps(WHEEL_BR));
+        }
+        if (cfg.traction.enabled) {
+            dbg.addData(p + "traction.active", tractionActive);
+            dbg.addData(p + "traction.slipping", (wheelSlipping[0] ? "FL " : "") + (wheelSlipping[1] ? "FR " : "")
+                    + (wheelSlipping[2] ? "BL " : "") + (wheelSlipping[3] ? "BR" : ""));
+            dbg.addData(p + "traction.axialRate", axialTractionRate);
+            dbg.addData(p + "traction.lateralRate", lateralTractionRate);
+            dbg.addData(p + "traction.omegaRate", omegaTractionRate);
+        }
     }
 
     // ------------------------------------------------------------------------
     // Accessors
     // ------------------------------------------------------------------------
 
+    /** Wheel index for {@link #getWheelTargetIps(int)} and friends: front-left. */
+    public static final int WHEEL_FL = 0;
+    /** Wheel index: front-right. */
+    public static final int WHEEL_FR = 1;
+    /** Wheel index: back-left. */
+    public static final int WHEEL_BL = 2;
+    /** Wheel index: back-right. */
+    public static final int WHEEL_BR = 3;
+
+    /**
+     * @param wheel one of {@link #WHEEL_FL}, {@link #WHEEL_FR}, {@link #WHEEL_BL}, {@link #WHEEL_BR}
+     * @return last wheel velocity target in inches/sec (0 in open-loop mode)
+     */
+    public double getWheelTargetIps(int wheel) {
+        return cfg.wheelVelocity.enabled ? wheelTargetTps[wheel] / cfg.wheelVelocity.ticksPerInch : 0.0;
+    }
+
+    /**
+     * @param wheel one of {@link #WHEEL_FL}, {@link #WHEEL_FR}, {@link #WHEEL_BL}, {@link #WHEEL_BR}
+     * @return last measured wheel velocity in inches/sec, or NaN without velocity sources
+     */
+    public double getWheelMeasuredIps(int wheel) {
+        if (!cfg.wheelVelocity.enabled || flVelocity == null) {
+            return Double.NaN;
+        }
+        return wheelMeasuredTps[wheel] / cfg.wheelVelocity.ticksPerInch;
+    }
+
+    /**
+     * Per-wheel tracking error (target minus measured) from the last closed-loop update.
+     *
+     * @param wheel one of {@link #WHEEL_FL}, {@link #WHEEL_FR}, {@link #WHEEL_BL}, {@link #WHEEL_BR}
+     * @return tracking error in inches/sec, or NaN without velocity sources
+     */
+    public double getWheelErrorIps(int wheel) {
+        return getWheelTargetIps(wheel) - getWheelMeasuredIps(wheel);
+    }
+
+    /**
+     * @param wheel one of {@link #WHEEL_FL}, {@link #WHEEL_FR}, {@link #WHEEL_BL}, {@link #WHEEL_BR}
+     * @return true if the traction stage flagged this wheel as slipping on the last update
+     */
+    public boolean isWheelSlipping(int wheel) {
+        return tractionActive && wheelSlipping[wheel];
+    }
+
+    /**
+     * @return current adaptive axial rate limit (command units/sec) from the traction stage
+     */
+    public double getAxialTractionRate() {
+        return axialTractionRate;
+    }
+
+    /**
+     * @return current adaptive lateral rate limit (command units/sec) from the traction stage
+     */
+    public double getLateralTractionRate() {
+        return lateralTractionRate;
+    }
+
+    /**
+     * @return current adaptive omega rate limit (command units/sec) from the traction stage
+     */
+    public double getOmegaTractionRate() {
+        return omegaTractionRate;
+    }
+
     /**
      * @return last commanded (scaled and rate-limited) axial command.
      */
@@ -2,6 +2,8 @@ package edu.ftcphoenix.fw.drive.control;
 
 import java.util.Objects;
 
+import edu.ftcphoenix.fw.core.control.TrapezoidProfile;
+import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.drive.ChassisSpeeds;
 import edu.ftcphoenix.fw.core.geometry.Pose2d;
 import edu.ftcphoenix.fw.core.math.MathUtil;
@@ -20,6 +22,25 @@ import edu.ftcphoenix.fw.core.math.MathUtil;
  *       feedforward) into {@code omegaRobotRadPerSec}.</li>
  * </ul>
  *
+ * <h2>Profiled mode</h2>
+ *
+ * <p>With {@link Config#profiled} enabled and the dt-aware
+ * {@link #update(Pose2d, Pose2d, double, double)} overload, the controller also generates an
+ * online trapezoidal velocity profile toward the target (see {@link TrapezoidProfile}). The
+ * profile is replanned every loop from the current pose estimate, so pose corrections never
+ * leave it stale. The profile velocity is used as feedforward and the proportional term stays
+ * on as feedback:</p>
+ *
+ * <pre>{@code
+ * v = profileSpeed * unitErrorDirection + kPPosition * error
+ * omegaFF += profileOmega   // handed to the HeadingController with its own kP feedback
+ * }</pre>
+ *
+ * <p>This lets the robot accelerate smoothly, cruise at full speed, and brake at a bounded rate
+ * so it arrives without the slow exponential tail of a P-only approach, and without the
+ * overshoot that comes from simply raising {@code kPPosition}. Profiled mode keeps state (the
+ * previous profile velocity); call {@link #reset()} when starting a new move.</p>
+ *
  * <p>It does <strong>not</strong> decide when the target is reached; callers are
  * expected to check position and heading error separately and stop or switch
  * behaviors when tolerances are met.</p>
@@ -65,6 +86,46 @@ public final class GoToPoseController {
          */
         public double maxLateralInchesPerSec = 40.0;
 
+        /**
+         * Enable the online trapezoidal profile (velocity feedforward plus P feedback).
+         *
+         * <p>Only takes effect through {@link #update(Pose2d, Pose2d, double, double)}; the
+         * dt-less overload always runs the plain proportional controller.</p>
+         */
+        public boolean profiled = false;
+
+        /**
+         * Profile cruise speed along the straight line to the target (inches/sec).
+         *
+         * <p>The per-axis {@link #maxAxialInchesPerSec} / {@link #maxLateralInchesPerSec}
+         * clamps still apply to the final command.</p>
+         */
+        public double profileMaxSpeedInchesPerSec = 40.0;
+
+        /**
+         * Profile acceleration limit (inches/sec^2). {@code <= 0} disables translation profiling.
+         */
+        public double profileMaxAccelInchesPerSec2 = 60.0;
+
+        /**
+         * Profile deceleration limit (inches/sec^2). {@code <= 0} uses
+         * {@link #profileMaxAccelInchesPerSec2}.
+         *
+         * <p>Braking is usually limited by wheel traction rather than motor torque, so it can
+         * be worth tuning separately.</p>
+         */
+        public double profileMaxDecelInchesPerSec2 = 0.0;
+
+        /**
+         * Profile cruise angular speed (rad/sec).
+         */
+        public double profileMaxOmegaRadPerSec = Math.toRadians(180.0);
+
+        /**
+         * Profile angular acceleration limit (rad/sec^2). {@code <= 0} disables heading profiling.
+         */
+        public double profileMaxAlphaRadPerSec2 = Math.toRadians(360.0);
+
         private Config() {
             // Defaults assigned in field initializers.
         }
@@ -84,6 +145,12 @@ public final class GoToPoseController {
             c.kPPosition = this.kPPosition;
             c.maxAxialInchesPerSec = this.maxAxialInchesPerSec;
             c.maxLateralInchesPerSec = this.maxLateralInchesPerSec;
+            c.profiled = this.profiled;
+            c.profileMaxSpeedInchesPerSec = this.profileMaxSpeedInchesPerSec;
+            c.profileMaxAccelInchesPerSec2 = this.profileMaxAccelInchesPerSec2;
+            c.profileMaxDecelInchesPerSec2 = this.profileMaxDecelInchesPerSec2;
+            c.profileMaxOmegaRadPerSec = this.profileMaxOmegaRadPerSec;
+            c.profileMaxAlphaRadPerSec2 = this.profileMaxAlphaRadPerSec2;
             return c;
         }
     }
@@ -91,9 +158,20 @@ public final class GoToPoseController {
     private final double kPPosition;
     private final double maxAxialInchesPerSec;
     private final double maxLateralInchesPerSec;
+    private final boolean profiled;
+    private final double profileMaxSpeed;
+    private final double profileMaxAccel;
+    private final double profileMaxDecel;
+    private final double profileMaxOmega;
+    private final double profileMaxAlpha;
     private final HeadingStrategy headingStrategy;
     private final HeadingController headingController;
 
+    // Profile state (field frame), carried between loops in profiled mode.
+    private double profileVxField = 0.0;
+    private double profileVyField = 0.0;
+    private double profileOmega = 0.0;
+
     /**
      * Creates a new {@code GoToPoseController}.
      *
@@ -113,14 +191,41 @@ public final class GoToPoseController {
         this.kPPosition = cfg.kPPosition;
         this.maxAxialInchesPerSec = Math.abs(cfg.maxAxialInchesPerSec);
         this.maxLateralInchesPerSec = Math.abs(cfg.maxLateralInchesPerSec);
+        this.profiled = cfg.profiled;
+        this.profileMaxSpeed = Math.abs(cfg.profileMaxSpeedInchesPerSec);
+        this.profileMaxAccel = cfg.profileMaxAccelInchesPerSec2;
+        this.profileMaxDecel = cfg.profileMaxDecelInchesPerSec2;
+        this.profileMaxOmega = Math.abs(cfg.profileMaxOmegaRadPerSec);
+        this.profileMaxAlpha = cfg.profileMaxAlphaRadPerSec2;
         this.headingStrategy = headingStrategy;
         this.headingController = headingController;
     }
 
+    /**
+     * Clear the profile state so the next profiled update starts from rest.
+     *
+     * <p>Call this when starting a new move. It has no effect on the plain proportional mode.</p>
+     */
+    public void reset() {
+        profileVxField = 0.0;
+        profileVyField = 0.0;
+        profileOmega = 0.0;
+    }
+
+    /**
+     * @return whether this controller was configured with {@link Config#profiled}
+     */
+    public boolean isProfiled() {
+        return profiled;
+    }
+
     /**
      * Computes a robot-centric {@link ChassisSpeeds} that drives the robot toward
      * the given field-frame target robot pose.
      *
+     * <p>This overload never profiles (it has no loop period to integrate with). Use
+     * {@link #update(Pose2d, Pose2d, double, double)} for profiled mode.</p>
+     *
      * <p>This method <strong>always</strong> returns a command; it does not
      * stop or zero the outputs when the error is small. Callers are expected
      * to decide when to stop using the controller (for example, when position
@@ -136,6 +241,66 @@ public final class GoToPoseController {
             Pose2d fieldRobotPose,
             Pose2d fieldRobotTargetPose,
             double omegaFeedforwardRadPerSec
+    ) {
+        return compute(fieldRobotPose, fieldRobotTargetPose, omegaFeedforwardRadPerSec, false, 0.0, true, true);
+    }
+
+    /**
+     * Computes a robot-centric {@link ChassisSpeeds} toward the target pose, advancing the
+     * motion profile by {@code dtSec} when {@link Config#profiled} is enabled.
+     *
+     * <p>When profiling is disabled this behaves exactly like
+     * {@link #update(Pose2d, Pose2d, double)}.</p>
+     *
+     * @param fieldRobotPose            current robot pose in the field frame
+     * @param fieldRobotTargetPose      desired target robot pose in the same field frame
+     * @param omegaFeedforwardRadPerSec extra feedforward angular velocity in radians/second (may be 0.0)
+     * @param dtSec                     loop period in seconds (typically {@code clock.dtSec()})
+     * @return robot-centric {@link ChassisSpeeds} command
+     */
+    public ChassisSpeeds update(
+            Pose2d fieldRobotPose,
+            Pose2d fieldRobotTargetPose,
+            double omegaFeedforwardRadPerSec,
+            double dtSec
+    ) {
+        return compute(fieldRobotPose, fieldRobotTargetPose, omegaFeedforwardRadPerSec, profiled, dtSec, true, true);
+    }
+
+    /**
+     * Like {@link #update(Pose2d, Pose2d, double, double)}, with translation and/or rotation
+     * held at zero in the returned command (for example while the pose estimate is not trusted
+     * on that axis). The zeroing is applied where the command is built, so it costs no extra
+     * object.
+     *
+     * @param fieldRobotPose            current robot pose in the field frame
+     * @param fieldRobotTargetPose      desired target robot pose in the same field frame
+     * @param omegaFeedforwardRadPerSec extra feedforward angular velocity in radians/second (may be 0.0)
+     * @param dtSec                     loop period in seconds (typically {@code clock.dtSec()})
+     * @param translationEnabled        if false, {@code vx} and {@code vy} are zero
+     * @param rotationEnabled           if false, {@code omega} is zero
+     * @return robot-centric {@link ChassisSpeeds} command
+     */
+    public ChassisSpeeds update(
+            Pose2d fieldRobotPose,
+            Pose2d fieldRobotTargetPose,
+            double omegaFeedforwardRadPerSec,
+            double dtSec,
+            boolean translationEnabled,
+            boolean rotationEnabled
+    ) {
+        return compute(fieldRobotPose, fieldRobotTargetPose, omegaFeedforwardRadPerSec, profiled, dtSec,
+                translationEnabled, rotationEnabled);
+    }
+
+    private ChassisSpeeds compute(
+            Pose2d fieldRobotPose,
+            Pose2d fieldRobotTargetPose,
+            double omegaFeedforwardRadPerSec,
+            boolean useProfile,
+            double dtSec,
+            boolean translationEnabled,
+            boolean rotationEnabled
     ) {
         Objects.requireNonNull(fieldRobotPose, "fieldRobotPose");
         Objects.requireNonNull(fieldRobotTargetPose, "fieldRobotTargetPose");
@@ -144,17 +309,51 @@ public final class GoToPoseController {
         double dxFieldInches = fieldRobotTargetPose.xInches - fieldRobotPose.xInches;
         double dyFieldInches = fieldRobotTargetPose.yInches - fieldRobotPose.yInches;
 
-        // Convert field-frame error to robot-centric error: e_r = R(-heading) * e_f
+        // Proportional position feedback (field frame, ips).
+        double vxFieldIps = kPPosition * dxFieldInches;
+        double vyFieldIps = kPPosition * dyFieldInches;
+
+        // Desired heading from the strategy.
+        double desiredHeadingRad = headingStrategy.desiredHeading(fieldRobotPose, fieldRobotTargetPose);
+
+        if (useProfile) {
+            // Translation: profile the speed along the straight line to the target, starting
+            // from the previous profile velocity projected onto the (possibly new) direction.
+            double distInches = Math.hypot(dxFieldInches, dyFieldInches);
+            if (profileMaxAccel > 0.0 && distInches > 1e-9) {
+                double ux = dxFieldInches / distInches;
+                double uy = dyFieldInches / distInches;
+                double along = Math.max(0.0, profileVxField * ux + profileVyField * uy);
+                double speed = TrapezoidProfile.nextVelocity(
+                        distInches, along, profileMaxSpeed, profileMaxAccel, profileMaxDecel, dtSec);
+                profileVxField = speed * ux;
+                profileVyField = speed * uy;
+                vxFieldIps += profileVxField;
+                vyFieldIps += profileVyField;
+            } else {
+                profileVxField = 0.0;
+                profileVyField = 0.0;
+            }
+
+            // Heading: profile omega toward the desired heading and hand it to the heading
+            // controller as feedforward (its kP remains the feedback term).
+            double headingErrRad = Pose2d.wrapToPi(desiredHeadingRad - fieldRobotPose.headingRad);
+            if (profileMaxAlpha > 0.0) {
+                profileOmega = TrapezoidProfile.nextVelocity(
+                        headingErrRad, profileOmega, profileMaxOmega, profileMaxAlpha, 0.0, dtSec);
+                omegaFeedforwardRadPerSec += profileOmega;
+            } else {
+                profileOmega = 0.0;
+            }
+        }
+
+        // Convert field-frame velocity to robot-centric: v_r = R(-heading) * v_f
         double headingRad = fieldRobotPose.headingRad;
         double cos = Math.cos(headingRad);
         double sin = Math.sin(headingRad);
 
-        double forwardErrorInches = dxFieldInches * cos + dyFieldInches * sin;
-        double leftErrorInches = -dxFieldInches * sin + dyFieldInches * cos;
-
-        // Proportional position controller -> robot-centric speed command (ips).
-        double vxRobotIps = kPPosition * forwardErrorInches;
-        double vyRobotIps = kPPosition * leftErrorInches;
+        double vxRobotIps = vxFieldIps * cos + vyFieldIps * sin;
+        double vyRobotIps = -vxFieldIps * sin + vyFieldIps * cos;
 
         // Clamp to configured maxima.
         if (maxAxialInchesPerSec > 0.0) {
@@ -165,14 +364,33 @@ public final class GoToPoseController {
         }
 
         // Heading strategy + controller -> omega (rad/sec).
-        double desiredHeadingRad = headingStrategy.desiredHeading(fieldRobotPose, fieldRobotTargetPose);
         double omegaRobotRadPerSec = headingController.update(
                 desiredHeadingRad,
                 fieldRobotPose.headingRad,
                 omegaFeedforwardRadPerSec
         );
 
-        return new ChassisSpeeds(vxRobotIps, vyRobotIps, omegaRobotRadPerSec);
+        return new ChassisSpeeds(
+                translationEnabled ? vxRobotIps : 0.0,
+                translationEnabled ? vyRobotIps : 0.0,
+                rotationEnabled ? omegaRobotRadPerSec : 0.0);
+    }
+
+    /**
+     * Dump controller configuration and profile state for debugging.
+     *
+     * @param dbg    debug sink (may be {@code null})
+     * @param prefix key prefix (may be {@code null} or empty)
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "goToPoseCtrl" : prefix;
+        dbg.addData(p + ".profiled", profiled)
+                .addData(p + ".profileVxField", profileVxField)
+                .addData(p + ".profileVyField", profileVyField)
+                .addData(p + ".profileOmega", profileOmega);
     }
 
 }
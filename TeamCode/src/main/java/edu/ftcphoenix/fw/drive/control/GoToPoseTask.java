@@ -8,6 +8,7 @@ import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.core.geometry.Pose2d;
 import edu.ftcphoenix.fw.localization.PoseEstimate;
 import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.task.ResettableTask;
 import edu.ftcphoenix.fw.task.Task;
 import edu.ftcphoenix.fw.task.TaskOutcome;
 import edu.ftcphoenix.fw.core.time.LoopClock;
@@ -26,12 +27,17 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  *       {@link TaskOutcome#TIMEOUT}.</li>
  *   <li>Once position and heading errors are within the configured tolerances,
  *       the task stops the drive and reports {@link TaskOutcome#SUCCESS}.</li>
+ *   <li>If the estimate carries a covariance, translation and rotation are gated
+ *       independently ({@link Config#maxPositionStdInches},
+ *       {@link Config#maxHeadingStdRad}): it keeps translating while heading is
+ *       uncertain and keeps turning while position is uncertain, and only
+ *       reports success when both are trusted.</li>
  * </ul>
  *
  * <p>It does not attempt any odometry integration or long-range planning; it
  * simply uses whatever pose the {@link PoseEstimator} provides each loop.</p>
  */
-public final class GoToPoseTask implements Task {
+public final class GoToPoseTask implements ResettableTask {
 
     /**
      * Configuration parameters for {@link GoToPoseTask}.
@@ -73,6 +79,20 @@ public final class GoToPoseTask implements Task {
          */
         public double maxNoPoseSec = 0.25;
 
+        /**
+         * Largest position std (inches, see {@link PoseEstimate#positionStdInches()}) at which
+         * the task still commands translation. Only applies to estimates with a covariance;
+         * infinite disables the gate.
+         */
+        public double maxPositionStdInches = Double.POSITIVE_INFINITY;
+
+        /**
+         * Largest heading std (radians, see {@link PoseEstimate#headingStdRad()}) at which the
+         * task still commands rotation. Only applies to estimates with a covariance; infinite
+         * disables the gate.
+         */
+        public double maxHeadingStdRad = Double.POSITIVE_INFINITY;
+
         private Config() {
             // Defaults assigned in field initializers.
         }
@@ -93,6 +113,8 @@ public final class GoToPoseTask implements Task {
             c.headingTolRad = this.headingTolRad;
             c.timeoutSec = this.timeoutSec;
             c.maxNoPoseSec = this.maxNoPoseSec;
+            c.maxPositionStdInches = this.maxPositionStdInches;
+            c.maxHeadingStdRad = this.maxHeadingStdRad;
             return c;
         }
     }
@@ -114,6 +136,8 @@ public final class GoToPoseTask implements Task {
     private double lastPosErrorInches = 0.0;
     private double lastHeadingErrorRad = 0.0;
     private boolean lastHasPose = false;
+    private boolean lastTranslationTrusted = true;
+    private boolean lastHeadingTrusted = true;
     private Pose2d lastRobotPose = Pose2d.zero();
     private ChassisSpeeds lastCmd = ChassisSpeeds.zero();
 
@@ -151,11 +175,29 @@ public final class GoToPoseTask implements Task {
         noPoseElapsedSec = 0.0;
         lastPosErrorInches = 0.0;
         lastHeadingErrorRad = 0.0;
+        lastTranslationTrusted = true;
+        lastHeadingTrusted = true;
+
+        // Profiled controllers start each move from rest.
+        controller.reset();
 
         // Ensure the drive is in a known state at the start.
         drivebase.stop();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>{@link #start(LoopClock)} already re-initializes all run state, so this only clears the
+     * started/finished flags.</p>
+     */
+    @Override
+    public void reset() {
+        started = false;
+        finished = false;
+        outcome = TaskOutcome.NOT_DONE;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -221,8 +263,22 @@ public final class GoToPoseTask implements Task {
         lastPosErrorInches = robotPose.distanceTo(targetPose);
         lastHeadingErrorRad = Math.abs(robotPose.headingErrorTo(targetPose));
 
+        // Per-axis uncertainty gates (estimates without a covariance are always trusted).
+        boolean translationTrusted = !estimate.hasCovariance
+                || estimate.positionStdInches() <= cfg.maxPositionStdInches;
+        boolean headingTrusted = !estimate.hasCovariance
+                || estimate.headingStdRad() <= cfg.maxHeadingStdRad;
+        if ((translationTrusted && !lastTranslationTrusted) || (headingTrusted && !lastHeadingTrusted)) {
+            // An axis is coming back: restart the profile from rest rather than from the speed
+            // it ramped to while that axis was held.
+            controller.reset();
+        }
+        lastTranslationTrusted = translationTrusted;
+        lastHeadingTrusted = headingTrusted;
+
         // Check completion conditions.
-        if (lastPosErrorInches <= cfg.positionTolInches
+        if (translationTrusted && headingTrusted
+                && lastPosErrorInches <= cfg.positionTolInches
                 && lastHeadingErrorRad <= cfg.headingTolRad) {
             drivebase.stop();
             lastCmd = ChassisSpeeds.zero();
@@ -236,7 +292,10 @@ public final class GoToPoseTask implements Task {
         double omegaFF = 0.0;
 
         // Use the controller to generate a chassis-speed command.
-        ChassisSpeeds cmd = controller.update(robotPose, targetPose, omegaFF);
+        // (dt-aware overload: advances the motion profile when the controller is profiled.)
+        // Untrusted axes are held at zero inside the controller, in the same command object.
+        ChassisSpeeds cmd = controller.update(robotPose, targetPose, omegaFF, dtSec,
+                translationTrusted, headingTrusted);
 
         lastCmd = cmd;
 
@@ -277,6 +336,8 @@ public final class GoToPoseTask implements Task {
                 .addData(p + ".elapsedSec", elapsedSec)
                 .addData(p + ".noPoseElapsedSec", noPoseElapsedSec)
                 .addData(p + ".lastHasPose", lastHasPose)
+                .addData(p + ".translationTrusted", lastTranslationTrusted)
+                .addData(p + ".headingTrusted", lastHeadingTrusted)
                 .addData(p + ".targetPose", targetPose)
                 .addData(p + ".robotPose", lastRobotPose)
                 .addData(p + ".posErrorInches", lastPosErrorInches)
@@ -285,8 +346,11 @@ public final class GoToPoseTask implements Task {
                 .addData(p + ".cfg.positionTolInches", cfg.positionTolInches)
                 .addData(p + ".cfg.headingTolRad", cfg.headingTolRad)
                 .addData(p + ".cfg.timeoutSec", cfg.timeoutSec)
-                .addData(p + ".cfg.maxNoPoseSec", cfg.maxNoPoseSec);
+                .addData(p + ".cfg.maxNoPoseSec", cfg.maxNoPoseSec)
+                .addData(p + ".cfg.maxPositionStdInches", cfg.maxPositionStdInches)
+                .addData(p + ".cfg.maxHeadingStdRad", cfg.maxHeadingStdRad);
 
+        controller.debugDump(dbg, p + ".controller");
         poseEstimator.debugDump(dbg, p + ".poseEstimator");
         drivebase.debugDump(dbg, p + ".drivebase");
     }
@@ -46,6 +46,34 @@ public final class GoToPoseTasks {
          */
         public double maxLateralInchesPerSec = 40.0;
 
+        // ---------------
+        // Motion profile
+        // ---------------
+
+        /**
+         * Use an online trapezoidal profile (velocity feedforward + P feedback) instead of
+         * P-only control. See {@link GoToPoseController.Config#profiled}.
+         *
+         * <p>With profiling on, {@link #kPos} only has to clean up small tracking errors, so
+         * moves reach tolerance sooner and without the overshoot of a high P gain.</p>
+         */
+        public boolean profiled = false;
+
+        /**
+         * Profile acceleration limit (ips^2).
+         */
+        public double maxAccelInchesPerSec2 = 60.0;
+
+        /**
+         * Profile deceleration limit (ips^2). {@code <= 0} uses {@link #maxAccelInchesPerSec2}.
+         */
+        public double maxDecelInchesPerSec2 = 0.0;
+
+        /**
+         * Profile angular acceleration limit (rad/sec^2).
+         */
+        public double maxAlphaRadPerSec2 = Math.toRadians(360.0);
+
         // --------------
         // Heading control
         // --------------
@@ -82,6 +110,18 @@ public final class GoToPoseTasks {
          */
         public double maxNoPoseSec = 0.25;
 
+        /**
+         * Hold translation while the pose's position std exceeds this (inches).
+         * See {@link GoToPoseTask.Config#maxPositionStdInches}.
+         */
+        public double maxPositionStdInches = Double.POSITIVE_INFINITY;
+
+        /**
+         * Hold rotation while the pose's heading std exceeds this (radians).
+         * See {@link GoToPoseTask.Config#maxHeadingStdRad}.
+         */
+        public double maxHeadingStdRad = Double.POSITIVE_INFINITY;
+
         private Config() {
             // Defaults assigned in field initializers.
         }
@@ -102,6 +142,11 @@ public final class GoToPoseTasks {
             c.maxAxialInchesPerSec = this.maxAxialInchesPerSec;
             c.maxLateralInchesPerSec = this.maxLateralInchesPerSec;
 
+            c.profiled = this.profiled;
+            c.maxAccelInchesPerSec2 = this.maxAccelInchesPerSec2;
+            c.maxDecelInchesPerSec2 = this.maxDecelInchesPerSec2;
+            c.maxAlphaRadPerSec2 = this.maxAlphaRadPerSec2;
+
             c.kHeading = this.kHeading;
             c.maxOmegaRadPerSec = this.maxOmegaRadPerSec;
             c.headingStrategy = this.headingStrategy;
@@ -110,6 +155,8 @@ public final class GoToPoseTasks {
             c.headingToleranceRad = this.headingToleranceRad;
             c.timeoutSec = this.timeoutSec;
             c.maxNoPoseSec = this.maxNoPoseSec;
+            c.maxPositionStdInches = this.maxPositionStdInches;
+            c.maxHeadingStdRad = this.maxHeadingStdRad;
             return c;
         }
     }
@@ -137,6 +184,12 @@ public final class GoToPoseTasks {
         posCfg.kPPosition = c.kPos;
         posCfg.maxAxialInchesPerSec = c.maxAxialInchesPerSec;
         posCfg.maxLateralInchesPerSec = c.maxLateralInchesPerSec;
+        posCfg.profiled = c.profiled;
+        posCfg.profileMaxSpeedInchesPerSec = Math.max(c.maxAxialInchesPerSec, c.maxLateralInchesPerSec);
+        posCfg.profileMaxAccelInchesPerSec2 = c.maxAccelInchesPerSec2;
+        posCfg.profileMaxDecelInchesPerSec2 = c.maxDecelInchesPerSec2;
+        posCfg.profileMaxOmegaRadPerSec = c.maxOmegaRadPerSec;
+        posCfg.profileMaxAlphaRadPerSec2 = c.maxAlphaRadPerSec2;
 
         // Heading controller config.
         HeadingController.Config headingCfg = HeadingController.Config.defaults();
@@ -156,6 +209,8 @@ public final class GoToPoseTasks {
         taskCfg.headingTolRad = c.headingToleranceRad;
         taskCfg.timeoutSec = c.timeoutSec;
         taskCfg.maxNoPoseSec = c.maxNoPoseSec;
+        taskCfg.maxPositionStdInches = c.maxPositionStdInches;
+        taskCfg.maxHeadingStdRad = c.maxHeadingStdRad;
 
         return new GoToPoseTask(poseEstimator, controller, drivebase, fieldRobotTargetPose, taskCfg);
     }
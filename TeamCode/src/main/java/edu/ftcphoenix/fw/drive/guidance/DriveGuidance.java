@@ -383,6 +383,34 @@ public final class DriveGuidance {
          */
         FeedbackBuilder<RETURN> observation(ObservationSource2d observation, double maxAgeSec, double minQuality);
 
+        /**
+         * Compensate observation latency using measured robot motion.
+         *
+         * <p>Each loop, DriveGuidance records the pose from {@code motionEstimator}. When an
+         * observation arrives, the robot motion since the frame was captured
+         * ({@code now - ageSec}) is removed, so aim and translation react to where the target is
+         * <em>now</em> rather than where it was. This lets you raise {@code kPAim} without the aim
+         * loop oscillating while the robot turns.</p>
+         *
+         * <p>Use an odometry-only estimator (e.g. Pinpoint); it must be updated every loop as usual.
+         * See {@link DriveGuidancePlan.LatencyCompensation#MOTION_HISTORY}.</p>
+         *
+         * @param motionEstimator odometry pose estimator in the loop clock's time base
+         */
+        FeedbackBuilder<RETURN> observationLatencyFromMotion(PoseEstimator motionEstimator);
+
+        /**
+         * Compensate observation latency with a Smith-predictor style model of the aim loop.
+         *
+         * <p>DriveGuidance integrates its own omega commands since the frame was captured and
+         * subtracts the predicted heading change from the observed bearing. No odometry is required,
+         * but driver-commanded turning is not modeled. See
+         * {@link DriveGuidancePlan.LatencyCompensation#SMITH_PREDICTOR}.</p>
+         *
+         * @param omegaRadPerSecPerCmd measured turn rate (rad/s) per unit omega command (must be &gt; 0)
+         */
+        FeedbackBuilder<RETURN> observationLatencySmithPredictor(double omegaRadPerSecPerCmd);
+
         /**
          * Use field-pose feedback (odometry / localization) with default gating.
          *
@@ -403,6 +431,20 @@ public final class DriveGuidance {
          */
         FeedbackBuilder<RETURN> fieldPose(PoseEstimator poseEstimator, TagLayout tagLayout, double maxAgeSec, double minQuality);
 
+        /**
+         * Gate field-pose feedback per axis on the estimate's covariance.
+         *
+         * <p>Translation is held off while the position std exceeds {@code maxPositionStdInches},
+         * and omega while the aim std exceeds {@code maxHeadingStdRad}, independently: the robot
+         * can still translate while heading is uncertain, or aim while translation is uncertain.
+         * Estimates without a covariance are not gated. Pass {@link Double#POSITIVE_INFINITY} to
+         * disable either gate.</p>
+         *
+         * @param maxPositionStdInches largest position std (inches) that still drives translation
+         * @param maxHeadingStdRad     largest aim std (radians) that still drives omega
+         */
+        FeedbackBuilder<RETURN> fieldPoseUncertaintyGates(double maxPositionStdInches, double maxHeadingStdRad);
+
         /**
          * Set (or replace) the tag layout used for tag-relative targets in field-pose mode.
          */
@@ -464,11 +506,16 @@ public final class DriveGuidance {
         ObservationSource2d observationSource;
         double obsMaxAgeSec = DriveGuidancePlan.Observation.DEFAULT_MAX_AGE_SEC;
         double obsMinQuality = DriveGuidancePlan.Observation.DEFAULT_MIN_QUALITY;
+        DriveGuidancePlan.LatencyCompensation obsLatency = DriveGuidancePlan.LatencyCompensation.NONE;
+        PoseEstimator obsMotionEstimator;
+        double obsSmithOmegaPerCmd = 0.0;
 
         PoseEstimator poseEstimator;
         TagLayout tagLayout;
         double poseMaxAgeSec = DriveGuidancePlan.FieldPose.DEFAULT_MAX_AGE_SEC;
         double poseMinQuality = DriveGuidancePlan.FieldPose.DEFAULT_MIN_QUALITY;
+        double poseMaxPositionStdIn = DriveGuidancePlan.FieldPose.DEFAULT_MAX_POSITION_STD_IN;
+        double poseMaxHeadingStdRad = DriveGuidancePlan.FieldPose.DEFAULT_MAX_HEADING_STD_RAD;
 
         DriveGuidancePlan.Gates gates;
         boolean preferObsOmega = true;
@@ -487,12 +534,19 @@ public final class DriveGuidance {
         // Build feedback config.
         DriveGuidancePlan.Observation obs = null;
         if (s.observationSource != null) {
-            obs = new DriveGuidancePlan.Observation(s.observationSource, s.obsMaxAgeSec, s.obsMinQuality);
+            obs = new DriveGuidancePlan.Observation(
+                    s.observationSource,
+                    s.obsMaxAgeSec,
+                    s.obsMinQuality,
+                    s.obsLatency,
+                    s.obsMotionEstimator,
+                    s.obsSmithOmegaPerCmd);
         }
 
         DriveGuidancePlan.FieldPose fp = null;
         if (s.poseEstimator != null) {
-            fp = new DriveGuidancePlan.FieldPose(s.poseEstimator, s.tagLayout, s.poseMaxAgeSec, s.poseMinQuality);
+            fp = new DriveGuidancePlan.FieldPose(s.poseEstimator, s.tagLayout, s.poseMaxAgeSec, s.poseMinQuality,
+                    s.poseMaxPositionStdIn, s.poseMaxHeadingStdRad);
         }
 
         if (obs == null && fp == null) {
@@ -546,6 +600,14 @@ public final class DriveGuidance {
             }
         }
 
+        if (s.obsLatency != DriveGuidancePlan.LatencyCompensation.NONE && !hasObs) {
+            errors.add("observationLatencyFromMotion(...) / observationLatencySmithPredictor(...) require observation(...) feedback");
+        }
+        if (s.obsLatency == DriveGuidancePlan.LatencyCompensation.SMITH_PREDICTOR
+                && (!Double.isFinite(s.obsSmithOmegaPerCmd) || s.obsSmithOmegaPerCmd <= 0.0)) {
+            errors.add("observationLatencySmithPredictor(...): omegaRadPerSecPerCmd must be > 0");
+        }
+
         if (hasFieldPose) {
             if (!Double.isFinite(s.poseMaxAgeSec) || s.poseMaxAgeSec < 0.0) {
                 errors.add("fieldPose(...): maxAgeSec must be >= 0");
@@ -553,6 +615,9 @@ public final class DriveGuidance {
             if (!Double.isFinite(s.poseMinQuality) || s.poseMinQuality < 0.0 || s.poseMinQuality > 1.0) {
                 errors.add("fieldPose(...): minQuality must be in [0, 1]");
             }
+            if (!(s.poseMaxPositionStdIn > 0.0) || !(s.poseMaxHeadingStdRad > 0.0)) {
+                errors.add("fieldPoseUncertaintyGates(...): limits must be > 0");
+            }
         }
 
         if (s.gates != null) {
@@ -890,6 +955,21 @@ public final class DriveGuidance {
             return this;
         }
 
+        @Override
+        public FeedbackBuilder<RETURN> observationLatencyFromMotion(PoseEstimator motionEstimator) {
+            s.obsMotionEstimator = Objects.requireNonNull(motionEstimator, "motionEstimator");
+            s.obsLatency = DriveGuidancePlan.LatencyCompensation.MOTION_HISTORY;
+            return this;
+        }
+
+        @Override
+        public FeedbackBuilder<RETURN> observationLatencySmithPredictor(double omegaRadPerSecPerCmd) {
+            s.obsMotionEstimator = null;
+            s.obsSmithOmegaPerCmd = omegaRadPerSecPerCmd;
+            s.obsLatency = DriveGuidancePlan.LatencyCompensation.SMITH_PREDICTOR;
+            return this;
+        }
+
         @Override
         public FeedbackBuilder<RETURN> fieldPose(PoseEstimator poseEstimator) {
             s.poseEstimator = Objects.requireNonNull(poseEstimator, "poseEstimator");
@@ -919,6 +999,13 @@ public final class DriveGuidance {
             return this;
         }
 
+        @Override
+        public FeedbackBuilder<RETURN> fieldPoseUncertaintyGates(double maxPositionStdInches, double maxHeadingStdRad) {
+            s.poseMaxPositionStdIn = maxPositionStdInches;
+            s.poseMaxHeadingStdRad = maxHeadingStdRad;
+            return this;
+        }
+
         @Override
         public FeedbackBuilder<RETURN> tagLayout(TagLayout tagLayout) {
             s.tagLayout = tagLayout;
@@ -28,6 +28,9 @@ final class DriveGuidanceEvaluator {
     // overlay becomes enabled. This allows "move forward N inches" style plans.
     private Pose2d fieldToTranslationFrameAnchor = null;
 
+    // Motion/command history for observation latency compensation.
+    private final ObservationLatencyCompensator latency = new ObservationLatencyCompensator();
+
     DriveGuidanceEvaluator(DriveGuidancePlan plan) {
         this.plan = plan;
     }
@@ -35,6 +38,7 @@ final class DriveGuidanceEvaluator {
     void onEnable() {
         lastObservedTagId = -1;
         fieldToTranslationFrameAnchor = null;
+        latency.clear();
     }
 
     int lastObservedTagId() {
@@ -45,10 +49,32 @@ final class DriveGuidanceEvaluator {
         return fieldToTranslationFrameAnchor;
     }
 
+    /**
+     * Heading change (radians) removed from the most recent observation by latency compensation.
+     */
+    double lastLatencyDeltaHeadingRad() {
+        return latency.lastDeltaHeadingRad();
+    }
+
+    /**
+     * Record the omega command the overlay applied this loop (Smith-predictor history).
+     */
+    void recordAppliedOmega(LoopClock clock, double omegaCmd) {
+        DriveGuidancePlan.Observation cfg = plan.feedback.observation;
+        if (cfg != null && cfg.latencyCompensation == DriveGuidancePlan.LatencyCompensation.SMITH_PREDICTOR) {
+            latency.recordOmegaCmd(clock, omegaCmd);
+        }
+    }
+
     Solution solveWithObservation(LoopClock clock) {
         DriveGuidancePlan.Observation cfg = plan.feedback.observation;
         TargetObservation2d obs = cfg.source.sample(clock);
 
+        // Motion history must be recorded every loop, even when there is no usable observation.
+        if (cfg.latencyCompensation == DriveGuidancePlan.LatencyCompensation.MOTION_HISTORY) {
+            latency.recordPose(clock, cfg.motionEstimator.getEstimate());
+        }
+
         if (obs == null) {
             return Solution.invalid();
         }
@@ -65,13 +91,28 @@ final class DriveGuidanceEvaluator {
             lastObservedTagId = obs.targetId;
         }
 
-        // Observation feedback is robot-relative.
+        // Observation feedback is robot-relative, in the robot frame at capture time.
         boolean hasPos = obs.hasPosition();
         Pose2d robotToAnchorPose = hasPos
                 ? new Pose2d(obs.forwardInches, obs.leftInches, obs.hasOrientation() ? obs.targetHeadingRad : 0.0)
                 : null;
+        double bearingRad = obs.bearingRad;
+
+        // Latency compensation: move the observation into the robot frame *now*.
+        Pose2d robotNowToRobotAtCapture = latencyCorrection(cfg, clock, obs.ageSec);
+        if (robotNowToRobotAtCapture != null) {
+            if (robotToAnchorPose != null) {
+                robotToAnchorPose = robotNowToRobotAtCapture.then(robotToAnchorPose);
+                bearingRad = Math.atan2(robotToAnchorPose.yInches, robotToAnchorPose.xInches);
+            } else {
+                // Bearing-only: without range we can only remove the rotation.
+                bearingRad = Pose2d.wrapToPi(bearingRad + robotNowToRobotAtCapture.headingRad);
+            }
+        }
 
-        double rangeIn = hasPos ? Math.hypot(obs.forwardInches, obs.leftInches) : Double.NaN;
+        double rangeIn = (robotToAnchorPose != null)
+                ? Math.hypot(robotToAnchorPose.xInches, robotToAnchorPose.yInches)
+                : Double.NaN;
         boolean hasRange = Double.isFinite(rangeIn);
 
         // Compute errors.
@@ -130,7 +171,7 @@ final class DriveGuidanceEvaluator {
                         && Math.abs(robotToAimFrame.yInches) < 1e-9;
 
                 if (idMatches && aimingAtCenter && aimFrameAtOrigin) {
-                    omegaErr = Pose2d.wrapToPi(obs.bearingRad - robotToAimFrame.headingRad);
+                    omegaErr = Pose2d.wrapToPi(bearingRad - robotToAimFrame.headingRad);
                     canOmega = true;
                 }
             }
@@ -142,6 +183,30 @@ final class DriveGuidanceEvaluator {
         return new Solution(true, canTranslate, canOmega, forwardErr, leftErr, omegaErr, hasRange, rangeIn);
     }
 
+    /**
+     * Transform {@code robotNow -> robotAtCapture} for an observation of the given age, or
+     * {@code null} when compensation is disabled or no history is available.
+     */
+    private Pose2d latencyCorrection(DriveGuidancePlan.Observation cfg, LoopClock clock, double ageSec) {
+        if (clock == null || !(ageSec > 0.0)) {
+            return null;
+        }
+        double captureTimeSec = clock.nowSec() - ageSec;
+
+        switch (cfg.latencyCompensation) {
+            case MOTION_HISTORY:
+                return latency.robotNowToRobotAtCapture(captureTimeSec);
+            case SMITH_PREDICTOR: {
+                double turnedRad = latency.predictedHeadingChangeRad(
+                        captureTimeSec, clock.nowSec(), cfg.smithOmegaRadPerSecPerCmd);
+                return new Pose2d(0.0, 0.0, -turnedRad);
+            }
+            case NONE:
+            default:
+                return null;
+        }
+    }
+
     Solution solveWithFieldPose() {
         DriveGuidancePlan.FieldPose cfg = plan.feedback.fieldPose;
         PoseEstimate est = cfg.poseEstimator.getEstimate();
@@ -187,6 +252,7 @@ final class DriveGuidanceEvaluator {
 
         boolean canTranslate = false;
         boolean canOmega = false;
+        double aimRangeIn = Double.POSITIVE_INFINITY;
 
         // --- Translation ---
         if (fieldToTranslatePoint != null) {
@@ -213,9 +279,28 @@ final class DriveGuidanceEvaluator {
             Pose2d fieldToAimFrame = fieldToRobot.then(plan.controlFrames.robotToAimFrame());
             Pose2d aimFrameToPoint = fieldToAimFrame.inverse().then(fieldToAimPoint);
             omegaErr = Pose2d.wrapToPi(Math.atan2(aimFrameToPoint.yInches, aimFrameToPoint.xInches));
+            aimRangeIn = Math.hypot(aimFrameToPoint.xInches, aimFrameToPoint.yInches);
             canOmega = true;
         }
 
+        // --- Per-axis uncertainty gates ---
+        // Each axis drops out on its own, so the robot can still translate while heading is
+        // uncertain (or aim while position is uncertain).
+        if (est.hasCovariance) {
+            double posStd = est.positionStdInches();
+            if (canTranslate && posStd > cfg.maxPositionStdInches) {
+                canTranslate = false;
+            }
+            if (canOmega) {
+                // Position uncertainty shows up as bearing uncertainty to a point target.
+                double bearingStd = posStd / Math.max(aimRangeIn, 1e-6);
+                double aimStd = Math.sqrt(est.covHH + bearingStd * bearingStd);
+                if (aimStd > cfg.maxHeadingStdRad) {
+                    canOmega = false;
+                }
+            }
+        }
+
         return new Solution(true, canTranslate, canOmega, forwardErr, leftErr, omegaErr, false, Double.NaN);
     }
 
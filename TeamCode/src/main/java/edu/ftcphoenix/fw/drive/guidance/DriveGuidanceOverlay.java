@@ -62,6 +62,7 @@ final class DriveGuidanceOverlay implements DriveOverlay {
             Solution chosen = fb.hasObservation() ? obs : field;
             lastMode = fb.hasObservation() ? "observation" : "fieldPose";
             lastOut = applyLossPolicy(chosen, requested, fb.lossPolicy);
+            recordApplied(clock, lastOut);
             return lastOut;
         }
 
@@ -172,6 +173,7 @@ final class DriveGuidanceOverlay implements DriveOverlay {
 
         lastMode = "adaptive";
         lastOut = out;
+        recordApplied(clock, out);
         return out;
     }
 
@@ -189,6 +191,10 @@ final class DriveGuidanceOverlay implements DriveOverlay {
         dbg.addData(p + ".adaptive.blendTTranslate", blendTTranslate);
         dbg.addData(p + ".adaptive.blendTOmega", blendTOmega);
         dbg.addData(p + ".adaptive.lastObservedTagId", evaluator.lastObservedTagId());
+        if (plan.feedback.hasObservation()) {
+            dbg.addData(p + ".latency.mode", plan.feedback.observation.latencyCompensation.toString());
+            dbg.addData(p + ".latency.deltaHeadingRad", evaluator.lastLatencyDeltaHeadingRad());
+        }
         Pose2d anchor = evaluator.fieldToTranslationFrameAnchor();
         dbg.addData(p + ".robotRelative.translationAnchor", anchor != null ? anchor.toString() : "null");
     }
@@ -237,6 +243,14 @@ final class DriveGuidanceOverlay implements DriveOverlay {
     // Helpers
     // ------------------------------------------------------------------------
 
+    /**
+     * Feed the omega we actually commanded back to the evaluator (Smith-predictor history).
+     * When guidance does not own omega this loop, the driver does, and we record 0.
+     */
+    private void recordApplied(LoopClock clock, DriveOverlayOutput out) {
+        evaluator.recordAppliedOmega(clock, out.mask.overridesOmega() ? out.signal.omega : 0.0);
+    }
+
     private static double updateBlend(double current, boolean chooseObs, double step) {
         if (chooseObs) {
             return Math.min(1.0, current + step);
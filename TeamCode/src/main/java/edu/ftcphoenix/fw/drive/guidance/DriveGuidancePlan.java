@@ -404,6 +404,36 @@ public final class DriveGuidancePlan {
         }
     }
 
+    /**
+     * How observation feedback compensates for camera latency.
+     *
+     * <p>An observation describes where the target was when the frame was captured,
+     * {@code ageSec} ago (often 50–100 ms). If the robot is turning, aim control chases a stale
+     * bearing and tends to oscillate, which forces a low {@code kPAim}. Compensating for the motion
+     * since capture lets you run a noticeably higher aim gain.</p>
+     */
+    public enum LatencyCompensation {
+        /**
+         * Use observations exactly as reported (original behavior).
+         */
+        NONE,
+
+        /**
+         * Measure robot motion since the frame was captured using a pose estimator
+         * (typically raw odometry such as Pinpoint) and move the observation into the current
+         * robot frame. Corrects both heading and translation; also covers driver-commanded motion.
+         */
+        MOTION_HISTORY,
+
+        /**
+         * Smith-predictor style: predict the heading change since capture from the omega commands
+         * guidance itself applied, through a simple gain model
+         * ({@link Observation#smithOmegaRadPerSecPerCmd}). Works without odometry, but does not see
+         * turning that guidance did not command.
+         */
+        SMITH_PREDICTOR
+    }
+
     /**
      * Observation feedback parameters.
      */
@@ -424,14 +454,51 @@ public final class DriveGuidancePlan {
          */
         public final double minQuality;
 
+        /**
+         * Latency compensation mode (never null; {@link LatencyCompensation#NONE} by default).
+         *
+         * <p>Do not combine with an observation source that already predicts forward in time
+         * (for example {@link ShotLeadSolver#leadObservation}); the motion would be compensated twice.</p>
+         */
+        public final LatencyCompensation latencyCompensation;
+
+        /**
+         * Motion source for {@link LatencyCompensation#MOTION_HISTORY} (null otherwise).
+         *
+         * <p>Prefer an odometry-only estimator: vision corrections in a fused estimator show up as
+         * "motion" and would be applied to the observation.</p>
+         */
+        public final PoseEstimator motionEstimator;
+
+        /**
+         * Model gain for {@link LatencyCompensation#SMITH_PREDICTOR}: robot turn rate (rad/s) per unit
+         * of omega command. Measure it by commanding a constant omega and reading the heading rate.
+         */
+        public final double smithOmegaRadPerSecPerCmd;
+
         public Observation(ObservationSource2d source) {
             this(source, DEFAULT_MAX_AGE_SEC, DEFAULT_MIN_QUALITY);
         }
 
         public Observation(ObservationSource2d source, double maxAgeSec, double minQuality) {
+            this(source, maxAgeSec, minQuality, LatencyCompensation.NONE, null, 0.0);
+        }
+
+        public Observation(ObservationSource2d source,
+                           double maxAgeSec,
+                           double minQuality,
+                           LatencyCompensation latencyCompensation,
+                           PoseEstimator motionEstimator,
+                           double smithOmegaRadPerSecPerCmd) {
             this.source = Objects.requireNonNull(source, "source");
             this.maxAgeSec = maxAgeSec;
             this.minQuality = minQuality;
+            this.latencyCompensation = (latencyCompensation != null) ? latencyCompensation : LatencyCompensation.NONE;
+            if (this.latencyCompensation == LatencyCompensation.MOTION_HISTORY) {
+                Objects.requireNonNull(motionEstimator, "motionEstimator");
+            }
+            this.motionEstimator = motionEstimator;
+            this.smithOmegaRadPerSecPerCmd = smithOmegaRadPerSecPerCmd;
         }
     }
 
@@ -442,6 +509,8 @@ public final class DriveGuidancePlan {
 
         public static final double DEFAULT_MAX_AGE_SEC = 0.50;
         public static final double DEFAULT_MIN_QUALITY = 0.10;
+        public static final double DEFAULT_MAX_POSITION_STD_IN = Double.POSITIVE_INFINITY;
+        public static final double DEFAULT_MAX_HEADING_STD_RAD = Double.POSITIVE_INFINITY;
 
         public final PoseEstimator poseEstimator;
 
@@ -460,6 +529,25 @@ public final class DriveGuidancePlan {
          */
         public final double minQuality;
 
+        /**
+         * Per-axis uncertainty gate: translation is only driven while the estimate's position std
+         * (inches, least certain direction) is at or below this value.
+         *
+         * <p>Only applies to estimates that carry a covariance
+         * ({@link edu.ftcphoenix.fw.localization.PoseEstimate#hasCovariance}). Infinite disables
+         * the gate.</p>
+         */
+        public final double maxPositionStdInches;
+
+        /**
+         * Per-axis uncertainty gate: omega is only driven while the aim error's std (radians) is at
+         * or below this value.
+         *
+         * <p>For a field heading this is the heading std; for a point target the position std is
+         * folded in as bearing uncertainty at the current range. Infinite disables the gate.</p>
+         */
+        public final double maxHeadingStdRad;
+
         public FieldPose(PoseEstimator poseEstimator) {
             this(poseEstimator, null, DEFAULT_MAX_AGE_SEC, DEFAULT_MIN_QUALITY);
         }
@@ -472,10 +560,22 @@ public final class DriveGuidancePlan {
                          TagLayout tagLayout,
                          double maxAgeSec,
                          double minQuality) {
+            this(poseEstimator, tagLayout, maxAgeSec, minQuality,
+                    DEFAULT_MAX_POSITION_STD_IN, DEFAULT_MAX_HEADING_STD_RAD);
+        }
+
+        public FieldPose(PoseEstimator poseEstimator,
+                         TagLayout tagLayout,
+                         double maxAgeSec,
+                         double minQuality,
+                         double maxPositionStdInches,
+                         double maxHeadingStdRad) {
             this.poseEstimator = Objects.requireNonNull(poseEstimator, "poseEstimator");
             this.tagLayout = tagLayout;
             this.maxAgeSec = maxAgeSec;
             this.minQuality = minQuality;
+            this.maxPositionStdInches = maxPositionStdInches;
+            this.maxHeadingStdRad = maxHeadingStdRad;
         }
     }
 
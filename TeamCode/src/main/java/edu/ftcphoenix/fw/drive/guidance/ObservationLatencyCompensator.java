@@ -0,0 +1,204 @@
+package edu.ftcphoenix.fw.drive.guidance;
+
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.localization.PoseEstimate;
+
+/**
+ * Short motion history used to bring stale observations forward to "now".
+ *
+ * <p>A camera observation is {@code ageSec} old by the time guidance sees it. If the robot turned
+ * (or drove) during that time, the observed bearing is wrong by exactly that motion. This class
+ * keeps a small fixed-size ring of recent motion and answers: <em>how has the robot moved since
+ * time {@code t}?</em></p>
+ *
+ * <p>Two history sources are supported, matching {@link DriveGuidancePlan.LatencyCompensation}:</p>
+ * <ul>
+ *   <li><b>Measured motion</b>: field poses from a (typically odometry-only) {@code PoseEstimator},
+ *       recorded once per loop. The answer is a full planar transform (heading and translation).</li>
+ *   <li><b>Smith predictor</b>: the omega commands guidance itself applied, integrated through a
+ *       simple gain model ({@code rad/s per unit omega command}). The answer is heading-only. This
+ *       works without odometry, but only models guidance's own turning.</li>
+ * </ul>
+ *
+ * <p>All storage is preallocated; recording and lookups are allocation-free except for the
+ * returned {@link Pose2d} in measured mode.</p>
+ */
+final class ObservationLatencyCompensator {
+
+    private static final int CAPACITY = 64;
+
+    // Ring storage (oldest at head, newest at head + count - 1).
+    private final double[] tSec = new double[CAPACITY];
+    private final double[] xIn = new double[CAPACITY];
+    private final double[] yIn = new double[CAPACITY];
+    private final double[] headingRad = new double[CAPACITY];
+    private final double[] omegaCmd = new double[CAPACITY];
+    private int head = 0;
+    private int count = 0;
+
+    // Last cycle we recorded in, so repeated calls in the same loop are no-ops.
+    private long lastCycle = Long.MIN_VALUE;
+
+    // Debug: last compensation applied.
+    private double lastDeltaHeadingRad = 0.0;
+
+    void clear() {
+        head = 0;
+        count = 0;
+        lastCycle = Long.MIN_VALUE;
+        lastDeltaHeadingRad = 0.0;
+    }
+
+    double lastDeltaHeadingRad() {
+        return lastDeltaHeadingRad;
+    }
+
+    // ------------------------------------------------------------------------
+    // Measured motion (pose history)
+    // ------------------------------------------------------------------------
+
+    /**
+     * Record the motion estimator's current pose (at most once per loop).
+     */
+    void recordPose(LoopClock clock, PoseEstimate est) {
+        if (clock == null || est == null || !est.hasPose || clock.cycle() == lastCycle) {
+            return;
+        }
+        lastCycle = clock.cycle();
+
+        double t = Double.isFinite(est.timestampSec) ? est.timestampSec : clock.nowSec() - est.ageSec;
+        if (count > 0 && t <= tSec[index(count - 1)]) {
+            return; // same sample as last loop (estimator not updated)
+        }
+
+        Pose2d p = est.toPose2d();
+        int i = push(t);
+        xIn[i] = p.xInches;
+        yIn[i] = p.yInches;
+        headingRad[i] = p.headingRad;
+    }
+
+    /**
+     * Transform from the robot frame at {@code captureTimeSec} to the robot frame now
+     * ({@code robotNow -> robotAtCapture}), or {@code null} if there is no history.
+     *
+     * <p>Capture times older than the history are clamped to the oldest sample (partial
+     * compensation is still better than none).</p>
+     */
+    Pose2d robotNowToRobotAtCapture(double captureTimeSec) {
+        if (count == 0) {
+            lastDeltaHeadingRad = 0.0;
+            return null;
+        }
+
+        int newest = index(count - 1);
+        Pose2d fieldToNow = new Pose2d(xIn[newest], yIn[newest], headingRad[newest]);
+
+        double cx;
+        double cy;
+        double ch;
+        int k = findSegment(captureTimeSec);
+        if (k < 0) {
+            int oldest = index(0);
+            cx = xIn[oldest];
+            cy = yIn[oldest];
+            ch = headingRad[oldest];
+        } else if (k >= count - 1) {
+            cx = xIn[newest];
+            cy = yIn[newest];
+            ch = headingRad[newest];
+        } else {
+            int a = index(k);
+            int b = index(k + 1);
+            double span = tSec[b] - tSec[a];
+            double u = (span > 1e-9) ? (captureTimeSec - tSec[a]) / span : 0.0;
+            cx = xIn[a] + (xIn[b] - xIn[a]) * u;
+            cy = yIn[a] + (yIn[b] - yIn[a]) * u;
+            ch = headingRad[a] + Pose2d.wrapToPi(headingRad[b] - headingRad[a]) * u;
+        }
+
+        Pose2d delta = fieldToNow.inverse().then(new Pose2d(cx, cy, ch));
+        lastDeltaHeadingRad = -Pose2d.wrapToPi(delta.headingRad);
+        return delta;
+    }
+
+    // ------------------------------------------------------------------------
+    // Smith predictor (command history)
+    // ------------------------------------------------------------------------
+
+    /**
+     * Record the omega command applied this loop (at most once per loop).
+     */
+    void recordOmegaCmd(LoopClock clock, double omega) {
+        if (clock == null || clock.cycle() == lastCycle) {
+            return;
+        }
+        lastCycle = clock.cycle();
+        int i = push(clock.nowSec());
+        omegaCmd[i] = Double.isFinite(omega) ? omega : 0.0;
+    }
+
+    /**
+     * Model-predicted heading change (radians, CCW-positive) between {@code captureTimeSec}
+     * and {@code nowSec}: {@code radPerSecPerCmd * integral(omegaCmd dt)}.
+     *
+     * <p>Each recorded command is assumed to hold from its timestamp until the next one.</p>
+     */
+    double predictedHeadingChangeRad(double captureTimeSec, double nowSec, double radPerSecPerCmd) {
+        double sum = 0.0;
+        for (int k = 0; k < count; k++) {
+            int i = index(k);
+            double start = Math.max(tSec[i], captureTimeSec);
+            double end = (k + 1 < count) ? tSec[index(k + 1)] : nowSec;
+            end = Math.min(end, nowSec);
+            if (end > start) {
+                sum += omegaCmd[i] * (end - start);
+            }
+        }
+        lastDeltaHeadingRad = radPerSecPerCmd * sum;
+        return lastDeltaHeadingRad;
+    }
+
+    // ------------------------------------------------------------------------
+    // Ring helpers
+    // ------------------------------------------------------------------------
+
+    private int index(int k) {
+        return (head + k) % CAPACITY;
+    }
+
+    private int push(double t) {
+        int i;
+        if (count < CAPACITY) {
+            i = index(count);
+            count++;
+        } else {
+            i = head;
+            head = (head + 1) % CAPACITY;
+        }
+        tSec[i] = t;
+        return i;
+    }
+
+    /**
+     * @return the largest k with {@code t(k) <= timeSec}, or -1 if {@code timeSec} is older than
+     * all samples
+     */
+    private int findSegment(double timeSec) {
+        int lo = 0;
+        int hi = count - 1;
+        if (timeSec < tSec[index(0)]) {
+            return -1;
+        }
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (tSec[index(mid)] <= timeSec) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,486 @@
+package edu.ftcphoenix.fw.drive.guidance;
+
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.localization.PoseEstimate;
+import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.sensing.observation.ObservationSource2d;
+import edu.ftcphoenix.fw.sensing.observation.TargetObservation2d;
+
+/**
+ * Shoot-while-moving aim solver.
+ *
+ * <p>When the robot is moving, a launched game piece inherits the robot's velocity. Aiming at the
+ * target's current bearing (and picking flywheel speed from the current range) therefore misses
+ * by roughly {@code robotVelocity * timeOfFlight}. This solver computes a <b>virtual target</b>
+ * that leads the shot so the game piece lands on the real target:</p>
+ *
+ * <pre>
+ * virtualTarget = targetNow - robotVelocity * timeOfFlight(|virtualTarget|)
+ * </pre>
+ *
+ * <p>Because time of flight depends on range, the virtual target is found by a short fixed-point
+ * iteration (usually 2–3 steps).</p>
+ *
+ * <h2>Inputs</h2>
+ * <ul>
+ *   <li><b>Target position</b> relative to the robot (inches), usually from a vision observation.</li>
+ *   <li><b>Latency</b>: how old that position is (the observation age), plus an optional fixed
+ *       actuation/release delay from {@link Config#extraLatencySec}. The target is first
+ *       predicted forward by this amount using the robot's velocity.</li>
+ *   <li><b>Robot velocity</b> in the robot frame, either set directly via
+ *       {@link #setRobotVelocity(double, double, double)} or tracked from a fused
+ *       {@link PoseEstimator} via {@link #trackVelocity(PoseEstimate)}.</li>
+ *   <li><b>Time-of-flight model</b>: range (inches) → seconds. An
+ *       {@link edu.ftcphoenix.fw.core.math.InterpolatingTable1D} works directly.</li>
+ * </ul>
+ *
+ * <h2>Outputs</h2>
+ * <ul>
+ *   <li>{@link #aimBearingRad()}: robot-frame bearing to the virtual target (feed the heading
+ *       controller, e.g. via {@link #leadObservation(ObservationSource2d, PoseEstimator)}).</li>
+ *   <li>{@link #aimRangeInches()}: range to the virtual target (feed the shooter velocity table).</li>
+ * </ul>
+ *
+ * <p>All solver state lives in primitive fields; {@link #solve(double, double, double)} and
+ * {@link #trackVelocity(PoseEstimate)} do not allocate, so the solver can run every loop. The
+ * {@link #leadObservation} wrapper allocates one (immutable) {@link TargetObservation2d} per
+ * led sample, like the observation sources it wraps.</p>
+ *
+ * <h2>Example: DriveGuidance aim + shooter table</h2>
+ * <pre>{@code
+ * ShotLeadSolver lead = new ShotLeadSolver(TIME_OF_FLIGHT_TABLE, ShotLeadSolver.Config.defaults());
+ *
+ * DriveGuidancePlan aimPlan = DriveGuidance.plan()
+ *     .aimTo().tagCenter().doneAimTo()
+ *     .feedback().observation(lead.leadObservation(scoringObs, pinpoint)).doneFeedback()
+ *     .build();
+ *
+ * // In loop(), after the aim overlay has sampled this loop:
+ * if (lead.hasSolution()) {
+ *     shooterVelocity = SHOOTER_VELOCITY_TABLE.interpolate(lead.aimRangeInches());
+ * }
+ * }</pre>
+ */
+public final class ShotLeadSolver {
+
+    /**
+     * Tuning for {@link ShotLeadSolver}.
+     */
+    public static final class Config {
+
+        /**
+         * Maximum fixed-point iterations per solve.
+         */
+        public int maxIterations = 5;
+
+        /**
+         * Stop iterating once time of flight changes by less than this many seconds.
+         */
+        public double toleranceSec = 0.002;
+
+        /**
+         * Fixed delay (seconds) added to the observation age: command-to-release time of the
+         * feeder plus drivetrain response. 0 disables it.
+         */
+        public double extraLatencySec = 0.0;
+
+        /**
+         * Low-pass time constant (seconds) used when velocity is tracked from pose estimates.
+         * 0 disables filtering.
+         */
+        public double velocityFilterSec = 0.05;
+
+        /**
+         * Pose estimates older than this (seconds) are ignored when tracking velocity, and a
+         * gap larger than this between samples resets the velocity to zero.
+         */
+        public double maxVelocitySampleGapSec = 0.25;
+
+        /**
+         * What {@link #leadObservation} reports when the solve fails (for example the
+         * time-of-flight table returns NaN outside its range): the un-led observation if true,
+         * no target if false. Either way {@link #leadFailed()} is set and the failure is counted.
+         */
+        public boolean passThroughOnSolveFailure = true;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Create a deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.maxIterations = this.maxIterations;
+            c.toleranceSec = this.toleranceSec;
+            c.extraLatencySec = this.extraLatencySec;
+            c.velocityFilterSec = this.velocityFilterSec;
+            c.maxVelocitySampleGapSec = this.maxVelocitySampleGapSec;
+            c.passThroughOnSolveFailure = this.passThroughOnSolveFailure;
+            return c;
+        }
+    }
+
+    private final DoubleUnaryOperator timeOfFlightSecByRange;
+    private final Config cfg;
+
+    // Robot velocity (robot frame).
+    private double vxRobotIps = 0.0;
+    private double vyRobotIps = 0.0;
+    private double omegaRadPerSec = 0.0;
+
+    // Velocity tracking state (field frame).
+    private boolean hasLastPose = false;
+    private double lastPoseTimestampSec = Double.NaN;
+    private double lastPoseX = 0.0;
+    private double lastPoseY = 0.0;
+    private double lastPoseHeading = 0.0;
+
+    // Latest solution.
+    private boolean hasSolution = false;
+    private double aimForwardInches = Double.NaN;
+    private double aimLeftInches = Double.NaN;
+    private double aimRangeInches = Double.NaN;
+    private double aimBearingRad = Double.NaN;
+    private double timeOfFlightSec = Double.NaN;
+    private double latencySec = 0.0;
+    private int iterations = 0;
+    private boolean converged = false;
+
+    // leadObservation() bookkeeping.
+    private boolean leadFailed = false;
+    private long solveFailureCount = 0;
+
+    /**
+     * @param timeOfFlightSecByRange time-of-flight model: range (inches) → seconds
+     * @param config                 solver tuning; if {@code null}, {@link Config#defaults()} is used
+     */
+    public ShotLeadSolver(DoubleUnaryOperator timeOfFlightSecByRange, Config config) {
+        this.timeOfFlightSecByRange = Objects.requireNonNull(timeOfFlightSecByRange, "timeOfFlightSecByRange");
+        this.cfg = (config != null) ? config.copy() : Config.defaults();
+    }
+
+    /**
+     * Set the robot velocity directly (robot frame).
+     *
+     * <p>Use this when a velocity is already available (for example, from the Pinpoint driver).</p>
+     *
+     * @param vxRobotIps     forward velocity (inches/sec)
+     * @param vyRobotIps     left velocity (inches/sec)
+     * @param omegaRadPerSec angular velocity (rad/sec, CCW-positive)
+     */
+    public void setRobotVelocity(double vxRobotIps, double vyRobotIps, double omegaRadPerSec) {
+        this.vxRobotIps = vxRobotIps;
+        this.vyRobotIps = vyRobotIps;
+        this.omegaRadPerSec = omegaRadPerSec;
+    }
+
+    /**
+     * Track robot velocity by differentiating successive pose estimates.
+     *
+     * <p>Call once per loop with the fused estimate. Repeated calls with the same
+     * {@link PoseEstimate#timestampSec} are ignored, so calling this more than once per loop is safe.</p>
+     *
+     * @param est latest estimate (may be {@code null}; invalid estimates reset tracking)
+     */
+    public void trackVelocity(PoseEstimate est) {
+        if (est == null || !est.hasPose || est.ageSec > cfg.maxVelocitySampleGapSec) {
+            hasLastPose = false;
+            setRobotVelocity(0.0, 0.0, 0.0);
+            return;
+        }
+        if (hasLastPose && est.timestampSec == lastPoseTimestampSec) {
+            return;
+        }
+
+        double x = est.fieldToRobotPose.xInches;
+        double y = est.fieldToRobotPose.yInches;
+        double h = est.fieldToRobotPose.yawRad;
+
+        if (hasLastPose) {
+            double dt = est.timestampSec - lastPoseTimestampSec;
+            if (dt > 1e-6 && dt <= cfg.maxVelocitySampleGapSec) {
+                double vxField = (x - lastPoseX) / dt;
+                double vyField = (y - lastPoseY) / dt;
+                double omega = Pose2d.wrapToPi(h - lastPoseHeading) / dt;
+
+                // Rotate field velocity into the robot frame.
+                double cos = Math.cos(h);
+                double sin = Math.sin(h);
+                double vx = vxField * cos + vyField * sin;
+                double vy = -vxField * sin + vyField * cos;
+
+                double alpha = (cfg.velocityFilterSec <= 0.0) ? 1.0 : dt / (cfg.velocityFilterSec + dt);
+                vxRobotIps += alpha * (vx - vxRobotIps);
+                vyRobotIps += alpha * (vy - vyRobotIps);
+                omegaRadPerSec += alpha * (omega - omegaRadPerSec);
+            } else if (dt > cfg.maxVelocitySampleGapSec) {
+                setRobotVelocity(0.0, 0.0, 0.0);
+            }
+        }
+
+        hasLastPose = true;
+        lastPoseTimestampSec = est.timestampSec;
+        lastPoseX = x;
+        lastPoseY = y;
+        lastPoseHeading = h;
+    }
+
+    /**
+     * Solve for the virtual target given a robot-relative target position.
+     *
+     * @param targetForwardInches target +X in the robot frame at measurement time (inches)
+     * @param targetLeftInches    target +Y in the robot frame at measurement time (inches)
+     * @param measurementAgeSec   age of the measurement (seconds); {@link Config#extraLatencySec}
+     *                            is added to it
+     * @return true if a finite solution was found (see {@link #hasSolution()})
+     */
+    public boolean solve(double targetForwardInches, double targetLeftInches, double measurementAgeSec) {
+        iterations = 0;
+        converged = false;
+
+        if (!Double.isFinite(targetForwardInches) || !Double.isFinite(targetLeftInches)) {
+            return clearSolution();
+        }
+
+        // 1) Predict where the target is relative to the robot *now* (plus release delay).
+        //    A field-fixed point seen from a moving, turning robot: translate by -v*dt, then
+        //    rotate by -omega*dt.
+        double dt = Math.max(0.0, Double.isFinite(measurementAgeSec) ? measurementAgeSec : 0.0)
+                + Math.max(0.0, cfg.extraLatencySec);
+        latencySec = dt;
+
+        double px = targetForwardInches - vxRobotIps * dt;
+        double py = targetLeftInches - vyRobotIps * dt;
+        double dTheta = -omegaRadPerSec * dt;
+        double c = Math.cos(dTheta);
+        double s = Math.sin(dTheta);
+        double nowX = c * px - s * py;
+        double nowY = s * px + c * py;
+
+        // 2) Lead the shot: the game piece inherits the robot's velocity for its time of flight.
+        double tof = timeOfFlightSecByRange.applyAsDouble(Math.hypot(nowX, nowY));
+        double vx = nowX;
+        double vy = nowY;
+        int maxIter = Math.max(1, cfg.maxIterations);
+        for (int i = 0; i < maxIter; i++) {
+            if (!Double.isFinite(tof) || tof < 0.0) {
+                return clearSolution();
+            }
+            vx = nowX - vxRobotIps * tof;
+            vy = nowY - vyRobotIps * tof;
+            double nextTof = timeOfFlightSecByRange.applyAsDouble(Math.hypot(vx, vy));
+            iterations = i + 1;
+            if (Math.abs(nextTof - tof) <= cfg.toleranceSec) {
+                tof = nextTof;
+                converged = true;
+                break;
+            }
+            tof = nextTof;
+        }
+
+        if (!Double.isFinite(tof)) {
+            return clearSolution();
+        }
+
+        hasSolution = true;
+        aimForwardInches = vx;
+        aimLeftInches = vy;
+        aimRangeInches = Math.hypot(vx, vy);
+        aimBearingRad = Math.atan2(vy, vx);
+        timeOfFlightSec = tof;
+        return true;
+    }
+
+    private boolean clearSolution() {
+        hasSolution = false;
+        aimForwardInches = Double.NaN;
+        aimLeftInches = Double.NaN;
+        aimRangeInches = Double.NaN;
+        aimBearingRad = Double.NaN;
+        timeOfFlightSec = Double.NaN;
+        return false;
+    }
+
+    /**
+     * Wrap an observation source so it reports the <b>virtual</b> (led) target instead of the
+     * observed one.
+     *
+     * <p>The returned source samples {@code base}, optionally tracks velocity from
+     * {@code velocityEstimator}, runs {@link #solve(double, double, double)}, and returns a
+     * robot-relative observation of the virtual target. Target ID, orientation, quality and age
+     * are preserved so DriveGuidance gating behaves exactly as before. Observations without a
+     * position (bearing-only) pass through unchanged. If the solve fails, the sample is handled
+     * per {@link Config#passThroughOnSolveFailure} and flagged through {@link #leadFailed()}.</p>
+     *
+     * <p>Each led sample is a new {@link TargetObservation2d} (the type is immutable); the
+     * solver itself does not allocate.</p>
+     *
+     * <p>Use it anywhere an {@link ObservationSource2d} is accepted, for example
+     * {@code DriveGuidance.plan().aimTo().tagCenter()...feedback().observation(lead)}.</p>
+     *
+     * @param base              observation source for the real target
+     * @param velocityEstimator fused pose estimator to track velocity from, or {@code null} if
+     *                          velocity is supplied via {@link #setRobotVelocity(double, double, double)}
+     * @return an observation source reporting the virtual target
+     */
+    public ObservationSource2d leadObservation(ObservationSource2d base, PoseEstimator velocityEstimator) {
+        Objects.requireNonNull(base, "base");
+        return new ObservationSource2d() {
+            @Override
+            public TargetObservation2d sample(LoopClock clock) {
+                if (velocityEstimator != null) {
+                    trackVelocity(velocityEstimator.getEstimate());
+                }
+
+                TargetObservation2d obs = base.sample(clock);
+                if (obs == null || !obs.hasPosition()) {
+                    leadFailed = false;
+                    clearSolution();
+                    return obs;
+                }
+                if (!solve(obs.forwardInches, obs.leftInches, obs.ageSec)) {
+                    leadFailed = true;
+                    solveFailureCount++;
+                    return cfg.passThroughOnSolveFailure ? obs : TargetObservation2d.none();
+                }
+                leadFailed = false;
+
+                if (obs.hasOrientation()) {
+                    double heading = Pose2d.wrapToPi(obs.targetHeadingRad - omegaRadPerSec * latencySec);
+                    return TargetObservation2d.ofRobotRelativePose(
+                            obs.targetId, aimForwardInches, aimLeftInches, heading, obs.quality, obs.ageSec);
+                }
+                return TargetObservation2d.ofRobotRelativePosition(
+                        obs.targetId, aimForwardInches, aimLeftInches, obs.quality, obs.ageSec);
+            }
+
+            @Override
+            public void debugDump(DebugSink dbg, String prefix) {
+                if (dbg == null) {
+                    return;
+                }
+                String p = (prefix == null || prefix.isEmpty()) ? "obs2d" : prefix;
+                dbg.addData(p + ".class", getClass().getSimpleName());
+                dbg.addData(p + ".type", "shotLead");
+                base.debugDump(dbg, p + ".base");
+                ShotLeadSolver.this.debugDump(dbg, p + ".lead");
+            }
+        };
+    }
+
+    /**
+     * @return true if the most recent solve produced a finite virtual target.
+     */
+    public boolean hasSolution() {
+        return hasSolution;
+    }
+
+    /**
+     * @return true if the last {@link #leadObservation} sample with a target position could not
+     * be led (see {@link Config#passThroughOnSolveFailure})
+     */
+    public boolean leadFailed() {
+        return leadFailed;
+    }
+
+    /**
+     * @return number of {@link #leadObservation} samples whose solve failed
+     */
+    public long solveFailureCount() {
+        return solveFailureCount;
+    }
+
+    /**
+     * @return virtual target +X in the robot frame (inches), or NaN without a solution.
+     */
+    public double aimForwardInches() {
+        return aimForwardInches;
+    }
+
+    /**
+     * @return virtual target +Y in the robot frame (inches), or NaN without a solution.
+     */
+    public double aimLeftInches() {
+        return aimLeftInches;
+    }
+
+    /**
+     * @return robot-frame bearing to the virtual target (radians), or NaN without a solution.
+     */
+    public double aimBearingRad() {
+        return aimBearingRad;
+    }
+
+    /**
+     * @return range to the virtual target (inches), or NaN without a solution.
+     *
+     * <p>Use this range (not the raw target range) to pick flywheel velocity.</p>
+     */
+    public double aimRangeInches() {
+        return aimRangeInches;
+    }
+
+    /**
+     * @return modeled time of flight to the virtual target (seconds), or NaN without a solution.
+     */
+    public double timeOfFlightSec() {
+        return timeOfFlightSec;
+    }
+
+    /**
+     * @return current robot-frame forward velocity used by the solver (inches/sec).
+     */
+    public double robotVxIps() {
+        return vxRobotIps;
+    }
+
+    /**
+     * @return current robot-frame left velocity used by the solver (inches/sec).
+     */
+    public double robotVyIps() {
+        return vyRobotIps;
+    }
+
+    /**
+     * @return current angular velocity used by the solver (rad/sec).
+     */
+    public double robotOmegaRadPerSec() {
+        return omegaRadPerSec;
+    }
+
+    /**
+     * Debug helper: emit solver inputs and the latest solution.
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "shotLead" : prefix;
+        dbg.addData(p + ".vxIps", vxRobotIps)
+                .addData(p + ".vyIps", vyRobotIps)
+                .addData(p + ".omegaRadPerSec", omegaRadPerSec)
+                .addData(p + ".latencySec", latencySec)
+                .addData(p + ".hasSolution", hasSolution)
+                .addData(p + ".aimBearingDeg", Math.toDegrees(aimBearingRad))
+                .addData(p + ".aimRangeIn", aimRangeInches)
+                .addData(p + ".tofSec", timeOfFlightSec)
+                .addData(p + ".iterations", iterations)
+                .addData(p + ".converged", converged)
+                .addData(p + ".leadFailed", leadFailed)
+                .addData(p + ".solveFailures", solveFailureCount);
+    }
+}
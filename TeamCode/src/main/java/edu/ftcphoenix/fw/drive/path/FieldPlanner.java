@@ -0,0 +1,655 @@
+package edu.ftcphoenix.fw.drive.path;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.spatial.Region2d;
+
+/**
+ * Obstacle-aware shortest-path planner over the field.
+ *
+ * <p>Straight-line behaviors ({@code GoToPoseTask}, drive guidance) drive directly at their goal
+ * and get stuck on field structures. A {@code FieldPlanner} rasterizes the obstacles once into a
+ * navigation grid (inflated by the robot radius), then answers start/goal queries with A* and
+ * shortcuts the result into a few straight-line-visible waypoints. The output feeds
+ * {@link Path} / {@link PathTasks} directly, or the waypoints can drive a sequence of
+ * go-to-pose moves.</p>
+ *
+ * <pre>{@code
+ * // init(): describe obstacles (any Region2d; an SdfGrid2d is cheapest) and build once.
+ * Region2d obstacles = Regions2d.union(
+ *         Regions2d.rectangleAabb(-12, 12, -12, 12),
+ *         Regions2d.polygon(72, 48, 72, 72, 48, 72));
+ * FieldPlanner planner = FieldPlanner.build(obstacles, -72, 72, -72, 72, FieldPlanner.Config.defaults());
+ *
+ * // TeleOp macro: plan from wherever the robot is when the button is pressed.
+ * tb.onPress(gamepads.p1().a(),
+ *         () -> PathTasks.planAndFollow(drivebase, pinpoint, planner, scoringPose, null, null));
+ * }</pre>
+ *
+ * <h2>Performance</h2>
+ * <ul>
+ *   <li>Obstacle distances are evaluated once per cell at build time.</li>
+ *   <li>A* uses preallocated arrays (no per-query allocation besides the result); a 2" grid over
+ *       a 144" field has ~5k cells and plans in well under a millisecond.</li>
+ *   <li>Shortcut waypoints are cached per (start cell, goal cell), so repeated macros from the
+ *       same area skip the search entirely.</li>
+ * </ul>
+ *
+ * <p>Planning is not thread-safe; call it from the loop thread.</p>
+ */
+public final class FieldPlanner {
+
+    /**
+     * Configuration for {@link FieldPlanner}.
+     */
+    public static final class Config {
+
+        /**
+         * Grid cell size (inches). Smaller cells fit through tighter gaps but cost more.
+         *
+         * <p>Default: {@code 2.0}.</p>
+         */
+        public double cellInches = 2.0;
+
+        /**
+         * Robot radius (inches): cells closer than this to an obstacle are blocked.
+         *
+         * <p>Use half the robot diagonal if the robot may rotate while driving. Default: {@code 9.0}.</p>
+         */
+        public double robotRadiusInches = 9.0;
+
+        /**
+         * Extra margin (inches) beyond {@link #robotRadiusInches}.
+         *
+         * <p>Also absorbs the small amount a spline can bulge past its waypoints.
+         * Default: {@code 2.0}.</p>
+         */
+        public double clearanceInches = 2.0;
+
+        /**
+         * Number of (start cell, goal cell) results to keep. {@code 0} disables caching.
+         *
+         * <p>Default: {@code 64}.</p>
+         */
+        public int cacheSize = 64;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.cellInches = this.cellInches;
+            c.robotRadiusInches = this.robotRadiusInches;
+            c.clearanceInches = this.clearanceInches;
+            c.cacheSize = this.cacheSize;
+            return c;
+        }
+    }
+
+    private static final float SQRT2 = (float) Math.sqrt(2.0);
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final Config cfg;
+    private final double minX;
+    private final double minY;
+    private final double cell;
+    private final int nx;
+    private final int ny;
+    private final boolean[] blocked;
+
+    // A* scratch (reused across queries; stamp avoids clearing arrays).
+    private final float[] g;
+    private final int[] parent;
+    private final int[] openStamp;
+    private final int[] closedStamp;
+    private final int[] heap;
+    private final float[] heapKey;
+    private int heapSize;
+    private int stamp = 0;
+
+    private final Map<Long, int[]> cache;
+
+    private double lastPlanMs = 0.0;
+    private int lastExpanded = 0;
+    private long queries = 0;
+    private long cacheHits = 0;
+    private long failures = 0;
+
+    private FieldPlanner(Config cfg, double minX, double minY, int nx, int ny, boolean[] blocked) {
+        this.cfg = cfg;
+        this.minX = minX;
+        this.minY = minY;
+        this.cell = cfg.cellInches;
+        this.nx = nx;
+        this.ny = ny;
+        this.blocked = blocked;
+
+        int n = nx * ny;
+        this.g = new float[n];
+        this.parent = new int[n];
+        this.openStamp = new int[n];
+        this.closedStamp = new int[n];
+        // Each expanded cell pushes at most 8 neighbors, so 8n entries always suffice.
+        this.heap = new int[n * 8 + 1];
+        this.heapKey = new float[heap.length];
+
+        final int max = Math.max(0, cfg.cacheSize);
+        this.cache = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /**
+     * Build a planner for the given field bounds.
+     *
+     * @param obstacles  obstacle region (inside = obstacle), e.g. a union or an SdfGrid2d
+     * @param minXInches field minimum X
+     * @param maxXInches field maximum X
+     * @param minYInches field minimum Y
+     * @param maxYInches field maximum Y
+     * @param cfg        planner configuration (may be {@code null} to use defaults)
+     */
+    public static FieldPlanner build(Region2d obstacles,
+                                     double minXInches, double maxXInches,
+                                     double minYInches, double maxYInches,
+                                     Config cfg) {
+        Objects.requireNonNull(obstacles, "obstacles");
+        Config c = (cfg != null) ? cfg.copy() : Config.defaults();
+        if (!(c.cellInches > 0.0)) {
+            throw new IllegalArgumentException("cellInches must be > 0, got " + c.cellInches);
+        }
+        if (!(maxXInches > minXInches) || !(maxYInches > minYInches)) {
+            throw new IllegalArgumentException("field bounds must have max > min");
+        }
+
+        int nx = Math.max(1, (int) Math.floor((maxXInches - minXInches) / c.cellInches));
+        int ny = Math.max(1, (int) Math.floor((maxYInches - minYInches) / c.cellInches));
+        double inflate = c.robotRadiusInches + c.clearanceInches;
+
+        boolean[] blocked = new boolean[nx * ny];
+        for (int j = 0; j < ny; j++) {
+            double y = minYInches + (j + 0.5) * c.cellInches;
+            double wallY = Math.min(y - minYInches, maxYInches - y);
+            for (int i = 0; i < nx; i++) {
+                double x = minXInches + (i + 0.5) * c.cellInches;
+                double wallX = Math.min(x - minXInches, maxXInches - x);
+                // Field walls count as obstacles too.
+                boolean nearWall = Math.min(wallX, wallY) < inflate;
+                blocked[j * nx + i] = nearWall || obstacles.signedDistanceInches(x, y) > -inflate;
+            }
+        }
+        return new FieldPlanner(c, minXInches, minYInches, nx, ny, blocked);
+    }
+
+    // ------------------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return whether the robot (radius plus clearance) fits at this point
+     */
+    public boolean isFree(double xInches, double yInches) {
+        int c = cellOf(xInches, yInches);
+        return c >= 0 && !blocked[c];
+    }
+
+    /**
+     * @return whether the robot can drive straight between the two points without entering a
+     * blocked cell
+     */
+    public boolean hasLineOfSight(double x0, double y0, double x1, double y1) {
+        double d = Math.hypot(x1 - x0, y1 - y0);
+        int steps = Math.max(1, (int) Math.ceil(d / (0.5 * cell)));
+        for (int k = 0; k <= steps; k++) {
+            double t = (double) k / steps;
+            if (!isFree(x0 + (x1 - x0) * t, y0 + (y1 - y0) * t)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plan collision-free waypoints from {@code start} to {@code goal}.
+     *
+     * <p>The first waypoint is {@code start} and the last is {@code goal}; headings of
+     * intermediate waypoints are blended from start to goal by distance. If the start is inside
+     * an inflated obstacle (for example pressed against a wall), the search begins from the
+     * nearest free cell.</p>
+     *
+     * @return waypoints, or {@code null} if the goal is blocked or unreachable
+     */
+    public List<Pose2d> planWaypoints(Pose2d start, Pose2d goal) {
+        Objects.requireNonNull(start, "start");
+        Objects.requireNonNull(goal, "goal");
+        long t0 = System.nanoTime();
+        queries++;
+        try {
+            int goalCell = cellOf(goal.xInches, goal.yInches);
+            if (goalCell < 0 || blocked[goalCell]) {
+                failures++;
+                return null;
+            }
+            int startCell = nearestFree(cellOf(clampX(start.xInches), clampY(start.yInches)));
+            if (startCell < 0) {
+                failures++;
+                return null;
+            }
+
+            int[] interior;
+            if (hasLineOfSight(start.xInches, start.yInches, goal.xInches, goal.yInches)) {
+                interior = new int[0];
+            } else {
+                long key = ((long) startCell << 32) | (goalCell & 0xffffffffL);
+                interior = (cfg.cacheSize > 0) ? cache.get(key) : null;
+                if (interior != null) {
+                    cacheHits++;
+                } else {
+                    int[] cells = astar(startCell, goalCell);
+                    if (cells == null) {
+                        failures++;
+                        return null;
+                    }
+                    interior = shortcut(cells);
+                    if (cfg.cacheSize > 0) {
+                        cache.put(key, interior);
+                    }
+                }
+            }
+            return toWaypoints(start, interior, goal);
+        } finally {
+            lastPlanMs = (System.nanoTime() - t0) / 1e6;
+        }
+    }
+
+    /**
+     * Plan a smooth {@link Path} from {@code start} to {@code goal}.
+     *
+     * <p>The spline is checked against the grid; if it bulges into a blocked cell near a sharp
+     * corner, extra waypoints are inserted to pull it back onto the straight segments. If it
+     * still clips an obstacle after that, no path is returned.</p>
+     *
+     * <p>A {@link Path} cannot have zero length, so when {@code start} and {@code goal} (nearly)
+     * coincide this also returns {@code null}; callers should treat that as a turn in place (as
+     * {@link PlanAndFollowTask} does) rather than as unreachable.</p>
+     *
+     * @return the path, or {@code null} if no collision-free path exists or start and goal
+     * coincide
+     */
+    public Path planPath(Pose2d start, Pose2d goal) {
+        List<Pose2d> wps = planWaypoints(start, goal);
+        if (wps == null) {
+            return null;
+        }
+        if (start.distanceTo(goal) < 1e-3) {
+            return null;
+        }
+
+        Path.Sample s = new Path.Sample();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Path path = toPath(wps);
+            if (splineIsFree(path, s)) {
+                return path;
+            }
+            wps = densify(wps);
+        }
+        // Every smoothing attempt cut through an obstacle.
+        failures++;
+        return null;
+    }
+
+    /**
+     * @return time taken by the most recent query (ms)
+     */
+    public double lastPlanMs() {
+        return lastPlanMs;
+    }
+
+    /**
+     * Forget all cached results (for example after obstacles changed and a new planner was not
+     * built).
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Debug helper: emit planner statistics.
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "planner"
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "fieldPlanner" : prefix;
+        dbg.addData(p + ".grid", nx + "x" + ny)
+                .addData(p + ".cellInches", cell)
+                .addData(p + ".queries", queries)
+                .addData(p + ".cacheHits", cacheHits)
+                .addData(p + ".cacheSize", cache.size())
+                .addData(p + ".failures", failures)
+                .addData(p + ".lastPlanMs", lastPlanMs)
+                .addData(p + ".lastExpanded", lastExpanded);
+    }
+
+    // ------------------------------------------------------------------------
+    // A*
+    // ------------------------------------------------------------------------
+
+    /**
+     * 8-connected A* with an octile heuristic. Diagonal moves may not cut blocked corners.
+     *
+     * @return cell indices from start to goal, or {@code null} if unreachable
+     */
+    private int[] astar(int start, int goal) {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(openStamp, 0);
+            java.util.Arrays.fill(closedStamp, 0);
+            stamp = 1;
+        }
+        heapSize = 0;
+        lastExpanded = 0;
+
+        int gx = goal % nx;
+        int gy = goal / nx;
+
+        g[start] = 0f;
+        parent[start] = -1;
+        openStamp[start] = stamp;
+        push(start, octile(start % nx, start / nx, gx, gy));
+
+        while (heapSize > 0) {
+            int cur = pop();
+            if (closedStamp[cur] == stamp) {
+                continue; // stale heap entry
+            }
+            closedStamp[cur] = stamp;
+            lastExpanded++;
+            if (cur == goal) {
+                return reconstruct(goal);
+            }
+
+            int cx = cur % nx;
+            int cy = cur / nx;
+            for (int k = 0; k < 8; k++) {
+                int x = cx + DX[k];
+                int y = cy + DY[k];
+                if (x < 0 || y < 0 || x >= nx || y >= ny) {
+                    continue;
+                }
+                int nb = y * nx + x;
+                if (blocked[nb] || closedStamp[nb] == stamp) {
+                    continue;
+                }
+                if (k >= 4 && (blocked[cy * nx + x] || blocked[y * nx + cx])) {
+                    continue;
+                }
+                float cand = g[cur] + (k >= 4 ? SQRT2 : 1f);
+                if (openStamp[nb] != stamp || cand < g[nb]) {
+                    openStamp[nb] = stamp;
+                    g[nb] = cand;
+                    parent[nb] = cur;
+                    push(nb, cand + octile(x, y, gx, gy));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static float octile(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        return (dx + dy) + (SQRT2 - 2f) * Math.min(dx, dy);
+    }
+
+    private int[] reconstruct(int goal) {
+        int n = 0;
+        for (int c = goal; c != -1; c = parent[c]) {
+            n++;
+        }
+        int[] out = new int[n];
+        for (int c = goal, i = n - 1; c != -1; c = parent[c], i--) {
+            out[i] = c;
+        }
+        return out;
+    }
+
+    private void push(int cellIdx, float key) {
+        int i = heapSize++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (heapKey[p] <= key) {
+                break;
+            }
+            heap[i] = heap[p];
+            heapKey[i] = heapKey[p];
+            i = p;
+        }
+        heap[i] = cellIdx;
+        heapKey[i] = key;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int lastCell = heap[--heapSize];
+        float lastKey = heapKey[heapSize];
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= heapSize) {
+                break;
+            }
+            int r = l + 1;
+            int m = (r < heapSize && heapKey[r] < heapKey[l]) ? r : l;
+            if (heapKey[m] >= lastKey) {
+                break;
+            }
+            heap[i] = heap[m];
+            heapKey[i] = heapKey[m];
+            i = m;
+        }
+        heap[i] = lastCell;
+        heapKey[i] = lastKey;
+        return top;
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Greedy string pulling: keep only the cells where line of sight breaks.
+     *
+     * @return interior waypoint cells (start and goal excluded)
+     */
+    private int[] shortcut(int[] cells) {
+        List<Integer> keep = new ArrayList<>();
+        int anchor = 0;
+        while (anchor < cells.length - 1) {
+            // Walk forward while the straight line stays clear (linear in path length).
+            int next = anchor + 1;
+            while (next + 1 < cells.length
+                    && hasLineOfSight(centerX(cells[anchor]), centerY(cells[anchor]),
+                    centerX(cells[next + 1]), centerY(cells[next + 1]))) {
+                next++;
+            }
+            if (next < cells.length - 1) {
+                keep.add(cells[next]);
+            }
+            anchor = next;
+        }
+        int[] out = new int[keep.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = keep.get(i);
+        }
+        return out;
+    }
+
+    private List<Pose2d> toWaypoints(Pose2d start, int[] interior, Pose2d goal) {
+        List<Pose2d> out = new ArrayList<>(interior.length + 2);
+
+        // Distances for heading blending.
+        double total = 0.0;
+        double px = start.xInches;
+        double py = start.yInches;
+        for (int c : interior) {
+            total += Math.hypot(centerX(c) - px, centerY(c) - py);
+            px = centerX(c);
+            py = centerY(c);
+        }
+        total += Math.hypot(goal.xInches - px, goal.yInches - py);
+
+        double dHeading = Pose2d.wrapToPi(goal.headingRad - start.headingRad);
+        out.add(start);
+        double run = 0.0;
+        px = start.xInches;
+        py = start.yInches;
+        for (int c : interior) {
+            double x = centerX(c);
+            double y = centerY(c);
+            run += Math.hypot(x - px, y - py);
+            double f = (total > 1e-9) ? run / total : 1.0;
+            if (Math.hypot(x - px, y - py) > 1e-3) {
+                out.add(new Pose2d(x, y, Pose2d.wrapToPi(start.headingRad + dHeading * f)));
+            }
+            px = x;
+            py = y;
+        }
+        if (Math.hypot(goal.xInches - px, goal.yInches - py) > 1e-3 || out.size() == 1) {
+            out.add(goal);
+        } else {
+            out.set(out.size() - 1, goal);
+        }
+        return out;
+    }
+
+    private static Path toPath(List<Pose2d> wps) {
+        Path.Builder b = Path.builder(wps.get(0));
+        for (int i = 1; i < wps.size(); i++) {
+            b.splineTo(wps.get(i));
+        }
+        return b.build();
+    }
+
+    private boolean splineIsFree(Path path, Path.Sample s) {
+        double step = 0.5 * cell;
+        for (double d = 0.0; d <= path.length(); d += step) {
+            path.sample(d, s);
+            int c = cellOf(s.x, s.y);
+            // The start may legitimately be inside an inflated cell (e.g. against a wall).
+            if (c >= 0 && blocked[c] && d > cfg.robotRadiusInches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insert a waypoint a quarter of the way in from each end of every segment so the spline
+     * hugs the straight segments more tightly.
+     */
+    private static List<Pose2d> densify(List<Pose2d> wps) {
+        List<Pose2d> out = new ArrayList<>(wps.size() * 3);
+        out.add(wps.get(0));
+        for (int i = 1; i < wps.size(); i++) {
+            Pose2d a = wps.get(i - 1);
+            Pose2d b = wps.get(i);
+            double dh = Pose2d.wrapToPi(b.headingRad - a.headingRad);
+            for (double t : new double[]{0.25, 0.75}) {
+                out.add(new Pose2d(a.xInches + (b.xInches - a.xInches) * t,
+                        a.yInches + (b.yInches - a.yInches) * t,
+                        Pose2d.wrapToPi(a.headingRad + dh * t)));
+            }
+            out.add(b);
+        }
+        return out;
+    }
+
+    /**
+     * Breadth-first search for the closest free cell (for starts inside an inflated obstacle).
+     */
+    private int nearestFree(int startCell) {
+        if (startCell < 0) {
+            return -1;
+        }
+        if (!blocked[startCell]) {
+            return startCell;
+        }
+        stamp++;
+        int[] queue = parent; // reuse scratch; astar re-initializes what it needs
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = startCell;
+        openStamp[startCell] = stamp;
+        while (head < tail) {
+            int cur = queue[head++];
+            if (!blocked[cur]) {
+                return cur;
+            }
+            int cx = cur % nx;
+            int cy = cur / nx;
+            for (int k = 0; k < 4; k++) {
+                int x = cx + DX[k];
+                int y = cy + DY[k];
+                if (x < 0 || y < 0 || x >= nx || y >= ny) {
+                    continue;
+                }
+                int nb = y * nx + x;
+                if (openStamp[nb] != stamp) {
+                    openStamp[nb] = stamp;
+                    queue[tail++] = nb;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int cellOf(double x, double y) {
+        int i = (int) Math.floor((x - minX) / cell);
+        int j = (int) Math.floor((y - minY) / cell);
+        if (i < 0 || j < 0 || i >= nx || j >= ny) {
+            return -1;
+        }
+        return j * nx + i;
+    }
+
+    private double clampX(double x) {
+        return Math.max(minX, Math.min(minX + nx * cell - 1e-6, x));
+    }
+
+    private double clampY(double y) {
+        return Math.max(minY, Math.min(minY + ny * cell - 1e-6, y));
+    }
+
+    private double centerX(int c) {
+        return minX + ((c % nx) + 0.5) * cell;
+    }
+
+    private double centerY(int c) {
+        return minY + ((c / nx) + 0.5) * cell;
+    }
+}
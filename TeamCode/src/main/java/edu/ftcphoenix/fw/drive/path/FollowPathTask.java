@@ -0,0 +1,349 @@
+package edu.ftcphoenix.fw.drive.path;
+
+import java.util.Objects;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.drive.ChassisSpeeds;
+import edu.ftcphoenix.fw.drive.MecanumDrivebase;
+import edu.ftcphoenix.fw.drive.control.HeadingController;
+import edu.ftcphoenix.fw.localization.PoseEstimate;
+import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.task.ResettableTask;
+import edu.ftcphoenix.fw.task.Task;
+import edu.ftcphoenix.fw.task.TaskOutcome;
+
+/**
+ * {@link Task} that follows a {@link PathProfile} with a mecanum drivebase, using any
+ * {@link PoseEstimator} for feedback.
+ *
+ * <p>Each loop the task looks up where the profile says the robot should be at the current
+ * time, then commands:</p>
+ *
+ * <pre>{@code
+ * vField = profileSpeed * pathTangent + kPos * (referencePosition - robotPosition)
+ * omega  = headingController(referenceHeading, robotHeading, profileSpeed * dHeading/ds)
+ * }</pre>
+ *
+ * <p>converted to robot-centric {@link ChassisSpeeds} and sent to
+ * {@link MecanumDrivebase#drive(ChassisSpeeds)}. The feedforward does most of the work, so the
+ * robot flows through intermediate waypoints; the feedback only trims tracking error.</p>
+ *
+ * <p>Completion and safety mirror {@link edu.ftcphoenix.fw.drive.control.GoToPoseTask}:</p>
+ * <ul>
+ *   <li>{@link TaskOutcome#SUCCESS} once the profile has finished and the robot is within the
+ *       position and heading tolerances of the end pose.</li>
+ *   <li>{@link TaskOutcome#TIMEOUT} if it is still outside tolerance
+ *       {@link Config#settleTimeoutSec} after the profile ends, or the pose is missing for longer
+ *       than {@link Config#maxNoPoseSec}.</li>
+ * </ul>
+ */
+public final class FollowPathTask implements ResettableTask {
+
+    /**
+     * Configuration parameters for {@link FollowPathTask}.
+     */
+    public static final class Config {
+
+        /**
+         * Position feedback gain (inches/sec per inch of error).
+         */
+        public double kPos = 2.0;
+
+        /**
+         * Heading feedback gain (rad/sec per rad of error).
+         */
+        public double kHeading = 3.0;
+
+        /**
+         * Maximum commanded angular speed (rad/sec).
+         */
+        public double maxOmegaRadPerSec = Math.toRadians(180.0);
+
+        /**
+         * Cap on the feedback part of the translation command (inches/sec), so a pose jump does not
+         * produce a violent correction.
+         */
+        public double maxCorrectionIps = 15.0;
+
+        /**
+         * Position tolerance at the end of the path (inches).
+         */
+        public double positionTolInches = 1.0;
+
+        /**
+         * Heading tolerance at the end of the path (radians).
+         */
+        public double headingTolRad = Math.toRadians(5.0);
+
+        /**
+         * Extra time after the profile ends to settle into tolerance before timing out (seconds).
+         */
+        public double settleTimeoutSec = 1.0;
+
+        /**
+         * Maximum time to wait for a valid pose before timing out (seconds).
+         */
+        public double maxNoPoseSec = 0.25;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.kPos = this.kPos;
+            c.kHeading = this.kHeading;
+            c.maxOmegaRadPerSec = this.maxOmegaRadPerSec;
+            c.maxCorrectionIps = this.maxCorrectionIps;
+            c.positionTolInches = this.positionTolInches;
+            c.headingTolRad = this.headingTolRad;
+            c.settleTimeoutSec = this.settleTimeoutSec;
+            c.maxNoPoseSec = this.maxNoPoseSec;
+            return c;
+        }
+    }
+
+    private final PoseEstimator poseEstimator;
+    private final MecanumDrivebase drivebase;
+    private final PathProfile profile;
+    private final Path path;
+    private final Config cfg;
+    private final HeadingController headingController;
+    private final Pose2d endPose;
+
+    private final PathProfile.State ref = new PathProfile.State();
+    private final Path.Sample refSample = new Path.Sample();
+
+    private boolean started = false;
+    private boolean finished = false;
+    private TaskOutcome outcome = TaskOutcome.NOT_DONE;
+
+    private double elapsedSec = 0.0;
+    private double noPoseElapsedSec = 0.0;
+
+    // For optional debugging/telemetry.
+    private double lastTrackingErrorInches = 0.0;
+    private double lastHeadingErrorRad = 0.0;
+    private boolean lastHasPose = false;
+    private ChassisSpeeds lastCmd = ChassisSpeeds.zero();
+
+    /**
+     * Creates a new {@code FollowPathTask}.
+     *
+     * @param poseEstimator pose estimator providing the robot's field pose
+     * @param drivebase     mecanum drivebase to command
+     * @param profile       profiled path to follow (field frame, same as the estimator)
+     * @param cfg           follower configuration (may be {@code null} to use defaults)
+     */
+    public FollowPathTask(PoseEstimator poseEstimator,
+                          MecanumDrivebase drivebase,
+                          PathProfile profile,
+                          Config cfg) {
+        this.poseEstimator = Objects.requireNonNull(poseEstimator, "poseEstimator");
+        this.drivebase = Objects.requireNonNull(drivebase, "drivebase");
+        this.profile = Objects.requireNonNull(profile, "profile");
+        this.path = profile.path();
+        this.cfg = (cfg != null) ? cfg.copy() : Config.defaults();
+        this.endPose = path.endPose();
+
+        HeadingController.Config hc = HeadingController.Config.defaults();
+        hc.kP = this.cfg.kHeading;
+        hc.maxOmegaRadPerSec = this.cfg.maxOmegaRadPerSec;
+        this.headingController = new HeadingController(hc);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(LoopClock clock) {
+        started = true;
+        finished = false;
+        outcome = TaskOutcome.NOT_DONE;
+        elapsedSec = 0.0;
+        noPoseElapsedSec = 0.0;
+        lastTrackingErrorInches = 0.0;
+        lastHeadingErrorRad = 0.0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>{@link #start(LoopClock)} already re-initializes all run state, so this only clears the
+     * started/finished flags.</p>
+     */
+    @Override
+    public void reset() {
+        started = false;
+        finished = false;
+        outcome = TaskOutcome.NOT_DONE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(LoopClock clock) {
+        if (finished) {
+            return;
+        }
+        if (!started) {
+            start(clock);
+        }
+
+        drivebase.update(clock);
+
+        double dtSec = clock.dtSec();
+        elapsedSec += dtSec;
+
+        PoseEstimate estimate = poseEstimator.getEstimate();
+        lastHasPose = estimate.hasPose;
+        if (!estimate.hasPose) {
+            // Without a pose the profile clock would run away from the robot; hold still and
+            // pause the profile until the pose comes back.
+            elapsedSec -= dtSec;
+            drivebase.stop();
+            lastCmd = ChassisSpeeds.zero();
+
+            noPoseElapsedSec += dtSec;
+            if (cfg.maxNoPoseSec <= 0.0 || noPoseElapsedSec > cfg.maxNoPoseSec) {
+                finish(TaskOutcome.TIMEOUT);
+            }
+            return;
+        }
+        noPoseElapsedSec = 0.0;
+
+        Pose2d robot = estimate.toPose2d();
+        double totalSec = profile.totalTimeSec();
+
+        // End of path: settle on the final pose.
+        if (elapsedSec >= totalSec) {
+            double posErr = robot.distanceTo(endPose);
+            double headErr = Math.abs(robot.headingErrorTo(endPose));
+            lastTrackingErrorInches = posErr;
+            lastHeadingErrorRad = headErr;
+            if (posErr <= cfg.positionTolInches && headErr <= cfg.headingTolRad) {
+                finish(TaskOutcome.SUCCESS);
+                return;
+            }
+            if (elapsedSec > totalSec + cfg.settleTimeoutSec) {
+                finish(TaskOutcome.TIMEOUT);
+                return;
+            }
+        }
+
+        profile.stateAt(elapsedSec, ref);
+        path.sample(ref.s, refSample);
+
+        // Feedforward along the path plus capped position feedback (field frame).
+        double exField = refSample.x - robot.xInches;
+        double eyField = refSample.y - robot.yInches;
+        lastTrackingErrorInches = Math.hypot(exField, eyField);
+
+        double cxField = cfg.kPos * exField;
+        double cyField = cfg.kPos * eyField;
+        double corr = Math.hypot(cxField, cyField);
+        if (cfg.maxCorrectionIps > 0.0 && corr > cfg.maxCorrectionIps) {
+            cxField *= cfg.maxCorrectionIps / corr;
+            cyField *= cfg.maxCorrectionIps / corr;
+        }
+
+        double vxField = ref.v * refSample.tx + cxField;
+        double vyField = ref.v * refSample.ty + cyField;
+
+        double cos = Math.cos(robot.headingRad);
+        double sin = Math.sin(robot.headingRad);
+        double vxRobot = vxField * cos + vyField * sin;
+        double vyRobot = -vxField * sin + vyField * cos;
+
+        double omegaFF = ref.v * refSample.headingPerInch;
+        double omega = headingController.update(refSample.headingRad, robot.headingRad, omegaFF);
+        lastHeadingErrorRad = Math.abs(Pose2d.wrapToPi(refSample.headingRad - robot.headingRad));
+
+        lastCmd = new ChassisSpeeds(vxRobot, vyRobot, omega);
+        drivebase.drive(lastCmd);
+    }
+
+    private void finish(TaskOutcome result) {
+        drivebase.stop();
+        lastCmd = ChassisSpeeds.zero();
+        finished = true;
+        outcome = result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isComplete() {
+        return finished;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskOutcome getOutcome() {
+        return finished ? outcome : TaskOutcome.NOT_DONE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "followPath" : prefix;
+
+        dbg.addData(p + ".started", started)
+                .addData(p + ".finished", finished)
+                .addData(p + ".outcome", getOutcome())
+                .addData(p + ".elapsedSec", elapsedSec)
+                .addData(p + ".totalSec", profile.totalTimeSec())
+                .addData(p + ".progress", MathUtil.clamp(ref.s / Math.max(path.length(), 1e-9), 0.0, 1.0))
+                .addData(p + ".refSpeedIps", ref.v)
+                .addData(p + ".lastHasPose", lastHasPose)
+                .addData(p + ".trackingErrorInches", lastTrackingErrorInches)
+                .addData(p + ".headingErrorRad", lastHeadingErrorRad)
+                .addData(p + ".cmd", lastCmd);
+
+        poseEstimator.debugDump(dbg, p + ".poseEstimator");
+        drivebase.debugDump(dbg, p + ".drivebase");
+    }
+
+    /**
+     * @return the profile being followed
+     */
+    public PathProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return the most recent distance between the robot and the reference point (inches)
+     */
+    public double getLastTrackingErrorInches() {
+        return lastTrackingErrorInches;
+    }
+
+    /**
+     * @return the total elapsed (profile) time in seconds since this task started
+     */
+    public double getElapsedSec() {
+        return elapsedSec;
+    }
+}
@@ -0,0 +1,360 @@
+package edu.ftcphoenix.fw.drive.path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+
+/**
+ * Smooth field path through a list of {@link Pose2d} waypoints, parameterized by arc length.
+ *
+ * <p>The translation is a chain of quintic Hermite segments (one per pair of waypoints). Each
+ * waypoint has a travel direction (the tangent), either given explicitly or chosen automatically
+ * Catmull-Rom style from its neighbors, and zero second derivative, so the path is smooth and
+ * its curvature is continuous through the waypoints. The robot keeps driving through
+ * intermediate waypoints instead of stopping at each one.</p>
+ *
+ * <p>Heading is independent of travel direction (mecanum is holonomic): the waypoint's
+ * {@link Pose2d#headingRad} is the robot heading there, and between waypoints the heading eases
+ * from one to the next along the shortest turn.</p>
+ *
+ * <pre>{@code
+ * Path path = Path.builder(new Pose2d(0, 0, 0))
+ *         .splineTo(new Pose2d(24, 24, Math.toRadians(90)))
+ *         .splineTo(new Pose2d(48, 0, Math.toRadians(90)), Math.toRadians(-90))  // arrive heading down-field
+ *         .build();
+ * }</pre>
+ *
+ * <p>An arc-length table is built once, so {@link #sample(double, Sample)} is a binary search
+ * plus one polynomial evaluation. Paths are immutable.</p>
+ */
+public final class Path {
+
+    /**
+     * Samples per segment in the arc-length table.
+     */
+    private static final int SAMPLES_PER_SEGMENT = 64;
+
+    /**
+     * Mutable result of {@link #sample(double, Sample)}; reuse one instance per loop.
+     */
+    public static final class Sample {
+        /**
+         * Arc length (inches) this sample was taken at, clamped to the path.
+         */
+        public double s;
+        /**
+         * Field position (inches).
+         */
+        public double x, y;
+        /**
+         * Robot heading (radians) at this point.
+         */
+        public double headingRad;
+        /**
+         * Unit travel direction in the field frame.
+         */
+        public double tx, ty;
+        /**
+         * Signed path curvature (1/inches, + turning left).
+         */
+        public double curvature;
+        /**
+         * Rate of change of robot heading with arc length (rad/inch).
+         */
+        public double headingPerInch;
+
+        /**
+         * @return the sampled position and heading as a pose
+         */
+        public Pose2d toPose2d() {
+            return new Pose2d(x, y, headingRad);
+        }
+    }
+
+    // Per segment: 6 polynomial coefficients in u for x, then for y.
+    private final double[][] coefX;
+    private final double[][] coefY;
+    private final double[] headingStart;
+    private final double[] headingDelta;
+
+    // Arc-length table: segStartS[i] is the arc length at the start of segment i;
+    // tableS[i * (N+1) + k] is the arc length at u = k / N within segment i.
+    private final double[] segStartS;
+    private final double[] tableS;
+    private final double length;
+
+    private Path(double[][] coefX, double[][] coefY, double[] headingStart, double[] headingDelta) {
+        this.coefX = coefX;
+        this.coefY = coefY;
+        this.headingStart = headingStart;
+        this.headingDelta = headingDelta;
+
+        int n = coefX.length;
+        this.segStartS = new double[n + 1];
+        this.tableS = new double[n * (SAMPLES_PER_SEGMENT + 1)];
+        double s = 0.0;
+        for (int i = 0; i < n; i++) {
+            segStartS[i] = s;
+            int base = i * (SAMPLES_PER_SEGMENT + 1);
+            double px = eval(coefX[i], 0.0);
+            double py = eval(coefY[i], 0.0);
+            tableS[base] = s;
+            for (int k = 1; k <= SAMPLES_PER_SEGMENT; k++) {
+                double u = (double) k / SAMPLES_PER_SEGMENT;
+                double qx = eval(coefX[i], u);
+                double qy = eval(coefY[i], u);
+                s += Math.hypot(qx - px, qy - py);
+                tableS[base + k] = s;
+                px = qx;
+                py = qy;
+            }
+        }
+        segStartS[n] = s;
+        this.length = s;
+    }
+
+    /**
+     * Start a path at {@code start}, with the initial travel direction chosen automatically.
+     */
+    public static Builder builder(Pose2d start) {
+        return new Builder(start, Double.NaN);
+    }
+
+    /**
+     * Start a path at {@code start}, leaving in direction {@code startTangentRad} (field frame).
+     */
+    public static Builder builder(Pose2d start, double startTangentRad) {
+        return new Builder(start, startTangentRad);
+    }
+
+    /**
+     * Builder for {@link Path}.
+     */
+    public static final class Builder {
+        private final List<Pose2d> poses = new ArrayList<>();
+        private final List<Double> tangents = new ArrayList<>();
+
+        private Builder(Pose2d start, double startTangentRad) {
+            poses.add(Objects.requireNonNull(start, "start"));
+            tangents.add(startTangentRad);
+        }
+
+        /**
+         * Add a waypoint; the travel direction through it is chosen automatically.
+         */
+        public Builder splineTo(Pose2d pose) {
+            return splineTo(pose, Double.NaN);
+        }
+
+        /**
+         * Add a waypoint passed through in direction {@code tangentRad} (field frame).
+         */
+        public Builder splineTo(Pose2d pose, double tangentRad) {
+            Objects.requireNonNull(pose, "pose");
+            Pose2d prev = poses.get(poses.size() - 1);
+            if (prev.distanceTo(pose) < 1e-6) {
+                throw new IllegalArgumentException("consecutive waypoints must not coincide: " + pose);
+            }
+            poses.add(pose);
+            tangents.add(tangentRad);
+            return this;
+        }
+
+        /**
+         * Build the path.
+         *
+         * @throws IllegalStateException if fewer than two waypoints were given
+         */
+        public Path build() {
+            int m = poses.size();
+            if (m < 2) {
+                throw new IllegalStateException("a path needs at least two waypoints");
+            }
+
+            // Unit tangent directions at each waypoint.
+            double[] dx = new double[m];
+            double[] dy = new double[m];
+            for (int i = 0; i < m; i++) {
+                double t = tangents.get(i);
+                if (!Double.isNaN(t)) {
+                    dx[i] = Math.cos(t);
+                    dy[i] = Math.sin(t);
+                    continue;
+                }
+                Pose2d a = poses.get(Math.max(0, i - 1));
+                Pose2d b = poses.get(Math.min(m - 1, i + 1));
+                double vx = b.xInches - a.xInches;
+                double vy = b.yInches - a.yInches;
+                double mag = Math.hypot(vx, vy);
+                if (mag < 1e-9) {
+                    // Doubling back: leave along the outgoing chord.
+                    Pose2d c = poses.get(Math.min(m - 1, i + 1));
+                    Pose2d p = poses.get(i);
+                    vx = c.xInches - p.xInches;
+                    vy = c.yInches - p.yInches;
+                    mag = Math.hypot(vx, vy);
+                }
+                dx[i] = vx / mag;
+                dy[i] = vy / mag;
+            }
+
+            int n = m - 1;
+            double[][] cx = new double[n][];
+            double[][] cy = new double[n][];
+            double[] h0 = new double[n];
+            double[] hd = new double[n];
+            for (int i = 0; i < n; i++) {
+                Pose2d p0 = poses.get(i);
+                Pose2d p1 = poses.get(i + 1);
+                double chord = p0.distanceTo(p1);
+                cx[i] = quintic(p0.xInches, dx[i] * chord, p1.xInches, dx[i + 1] * chord);
+                cy[i] = quintic(p0.yInches, dy[i] * chord, p1.yInches, dy[i + 1] * chord);
+                h0[i] = p0.headingRad;
+                hd[i] = Pose2d.wrapToPi(p1.headingRad - p0.headingRad);
+            }
+            return new Path(cx, cy, h0, hd);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return total arc length in inches
+     */
+    public double length() {
+        return length;
+    }
+
+    /**
+     * @return number of segments (waypoints minus one)
+     */
+    public int segmentCount() {
+        return coefX.length;
+    }
+
+    /**
+     * @return the pose at the start of the path
+     */
+    public Pose2d startPose() {
+        return new Pose2d(coefX[0][0], coefY[0][0], headingStart[0]);
+    }
+
+    /**
+     * @return the pose at the end of the path
+     */
+    public Pose2d endPose() {
+        int last = coefX.length - 1;
+        return new Pose2d(eval(coefX[last], 1.0), eval(coefY[last], 1.0),
+                Pose2d.wrapToPi(headingStart[last] + headingDelta[last]));
+    }
+
+    /**
+     * Sample the path at arc length {@code s} (clamped to [0, {@link #length()}]).
+     *
+     * @param s   arc length in inches
+     * @param out receives the result
+     * @return {@code out}
+     */
+    public Sample sample(double s, Sample out) {
+        double sc = MathUtil.clamp(s, 0.0, length);
+        out.s = sc;
+
+        // Segment.
+        int seg = 0;
+        int lo = 0;
+        int hi = coefX.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (segStartS[mid] <= sc) {
+                seg = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        // u within the segment, from the arc-length table.
+        int base = seg * (SAMPLES_PER_SEGMENT + 1);
+        int k = 0;
+        lo = 0;
+        hi = SAMPLES_PER_SEGMENT - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tableS[base + mid] <= sc) {
+                k = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        double s0 = tableS[base + k];
+        double s1 = tableS[base + k + 1];
+        double frac = (s1 > s0) ? MathUtil.clamp((sc - s0) / (s1 - s0), 0.0, 1.0) : 0.0;
+        double u = (k + frac) / SAMPLES_PER_SEGMENT;
+
+        double[] ax = coefX[seg];
+        double[] ay = coefY[seg];
+        out.x = eval(ax, u);
+        out.y = eval(ay, u);
+
+        double x1 = deriv1(ax, u);
+        double y1 = deriv1(ay, u);
+        double x2 = deriv2(ax, u);
+        double y2 = deriv2(ay, u);
+        double speed = Math.hypot(x1, y1);
+        if (speed > 1e-9) {
+            out.tx = x1 / speed;
+            out.ty = y1 / speed;
+            out.curvature = (x1 * y2 - y1 * x2) / (speed * speed * speed);
+        } else {
+            out.tx = 1.0;
+            out.ty = 0.0;
+            out.curvature = 0.0;
+        }
+
+        // Heading eases between waypoints by arc-length fraction (smootherstep), so heading
+        // rate is zero at each waypoint and continuous everywhere.
+        double segLen = segStartS[seg + 1] - segStartS[seg];
+        double f = (segLen > 1e-9) ? (sc - segStartS[seg]) / segLen : 1.0;
+        double ease = f * f * f * (10.0 + f * (-15.0 + 6.0 * f));
+        double easeRate = 30.0 * f * f * (1.0 - f) * (1.0 - f);
+        out.headingRad = Pose2d.wrapToPi(headingStart[seg] + headingDelta[seg] * ease);
+        out.headingPerInch = (segLen > 1e-9) ? headingDelta[seg] * easeRate / segLen : 0.0;
+        return out;
+    }
+
+    // ------------------------------------------------------------------------
+    // Polynomial helpers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Quintic Hermite coefficients for one axis with zero second derivative at both ends.
+     */
+    private static double[] quintic(double p0, double v0, double p1, double v1) {
+        return new double[]{
+                p0,
+                v0,
+                0.0,
+                -10.0 * p0 - 6.0 * v0 - 4.0 * v1 + 10.0 * p1,
+                15.0 * p0 + 8.0 * v0 + 7.0 * v1 - 15.0 * p1,
+                -6.0 * p0 - 3.0 * v0 - 3.0 * v1 + 6.0 * p1
+        };
+    }
+
+    private static double eval(double[] c, double u) {
+        return c[0] + u * (c[1] + u * (c[2] + u * (c[3] + u * (c[4] + u * c[5]))));
+    }
+
+    private static double deriv1(double[] c, double u) {
+        return c[1] + u * (2.0 * c[2] + u * (3.0 * c[3] + u * (4.0 * c[4] + u * 5.0 * c[5])));
+    }
+
+    private static double deriv2(double[] c, double u) {
+        return 2.0 * c[2] + u * (6.0 * c[3] + u * (12.0 * c[4] + u * 20.0 * c[5]));
+    }
+}
@@ -0,0 +1,267 @@
+package edu.ftcphoenix.fw.drive.path;
+
+import java.util.Objects;
+
+import edu.ftcphoenix.fw.core.math.MathUtil;
+
+/**
+ * Time-optimal speed profile along a {@link Path} for a mecanum drivebase.
+ *
+ * <p>The path is discretized every {@link Constraints#resolutionInches}. At each station the
+ * profile finds the highest path speed that keeps every wheel under
+ * {@link Constraints#maxWheelSpeedIps} (including the share used for turning) and keeps
+ * centripetal acceleration under the acceleration limit. A forward pass then limits how fast
+ * speed can grow and a backward pass how fast it must shrink, using whatever acceleration is
+ * left after the centripetal part. The result is as fast as the constraints allow: full speed
+ * on straights, slower through tight curves, and braking exactly as late as possible.</p>
+ *
+ * <h2>Mecanum wheel model</h2>
+ *
+ * <p>For robot-frame speeds {@code (vx, vy, omega)} the fastest mecanum wheel moves at
+ * {@code |vx| + |vy| + R*|omega|}, where {@code R} is {@link Constraints#rotationRadiusInches}
+ * ({@code (trackWidth + wheelBase) / 2}). Strafing diagonally therefore costs more wheel speed
+ * than driving straight, and the profile accounts for it.</p>
+ *
+ * <p>Profiles are immutable; build one per path (at init for autonomous routines).</p>
+ */
+public final class PathProfile {
+
+    /**
+     * Drivebase limits for {@link PathProfile}.
+     */
+    public static final class Constraints {
+
+        /**
+         * Maximum wheel surface speed (inches/sec).
+         *
+         * <p>Keep this a bit below {@link edu.ftcphoenix.fw.drive.MecanumDrivebase.Config#maxVxInchesPerSec}
+         * so the follower has headroom for feedback. Default: {@code 45.0}.</p>
+         */
+        public double maxWheelSpeedIps = 45.0;
+
+        /**
+         * Maximum wheel acceleration (inches/sec^2), also used as the centripetal limit.
+         *
+         * <p>Default: {@code 60.0}.</p>
+         */
+        public double maxWheelAccelIps2 = 60.0;
+
+        /**
+         * Maximum wheel deceleration (inches/sec^2). {@code <= 0} uses
+         * {@link #maxWheelAccelIps2}.
+         *
+         * <p>Default: {@code 0.0}.</p>
+         */
+        public double maxWheelDecelIps2 = 0.0;
+
+        /**
+         * Half of (track width + wheel base), in inches.
+         *
+         * <p>Default: {@code 14.0}.</p>
+         */
+        public double rotationRadiusInches = 14.0;
+
+        /**
+         * Profile station spacing along the path (inches).
+         *
+         * <p>Default: {@code 0.5}.</p>
+         */
+        public double resolutionInches = 0.5;
+
+        private Constraints() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new constraints instance with Phoenix defaults.
+         */
+        public static Constraints defaults() {
+            return new Constraints();
+        }
+
+        /**
+         * Deep copy of these constraints.
+         */
+        public Constraints copy() {
+            Constraints c = new Constraints();
+            c.maxWheelSpeedIps = this.maxWheelSpeedIps;
+            c.maxWheelAccelIps2 = this.maxWheelAccelIps2;
+            c.maxWheelDecelIps2 = this.maxWheelDecelIps2;
+            c.rotationRadiusInches = this.rotationRadiusInches;
+            c.resolutionInches = this.resolutionInches;
+            return c;
+        }
+    }
+
+    /**
+     * Mutable result of {@link #stateAt(double, State)}; reuse one instance per loop.
+     */
+    public static final class State {
+        /**
+         * Arc length along the path (inches).
+         */
+        public double s;
+        /**
+         * Path speed (inches/sec).
+         */
+        public double v;
+        /**
+         * Path acceleration (inches/sec^2).
+         */
+        public double a;
+    }
+
+    private final Path path;
+    private final double[] stationS;
+    private final double[] stationV;
+    private final double[] stationT;
+
+    private PathProfile(Path path, double[] s, double[] v, double[] t) {
+        this.path = path;
+        this.stationS = s;
+        this.stationV = v;
+        this.stationT = t;
+    }
+
+    /**
+     * Build the profile for {@code path}, starting and ending at rest.
+     *
+     * @param path        path to profile
+     * @param constraints drivebase limits (may be {@code null} to use defaults)
+     */
+    public static PathProfile build(Path path, Constraints constraints) {
+        Objects.requireNonNull(path, "path");
+        Constraints c = (constraints != null) ? constraints : Constraints.defaults();
+        if (!(c.maxWheelSpeedIps > 0.0) || !(c.maxWheelAccelIps2 > 0.0) || !(c.resolutionInches > 0.0)) {
+            throw new IllegalArgumentException("maxWheelSpeedIps, maxWheelAccelIps2 and resolutionInches must be > 0");
+        }
+        double accel = c.maxWheelAccelIps2;
+        double decel = (c.maxWheelDecelIps2 > 0.0) ? c.maxWheelDecelIps2 : accel;
+
+        double len = path.length();
+        int n = Math.max(2, (int) Math.ceil(len / c.resolutionInches) + 1);
+        double ds = len / (n - 1);
+
+        double[] s = new double[n];
+        double[] vMax = new double[n];
+        double[] wheelFactor = new double[n];
+        double[] curv = new double[n];
+
+        Path.Sample p = new Path.Sample();
+        for (int i = 0; i < n; i++) {
+            s[i] = i * ds;
+            path.sample(s[i], p);
+
+            // Path tangent in the robot frame.
+            double cos = Math.cos(p.headingRad);
+            double sin = Math.sin(p.headingRad);
+            double trx = p.tx * cos + p.ty * sin;
+            double tryy = -p.tx * sin + p.ty * cos;
+            double f = Math.abs(trx) + Math.abs(tryy) + c.rotationRadiusInches * Math.abs(p.headingPerInch);
+            wheelFactor[i] = Math.max(f, 1e-6);
+            curv[i] = Math.abs(p.curvature);
+
+            double v = c.maxWheelSpeedIps / wheelFactor[i];
+            if (curv[i] > 1e-9) {
+                v = Math.min(v, Math.sqrt(accel / curv[i]));
+            }
+            vMax[i] = v;
+        }
+
+        // Start and end at rest.
+        double[] v = new double[n];
+        v[0] = 0.0;
+        for (int i = 0; i < n - 1; i++) {
+            double a = availableAccel(accel, v[i], curv[i]) / wheelFactor[i];
+            v[i + 1] = Math.min(vMax[i + 1], Math.sqrt(v[i] * v[i] + 2.0 * a * ds));
+        }
+        v[n - 1] = 0.0;
+        for (int i = n - 1; i > 0; i--) {
+            double d = availableAccel(decel, v[i], curv[i]) / wheelFactor[i];
+            v[i - 1] = Math.min(v[i - 1], Math.sqrt(v[i] * v[i] + 2.0 * d * ds));
+        }
+
+        double[] t = new double[n];
+        for (int i = 1; i < n; i++) {
+            double vAvg = 0.5 * (v[i - 1] + v[i]);
+            t[i] = t[i - 1] + ((vAvg > 1e-9) ? ds / vAvg : 0.0);
+        }
+        return new PathProfile(path, s, v, t);
+    }
+
+    /**
+     * Friction-circle style split: acceleration left along the path after the centripetal part.
+     */
+    private static double availableAccel(double limit, double v, double curvature) {
+        double lateral = v * v * curvature;
+        double rem = limit * limit - lateral * lateral;
+        // Never fully zero, or the passes could stall at a station that is exactly at its limit.
+        return Math.max(Math.sqrt(Math.max(0.0, rem)), 0.05 * limit);
+    }
+
+    /**
+     * @return the profiled path
+     */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * @return time to traverse the whole path (seconds)
+     */
+    public double totalTimeSec() {
+        return stationT[stationT.length - 1];
+    }
+
+    /**
+     * @return the highest path speed anywhere on the profile (inches/sec)
+     */
+    public double peakSpeedIps() {
+        double m = 0.0;
+        for (double v : stationV) {
+            m = Math.max(m, v);
+        }
+        return m;
+    }
+
+    /**
+     * Profile state at time {@code tSec} after the start (clamped to the profile duration).
+     *
+     * @param tSec time since the start of the path (seconds)
+     * @param out  receives the result
+     * @return {@code out}
+     */
+    public State stateAt(double tSec, State out) {
+        int n = stationT.length;
+        double t = MathUtil.clamp(tSec, 0.0, stationT[n - 1]);
+
+        int lo = 0;
+        int hi = n - 2;
+        int i = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stationT[mid] <= t) {
+                i = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        // Constant acceleration between stations.
+        double ds = stationS[i + 1] - stationS[i];
+        double v0 = stationV[i];
+        double v1 = stationV[i + 1];
+        double a = (ds > 0.0) ? (v1 * v1 - v0 * v0) / (2.0 * ds) : 0.0;
+        double tau = t - stationT[i];
+
+        out.v = Math.max(0.0, v0 + a * tau);
+        out.s = Math.min(stationS[i + 1], stationS[i] + v0 * tau + 0.5 * a * tau * tau);
+        out.a = (t >= stationT[n - 1]) ? 0.0 : a;
+        if (t >= stationT[n - 1]) {
+            out.s = stationS[n - 1];
+            out.v = 0.0;
+        }
+        return out;
+    }
+}
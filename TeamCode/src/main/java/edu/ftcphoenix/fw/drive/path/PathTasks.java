@@ -0,0 +1,82 @@
+package edu.ftcphoenix.fw.drive.path;
+
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.drive.MecanumDrivebase;
+import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.task.Task;
+
+/**
+ * Factory methods for path following.
+ *
+ * <p>Unlike {@code GoToPoseTasks}, which stops at each target, a path keeps moving through
+ * its intermediate waypoints, so multi-waypoint autonomous routines avoid braking and
+ * re-accelerating at every point.</p>
+ *
+ * <pre>{@code
+ * // init(): build (and profile) once.
+ * Path toShoot = Path.builder(startPose)
+ *         .splineTo(new Pose2d(36, 12, 0))
+ *         .splineTo(shootPose)
+ *         .build();
+ * Task driveToShoot = PathTasks.follow(drivebase, pinpoint, toShoot, constraints, null);
+ * }</pre>
+ *
+ * <p>When the start is not known in advance (TeleOp macros), {@link #planAndFollow} plans
+ * around obstacles with a {@link FieldPlanner} from wherever the robot is.</p>
+ */
+public final class PathTasks {
+
+    private PathTasks() {
+        // utility
+    }
+
+    /**
+     * Profile {@code path} and return a task that follows it.
+     *
+     * <p>Profiling walks the whole path, so call this during init rather than in the loop.</p>
+     *
+     * @param drivebase     drivebase to command
+     * @param poseEstimator pose feedback (field frame, same as the path)
+     * @param path          path to follow
+     * @param constraints   drivebase limits (may be {@code null} to use defaults)
+     * @param cfg           follower configuration (may be {@code null} to use defaults)
+     */
+    public static Task follow(MecanumDrivebase drivebase,
+                              PoseEstimator poseEstimator,
+                              Path path,
+                              PathProfile.Constraints constraints,
+                              FollowPathTask.Config cfg) {
+        PathProfile profile = PathProfile.build(path, constraints);
+        return new FollowPathTask(poseEstimator, drivebase, profile, cfg);
+    }
+
+    /**
+     * Convenience overload that uses default constraints and follower configuration.
+     */
+    public static Task follow(MecanumDrivebase drivebase, PoseEstimator poseEstimator, Path path) {
+        return follow(drivebase, poseEstimator, path, null, null);
+    }
+
+    /**
+     * Return a task that plans from the robot's current pose to {@code goal} around the
+     * planner's obstacles, then follows the plan.
+     *
+     * <p>Planning and profiling run on the task's first update. If the goal is unreachable the
+     * task ends with {@link edu.ftcphoenix.fw.task.TaskOutcome#TIMEOUT} without moving.</p>
+     *
+     * @param drivebase     drivebase to command
+     * @param poseEstimator pose feedback (field frame, same as the planner)
+     * @param planner       field planner
+     * @param goal          target pose
+     * @param constraints   drivebase limits (may be {@code null} to use defaults)
+     * @param cfg           follower configuration (may be {@code null} to use defaults)
+     */
+    public static Task planAndFollow(MecanumDrivebase drivebase,
+                                     PoseEstimator poseEstimator,
+                                     FieldPlanner planner,
+                                     Pose2d goal,
+                                     PathProfile.Constraints constraints,
+                                     FollowPathTask.Config cfg) {
+        return new PlanAndFollowTask(poseEstimator, drivebase, planner, goal, constraints, cfg);
+    }
+}
@@ -0,0 +1,223 @@
+package edu.ftcphoenix.fw.drive.path;
+
+import java.util.Objects;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.drive.MecanumDrivebase;
+import edu.ftcphoenix.fw.drive.control.GoToPoseTasks;
+import edu.ftcphoenix.fw.localization.PoseEstimate;
+import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.task.ResettableTask;
+import edu.ftcphoenix.fw.task.Task;
+import edu.ftcphoenix.fw.task.TaskOutcome;
+
+/**
+ * {@link Task} that plans around obstacles from wherever the robot is when it starts, then
+ * follows the plan with a {@link FollowPathTask}.
+ *
+ * <p>Planning happens on the first update that has a pose, so the same task works as a TeleOp
+ * macro (robot anywhere) and in autonomous. Outcomes:</p>
+ * <ul>
+ *   <li>{@link TaskOutcome#SUCCESS} / {@link TaskOutcome#TIMEOUT}: passed through from the
+ *       follower.</li>
+ *   <li>{@link TaskOutcome#TIMEOUT} without moving if no collision-free path exists, or no pose
+ *       arrives within {@link FollowPathTask.Config#maxNoPoseSec}.</li>
+ * </ul>
+ *
+ * <p>If the robot already sits within {@link FollowPathTask.Config#positionTolInches} of the goal
+ * but the heading is off, there is nothing to plan: the task turns in place with a go-to-pose
+ * controller using the follower's heading gains and tolerances.</p>
+ *
+ * <p>Create via {@link PathTasks#planAndFollow}.</p>
+ */
+public final class PlanAndFollowTask implements ResettableTask {
+
+    private final PoseEstimator poseEstimator;
+    private final MecanumDrivebase drivebase;
+    private final FieldPlanner planner;
+    private final Pose2d goal;
+    private final PathProfile.Constraints constraints;
+    private final FollowPathTask.Config cfg;
+
+    // FollowPathTask for a planned path, or a go-to-pose task for a turn in place.
+    private Task follower = null;
+    private boolean turnInPlace = false;
+
+    private boolean started = false;
+    private boolean finished = false;
+    private TaskOutcome outcome = TaskOutcome.NOT_DONE;
+    private boolean noPath = false;
+    private double noPoseElapsedSec = 0.0;
+    private double planMs = 0.0;
+
+    /**
+     * Creates a new {@code PlanAndFollowTask}.
+     *
+     * @param poseEstimator pose estimator providing the robot's field pose
+     * @param drivebase     mecanum drivebase to command
+     * @param planner       field planner (shared; plans are cached across tasks)
+     * @param goal          target pose (field frame)
+     * @param constraints   drivebase limits (may be {@code null} to use defaults)
+     * @param cfg           follower configuration (may be {@code null} to use defaults)
+     */
+    public PlanAndFollowTask(PoseEstimator poseEstimator,
+                             MecanumDrivebase drivebase,
+                             FieldPlanner planner,
+                             Pose2d goal,
+                             PathProfile.Constraints constraints,
+                             FollowPathTask.Config cfg) {
+        this.poseEstimator = Objects.requireNonNull(poseEstimator, "poseEstimator");
+        this.drivebase = Objects.requireNonNull(drivebase, "drivebase");
+        this.planner = Objects.requireNonNull(planner, "planner");
+        this.goal = Objects.requireNonNull(goal, "goal");
+        this.constraints = (constraints != null) ? constraints.copy() : PathProfile.Constraints.defaults();
+        this.cfg = (cfg != null) ? cfg.copy() : FollowPathTask.Config.defaults();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(LoopClock clock) {
+        started = true;
+        finished = false;
+        outcome = TaskOutcome.NOT_DONE;
+        follower = null;
+        turnInPlace = false;
+        noPath = false;
+        noPoseElapsedSec = 0.0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        started = false;
+        finished = false;
+        outcome = TaskOutcome.NOT_DONE;
+        follower = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(LoopClock clock) {
+        if (finished) {
+            return;
+        }
+        if (!started) {
+            start(clock);
+        }
+
+        if (follower == null) {
+            PoseEstimate estimate = poseEstimator.getEstimate();
+            if (!estimate.hasPose) {
+                drivebase.stop();
+                noPoseElapsedSec += clock.dtSec();
+                if (cfg.maxNoPoseSec <= 0.0 || noPoseElapsedSec > cfg.maxNoPoseSec) {
+                    finish(TaskOutcome.TIMEOUT);
+                }
+                return;
+            }
+
+            Pose2d robot = estimate.toPose2d();
+            if (robot.distanceTo(goal) <= cfg.positionTolInches
+                    && Math.abs(robot.headingErrorTo(goal)) <= cfg.headingTolRad) {
+                finish(TaskOutcome.SUCCESS);
+                return;
+            }
+
+            if (robot.distanceTo(goal) <= cfg.positionTolInches) {
+                // Heading-only move: no path to plan.
+                turnInPlace = true;
+                follower = turnInPlaceTask();
+            } else {
+                Path path = planner.planPath(robot, goal);
+                planMs = planner.lastPlanMs();
+                if (path == null) {
+                    noPath = true;
+                    finish(TaskOutcome.TIMEOUT);
+                    return;
+                }
+                follower = new FollowPathTask(poseEstimator, drivebase, PathProfile.build(path, constraints), cfg);
+            }
+            follower.start(clock);
+        }
+
+        follower.update(clock);
+        if (follower.isComplete()) {
+            finished = true;
+            outcome = follower.getOutcome();
+        }
+    }
+
+    private Task turnInPlaceTask() {
+        GoToPoseTasks.Config c = GoToPoseTasks.Config.defaults();
+        c.kHeading = cfg.kHeading;
+        c.maxOmegaRadPerSec = cfg.maxOmegaRadPerSec;
+        c.positionToleranceInches = cfg.positionTolInches;
+        c.headingToleranceRad = cfg.headingTolRad;
+        c.maxNoPoseSec = cfg.maxNoPoseSec;
+        // Half a turn at full rate, plus the follower's settle allowance.
+        c.timeoutSec = Math.PI / Math.max(1e-3, cfg.maxOmegaRadPerSec) + cfg.settleTimeoutSec;
+        return GoToPoseTasks.goToPoseFieldRelative(drivebase, poseEstimator, goal, c);
+    }
+
+    private void finish(TaskOutcome result) {
+        drivebase.stop();
+        finished = true;
+        outcome = result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isComplete() {
+        return finished;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TaskOutcome getOutcome() {
+        return finished ? outcome : TaskOutcome.NOT_DONE;
+    }
+
+    /**
+     * @return whether the task ended because the planner found no collision-free path
+     */
+    public boolean wasUnreachable() {
+        return noPath;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "planAndFollow" : prefix;
+
+        dbg.addData(p + ".started", started)
+                .addData(p + ".finished", finished)
+                .addData(p + ".outcome", getOutcome())
+                .addData(p + ".goal", goal)
+                .addData(p + ".planned", follower != null && !turnInPlace)
+                .addData(p + ".turnInPlace", turnInPlace)
+                .addData(p + ".unreachable", noPath)
+                .addData(p + ".planMs", planMs);
+
+        if (follower != null) {
+            follower.debugDump(dbg, p + ".follow");
+        }
+        planner.debugDump(dbg, p + ".planner");
+    }
+}
@@ -0,0 +1,106 @@
+package edu.ftcphoenix.fw.ftc;
+
+import android.graphics.Canvas;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.opencv.core.Mat;
+
+/**
+ * Measures per-frame processing time of the processors in a {@link org.firstinspires.ftc.vision.VisionPortal}.
+ *
+ * <p>The portal runs its processors in the order they were added, on the camera thread. Adding
+ * {@link #start} before and {@link #end} after the real processors brackets their work, so the
+ * difference is the time spent processing each frame. Both probes are trivial (one
+ * {@link System#nanoTime()} each) and never draw.</p>
+ *
+ * <p>Values are written on the camera thread and read on the OpMode thread; they are published
+ * through volatile fields and may lag by a frame.</p>
+ */
+final class FrameTimingProbe {
+
+    /**
+     * Smoothing factor for the running average (weight of the newest frame).
+     */
+    private static final double AVG_ALPHA = 0.1;
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private long startNanos = 0L;   // camera thread only
+
+    private volatile double lastProcessingMs = Double.NaN;
+    private volatile double avgProcessingMs = Double.NaN;
+    private volatile long frameCount = 0L;
+
+    /**
+     * Add this processor before the processors to be timed.
+     */
+    final VisionProcessor start = new VisionProcessor() {
+        @Override
+        public void init(int width, int height, CameraCalibration calibration) {
+            // Nothing to initialize.
+        }
+
+        @Override
+        public Object processFrame(Mat frame, long captureTimeNanos) {
+            startNanos = System.nanoTime();
+            return null;
+        }
+
+        @Override
+        public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight,
+                                float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+            // Never draws.
+        }
+    };
+
+    /**
+     * Add this processor after the processors to be timed.
+     */
+    final VisionProcessor end = new VisionProcessor() {
+        @Override
+        public void init(int width, int height, CameraCalibration calibration) {
+            // Nothing to initialize.
+        }
+
+        @Override
+        public Object processFrame(Mat frame, long captureTimeNanos) {
+            if (startNanos == 0L) {
+                return null;
+            }
+            double ms = (System.nanoTime() - startNanos) / NANOS_PER_MS;
+            double avg = avgProcessingMs;
+            lastProcessingMs = ms;
+            avgProcessingMs = Double.isNaN(avg) ? ms : avg + AVG_ALPHA * (ms - avg);
+            frameCount = frameCount + 1;
+            return null;
+        }
+
+        @Override
+        public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight,
+                                float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+            // Never draws.
+        }
+    };
+
+    /**
+     * @return processing time of the most recent frame in milliseconds, or NaN before the first frame
+     */
+    double lastProcessingMs() {
+        return lastProcessingMs;
+    }
+
+    /**
+     * @return smoothed per-frame processing time in milliseconds, or NaN before the first frame
+     */
+    double avgProcessingMs() {
+        return avgProcessingMs;
+    }
+
+    /**
+     * @return number of frames timed so far
+     */
+    long frameCount() {
+        return frameCount;
+    }
+}
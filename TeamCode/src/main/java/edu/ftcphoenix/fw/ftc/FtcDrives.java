@@ -3,6 +3,7 @@ package edu.ftcphoenix.fw.ftc;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
+import edu.ftcphoenix.fw.actuation.PowerBudget;
 import edu.ftcphoenix.fw.core.hal.Direction;
 import edu.ftcphoenix.fw.core.hal.PowerOutput;
 import edu.ftcphoenix.fw.drive.MecanumDrivebase;
@@ -60,7 +61,10 @@ import edu.ftcphoenix.fw.drive.MecanumDrivebase;
  *
  * <ul>
  *   <li>Pass a custom {@link MecanumDrivebase.Config} to enable rate limiting or other
- *       tuning options.</li>
+ *       tuning options. Enabling {@link MecanumDrivebase.Config#wheelVelocity} makes these
+ *       factories wire each motor's encoder velocity and the battery voltage for closed-loop
+ *       wheel velocity control; the same applies to {@link MecanumDrivebase.Config#traction},
+ *       which additionally needs {@link MecanumDrivebase#setChassisSpeedsSource}.</li>
  *   <li>Use the overloads that accept custom motor names if they do not
  *       follow the standard naming convention.</li>
  *   <li>Bypass this helper entirely and construct {@link MecanumDrivebase}
@@ -213,6 +217,52 @@ public final class FtcDrives {
         );
     }
 
+    /**
+     * Creates a mecanum drivebase whose wheel outputs share a {@link PowerBudget}.
+     *
+     * <p>All four wheels join one budget channel named {@code "drive"}, so throttling scales
+     * them together and the mecanum mix keeps its direction.</p>
+     *
+     * @param hw       hardware map
+     * @param wiring   motor names/directions
+     * @param config   mecanum drive config (if null, {@link MecanumDrivebase.Config#defaults()} is used)
+     * @param budget   shared power budget (if null, the drive is not budgeted)
+     * @param priority budget priority for the drive (higher values are served first)
+     * @param model    motor model for each drive motor
+     */
+    public static MecanumDrivebase mecanum(HardwareMap hw,
+                                           MecanumWiringConfig wiring,
+                                           MecanumDrivebase.Config config,
+                                           PowerBudget budget,
+                                           int priority,
+                                           PowerBudget.MotorModel model) {
+        if (budget == null) {
+            return mecanum(hw, wiring, config);
+        }
+        if (hw == null) {
+            throw new IllegalArgumentException("HardwareMap is required");
+        }
+        if (wiring == null) {
+            throw new IllegalArgumentException("wiring is required");
+        }
+        if (model == null) {
+            throw new IllegalArgumentException("model is required when a budget is given");
+        }
+
+        PowerOutput fl = budget.power("drive", priority, model,
+                FtcHardware.motorPower(hw, wiring.frontLeftName, wiring.frontLeftDirection));
+        PowerOutput fr = budget.power("drive", priority, model,
+                FtcHardware.motorPower(hw, wiring.frontRightName, wiring.frontRightDirection));
+        PowerOutput bl = budget.power("drive", priority, model,
+                FtcHardware.motorPower(hw, wiring.backLeftName, wiring.backLeftDirection));
+        PowerOutput br = budget.power("drive", priority, model,
+                FtcHardware.motorPower(hw, wiring.backRightName, wiring.backRightDirection));
+
+        MecanumDrivebase.Config cfg = (config != null) ? config : MecanumDrivebase.Config.defaults();
+        return build(hw, fl, wiring.frontLeftName, fr, wiring.frontRightName,
+                bl, wiring.backLeftName, br, wiring.backRightName, cfg);
+    }
+
     // ======================================================================
     // Motor behavior helpers (FTC-specific)
     // ======================================================================
@@ -456,7 +506,31 @@ public final class FtcDrives {
         PowerOutput br = FtcHardware.motorPower(hw, brName, brDirection);
 
         MecanumDrivebase.Config cfg = (config != null) ? config : MecanumDrivebase.Config.defaults();
-        return new MecanumDrivebase(fl, fr, bl, br, cfg);
+        return build(hw, fl, flName, fr, frName, bl, blName, br, brName, cfg);
+    }
+
+    /**
+     * Construct the drivebase, wiring encoder velocities and battery voltage when the config
+     * enables closed-loop wheel velocity control or traction control.
+     */
+    private static MecanumDrivebase build(HardwareMap hw,
+                                          PowerOutput fl, String flName,
+                                          PowerOutput fr, String frName,
+                                          PowerOutput bl, String blName,
+                                          PowerOutput br, String brName,
+                                          MecanumDrivebase.Config cfg) {
+        if (!cfg.wheelVelocity.enabled && !cfg.traction.enabled) {
+            return new MecanumDrivebase(fl, fr, bl, br, cfg);
+        }
+        return new MecanumDrivebase(
+                fl, fr, bl, br,
+                FtcHardware.motorVelocityTicks(hw, flName),
+                FtcHardware.motorVelocityTicks(hw, frName),
+                FtcHardware.motorVelocityTicks(hw, blName),
+                FtcHardware.motorVelocityTicks(hw, brName),
+                FtcHardware.batteryVoltage(hw),
+                cfg
+        );
     }
 
     // ----------------------------------------------------------------------
@@ -6,6 +6,11 @@ import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
 
 import edu.ftcphoenix.fw.core.hal.Direction;
 import edu.ftcphoenix.fw.core.hal.PowerOutput;
@@ -45,6 +50,10 @@ import edu.ftcphoenix.fw.core.math.MathUtil;
  * <p>Framework code and {@code Plant} implementations then treat positive
  * values as "forward" in whatever coordinate system the hardware already
  * uses.</p>
+ *
+ * <p>Outputs created here write to the hub immediately on every call. For loops that write
+ * many outputs, {@link FtcOutputBatcher} provides the same adapters with writes deferred to one
+ * per-hub flush.</p>
  */
 public final class FtcHardware {
 
@@ -350,4 +359,124 @@ public final class FtcHardware {
             }
         };
     }
+
+    // ----------------------------------------------------------------------
+    // ENCODER FEEDBACK
+    // ----------------------------------------------------------------------
+
+    /**
+     * Encoder position of an FTC {@link DcMotorEx} in native ticks, for plants that close the
+     * position loop themselves (for example
+     * {@link edu.ftcphoenix.fw.actuation.ProfiledPositionPlant}).
+     *
+     * <p>With {@code resetEncoder}, the encoder is zeroed once here and the motor is left in
+     * {@link DcMotor.RunMode#RUN_WITHOUT_ENCODER}, so {@code setPower} is raw power and not the
+     * SDK's velocity loop. The sign follows the motor direction, so set the direction first
+     * (for example with {@link #motorPower}).</p>
+     *
+     * @param hw           hardware map
+     * @param name         configured device name
+     * @param resetEncoder zero the encoder and switch to raw power mode
+     * @return supplier of the current encoder position in ticks
+     */
+    public static DoubleSupplier motorPositionTicks(HardwareMap hw, String name, boolean resetEncoder) {
+        if (hw == null) {
+            throw new IllegalArgumentException("HardwareMap is required");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+
+        final DcMotorEx m = hw.get(DcMotorEx.class, name);
+        if (resetEncoder) {
+            m.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+            m.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        }
+        return () -> m.getCurrentPosition();
+    }
+
+    /**
+     * Encoder velocity of an FTC {@link DcMotorEx} in native ticks per second, for drivebases and
+     * plants that close the velocity loop themselves (for example
+     * {@link edu.ftcphoenix.fw.drive.MecanumDrivebase} in closed-loop wheel velocity mode).
+     *
+     * <p>The motor is switched to {@link DcMotor.RunMode#RUN_WITHOUT_ENCODER} (without resetting
+     * the encoder) so {@code setPower} is raw power and does not fight the SDK's own velocity
+     * loop. The sign follows the motor direction, so set the direction first (for example with
+     * {@link #motorPower}). With bulk caching enabled, reads come from the hub's cached bulk
+     * data.</p>
+     *
+     * @param hw   hardware map
+     * @param name configured device name
+     * @return supplier of the current encoder velocity in ticks per second
+     */
+    public static DoubleSupplier motorVelocityTicks(HardwareMap hw, String name) {
+        if (hw == null) {
+            throw new IllegalArgumentException("HardwareMap is required");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+
+        final DcMotorEx m = hw.get(DcMotorEx.class, name);
+        m.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        return () -> m.getVelocity();
+    }
+
+    /**
+     * Switch an FTC motor to {@link DcMotor.RunMode#RUN_WITHOUT_ENCODER} without resetting its
+     * encoder, so {@code setPower} is raw power. Use it for every motor of a group that is driven
+     * by one external loop, where only one motor supplies the encoder (see
+     * {@link #motorPositionTicks}).
+     *
+     * @param hw   hardware map
+     * @param name configured device name
+     */
+    public static void motorRawPowerMode(HardwareMap hw, String name) {
+        if (hw == null) {
+            throw new IllegalArgumentException("HardwareMap is required");
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+
+        hw.get(DcMotorEx.class, name).setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+    }
+
+    // ----------------------------------------------------------------------
+    // BATTERY VOLTAGE
+    // ----------------------------------------------------------------------
+
+    /**
+     * Battery voltage source backed by every {@link VoltageSensor} in the hardware map
+     * (one per Control/Expansion Hub).
+     *
+     * <p>Each call reads all sensors and returns the lowest positive reading, or {@code 0.0} if
+     * none is available. Every read is a separate hub transaction, so callers should rate-limit
+     * it (for example {@link edu.ftcphoenix.fw.actuation.PowerBudget} does).</p>
+     *
+     * @param hw hardware map
+     * @return supplier of battery voltage in volts
+     */
+    public static DoubleSupplier batteryVoltage(HardwareMap hw) {
+        if (hw == null) {
+            throw new IllegalArgumentException("HardwareMap is required");
+        }
+
+        final List<VoltageSensor> sensors = new ArrayList<>();
+        for (VoltageSensor vs : hw.voltageSensor) {
+            sensors.add(vs);
+        }
+
+        return () -> {
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < sensors.size(); i++) {
+                double v = sensors.get(i).getVoltage();
+                if (v > 0.0 && v < min) {
+                    min = v;
+                }
+            }
+            return Double.isInfinite(min) ? 0.0 : min;
+        };
+    }
 }
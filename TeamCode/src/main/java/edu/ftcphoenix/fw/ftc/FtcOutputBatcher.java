@@ -0,0 +1,550 @@
+package edu.ftcphoenix.fw.ftc;
+
+import com.qualcomm.robotcore.hardware.CRServo;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.hal.Direction;
+import edu.ftcphoenix.fw.core.hal.PositionOutput;
+import edu.ftcphoenix.fw.core.hal.PowerOutput;
+import edu.ftcphoenix.fw.core.hal.VelocityOutput;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+
+/**
+ * Deferred output writer that collects a loop's motor/servo commands per Lynx hub and sends them
+ * in one pass at {@link #flush()}.
+ *
+ * <p>With {@link FtcHardware}, every {@code setPower}/{@code setVelocity}/{@code setPosition}
+ * is its own hub transaction, sent the moment it is called, including repeats of the value that
+ * is already running. The outputs created here only record the value; {@link #flush()} then, for
+ * each hub:</p>
+ * <ul>
+ *   <li>sends only the last value written to each channel this loop (repeated writes coalesce),</li>
+ *   <li>skips channels whose value has not changed since it was last sent (refreshed every
+ *       {@link Config#refreshSec} so a dropped command cannot stick),</li>
+ *   <li>sends the remaining commands back to back in registration order.</li>
+ * </ul>
+ * <p>When the robot has more than one hub, hubs are flushed concurrently (one worker per extra
+ * hub), so the Control Hub and Expansion Hub round-trips overlap instead of adding up.</p>
+ *
+ * <pre>{@code
+ * FtcOutputBatcher out = new FtcOutputBatcher(hardwareMap, FtcOutputBatcher.Config.defaults());
+ * PowerOutput intake = out.motorPower("intake", Direction.FORWARD);
+ * PositionOutput pusher = out.servoPosition("pusher", Direction.FORWARD);
+ *
+ * // loop():
+ * ... update subsystems (they call setPower/setPosition as usual) ...
+ * out.flush();   // once, after everything has written its outputs
+ * out.debugDump(dbg, "out");
+ * }</pre>
+ *
+ * <p>The public FTC SDK has no multi-device write command, so a "batch" is still one command
+ * per changed channel; the savings come from not sending unchanged or superseded values and from
+ * overlapping hubs. Set {@link Config#bypass} to send every write immediately (the
+ * {@link FtcHardware} behavior) while keeping the same counters, for A/B comparison.</p>
+ *
+ * <p>Outputs must be written from the loop thread. Nothing reaches the hardware until
+ * {@link #flush()}, so forgetting to call it leaves the robot idle.</p>
+ */
+public final class FtcOutputBatcher {
+
+    /**
+     * Configuration for {@link FtcOutputBatcher}.
+     */
+    public static final class Config {
+
+        /**
+         * Minimum change in power (or servo position) that is sent. Default: {@code 1e-4}.
+         */
+        public double epsilonNormalized = 1e-4;
+
+        /**
+         * Minimum change in velocity (ticks/sec) that is sent. Default: {@code 0.5}.
+         */
+        public double epsilonVelocity = 0.5;
+
+        /**
+         * Re-send unchanged values at least this often (seconds); {@code <= 0} never re-sends.
+         * Default: {@code 0.5}.
+         */
+        public double refreshSec = 0.5;
+
+        /**
+         * Flush different hubs concurrently. Default: {@code true}.
+         */
+        public boolean parallelHubs = true;
+
+        /**
+         * Send every write immediately (no batching), for comparison. Default: {@code false}.
+         */
+        public boolean bypass = false;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.epsilonNormalized = this.epsilonNormalized;
+            c.epsilonVelocity = this.epsilonVelocity;
+            c.refreshSec = this.refreshSec;
+            c.parallelHubs = this.parallelHubs;
+            c.bypass = this.bypass;
+            return c;
+        }
+    }
+
+    private enum Kind {MOTOR_POWER, CR_POWER, SERVO_POSITION, MOTOR_VELOCITY}
+
+    /**
+     * One output channel: the pending value and what was last sent.
+     */
+    private static final class Channel {
+        final String name;
+        final Kind kind;
+        final DcMotorEx motor;
+        final CRServo crServo;
+        final Servo servo;
+        final double epsilon;
+
+        double pending = 0.0;
+        boolean dirty = false;
+        double sent = Double.NaN;
+        long sentNanos = 0L;
+
+        Channel(String name, Kind kind, DcMotorEx motor, CRServo crServo, Servo servo, double epsilon) {
+            this.name = name;
+            this.kind = kind;
+            this.motor = motor;
+            this.crServo = crServo;
+            this.servo = servo;
+            this.epsilon = epsilon;
+        }
+
+        void send(double v) {
+            switch (kind) {
+                case MOTOR_POWER:
+                    motor.setPower(v);
+                    break;
+                case CR_POWER:
+                    crServo.setPower(v);
+                    break;
+                case SERVO_POSITION:
+                    servo.setPosition(v);
+                    break;
+                case MOTOR_VELOCITY:
+                    motor.setVelocity(v);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * All channels on one hub plus that hub's counters for the last flush.
+     */
+    private final class Hub implements Callable<Void> {
+        final String key;
+        final List<Channel> channels = new ArrayList<>();
+
+        int writes = 0;
+        int skipped = 0;
+        double flushMs = 0.0;
+        long totalWrites = 0L;
+
+        Hub(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public Void call() {
+            long t0 = System.nanoTime();
+            int w = 0;
+            int s = 0;
+            for (int i = 0; i < channels.size(); i++) {
+                Channel c = channels.get(i);
+                if (!c.dirty) {
+                    continue;
+                }
+                c.dirty = false;
+                boolean stale = refreshNanos > 0 && t0 - c.sentNanos > refreshNanos;
+                if (!stale && Math.abs(c.pending - c.sent) <= c.epsilon) {
+                    s++;
+                    continue;
+                }
+                c.send(c.pending);
+                c.sent = c.pending;
+                c.sentNanos = t0;
+                w++;
+            }
+            writes = w;
+            skipped = s;
+            totalWrites += w;
+            flushMs = (System.nanoTime() - t0) / 1e6;
+            return null;
+        }
+    }
+
+    private final HardwareMap hw;
+    private final Config cfg;
+    private final long refreshNanos;
+    private final Map<String, Hub> hubs = new LinkedHashMap<>();
+    private final List<Hub> hubList = new ArrayList<>();
+
+    private ExecutorService workers = null;
+    private final List<Future<Void>> futures = new ArrayList<>();
+
+    // Per-loop counters (loop thread).
+    private int requests = 0;
+    private int lastRequests = 0;
+    private int lastWrites = 0;
+    private int lastSkipped = 0;
+    private double lastFlushMs = 0.0;
+    private double directMs = 0.0;
+    private double lastDirectMs = 0.0;
+    private long flushes = 0L;
+
+    /**
+     * @param hw  hardware map used to look up devices
+     * @param cfg batcher configuration (may be {@code null} to use defaults)
+     */
+    public FtcOutputBatcher(HardwareMap hw, Config cfg) {
+        if (hw == null) {
+            throw new IllegalArgumentException("HardwareMap is required");
+        }
+        this.hw = hw;
+        this.cfg = (cfg != null) ? cfg.copy() : Config.defaults();
+        this.refreshNanos = (long) (Math.max(0.0, this.cfg.refreshSec) * 1e9);
+    }
+
+    // ----------------------------------------------------------------------
+    // Outputs (same semantics as FtcHardware, but deferred to flush())
+    // ----------------------------------------------------------------------
+
+    /**
+     * Batched equivalent of {@link FtcHardware#motorPower}.
+     */
+    public PowerOutput motorPower(String name, Direction direction) {
+        DcMotorEx m = hw.get(DcMotorEx.class, requireName(name));
+        m.setDirection(toSdk(direction));
+        return powerOutput(register(name, Kind.MOTOR_POWER, m, null, null, hubKey(m.getController())));
+    }
+
+    /**
+     * Batched equivalent of {@link FtcHardware#crServoPower}.
+     */
+    public PowerOutput crServoPower(String name, Direction direction) {
+        CRServo s = hw.get(CRServo.class, requireName(name));
+        s.setDirection(toSdk(direction));
+        return powerOutput(register(name, Kind.CR_POWER, null, s, null, hubKey(s.getController())));
+    }
+
+    /**
+     * Batched equivalent of {@link FtcHardware#servoPosition}.
+     */
+    public PositionOutput servoPosition(String name, Direction direction) {
+        Servo s = hw.get(Servo.class, requireName(name));
+        s.setDirection(direction == Direction.REVERSE ? Servo.Direction.REVERSE : Servo.Direction.FORWARD);
+        final Channel c = register(name, Kind.SERVO_POSITION, null, null, s, hubKey(s.getController()));
+        return new PositionOutput() {
+            private double last;
+
+            /** {@inheritDoc} */
+            @Override
+            public void setPosition(double position) {
+                last = MathUtil.clamp(position, 0.0, 1.0);
+                write(c, last);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public double getCommandedPosition() {
+                return last;
+            }
+        };
+    }
+
+    /**
+     * Batched equivalent of {@link FtcHardware#motorVelocity}.
+     */
+    public VelocityOutput motorVelocity(String name, Direction direction) {
+        final DcMotorEx m = hw.get(DcMotorEx.class, requireName(name));
+        m.setDirection(toSdk(direction));
+        m.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+        final Channel c = register(name, Kind.MOTOR_VELOCITY, m, null, null, hubKey(m.getController()));
+        return new VelocityOutput() {
+            private double commanded = 0.0;
+
+            /** {@inheritDoc} */
+            @Override
+            public void setVelocity(double velocityTicksPerSec) {
+                commanded = velocityTicksPerSec;
+                write(c, velocityTicksPerSec);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public double getCommandedVelocity() {
+                return commanded;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public double getMeasuredVelocity() {
+                return m.getVelocity();
+            }
+        };
+    }
+
+    // ----------------------------------------------------------------------
+    // Flush
+    // ----------------------------------------------------------------------
+
+    /**
+     * Send this loop's pending commands. Call once per loop, after every subsystem has written
+     * its outputs.
+     */
+    public void flush() {
+        long t0 = System.nanoTime();
+        if (cfg.bypass) {
+            // Writes already went out as they were made; just roll the counters.
+            lastWrites = requests;
+            lastSkipped = 0;
+            lastDirectMs = directMs;
+            directMs = 0.0;
+        } else {
+            flushHubs();
+            int w = 0;
+            int s = 0;
+            for (int i = 0; i < hubList.size(); i++) {
+                w += hubList.get(i).writes;
+                s += hubList.get(i).skipped;
+            }
+            lastWrites = w;
+            lastSkipped = s;
+        }
+        lastRequests = requests;
+        requests = 0;
+        flushes++;
+        lastFlushMs = (System.nanoTime() - t0) / 1e6;
+    }
+
+    private void flushHubs() {
+        int n = hubList.size();
+        if (n == 0) {
+            return;
+        }
+        if (!cfg.parallelHubs || n == 1) {
+            for (int i = 0; i < n; i++) {
+                hubList.get(i).call();
+            }
+            return;
+        }
+
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(n - 1, r -> {
+                Thread t = new Thread(r, "FtcOutputBatcher");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        futures.clear();
+        for (int i = 1; i < n; i++) {
+            futures.add(workers.submit(hubList.get(i)));
+        }
+        hubList.get(0).call();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    /**
+     * Stop the worker threads (for example from {@code stop()} of the OpMode). Outputs keep
+     * working; the next multi-hub flush restarts the workers.
+     */
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Stats
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return output writes requested during the last loop (what the direct path sends)
+     */
+    public int lastRequests() {
+        return lastRequests;
+    }
+
+    /**
+     * @return hub commands actually sent in the last loop
+     */
+    public int lastWrites() {
+        return lastWrites;
+    }
+
+    /**
+     * @return time spent sending the last loop's commands (ms); in bypass mode, the time spent
+     * inside the immediate writes
+     */
+    public double lastOutputMs() {
+        return cfg.bypass ? lastDirectMs : lastFlushMs;
+    }
+
+    /**
+     * @return number of distinct hubs with registered outputs
+     */
+    public int hubCount() {
+        return hubList.size();
+    }
+
+    /**
+     * Debug helper: emit totals plus per-hub writes, skips and flush time for the last loop.
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "out"
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "outputBatcher" : prefix;
+        dbg.addData(p + ".mode", cfg.bypass ? "direct" : (cfg.parallelHubs ? "batched, parallel hubs" : "batched"))
+                .addData(p + ".requests", lastRequests)
+                .addData(p + ".writes", lastWrites)
+                .addData(p + ".skipped", lastSkipped)
+                .addData(p + ".outputMs", lastOutputMs())
+                .addData(p + ".flushes", flushes);
+        for (int i = 0; i < hubList.size(); i++) {
+            Hub h = hubList.get(i);
+            String hp = p + ".hub" + i;
+            dbg.addData(hp + ".id", h.key)
+                    .addData(hp + ".channels", h.channels.size())
+                    .addData(hp + ".writes", h.writes)
+                    .addData(hp + ".skipped", h.skipped)
+                    .addData(hp + ".flushMs", h.flushMs)
+                    .addData(hp + ".totalWrites", h.totalWrites);
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Helpers
+    // ----------------------------------------------------------------------
+
+    private PowerOutput powerOutput(final Channel c) {
+        return new PowerOutput() {
+            private double last;
+
+            /** {@inheritDoc} */
+            @Override
+            public void setPower(double power) {
+                last = MathUtil.clampAbs(power, 1.0);
+                write(c, last);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public double getCommandedPower() {
+                return last;
+            }
+        };
+    }
+
+    private void write(Channel c, double value) {
+        requests++;
+        if (cfg.bypass) {
+            long t0 = System.nanoTime();
+            c.send(value);
+            c.sent = value;
+            c.sentNanos = t0;
+            directMs += (System.nanoTime() - t0) / 1e6;
+            return;
+        }
+        c.pending = value;
+        c.dirty = true;
+    }
+
+    private Channel register(String name, Kind kind, DcMotorEx motor, CRServo crServo, Servo servo,
+                             String hubKey) {
+        double eps = (kind == Kind.MOTOR_VELOCITY) ? cfg.epsilonVelocity : cfg.epsilonNormalized;
+        Channel c = new Channel(name, kind, motor, crServo, servo, eps);
+        Hub hub = hubs.get(hubKey);
+        if (hub == null) {
+            hub = new Hub(hubKey);
+            hubs.put(hubKey, hub);
+            hubList.add(hub);
+        }
+        hub.channels.add(c);
+        return c;
+    }
+
+    /**
+     * Group devices by the hub behind their controller. Lynx controllers report their module's
+     * connection info, so a hub's motor and servo controllers land in the same group.
+     */
+    private static String hubKey(HardwareDevice controller) {
+        if (controller == null) {
+            return "unknown";
+        }
+        String info = controller.getConnectionInfo();
+        if (info != null && !info.isEmpty()) {
+            return info;
+        }
+        return controller.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(controller));
+    }
+
+    private static String requireName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        return name;
+    }
+
+    private static DcMotorSimple.Direction toSdk(Direction direction) {
+        if (direction == null) {
+            throw new IllegalArgumentException("direction is required");
+        }
+        return direction == Direction.REVERSE ? DcMotorSimple.Direction.REVERSE : DcMotorSimple.Direction.FORWARD;
+    }
+}
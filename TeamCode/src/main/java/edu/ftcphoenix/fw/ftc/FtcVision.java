@@ -6,6 +6,7 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.matrices.MatrixF;
 import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.controls.ExposureControl;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.Position;
@@ -21,6 +22,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.core.geometry.Mat3;
@@ -69,9 +71,98 @@ import edu.ftcphoenix.fw.sensing.vision.CameraMountConfig;
  * <p><b>Important:</b> FTC uses a separate camera-axes convention for {@code setCameraPose} (see
  * {@link FtcFrames} “Localization camera axes”). This adapter converts the Phoenix camera mount pose
  * into that convention before passing it to the SDK.</p>
+ *
+ * <h2>Debug vs competition profile</h2>
+ *
+ * <p>Tag annotations (axes, cube, outline, ID) and the live preview cost camera-thread CPU on
+ * every frame. That is useful on the practice field and wasted during a match.
+ * {@link Config#profile} selects {@link Profile#DEBUG} (annotations + live view, the historical
+ * behavior) or {@link Profile#COMPETITION} (no annotations, no live view, no stats overlay).
+ * The live view can also be toggled at runtime through {@link #portalControl(AprilTagSensor)},
+ * which also reports frame rate and per-frame processing time so the two profiles can be
+ * compared on the robot.</p>
+ *
+ * <h2>Latency</h2>
+ *
+ * <p>{@link AprilTagObservation#ageSec} is measured from the SDK's
+ * {@code frameAcquisitionNanoTime}, which is stamped when the frame reaches the Robot Controller.
+ * Exposure, sensor readout and USB transfer happen before that. {@link Config#latencySec} adds
+ * that hidden part to every observation's age so the pose estimators compensate for it; measure
+ * it with {@code VisionLatencyCalibrator} for each resolution / exposure
+ * ({@link Config#exposureMs}) you run.</p>
  */
 public final class FtcVision {
 
+    /**
+     * Vision portal rendering profile.
+     */
+    public enum Profile {
+        /**
+         * Draw tag annotations and show the live view (original behavior).
+         */
+        DEBUG,
+
+        /**
+         * Render-free: no tag annotations, live view stopped, no stats overlay.
+         *
+         * <p>Detection results are identical; only the preview work is skipped.</p>
+         */
+        COMPETITION
+    }
+
+    /**
+     * Runtime control and statistics for a portal created by {@link FtcVision}.
+     *
+     * <p>Obtain one with {@link #portalControl(AprilTagSensor)}.</p>
+     */
+    public interface PortalControl {
+
+        /**
+         * @return the profile currently applied
+         */
+        Profile profile();
+
+        /**
+         * Switch profile at runtime.
+         *
+         * <p>This stops or resumes the live view ({@link VisionPortal#stopLiveView()} /
+         * {@link VisionPortal#resumeLiveView()}); while the live view is stopped the processors'
+         * drawing callbacks do not run. Tag annotation options are fixed when the portal is built,
+         * so a portal built as {@link Profile#COMPETITION} shows a plain preview if switched to
+         * {@link Profile#DEBUG}.</p>
+         */
+        void setProfile(Profile profile);
+
+        /**
+         * @return camera frame rate reported by the portal (frames/sec)
+         */
+        double fps();
+
+        /**
+         * @return smoothed processing time per frame in milliseconds (NaN before the first frame)
+         */
+        double avgFrameProcessingMs();
+
+        /**
+         * @return the portal's camera state ({@link VisionPortal.CameraState#ERROR} if it cannot
+         * be read, {@link VisionPortal.CameraState#CAMERA_DEVICE_CLOSED} after close)
+         */
+        VisionPortal.CameraState cameraState();
+
+        /**
+         * @return the SDK AprilTag processor behind the sensor, for tools that call it directly
+         */
+        AprilTagProcessor processor();
+
+        /**
+         * Dump profile and timing statistics.
+         *
+         * @param dbg    debug sink (may be {@code null})
+         * @param prefix key prefix (may be {@code null} or empty)
+         */
+        void debugDump(DebugSink dbg, String prefix);
+    }
+
     /**
      * Default resource name used by the FTC Robot Controller app for the camera
      * monitor container.
@@ -197,6 +288,32 @@ public final class FtcVision {
          */
         public AprilTagLibrary tagLibrary = null;
 
+        /**
+         * Rendering profile for the portal. Defaults to {@link Profile#DEBUG}.
+         *
+         * <p>Use {@link Profile#COMPETITION} in match OpModes to skip annotation drawing and the
+         * live preview.</p>
+         */
+        public Profile profile = Profile.DEBUG;
+
+        /**
+         * Pipeline latency before the SDK frame timestamp (exposure, readout, USB), in seconds.
+         *
+         * <p>Added to every observation's {@link AprilTagObservation#ageSec}. Default is {@code 0}
+         * (uncalibrated); measure it with {@code VisionLatencyCalibrator} for the resolution and
+         * exposure in use.</p>
+         */
+        public double latencySec = 0.0;
+
+        /**
+         * Manual exposure in milliseconds, applied once the camera is streaming. Values
+         * {@code <= 0} keep the camera's auto exposure (default).
+         *
+         * <p>Short exposures reduce motion blur and latency while the robot turns, at the cost
+         * of a darker image.</p>
+         */
+        public double exposureMs = 0.0;
+
         private Config() {
             // Defaults set via field initializers.
         }
@@ -242,6 +359,28 @@ public final class FtcVision {
             return this;
         }
 
+        /**
+         * Convenience helper to set the rendering profile.
+         *
+         * @param profile rendering profile (may be {@code null} to use {@link Profile#DEBUG})
+         * @return this config for chaining
+         */
+        public Config withProfile(Profile profile) {
+            this.profile = profile;
+            return this;
+        }
+
+        /**
+         * Convenience helper to set the calibrated pipeline latency.
+         *
+         * @param latencySec latency in seconds (see {@link #latencySec})
+         * @return this config for chaining
+         */
+        public Config withLatencySec(double latencySec) {
+            this.latencySec = latencySec;
+            return this;
+        }
+
         /**
          * Deep copy of this config.
          */
@@ -251,6 +390,9 @@ public final class FtcVision {
             c.cameraMount = this.cameraMount;
             c.sdkPitchRadOffset = this.sdkPitchRadOffset;
             c.tagLibrary = this.tagLibrary;
+            c.profile = this.profile;
+            c.latencySec = this.latencySec;
+            c.exposureMs = this.exposureMs;
             return c;
         }
     }
@@ -288,11 +430,17 @@ public final class FtcVision {
         Objects.requireNonNull(cfg, "cfg is required");
 
         WebcamName webcam = hw.get(WebcamName.class, cameraName);
+        Profile profile = (cfg.profile != null) ? cfg.profile : Profile.DEBUG;
+        boolean draw = (profile == Profile.DEBUG);
 
         // Configure the AprilTag processor: current-game library, inches + radians for pose.
         AprilTagProcessor.Builder tagBuilder = new AprilTagProcessor.Builder()
                 .setTagLibrary(cfg.tagLibrary != null ? cfg.tagLibrary : AprilTagGameDatabase.getCurrentGameTagLibrary())
-                .setOutputUnits(DistanceUnit.INCH, AngleUnit.RADIANS);
+                .setOutputUnits(DistanceUnit.INCH, AngleUnit.RADIANS)
+                .setDrawAxes(draw)
+                .setDrawCubeProjection(draw)
+                .setDrawTagID(draw)
+                .setDrawTagOutline(draw);
 
         // Optional: apply Phoenix camera extrinsics so FTC can compute robotPose.
         if (cfg.cameraMount != null) {
@@ -303,21 +451,43 @@ public final class FtcVision {
 
         // Wire the processor into a VisionPortal using the webcam.
         Size resolution = (cfg.cameraResolution != null) ? cfg.cameraResolution : DEFAULT_RESOLUTION;
+        // Timing probes bracket the AprilTag processor to measure per-frame processing time.
+        FrameTimingProbe timing = new FrameTimingProbe();
         VisionPortal.Builder portalBuilder = new VisionPortal.Builder()
                 .setCamera(webcam)
+                .addProcessor(timing.start)
                 .addProcessor(processor)
-                .setCameraResolution(resolution);
+                .addProcessor(timing.end)
+                .setCameraResolution(resolution)
+                .setShowStatsOverlay(draw);
 
         // Important FTC SDK quirk:
         // If more than one VisionPortal exists (even across previous testers/screens),
         // the SDK requires you to use setLiveViewContainerId(int) rather than
         // enableLiveView(bool). We always set the container id when it is available
         // to avoid hard-to-debug “multiple vision portals” startup errors.
+        //
+        // The container is attached in both profiles so COMPETITION can be switched back to a
+        // live preview at runtime; COMPETITION simply stops the live view right after build.
         applyDefaultLiveViewContainerId(portalBuilder, hw);
 
         VisionPortal portal = portalBuilder.build();
 
-        return new PortalAprilTagSensor(portal, processor);
+        PortalAprilTagSensor sensor = new PortalAprilTagSensor(portal, processor, timing,
+                Math.max(0.0, cfg.latencySec), cfg.exposureMs);
+        sensor.setProfile(profile);
+        return sensor;
+    }
+
+    /**
+     * Access runtime profile control and statistics for a sensor created by
+     * {@link #aprilTags(HardwareMap, String, Config)}.
+     *
+     * @param sensor sensor returned by {@link #aprilTags}
+     * @return the portal control, or {@code null} if {@code sensor} was not created by {@link FtcVision}
+     */
+    public static PortalControl portalControl(AprilTagSensor sensor) {
+        return (sensor instanceof PortalAprilTagSensor) ? (PortalAprilTagSensor) sensor : null;
     }
 
     /**
@@ -434,16 +604,139 @@ public final class FtcVision {
      * Internal implementation of {@link AprilTagSensor} backed by a
      * {@link VisionPortal} and {@link AprilTagProcessor}.
      */
-    static final class PortalAprilTagSensor implements AprilTagSensor {
+    static final class PortalAprilTagSensor implements AprilTagSensor, PortalControl {
 
-        private final VisionPortal portal;   // kept for lifecycle; used for close()
+        private final VisionPortal portal;   // kept for lifecycle, close() and live-view control
         private boolean closed = false;
 
         private final AprilTagProcessor processor;
+        private final FrameTimingProbe timing;
 
-        PortalAprilTagSensor(VisionPortal portal, AprilTagProcessor processor) {
+        private Profile profile = Profile.DEBUG;
+
+        private final double latencySec;
+        // Manual exposure still to apply (<= 0 = none); set once the camera streams.
+        private double pendingExposureMs;
+
+        PortalAprilTagSensor(VisionPortal portal, AprilTagProcessor processor, FrameTimingProbe timing,
+                             double latencySec, double exposureMs) {
             this.portal = Objects.requireNonNull(portal, "portal");
             this.processor = Objects.requireNonNull(processor, "processor");
+            this.timing = Objects.requireNonNull(timing, "timing");
+            this.latencySec = latencySec;
+            this.pendingExposureMs = exposureMs;
+        }
+
+        /**
+         * Apply the configured manual exposure once the portal is streaming (camera controls are
+         * not available before that).
+         */
+        private void applyPendingExposure() {
+            if (pendingExposureMs <= 0.0 || closed) {
+                return;
+            }
+            try {
+                if (portal.getCameraState() != VisionPortal.CameraState.STREAMING) {
+                    return;
+                }
+                ExposureControl exposure = portal.getCameraControl(ExposureControl.class);
+                if (exposure != null) {
+                    exposure.setMode(ExposureControl.Mode.Manual);
+                    exposure.setExposure(Math.round(pendingExposureMs * 1000.0), TimeUnit.MICROSECONDS);
+                }
+            } catch (Exception ignored) {
+                // Camera without exposure control: keep auto exposure.
+            }
+            pendingExposureMs = 0.0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Profile profile() {
+            return profile;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void setProfile(Profile profile) {
+            Profile p = (profile != null) ? profile : Profile.DEBUG;
+            if (closed) {
+                this.profile = p;
+                return;
+            }
+            try {
+                if (p == Profile.COMPETITION) {
+                    portal.stopLiveView();
+                } else {
+                    portal.resumeLiveView();
+                }
+            } catch (Exception ignored) {
+                // Live view may be unavailable (no container); the profile still applies.
+            }
+            this.profile = p;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double fps() {
+            try {
+                return portal.getFps();
+            } catch (Exception e) {
+                return Double.NaN;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double avgFrameProcessingMs() {
+            return timing.avgProcessingMs();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public VisionPortal.CameraState cameraState() {
+            if (closed) {
+                return VisionPortal.CameraState.CAMERA_DEVICE_CLOSED;
+            }
+            try {
+                return portal.getCameraState();
+            } catch (Exception e) {
+                return VisionPortal.CameraState.ERROR;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public AprilTagProcessor processor() {
+            return processor;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void debugDump(DebugSink dbg, String prefix) {
+            if (dbg == null) {
+                return;
+            }
+            String p = (prefix == null || prefix.isEmpty()) ? "ftcVision.portal" : prefix;
+            dbg.addData(p + ".profile", profile);
+            dbg.addData(p + ".fps", fps());
+            dbg.addData(p + ".frameProcessingMs.avg", timing.avgProcessingMs());
+            dbg.addData(p + ".frameProcessingMs.last", timing.lastProcessingMs());
+            dbg.addData(p + ".frames", timing.frameCount());
         }
 
         /**
@@ -537,6 +830,7 @@ public final class FtcVision {
             dbg.addLine(p + ": PortalAprilTagSensor");
             dbg.addData(p + ".detections.count", n);
             dbg.addData(p + ".maxAgeSec", maxAgeSec);
+            debugDump(dbg, p + ".portal");
 
             AprilTagObservation obs = bestAny(maxAgeSec);
             dbg.addData(p + ".bestAny.hasTarget", obs.hasTarget);
@@ -570,6 +864,8 @@ public final class FtcVision {
                 return AprilTagObservation.noTarget(Double.POSITIVE_INFINITY);
             }
 
+            applyPendingExposure();
+
             List<AprilTagDetection> detections = processor.getDetections();
             if (detections == null || detections.isEmpty()) {
                 return AprilTagObservation.noTarget(Double.POSITIVE_INFINITY);
@@ -608,8 +904,8 @@ public final class FtcVision {
 
                 long frameTime = det.frameAcquisitionNanoTime;
                 double ageSec = (frameTime == 0L)
-                        ? 0.0
-                        : (nowNanos - frameTime) / NANOS_PER_SECOND;
+                        ? latencySec
+                        : (nowNanos - frameTime) / NANOS_PER_SECOND + latencySec;
 
                 if (ageSec > maxAgeSec) {
                     continue;
@@ -1,6 +1,7 @@
 package edu.ftcphoenix.fw.ftc.localization;
 
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
 import com.qualcomm.robotcore.hardware.HardwareMap;
@@ -8,15 +9,20 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.robotcore.external.navigation.UnnormalizedAngleUnit;
 
 import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.core.geometry.Pose2d;
 import edu.ftcphoenix.fw.core.geometry.Pose3d;
 import edu.ftcphoenix.fw.core.math.MathUtil;
 import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.drive.ChassisSpeeds;
+import edu.ftcphoenix.fw.localization.PoseCovariance;
 import edu.ftcphoenix.fw.localization.PoseEstimate;
 import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.localization.PoseHistory;
 import edu.ftcphoenix.fw.localization.PoseResetter;
+import edu.ftcphoenix.fw.localization.PredictivePoseEstimator;
 
 /**
  * {@link PoseEstimator} wrapper around the goBILDA Pinpoint Odometry Computer.
@@ -54,8 +60,27 @@ import edu.ftcphoenix.fw.localization.PoseResetter;
  *   <li>{@link Config#forwardPodOffsetLeftInches}: how far left (+) / right (-) the forward (X) pod is</li>
  *   <li>{@link Config#strafePodOffsetForwardInches}: how far forward (+) / back (-) the strafe (Y) pod is</li>
  * </ul>
+ *
+ * <h2>Background polling</h2>
+ * <p>By default {@link #update(LoopClock)} calls {@code odo.update()} on the loop thread, which is
+ * a multi-millisecond I2C read. With {@link Config#backgroundPolling} enabled, a dedicated thread
+ * polls the device as fast as the bus allows and {@code update()} just picks up the newest sample
+ * (no I2C on the loop thread). The retained samples also make this estimator a
+ * {@link PoseHistory}, so fusion can look up the pose at a camera frame's capture time. If the
+ * polling thread fails, the estimator falls back to polling on the loop thread.</p>
+ *
+ * <p>{@link #setPose(Pose2d)} is applied as a software frame offset on top of the device pose
+ * rather than written to the device, so frequent pose pushes (fusion does one per accepted vision
+ * frame) cost no I2C transaction and never wait behind a poll.</p>
+ *
+ * <h2>Covariance</h2>
+ * <p>Estimates carry a planar covariance ({@link PoseEstimate#hasCovariance}). It starts at
+ * {@link Config#initialPositionStdInches} / {@link Config#initialHeadingStdRad}, grows with
+ * distance driven and angle turned, and resets on {@link #setPose(Pose2d)}. The propagation works
+ * on primitive fields in place, so it adds no per-loop allocation.</p>
  */
-public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter {
+public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter, PoseHistory,
+        PredictivePoseEstimator.VelocitySource {
 
     /**
      * Phoenix standard unit for field poses.
@@ -165,6 +190,45 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
          */
         public double quality = 0.75;
 
+        /**
+         * Position standard deviation (inches) reported right after construction or
+         * {@link #setPose(Pose2d)}.
+         */
+        public double initialPositionStdInches = 1.0;
+
+        /**
+         * Heading standard deviation (radians) reported right after construction or
+         * {@link #setPose(Pose2d)}.
+         */
+        public double initialHeadingStdRad = Math.toRadians(1.0);
+
+        /**
+         * X and Y variance added per inch travelled (in^2/in). The default adds 1 in^2 per 100
+         * inches; starting from the default 1 inch std, the position std reaches about 1.4 inches
+         * after 100 inches of driving and 2 inches after 300.
+         */
+        public double positionVarPerInch = 0.01;
+
+        /**
+         * Heading variance added per radian turned (rad^2/rad). The default is roughly 0.5 degrees
+         * of std per full turn.
+         */
+        public double headingVarPerRad = 1.2e-5;
+
+        /**
+         * If true, poll the Pinpoint on a background thread instead of in {@link #update(LoopClock)}.
+         *
+         * <p>Lowers loop time and raises odometry bandwidth. Recommended whenever the loop does
+         * other hardware I/O.</p>
+         */
+        public boolean backgroundPolling = false;
+
+        /**
+         * Minimum time between background polls in milliseconds; {@code 0} polls back-to-back
+         * (limited by the I2C transaction itself).
+         */
+        public double backgroundPollPeriodMs = 0.0;
+
         private Config() {
             // Defaults assigned in field initializers.
         }
@@ -282,6 +346,14 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
             return this;
         }
 
+        /**
+         * Fluent helper: enable or disable background polling.
+         */
+        public Config withBackgroundPolling(boolean backgroundPolling) {
+            this.backgroundPolling = backgroundPolling;
+            return this;
+        }
+
         /**
          * Create a deep copy of this config.
          */
@@ -303,6 +375,13 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
 
             c.yawScalar = this.yawScalar;
             c.quality = this.quality;
+            c.initialPositionStdInches = this.initialPositionStdInches;
+            c.initialHeadingStdRad = this.initialHeadingStdRad;
+            c.positionVarPerInch = this.positionVarPerInch;
+            c.headingVarPerRad = this.headingVarPerRad;
+
+            c.backgroundPolling = this.backgroundPolling;
+            c.backgroundPollPeriodMs = this.backgroundPollPeriodMs;
             return c;
         }
 
@@ -322,15 +401,53 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
                     .addData(p + ".forwardPodDirection", forwardPodDirection)
                     .addData(p + ".strafePodDirection", strafePodDirection)
                     .addData(p + ".yawScalar", yawScalar)
-                    .addData(p + ".quality", quality);
+                    .addData(p + ".quality", quality)
+                    .addData(p + ".initialPositionStdInches", initialPositionStdInches)
+                    .addData(p + ".initialHeadingStdRad", initialHeadingStdRad)
+                    .addData(p + ".positionVarPerInch", positionVarPerInch)
+                    .addData(p + ".headingVarPerRad", headingVarPerRad)
+                    .addData(p + ".backgroundPolling", backgroundPolling)
+                    .addData(p + ".backgroundPollPeriodMs", backgroundPollPeriodMs);
         }
     }
 
     private final GoBildaPinpointDriver odo;
     private final Config cfg;
 
+    // Background polling (null when disabled).
+    private final PinpointSampler sampler;
+    private final ReentrantLock driverLock;
+    private final PinpointSampler.Sample sample = new PinpointSampler.Sample();
+
+    // Software frame: reported pose = offset.then(device pose). setPose() only moves the offset,
+    // so pose pushes (fusion does one per accepted vision frame) never touch the bus. Guarded by
+    // frameLock, which is never held across a device call.
+    private final Object frameLock = new Object();
+    private double offsetX = 0.0;
+    private double offsetY = 0.0;
+    private double offsetHeading = 0.0;
+    private boolean hasRaw = false;
+    private double rawX;
+    private double rawY;
+    private double rawHeading;
+
+    // clockSec - nanoTime seconds, refreshed every update; maps sample stamps onto the loop clock.
+    private double clockMinusNanoSec = 0.0;
+    private double lastNowSec = 0.0;
+
     // Start in a "no pose" state until the first successful update.
     private PoseEstimate lastEstimate = PoseEstimate.noPose(0.0);
+    private double lastVxInchesPerSec = 0.0;
+    private double lastVyInchesPerSec = 0.0;
+    private double lastOmegaRadPerSec = 0.0;
+
+    // Planar covariance, propagated in place from the pose delta between updates. Guarded by
+    // frameLock, like the frame it is propagated in: setPose() resets it on the loop thread.
+    private final PoseCovariance covariance = new PoseCovariance();
+    private boolean hasCovPose = false;
+    private double covPoseX;
+    private double covPoseY;
+    private double covPoseHeading;
 
     /**
      * Create a Pinpoint-backed {@link PoseEstimator}.
@@ -380,6 +497,15 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
                 }
             }
         }
+
+        // The polling thread itself starts on the first update().
+        this.sampler = this.cfg.backgroundPolling
+                ? new PinpointSampler(odo, this.cfg.backgroundPollPeriodMs)
+                : null;
+        this.driverLock = (sampler != null) ? sampler.driverLock() : new ReentrantLock(true);
+        synchronized (frameLock) {
+            resetCovariance();
+        }
     }
 
     /**
@@ -391,9 +517,36 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
 
     @Override
     public void update(LoopClock clock) {
-        odo.update();
-        Pose2D pos = odo.getPosition();
         double nowSec = clock != null ? clock.nowSec() : 0.0;
+        lastNowSec = nowSec;
+
+        if (sampler != null && !sampler.hasFailed()) {
+            clockMinusNanoSec = nowSec - System.nanoTime() * 1e-9;
+            sampler.ensureRunning();
+            if (sampler.latest(sample)) {
+                double t = sample.tNanos * 1e-9 + clockMinusNanoSec;
+                publish(sample.xInches, sample.yInches, sample.headingRad,
+                        sample.vxInchesPerSec, sample.vyInchesPerSec, sample.omegaRadPerSec,
+                        Math.max(0.0, nowSec - t), t);
+            }
+            // Otherwise no sample since start/reset yet: keep the last estimate.
+            return;
+        }
+
+        Pose2D pos;
+        double vx;
+        double vy;
+        double omega;
+        driverLock.lock();
+        try {
+            odo.update();
+            pos = odo.getPosition();
+            vx = odo.getVelX(DistanceUnit.INCH);
+            vy = odo.getVelY(DistanceUnit.INCH);
+            omega = odo.getHeadingVelocity(UnnormalizedAngleUnit.RADIANS);
+        } finally {
+            driverLock.unlock();
+        }
 
         if (pos == null) {
             lastEstimate = PoseEstimate.noPose(nowSec);
@@ -411,8 +564,62 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
 
         headingRad = MathUtil.wrapToPi(headingRad);
 
-        Pose3d pose = new Pose3d(xIn, yIn, 0.0, headingRad, 0.0, 0.0);
-        lastEstimate = new PoseEstimate(pose, true, cfg.quality, 0.0, nowSec);
+        publish(xIn, yIn, headingRad, vx, vy, omega, 0.0, nowSec);
+    }
+
+    /**
+     * Map a raw device sample into the reported frame and make it the latest estimate.
+     */
+    private void publish(double xIn, double yIn, double headingRad,
+                         double vx, double vy, double omega,
+                         double ageSec, double timestampSec) {
+        synchronized (frameLock) {
+            hasRaw = true;
+            rawX = xIn;
+            rawY = yIn;
+            rawHeading = headingRad;
+
+            double c = Math.cos(offsetHeading);
+            double s = Math.sin(offsetHeading);
+            Pose3d pose = fieldPose(xIn, yIn, headingRad);
+            propagateCovariance(pose.xInches, pose.yInches, pose.yawRad);
+            lastEstimate = new PoseEstimate(pose, true, cfg.quality, ageSec, timestampSec, covariance);
+            lastVxInchesPerSec = c * vx - s * vy;
+            lastVyInchesPerSec = s * vx + c * vy;
+            lastOmegaRadPerSec = omega;
+        }
+    }
+
+    // Caller holds frameLock.
+    private Pose3d fieldPose(double xIn, double yIn, double headingRad) {
+        double c = Math.cos(offsetHeading);
+        double s = Math.sin(offsetHeading);
+        return new Pose3d(
+                offsetX + c * xIn - s * yIn,
+                offsetY + s * xIn + c * yIn,
+                0.0,
+                MathUtil.wrapToPi(offsetHeading + headingRad),
+                0.0,
+                0.0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only background polling keeps a history; without it this returns the latest
+     * estimate for any time. Past estimates carry the current covariance (a slight
+     * overestimate).</p>
+     */
+    @Override
+    public PoseEstimate getEstimateAt(double timestampSec) {
+        if (sampler == null || sampler.hasFailed()) {
+            return lastEstimate;
+        }
+        long tNanos = (long) ((timestampSec - clockMinusNanoSec) * 1e9);
+        if (!sampler.sampleAt(tNanos, sample)) {
+            return PoseEstimate.noPose(lastNowSec);
+        }
+        return toEstimate(sample, lastNowSec);
     }
 
     @Override
@@ -424,22 +631,202 @@ public final class PinpointPoseEstimator implements PoseEstimator, PoseResetter
      * Resets the Pinpoint IMU and pose back to 0,0,0.
      */
     public void resetPosAndIMU() {
-        odo.resetPosAndIMU();
+        driverLock.lock();
+        try {
+            odo.resetPosAndIMU();
+            if (sampler != null) {
+                sampler.rebase(Pose2d.zero());
+            }
+        } finally {
+            driverLock.unlock();
+        }
+        synchronized (frameLock) {
+            offsetX = offsetY = offsetHeading = 0.0;
+            hasRaw = false;
+            resetCovariance();
+        }
     }
 
     /**
      * Recalibrates the IMU without resetting pose.
      */
     public void recalibrateIMU() {
-        odo.recalibrateIMU();
+        driverLock.lock();
+        try {
+            odo.recalibrateIMU();
+        } finally {
+            driverLock.unlock();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Once the device has reported a pose, this only moves the software frame offset (no
+     * device I/O), so it is cheap enough to call on every fusion correction. History lookups map
+     * through the new offset and stay continuous. Before the first sample it writes the device
+     * pose instead.</p>
+     */
     @Override
     public void setPose(Pose2d pose) {
         if (pose == null) {
             return;
         }
-        Pose2D set = new Pose2D(DistanceUnit.INCH, pose.xInches, pose.yInches, AngleUnit.RADIANS, pose.headingRad);
-        odo.setPosition(set);
+        double heading = MathUtil.wrapToPi(pose.headingRad);
+        synchronized (frameLock) {
+            resetCovariance();
+            if (hasRaw) {
+                // offset = pose * raw^-1
+                offsetHeading = MathUtil.wrapToPi(heading - rawHeading);
+                double c = Math.cos(offsetHeading);
+                double s = Math.sin(offsetHeading);
+                offsetX = pose.xInches - (c * rawX - s * rawY);
+                offsetY = pose.yInches - (s * rawX + c * rawY);
+                lastEstimate = new PoseEstimate(
+                        new Pose3d(pose.xInches, pose.yInches, 0.0, heading, 0.0, 0.0),
+                        true, cfg.quality, lastEstimate.ageSec, lastEstimate.timestampSec, covariance);
+                return;
+            }
+            offsetX = offsetY = offsetHeading = 0.0;
+        }
+
+        Pose2D set = new Pose2D(DistanceUnit.INCH, pose.xInches, pose.yInches, AngleUnit.RADIANS, heading);
+        driverLock.lock();
+        try {
+            odo.setPosition(set);
+            if (sampler != null) {
+                // Keep history continuous in the new frame.
+                sampler.rebase(pose);
+            }
+        } finally {
+            driverLock.unlock();
+        }
+    }
+
+    /**
+     * @return the live covariance (updated in place every {@link #update(LoopClock)} and reset
+     * by {@link #setPose(Pose2d)}, without a lock the caller can take); read it from
+     * {@link #getEstimate()} for a consistent snapshot
+     */
+    public PoseCovariance getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Robot velocity along field X from the most recent sample (inches/sec, as reported by the device).
+     */
+    @Override
+    public double getVelocityXInchesPerSec() {
+        return lastVxInchesPerSec;
+    }
+
+    /**
+     * Robot velocity along field Y from the most recent sample (inches/sec, as reported by the device).
+     */
+    @Override
+    public double getVelocityYInchesPerSec() {
+        return lastVyInchesPerSec;
+    }
+
+    /**
+     * Heading rate from the most recent sample (rad/sec, CCW-positive).
+     */
+    @Override
+    public double getOmegaRadPerSec() {
+        return lastOmegaRadPerSec;
+    }
+
+    /**
+     * Robot-centric velocity from the most recent sample: the field velocity rotated into the
+     * robot frame by the current heading.
+     *
+     * <p>Useful as the chassis-motion reference for
+     * {@link edu.ftcphoenix.fw.drive.MecanumDrivebase#setChassisSpeedsSource}.</p>
+     */
+    public ChassisSpeeds getRobotSpeeds() {
+        double h = lastEstimate.hasPose ? lastEstimate.toPose2d().headingRad : 0.0;
+        double c = Math.cos(h);
+        double s = Math.sin(h);
+        return new ChassisSpeeds(
+                c * lastVxInchesPerSec + s * lastVyInchesPerSec,
+                -s * lastVxInchesPerSec + c * lastVyInchesPerSec,
+                lastOmegaRadPerSec);
+    }
+
+    /**
+     * @return true if the background polling thread is currently running
+     */
+    public boolean isBackgroundPolling() {
+        return sampler != null && sampler.isRunning();
+    }
+
+    /**
+     * Stop the background polling thread (if any). The next {@link #update(LoopClock)} restarts it.
+     *
+     * <p>Optional: the thread also stops by itself shortly after {@code update()} is no longer
+     * called, e.g. when the OpMode ends.</p>
+     */
+    public void stopBackgroundPolling() {
+        if (sampler != null) {
+            sampler.stop();
+        }
+    }
+
+    @Override
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "pinpoint" : prefix;
+        PoseEstimator.super.debugDump(dbg, p);
+
+        double posStd;
+        double headingStd;
+        synchronized (frameLock) {
+            posStd = covariance.positionStdInches();
+            headingStd = covariance.headingStdRad();
+        }
+        dbg.addData(p + ".vxInPerSec", lastVxInchesPerSec)
+                .addData(p + ".vyInPerSec", lastVyInchesPerSec)
+                .addData(p + ".omegaRadPerSec", lastOmegaRadPerSec)
+                .addData(p + ".posStdIn", posStd)
+                .addData(p + ".headingStdRad", headingStd);
+        if (sampler != null) {
+            dbg.addData(p + ".bg.running", sampler.isRunning())
+                    .addData(p + ".bg.failed", sampler.hasFailed())
+                    .addData(p + ".bg.samples", sampler.sampleCount())
+                    .addData(p + ".bg.rateHz", sampler.sampleRateHz())
+                    .addData(p + ".bg.pollMs", sampler.lastPollMs());
+            if (sampler.lastError() != null) {
+                dbg.addData(p + ".bg.error", sampler.lastError());
+            }
+        }
+    }
+
+    private PoseEstimate toEstimate(PinpointSampler.Sample s, double nowSec) {
+        double t = s.tNanos * 1e-9 + clockMinusNanoSec;
+        synchronized (frameLock) {
+            Pose3d pose = fieldPose(s.xInches, s.yInches, s.headingRad);
+            return new PoseEstimate(pose, true, cfg.quality, Math.max(0.0, nowSec - t), t, covariance);
+        }
+    }
+
+    // Caller holds frameLock.
+    private void resetCovariance() {
+        covariance.reset(cfg.initialPositionStdInches, cfg.initialHeadingStdRad);
+        hasCovPose = false;
+    }
+
+    // Caller holds frameLock.
+    private void propagateCovariance(double xIn, double yIn, double headingRad) {
+        if (hasCovPose) {
+            covariance.propagate(xIn - covPoseX, yIn - covPoseY,
+                    MathUtil.wrapToPi(headingRad - covPoseHeading),
+                    cfg.positionVarPerInch, cfg.headingVarPerRad);
+        }
+        hasCovPose = true;
+        covPoseX = xIn;
+        covPoseY = yIn;
+        covPoseHeading = headingRad;
     }
 }
\ No newline at end of file
@@ -0,0 +1,445 @@
+package edu.ftcphoenix.fw.ftc.localization;
+
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.UnnormalizedAngleUnit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+
+/**
+ * Background polling service for a goBILDA Pinpoint.
+ *
+ * <p>{@code odo.update()} is a multi-millisecond I2C transaction. Running it on the loop thread
+ * blocks everything else and limits odometry to one sample per loop. This class runs it on a
+ * dedicated daemon thread as fast as the bus allows and publishes each result, stamped with
+ * {@link System#nanoTime()}, into a fixed ring. The loop thread reads the newest sample or one
+ * interpolated to any recent timestamp without blocking.</p>
+ *
+ * <h2>Threading</h2>
+ * <ul>
+ *   <li>One writer (the polling thread), one reader (the loop thread).</li>
+ *   <li>The ring is a per-slot seqlock over {@link AtomicLongArray}s: the writer marks a slot odd
+ *       while writing and even when done; the reader retries or skips a slot whose sequence
+ *       changed underneath it. No locks are taken on the read path.</li>
+ *   <li>Driver calls from the loop thread (set pose, reset) must hold {@link #driverLock()}, which
+ *       the polling thread also holds while talking to the device, so the two never interleave on
+ *       the bus. The lock is fair: the poller re-acquires it back-to-back, and an unfair monitor
+ *       could keep a waiting loop-thread call behind any number of polls.</li>
+ *   <li>Setting the device pose starts a new <em>frame epoch</em>. Older samples keep their raw
+ *       values and are mapped into the current frame on read (see {@link #rebase}), so history
+ *       lookups stay continuous across device resets. (Routine pose pushes from fusion do not
+ *       reach the device; {@code PinpointPoseEstimator} applies them as a software offset.)</li>
+ *   <li>The thread stops by itself if nobody has read a sample for {@link #IDLE_STOP_NANOS} (for
+ *       example after the OpMode ends) and is restarted by the next {@link #ensureRunning()}.</li>
+ * </ul>
+ */
+final class PinpointSampler {
+
+    /**
+     * Ring capacity in samples. At ~1 kHz this is a quarter second of history.
+     */
+    static final int CAPACITY = 256;
+
+    /**
+     * Samples this close to being overwritten are not trusted by readers.
+     */
+    private static final int GUARD = 8;
+
+    /**
+     * Stop polling when no reader has asked for data this long.
+     */
+    static final long IDLE_STOP_NANOS = 1_000_000_000L;
+
+    /**
+     * Number of frame epochs (pose resets) that history lookups can span.
+     */
+    private static final int EPOCHS = 32;
+
+    // Slot layout (raw long bits of doubles, except T and E).
+    private static final int T = 0;
+    private static final int X = 1;
+    private static final int Y = 2;
+    private static final int H = 3;
+    private static final int VX = 4;
+    private static final int VY = 5;
+    private static final int W = 6;
+    private static final int E = 7;
+    private static final int STRIDE = 8;
+
+    /**
+     * Mutable sample holder owned by the reader.
+     */
+    static final class Sample {
+        long tNanos;
+        double xInches;
+        double yInches;
+        double headingRad;
+        double vxInchesPerSec;
+        double vyInchesPerSec;
+        double omegaRadPerSec;
+    }
+
+    private final GoBildaPinpointDriver odo;
+    private final long minPeriodNanos;
+    private final ReentrantLock driverLock = new ReentrantLock(true);
+
+    private final AtomicLongArray data = new AtomicLongArray(CAPACITY * STRIDE);
+    private final AtomicLongArray seq = new AtomicLongArray(CAPACITY);
+
+    // Number of samples published; sample n lives in slot n % CAPACITY.
+    private volatile long published = 0L;
+    // Samples before this index are ignored (pose reset with no sample to rebase from).
+    private volatile long firstValid = 0L;
+    // Current frame epoch; written under driverLock, stamped into each sample.
+    private volatile int epoch = 0;
+    // Reader-only: transform from each epoch's frame into the current frame (ring by epoch).
+    private final double[] epochX = new double[EPOCHS];
+    private final double[] epochY = new double[EPOCHS];
+    private final double[] epochH = new double[EPOCHS];
+
+    private volatile boolean running = false;
+    // Bumped on every start/stop so an old thread that has not exited yet cannot keep polling.
+    private volatile int generation = 0;
+    private volatile boolean failed = false;
+    private volatile String lastError = null;
+    private volatile long lastReadNanos = 0L;
+    private volatile double lastPollMs = Double.NaN;
+    private Thread thread = null;
+
+    // Reader-only scratch.
+    private final Sample scratchA = new Sample();
+    private final Sample scratchB = new Sample();
+
+    PinpointSampler(GoBildaPinpointDriver odo, double minPeriodMs) {
+        this.odo = odo;
+        this.minPeriodNanos = (long) (Math.max(0.0, minPeriodMs) * 1e6);
+    }
+
+    /**
+     * Lock to hold around any driver call made outside the polling thread.
+     */
+    ReentrantLock driverLock() {
+        return driverLock;
+    }
+
+    /**
+     * Start the polling thread if it is not running (and has not failed).
+     */
+    void ensureRunning() {
+        lastReadNanos = System.nanoTime();
+        if (running || failed) {
+            return;
+        }
+        running = true;
+        final int gen = ++generation;
+        thread = new Thread(() -> pollLoop(gen), "PinpointSampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Ask the polling thread to exit. Does not wait.
+     */
+    void stop() {
+        generation++;
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return true if polling stopped because the driver threw; callers should fall back to
+     * synchronous updates
+     */
+    boolean hasFailed() {
+        return failed;
+    }
+
+    String lastError() {
+        return lastError;
+    }
+
+    long sampleCount() {
+        return published;
+    }
+
+    /**
+     * @return duration of the most recent device poll in milliseconds
+     */
+    double lastPollMs() {
+        return lastPollMs;
+    }
+
+    /**
+     * Start a new frame epoch after the device pose was set to {@code newPose}. Call while holding
+     * {@link #driverLock()}, right after changing the device pose.
+     *
+     * <p>The transform from the old frame is taken from the newest sample, which is at most one
+     * poll old, so history stays continuous to within one poll of motion. With no sample to
+     * rebase from, older history is dropped instead.</p>
+     */
+    void rebase(Pose2d newPose) {
+        if (latest(scratchA)) {
+            Pose2d last = new Pose2d(scratchA.xInches, scratchA.yInches, scratchA.headingRad);
+            Pose2d r = newPose.then(last.inverse());
+            for (int age = 0; age < EPOCHS - 1 && epoch - age >= 0; age++) {
+                int k = (epoch - age) % EPOCHS;
+                Pose2d mapped = r.then(new Pose2d(epochX[k], epochY[k], epochH[k]));
+                epochX[k] = mapped.xInches;
+                epochY[k] = mapped.yInches;
+                epochH[k] = mapped.headingRad;
+            }
+        } else {
+            firstValid = published;
+        }
+        int next = (epoch + 1) % EPOCHS;
+        epochX[next] = 0.0;
+        epochY[next] = 0.0;
+        epochH[next] = 0.0;
+        epoch = epoch + 1;
+    }
+
+    /**
+     * Copy the newest valid sample into {@code out}.
+     *
+     * @return false if there is no sample since the last reset
+     */
+    boolean latest(Sample out) {
+        lastReadNanos = System.nanoTime();
+        for (int attempt = 0; attempt < 4; attempt++) {
+            long n = published - 1;
+            if (n < firstValid) {
+                return false;
+            }
+            if (read(n, out)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interpolate the pose at {@code tNanos} into {@code out}.
+     *
+     * <p>Times newer than the newest sample return the newest sample; times older than the
+     * retained history return false.</p>
+     */
+    boolean sampleAt(long tNanos, Sample out) {
+        lastReadNanos = System.nanoTime();
+
+        long newest = published - 1;
+        long oldest = Math.max(firstValid, newest - (CAPACITY - GUARD) + 1);
+        if (newest < oldest || !read(newest, scratchB)) {
+            return false;
+        }
+        if (tNanos >= scratchB.tNanos) {
+            copy(scratchB, out);
+            return true;
+        }
+        if (!read(oldest, scratchA) || tNanos < scratchA.tNanos) {
+            return false;
+        }
+
+        // Binary search for the last sample at or before tNanos.
+        long lo = oldest;
+        long hi = newest;
+        while (hi - lo > 1) {
+            long mid = (lo + hi) >>> 1;
+            long tm = readTime(mid);
+            if (tm == Long.MIN_VALUE) {
+                return false; // overwritten while searching
+            }
+            if (tm <= tNanos) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        if (!read(lo, scratchA) || !read(hi, scratchB)) {
+            return false;
+        }
+
+        double span = scratchB.tNanos - scratchA.tNanos;
+        double u = span > 0 ? (tNanos - scratchA.tNanos) / span : 0.0;
+        out.tNanos = tNanos;
+        out.xInches = lerp(scratchA.xInches, scratchB.xInches, u);
+        out.yInches = lerp(scratchA.yInches, scratchB.yInches, u);
+        out.headingRad = MathUtil.wrapToPi(scratchA.headingRad
+                + MathUtil.wrapToPi(scratchB.headingRad - scratchA.headingRad) * u);
+        out.vxInchesPerSec = lerp(scratchA.vxInchesPerSec, scratchB.vxInchesPerSec, u);
+        out.vyInchesPerSec = lerp(scratchA.vyInchesPerSec, scratchB.vyInchesPerSec, u);
+        out.omegaRadPerSec = lerp(scratchA.omegaRadPerSec, scratchB.omegaRadPerSec, u);
+        return true;
+    }
+
+    /**
+     * Average sample rate over the retained history, in Hz (NaN until two samples exist).
+     */
+    double sampleRateHz() {
+        long newest = published - 1;
+        long oldest = Math.max(firstValid, newest - (CAPACITY - GUARD) + 1);
+        if (newest - oldest < 1) {
+            return Double.NaN;
+        }
+        long t1 = readTime(newest);
+        long t0 = readTime(oldest);
+        if (t0 == Long.MIN_VALUE || t1 == Long.MIN_VALUE || t1 <= t0) {
+            return Double.NaN;
+        }
+        return (newest - oldest) * 1e9 / (t1 - t0);
+    }
+
+    // ------------------------------------------------------------------------
+    // Polling thread
+    // ------------------------------------------------------------------------
+
+    private void pollLoop(int gen) {
+        try {
+            while (gen == generation && !Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                if (start - lastReadNanos > IDLE_STOP_NANOS) {
+                    break;
+                }
+
+                driverLock.lock();
+                try {
+                    odo.update();
+                    long t = System.nanoTime();
+                    publish((start + t) >>> 1);
+                    lastPollMs = (t - start) / 1e6;
+                } finally {
+                    driverLock.unlock();
+                }
+
+                if (minPeriodNanos > 0) {
+                    long remaining = minPeriodNanos - (System.nanoTime() - start);
+                    if (remaining > 0) {
+                        Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // stop() requested; exit quietly.
+        } catch (RuntimeException e) {
+            lastError = e.toString();
+            failed = true;
+        } finally {
+            if (gen == generation) {
+                running = false;
+            }
+        }
+    }
+
+    private void publish(long tNanos) {
+        double h = odo.getHeading(AngleUnit.RADIANS);
+        // Defensive conversion: a known issue in some driver versions causes unit confusion.
+        if (Math.abs(h) > Math.PI * 2.0 + 0.5) {
+            h = Math.toRadians(h);
+        }
+
+        long n = published;
+        int slot = (int) (n % CAPACITY);
+        int base = slot * STRIDE;
+
+        seq.set(slot, 2 * n + 1); // writing
+        data.set(base + T, tNanos);
+        data.set(base + X, bits(odo.getPosX(DistanceUnit.INCH)));
+        data.set(base + Y, bits(odo.getPosY(DistanceUnit.INCH)));
+        data.set(base + H, bits(MathUtil.wrapToPi(h)));
+        data.set(base + VX, bits(odo.getVelX(DistanceUnit.INCH)));
+        data.set(base + VY, bits(odo.getVelY(DistanceUnit.INCH)));
+        data.set(base + W, bits(odo.getHeadingVelocity(UnnormalizedAngleUnit.RADIANS)));
+        data.set(base + E, epoch);
+        seq.set(slot, 2 * n + 2); // done
+        published = n + 1;
+    }
+
+    // ------------------------------------------------------------------------
+    // Seqlock reads
+    // ------------------------------------------------------------------------
+
+    private boolean read(long n, Sample out) {
+        int slot = (int) (n % CAPACITY);
+        int base = slot * STRIDE;
+        long expect = 2 * n + 2;
+        if (seq.get(slot) != expect) {
+            return false;
+        }
+        out.tNanos = data.get(base + T);
+        out.xInches = dbl(data.get(base + X));
+        out.yInches = dbl(data.get(base + Y));
+        out.headingRad = dbl(data.get(base + H));
+        out.vxInchesPerSec = dbl(data.get(base + VX));
+        out.vyInchesPerSec = dbl(data.get(base + VY));
+        out.omegaRadPerSec = dbl(data.get(base + W));
+        long e = data.get(base + E);
+        if (seq.get(slot) != expect) {
+            return false;
+        }
+
+        // Map older epochs into the current frame.
+        int age = (int) (epoch - e);
+        if (age < 0 || age >= EPOCHS) {
+            return false;
+        }
+        if (age > 0) {
+            int k = (int) (e % EPOCHS);
+            double c = Math.cos(epochH[k]);
+            double s = Math.sin(epochH[k]);
+            double x = out.xInches;
+            double y = out.yInches;
+            out.xInches = epochX[k] + c * x - s * y;
+            out.yInches = epochY[k] + s * x + c * y;
+            out.headingRad = MathUtil.wrapToPi(out.headingRad + epochH[k]);
+            double vx = out.vxInchesPerSec;
+            double vy = out.vyInchesPerSec;
+            out.vxInchesPerSec = c * vx - s * vy;
+            out.vyInchesPerSec = s * vx + c * vy;
+        }
+        return true;
+    }
+
+    private long readTime(long n) {
+        int slot = (int) (n % CAPACITY);
+        long expect = 2 * n + 2;
+        if (seq.get(slot) != expect) {
+            return Long.MIN_VALUE;
+        }
+        long t = data.get(slot * STRIDE + T);
+        return seq.get(slot) == expect ? t : Long.MIN_VALUE;
+    }
+
+    private static void copy(Sample from, Sample to) {
+        to.tNanos = from.tNanos;
+        to.xInches = from.xInches;
+        to.yInches = from.yInches;
+        to.headingRad = from.headingRad;
+        to.vxInchesPerSec = from.vxInchesPerSec;
+        to.vyInchesPerSec = from.vyInchesPerSec;
+        to.omegaRadPerSec = from.omegaRadPerSec;
+    }
+
+    private static double lerp(double a, double b, double u) {
+        return a + (b - a) * u;
+    }
+
+    private static long bits(double v) {
+        return Double.doubleToRawLongBits(v);
+    }
+
+    private static double dbl(long v) {
+        return Double.longBitsToDouble(v);
+    }
+}
@@ -0,0 +1,155 @@
+package edu.ftcphoenix.fw.localization;
+
+/**
+ * Mutable planar (x, y, heading) pose covariance, kept as six primitive fields.
+ *
+ * <p>Estimators hold one instance, update it in place every loop, and copy it into each
+ * {@link PoseEstimate} they publish; nothing here allocates. Units are inches and radians, so the
+ * entries are in^2 ({@link #xx}, {@link #xy}, {@link #yy}), in&middot;rad ({@link #xh},
+ * {@link #yh}) and rad^2 ({@link #hh}), all in the field frame.</p>
+ *
+ * <h2>Model</h2>
+ *
+ * <ul>
+ *   <li>{@link #propagate} moves the robot by a field-frame displacement. The heading
+ *       uncertainty couples into position through the lever arm of that displacement
+ *       ({@code P = F P F^T + Q}, {@code F = [[1,0,-dy],[0,1,dx],[0,0,1]]}), and process noise
+ *       grows with distance travelled and angle turned.</li>
+ *   <li>{@link #correct} applies a fixed-gain correction toward an absolute measurement (the
+ *       complementary-filter blend used by the fusion estimators):
+ *       {@code P = (1-g)^2 P + g^2 R} per axis.</li>
+ * </ul>
+ */
+public final class PoseCovariance {
+
+    /** Variance of field X (in^2). */
+    public double xx;
+    /** Covariance of field X and Y (in^2). */
+    public double xy;
+    /** Covariance of field X and heading (in&middot;rad). */
+    public double xh;
+    /** Variance of field Y (in^2). */
+    public double yy;
+    /** Covariance of field Y and heading (in&middot;rad). */
+    public double yh;
+    /** Variance of heading (rad^2). */
+    public double hh;
+
+    /**
+     * Reset to a diagonal covariance.
+     *
+     * @param positionStdInches standard deviation of X and Y (inches)
+     * @param headingStdRad     standard deviation of heading (radians)
+     */
+    public void reset(double positionStdInches, double headingStdRad) {
+        xx = yy = positionStdInches * positionStdInches;
+        hh = headingStdRad * headingStdRad;
+        xy = xh = yh = 0.0;
+    }
+
+    /**
+     * Copy the covariance carried by {@code est}. Leaves this unchanged when it has none.
+     *
+     * @return true if {@code est} carried a covariance
+     */
+    public boolean setFrom(PoseEstimate est) {
+        if (est == null || !est.hasCovariance) {
+            return false;
+        }
+        xx = est.covXX;
+        xy = est.covXY;
+        xh = est.covXH;
+        yy = est.covYY;
+        yh = est.covYH;
+        hh = est.covHH;
+        return true;
+    }
+
+    /**
+     * Propagate through a motion step.
+     *
+     * @param dxField             field-frame X displacement of the step (inches)
+     * @param dyField             field-frame Y displacement of the step (inches)
+     * @param dHeadingRad         heading change of the step (radians)
+     * @param positionVarPerInch  X and Y variance added per inch travelled (in^2/in)
+     * @param headingVarPerRad    heading variance added per radian turned (rad^2/rad)
+     */
+    public void propagate(double dxField,
+                          double dyField,
+                          double dHeadingRad,
+                          double positionVarPerInch,
+                          double headingVarPerRad) {
+        // F P F^T with F = [[1,0,-dy],[0,1,dx],[0,0,1]].
+        double nxx = xx - 2.0 * dyField * xh + dyField * dyField * hh;
+        double nxy = xy + dxField * xh - dyField * yh - dxField * dyField * hh;
+        double nyy = yy + 2.0 * dxField * yh + dxField * dxField * hh;
+        double nxh = xh - dyField * hh;
+        double nyh = yh + dxField * hh;
+
+        double qPos = Math.max(0.0, positionVarPerInch) * Math.hypot(dxField, dyField);
+        double qHeading = Math.max(0.0, headingVarPerRad) * Math.abs(dHeadingRad);
+
+        xx = nxx + qPos;
+        xy = nxy;
+        yy = nyy + qPos;
+        xh = nxh;
+        yh = nyh;
+        hh = hh + qHeading;
+    }
+
+    /**
+     * Apply a fixed-gain correction toward an absolute measurement.
+     *
+     * @param positionGain       fraction of the X/Y innovation applied (0..1)
+     * @param headingGain        fraction of the heading innovation applied (0..1)
+     * @param measPositionVar    measurement variance of X and Y (in^2)
+     * @param measHeadingVar     measurement variance of heading (rad^2)
+     */
+    public void correct(double positionGain,
+                        double headingGain,
+                        double measPositionVar,
+                        double measHeadingVar) {
+        double kp = 1.0 - positionGain;
+        double kh = 1.0 - headingGain;
+        double gp2 = positionGain * positionGain;
+
+        xx = kp * kp * xx + gp2 * measPositionVar;
+        yy = kp * kp * yy + gp2 * measPositionVar;
+        xy = kp * kp * xy;
+        xh = kp * kh * xh;
+        yh = kp * kh * yh;
+        hh = kh * kh * hh + headingGain * headingGain * measHeadingVar;
+    }
+
+    /**
+     * @return position standard deviation along the worst direction (inches)
+     */
+    public double positionStdInches() {
+        return positionStdInches(xx, xy, yy);
+    }
+
+    /**
+     * @return heading standard deviation (radians)
+     */
+    public double headingStdRad() {
+        return Math.sqrt(Math.max(0.0, hh));
+    }
+
+    /**
+     * Square root of the largest eigenvalue of the 2x2 position block: the standard deviation
+     * along the least certain direction.
+     */
+    static double positionStdInches(double xx, double xy, double yy) {
+        double mean = 0.5 * (xx + yy);
+        double diff = 0.5 * (xx - yy);
+        double maxEig = mean + Math.sqrt(diff * diff + xy * xy);
+        return Math.sqrt(Math.max(0.0, maxEig));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "PoseCovariance{posStdIn=" + positionStdInches()
+                + ", headingStdRad=" + headingStdRad() + '}';
+    }
+}
@@ -16,6 +16,7 @@ import edu.ftcphoenix.fw.core.geometry.Pose3d;
  *   <li>A simple quality score (0–1) for selection/fusion/debugging.</li>
  *   <li>How "old" the estimate is relative to now.</li>
  *   <li>The absolute timestamp at which the underlying measurement was taken.</li>
+ *   <li>Optionally, a planar (x, y, heading) covariance (see {@link #hasCovariance}).</li>
  * </ul>
  *
  * <h2>Field coordinate system (FTC)</h2>
@@ -88,7 +89,29 @@ public final class PoseEstimate {
     public final double timestampSec;
 
     /**
-     * Constructs a new {@code PoseEstimate}.
+     * True if the {@code cov*} fields carry a planar covariance for this estimate.
+     *
+     * <p>The covariance is optional: estimators that do not model uncertainty leave this
+     * {@code false} and consumers fall back to {@link #quality}. Entries are in the field frame,
+     * in inches and radians; see {@link PoseCovariance}.</p>
+     */
+    public final boolean hasCovariance;
+
+    /** Variance of field X (in^2); 0 when {@link #hasCovariance} is false. */
+    public final double covXX;
+    /** Covariance of field X and Y (in^2). */
+    public final double covXY;
+    /** Covariance of field X and heading (in&middot;rad). */
+    public final double covXH;
+    /** Variance of field Y (in^2). */
+    public final double covYY;
+    /** Covariance of field Y and heading (in&middot;rad). */
+    public final double covYH;
+    /** Variance of heading (rad^2). */
+    public final double covHH;
+
+    /**
+     * Constructs a new {@code PoseEstimate} without a covariance.
      *
      * @param fieldToRobotPose robot pose in the FTC field coordinate system (field→robot; 6DOF)
      * @param hasPose      whether this represents a valid pose
@@ -101,6 +124,23 @@ public final class PoseEstimate {
                         double quality,
                         double ageSec,
                         double timestampSec) {
+        this(fieldToRobotPose, hasPose, quality, ageSec, timestampSec, null);
+    }
+
+    /**
+     * Constructs a new {@code PoseEstimate} carrying a snapshot of {@code covariance}.
+     *
+     * <p>The values are copied, so the estimator can keep updating its {@link PoseCovariance}
+     * in place.</p>
+     *
+     * @param covariance planar covariance, or {@code null} for none
+     */
+    public PoseEstimate(Pose3d fieldToRobotPose,
+                        boolean hasPose,
+                        double quality,
+                        double ageSec,
+                        double timestampSec,
+                        PoseCovariance covariance) {
         if (fieldToRobotPose == null) {
             throw new IllegalArgumentException("fieldToRobotPose is required");
         }
@@ -109,6 +149,32 @@ public final class PoseEstimate {
         this.quality = quality;
         this.ageSec = ageSec;
         this.timestampSec = timestampSec;
+
+        this.hasCovariance = covariance != null;
+        this.covXX = covariance != null ? covariance.xx : 0.0;
+        this.covXY = covariance != null ? covariance.xy : 0.0;
+        this.covXH = covariance != null ? covariance.xh : 0.0;
+        this.covYY = covariance != null ? covariance.yy : 0.0;
+        this.covYH = covariance != null ? covariance.yh : 0.0;
+        this.covHH = covariance != null ? covariance.hh : 0.0;
+    }
+
+    /**
+     * Position standard deviation along the least certain direction, in inches.
+     *
+     * @return the std, or {@code NaN} when this estimate has no covariance
+     */
+    public double positionStdInches() {
+        return hasCovariance ? PoseCovariance.positionStdInches(covXX, covXY, covYY) : Double.NaN;
+    }
+
+    /**
+     * Heading standard deviation, in radians.
+     *
+     * @return the std, or {@code NaN} when this estimate has no covariance
+     */
+    public double headingStdRad() {
+        return hasCovariance ? Math.sqrt(Math.max(0.0, covHH)) : Double.NaN;
     }
 
     /**
@@ -158,6 +224,9 @@ public final class PoseEstimate {
                 ", quality=" + quality +
                 ", ageSec=" + ageSec +
                 ", timestampSec=" + timestampSec +
+                (hasCovariance
+                        ? ", posStdIn=" + positionStdInches() + ", headingStdRad=" + headingStdRad()
+                        : "") +
                 '}';
     }
 }
@@ -0,0 +1,23 @@
+package edu.ftcphoenix.fw.localization;
+
+/**
+ * Optional capability for pose estimators that keep a short, timestamped pose history.
+ *
+ * <p>Latency-sensitive consumers (for example vision fusion, where a camera frame describes the
+ * robot tens of milliseconds ago) can ask where the robot was at the measurement time instead of
+ * comparing a stale measurement to the current pose.</p>
+ */
+public interface PoseHistory {
+
+    /**
+     * Return the estimate at a past time, interpolated between stored samples.
+     *
+     * <p>Times newer than the newest sample return the newest sample. Times older than the
+     * retained history (or before the last pose reset) return an estimate with
+     * {@link PoseEstimate#hasPose} {@code false}.</p>
+     *
+     * @param timestampSec time on the same clock as {@link PoseEstimate#timestampSec}
+     * @return pose estimate at (or as close as possible to) {@code timestampSec}
+     */
+    PoseEstimate getEstimateAt(double timestampSec);
+}
@@ -0,0 +1,424 @@
+package edu.ftcphoenix.fw.localization;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+import edu.ftcphoenix.fw.core.geometry.Pose3d;
+import edu.ftcphoenix.fw.core.math.MathUtil;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+
+/**
+ * Decorator that forward-projects another estimator's pose to the time the next command will
+ * actually act on the robot.
+ *
+ * <p>Every consumer of {@link PoseEstimator#getEstimate()} (guidance, {@code GoToPoseTask},
+ * pose lock) reacts to where the robot was when the source last sampled, while the command it
+ * computes lands one loop (plus motor response) later. This class tracks field-frame velocity and
+ * acceleration and extrapolates the pose with a second-order model:</p>
+ *
+ * <pre>
+ * T    = (now - estimate.timestampSec) + leadSec
+ * pose = pose + v * T + 0.5 * a * T^2      (x, y and heading)
+ * </pre>
+ *
+ * <p>{@link #getEstimate()} returns the prediction at {@link Config#leadSec}, so it drops in
+ * wherever a {@link PoseEstimator} is accepted; {@link #predict(double)} projects to any other
+ * horizon and {@link #getRawEstimate()} returns the source estimate unchanged. Predicted
+ * estimates keep the source's {@code quality}, {@code ageSec} and {@code timestampSec}: the
+ * timestamp stays the measurement time, as {@link PoseEstimate#timestampSec} defines it, so age
+ * and timestamp agree and existing gating is unaffected. How far the pose was projected past
+ * that time is reported by {@link #getHorizonSec()} and {@link #horizonSec(double)}. A source
+ * covariance is carried along
+ * the predicted displacement (heading uncertainty couples into position over the lead), with no
+ * extra process noise.</p>
+ *
+ * <p>Velocity comes from a {@link VelocitySource} when one is given (for example
+ * {@code PinpointPoseEstimator}, which reports device-measured velocity) or otherwise from
+ * successive source estimates. Acceleration is always differenced from velocity and smoothed.
+ * Pose jumps faster than {@link Config#maxSpeedInchesPerSec} (for example a fusion correction or
+ * a pose reset) restart the motion tracking instead of producing a velocity spike.</p>
+ *
+ * <p><b>Loop ordering:</b> like the fusion estimator, this class calls
+ * {@link PoseEstimator#update(LoopClock)} on its source inside its own
+ * {@link #update(LoopClock)}.</p>
+ */
+public final class PredictivePoseEstimator implements PoseEstimator, PoseResetter {
+
+    /**
+     * Field-frame velocity source (matches the velocity accessors of
+     * {@code PinpointPoseEstimator}).
+     */
+    public interface VelocitySource {
+
+        /**
+         * @return robot velocity along field X (inches/sec)
+         */
+        double getVelocityXInchesPerSec();
+
+        /**
+         * @return robot velocity along field Y (inches/sec)
+         */
+        double getVelocityYInchesPerSec();
+
+        /**
+         * @return heading rate (rad/sec, CCW-positive)
+         */
+        double getOmegaRadPerSec();
+    }
+
+    /**
+     * Configuration for the prediction.
+     */
+    public static final class Config {
+
+        /**
+         * How far past "now" {@link #getEstimate()} projects, in seconds.
+         *
+         * <p>Roughly one loop period plus the drivetrain's response delay.</p>
+         */
+        public double leadSec = 0.03;
+
+        /**
+         * Cap on the total projection horizon (estimate age + lead), in seconds.
+         */
+        public double maxHorizonSec = 0.15;
+
+        /**
+         * Include the acceleration term. If false, the prediction is first-order.
+         */
+        public boolean useAcceleration = true;
+
+        /**
+         * Smoothing for velocity differenced from successive poses (0..1, weight of the newest
+         * sample). Ignored when a {@link VelocitySource} is given.
+         */
+        public double velocitySmoothing = 0.5;
+
+        /**
+         * Smoothing for acceleration (0..1, weight of the newest sample).
+         */
+        public double accelSmoothing = 0.3;
+
+        /**
+         * Clamp on translational acceleration, in inches/sec^2.
+         */
+        public double maxAccelInchesPerSec2 = 200.0;
+
+        /**
+         * Clamp on angular acceleration, in rad/sec^2.
+         */
+        public double maxAlphaRadPerSec2 = 30.0;
+
+        /**
+         * Pose jumps implying a speed above this (inches/sec) restart motion tracking.
+         */
+        public double maxSpeedInchesPerSec = 150.0;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * Create a new config instance with Phoenix defaults.
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * Deep copy of this config.
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.leadSec = this.leadSec;
+            c.maxHorizonSec = this.maxHorizonSec;
+            c.useAcceleration = this.useAcceleration;
+            c.velocitySmoothing = this.velocitySmoothing;
+            c.accelSmoothing = this.accelSmoothing;
+            c.maxAccelInchesPerSec2 = this.maxAccelInchesPerSec2;
+            c.maxAlphaRadPerSec2 = this.maxAlphaRadPerSec2;
+            c.maxSpeedInchesPerSec = this.maxSpeedInchesPerSec;
+            return c;
+        }
+    }
+
+    private final PoseEstimator source;
+    private final VelocitySource velocitySource;
+    private final Config cfg;
+
+    private PoseEstimate raw = PoseEstimate.noPose(0.0);
+    private PoseEstimate predicted = PoseEstimate.noPose(0.0);
+    private double nowSec = 0.0;
+    private double predictedHorizonSec = 0.0;
+
+    // Motion state (field frame). Velocity/acceleration are only valid once hasMotion is set.
+    private boolean hasPrev = false;
+    private boolean hasMotion = false;
+    private double prevTimestampSec;
+    private double prevX;
+    private double prevY;
+    private double prevHeading;
+    private double vx, vy, omega;
+    private double ax, ay, alpha;
+
+    // Scratch for carrying the source covariance through a prediction.
+    private final PoseCovariance predictedCov = new PoseCovariance();
+
+    /**
+     * Predict from successive poses of {@code source}.
+     */
+    public PredictivePoseEstimator(PoseEstimator source, Config cfg) {
+        this(source, null, cfg);
+    }
+
+    /**
+     * Predict using velocity from {@code velocitySource} (may be {@code null}).
+     *
+     * @param source         pose estimator to decorate (updated by this class)
+     * @param velocitySource field-frame velocity source, e.g. the same {@code PinpointPoseEstimator}
+     * @param cfg            configuration (may be {@code null})
+     */
+    public PredictivePoseEstimator(PoseEstimator source, VelocitySource velocitySource, Config cfg) {
+        if (source == null) {
+            throw new IllegalArgumentException("source must not be null");
+        }
+        this.source = source;
+        this.velocitySource = velocitySource;
+        this.cfg = cfg != null ? cfg.copy() : Config.defaults();
+    }
+
+    @Override
+    public void update(LoopClock clock) {
+        nowSec = clock != null ? clock.nowSec() : 0.0;
+        source.update(clock);
+
+        PoseEstimate est = source.getEstimate();
+        raw = est != null ? est : PoseEstimate.noPose(nowSec);
+        if (!raw.hasPose) {
+            resetMotion();
+            predicted = raw;
+            predictedHorizonSec = 0.0;
+            return;
+        }
+
+        trackMotion(raw);
+        predicted = predict(cfg.leadSec);
+        predictedHorizonSec = hasMotion ? horizonSec(cfg.leadSec) : 0.0;
+    }
+
+    /**
+     * Returns the source estimate projected to {@link Config#leadSec} past the last update.
+     */
+    @Override
+    public PoseEstimate getEstimate() {
+        return predicted;
+    }
+
+    /**
+     * @return the source estimate as of the last {@link #update(LoopClock)}, without prediction
+     */
+    public PoseEstimate getRawEstimate() {
+        return raw;
+    }
+
+    /**
+     * @return how far (seconds) {@link #getEstimate()} is projected past its
+     * {@code timestampSec}; 0 when it is the raw estimate
+     */
+    public double getHorizonSec() {
+        return predictedHorizonSec;
+    }
+
+    /**
+     * Projection horizon {@link #predict(double)} uses for {@code dtAheadSec}: time from the
+     * source measurement to the target time, clamped to [0, {@link Config#maxHorizonSec}].
+     *
+     * @param dtAheadSec seconds past the last update
+     * @return seconds past the estimate's {@code timestampSec}
+     */
+    public double horizonSec(double dtAheadSec) {
+        return MathUtil.clamp((nowSec - raw.timestampSec) + dtAheadSec, 0.0, cfg.maxHorizonSec);
+    }
+
+    /**
+     * Forward-project the last source estimate to {@code dtAheadSec} past the last
+     * {@link #update(LoopClock)}.
+     *
+     * <p>The projection horizon is {@link #horizonSec(double)}. The result keeps the source's
+     * {@code timestampSec} and {@code ageSec} (the measurement the prediction was made from).
+     * Before motion has been tracked (first sample, or right after a jump) the raw estimate is
+     * returned.</p>
+     *
+     * @param dtAheadSec seconds past the last update to project to
+     * @return predicted estimate (the raw estimate if no pose or no motion yet)
+     */
+    public PoseEstimate predict(double dtAheadSec) {
+        if (!raw.hasPose || !hasMotion) {
+            return raw;
+        }
+        double t = horizonSec(dtAheadSec);
+        double half = cfg.useAcceleration ? 0.5 * t * t : 0.0;
+
+        Pose3d p = raw.fieldToRobotPose;
+        Pose3d out = new Pose3d(
+                p.xInches + vx * t + ax * half,
+                p.yInches + vy * t + ay * half,
+                p.zInches,
+                MathUtil.wrapToPi(p.yawRad + omega * t + alpha * half),
+                p.pitchRad,
+                p.rollRad);
+        PoseCovariance cov = null;
+        if (predictedCov.setFrom(raw)) {
+            predictedCov.propagate(out.xInches - p.xInches, out.yInches - p.yInches,
+                    MathUtil.wrapToPi(out.yawRad - p.yawRad), 0.0, 0.0);
+            cov = predictedCov;
+        }
+        return new PoseEstimate(out, true, raw.quality, raw.ageSec, raw.timestampSec, cov);
+    }
+
+    /**
+     * @return tracked field-frame velocity along X (inches/sec)
+     */
+    public double getVelocityXInchesPerSec() {
+        return vx;
+    }
+
+    /**
+     * @return tracked field-frame velocity along Y (inches/sec)
+     */
+    public double getVelocityYInchesPerSec() {
+        return vy;
+    }
+
+    /**
+     * @return tracked heading rate (rad/sec)
+     */
+    public double getOmegaRadPerSec() {
+        return omega;
+    }
+
+    /**
+     * Forwards to the source when it supports resets, and restarts motion tracking.
+     *
+     * <p>Until the next {@link #update(LoopClock)}, {@link #getEstimate()} and
+     * {@link #getRawEstimate()} report the new pose unprojected (zero horizon). The source's
+     * estimate is used when it already reflects the reset (it carries the reset covariance);
+     * otherwise the pose is reported with the last estimate's quality and timing and no
+     * covariance.</p>
+     */
+    @Override
+    public void setPose(Pose2d pose) {
+        if (source instanceof PoseResetter) {
+            ((PoseResetter) source).setPose(pose);
+        }
+        resetMotion();
+        if (pose == null) {
+            return;
+        }
+
+        PoseEstimate est = source.getEstimate();
+        if (est == null || !est.hasPose || !matches(est.fieldToRobotPose, pose)) {
+            double quality = raw.hasPose ? raw.quality : 1.0;
+            est = new PoseEstimate(
+                    new Pose3d(pose.xInches, pose.yInches, 0.0, MathUtil.wrapToPi(pose.headingRad), 0.0, 0.0),
+                    true, quality, raw.ageSec, raw.hasPose ? raw.timestampSec : nowSec);
+        }
+        raw = est;
+        predicted = est;
+        predictedHorizonSec = 0.0;
+    }
+
+    private static boolean matches(Pose3d p, Pose2d pose) {
+        return Math.abs(p.xInches - pose.xInches) < 1e-6
+                && Math.abs(p.yInches - pose.yInches) < 1e-6
+                && Math.abs(MathUtil.wrapToPi(p.yawRad - pose.headingRad)) < 1e-9;
+    }
+
+    private void resetMotion() {
+        hasPrev = false;
+        hasMotion = false;
+        vx = vy = omega = 0.0;
+        ax = ay = alpha = 0.0;
+    }
+
+    private void trackMotion(PoseEstimate est) {
+        Pose3d p = est.fieldToRobotPose;
+        double ts = est.timestampSec;
+
+        if (hasPrev && ts <= prevTimestampSec) {
+            // No new sample from the source this loop; keep the current motion state.
+            return;
+        }
+        if (!hasPrev) {
+            remember(p, ts);
+            return;
+        }
+
+        double dt = ts - prevTimestampSec;
+        double dx = p.xInches - prevX;
+        double dy = p.yInches - prevY;
+        if (Math.hypot(dx, dy) > cfg.maxSpeedInchesPerSec * dt) {
+            // Discontinuity (reset or correction): start over from this sample.
+            resetMotion();
+            remember(p, ts);
+            return;
+        }
+
+        double nvx;
+        double nvy;
+        double nw;
+        if (velocitySource != null) {
+            nvx = velocitySource.getVelocityXInchesPerSec();
+            nvy = velocitySource.getVelocityYInchesPerSec();
+            nw = velocitySource.getOmegaRadPerSec();
+        } else {
+            double k = hasMotion ? MathUtil.clamp(cfg.velocitySmoothing, 0.0, 1.0) : 1.0;
+            nvx = vx + k * (dx / dt - vx);
+            nvy = vy + k * (dy / dt - vy);
+            nw = omega + k * (MathUtil.wrapToPi(p.yawRad - prevHeading) / dt - omega);
+        }
+
+        if (hasMotion) {
+            double k = MathUtil.clamp(cfg.accelSmoothing, 0.0, 1.0);
+            double aMax = cfg.maxAccelInchesPerSec2;
+            ax = MathUtil.clamp(ax + k * ((nvx - vx) / dt - ax), -aMax, aMax);
+            ay = MathUtil.clamp(ay + k * ((nvy - vy) / dt - ay), -aMax, aMax);
+            alpha = MathUtil.clamp(alpha + k * ((nw - omega) / dt - alpha),
+                    -cfg.maxAlphaRadPerSec2, cfg.maxAlphaRadPerSec2);
+        }
+        vx = nvx;
+        vy = nvy;
+        omega = nw;
+        hasMotion = true;
+        remember(p, ts);
+    }
+
+    private void remember(Pose3d p, double ts) {
+        hasPrev = true;
+        prevTimestampSec = ts;
+        prevX = p.xInches;
+        prevY = p.yInches;
+        prevHeading = p.yawRad;
+    }
+
+    @Override
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "predictive" : prefix;
+
+        PoseEstimator.super.debugDump(dbg, p);
+        dbg.addData(p + ".cfg.leadSec", cfg.leadSec)
+                .addData(p + ".hasMotion", hasMotion)
+                .addData(p + ".horizonSec", predictedHorizonSec)
+                .addData(p + ".vxInPerSec", vx)
+                .addData(p + ".vyInPerSec", vy)
+                .addData(p + ".omegaRadPerSec", omega)
+                .addData(p + ".axInPerSec2", ax)
+                .addData(p + ".ayInPerSec2", ay)
+                .addData(p + ".alphaRadPerSec2", alpha)
+                .addData(p + ".raw", raw);
+
+        source.debugDump(dbg, p + ".source");
+    }
+}
@@ -5,8 +5,10 @@ import edu.ftcphoenix.fw.core.geometry.Pose3d;
 import edu.ftcphoenix.fw.core.math.MathUtil;
 import edu.ftcphoenix.fw.core.time.LoopClock;
 import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.localization.PoseCovariance;
 import edu.ftcphoenix.fw.localization.PoseEstimate;
 import edu.ftcphoenix.fw.localization.PoseEstimator;
+import edu.ftcphoenix.fw.localization.PoseHistory;
 import edu.ftcphoenix.fw.localization.PoseResetter;
 
 /**
@@ -28,6 +30,19 @@ import edu.ftcphoenix.fw.localization.PoseResetter;
  * sources inside its own {@link #update(LoopClock)}. If your vision estimator depends on some other
  * sensor being updated first (e.g. a TagTarget that caches camera observations), that dependency
  * must still be updated before calling {@link #update(LoopClock)} on this class.</p>
+ *
+ * <p><b>Vision latency:</b> if the odometry source also implements {@link PoseHistory} (for example
+ * {@code PinpointPoseEstimator} with background polling), each vision pose is compared to the fused
+ * pose at the frame's capture time rather than the current pose, so corrections are not skewed by
+ * motion during camera latency.</p>
+ *
+ * <p><b>Covariance:</b> the fused estimate carries a planar covariance
+ * ({@link PoseEstimate#hasCovariance}). It is propagated with the odometry motion using
+ * {@link Config#odometryPositionVarPerInch} / {@link Config#odometryHeadingVarPerRad}, and every
+ * accepted vision blend shrinks it toward the vision measurement's own covariance (or
+ * {@link Config#visionPositionStdInches} / {@link Config#visionHeadingStdRad} divided by the vision
+ * quality). The fusion keeps its own covariance rather than the odometry's, because pushing the
+ * fused pose back into odometry resets the odometry's.</p>
  */
 public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResetter {
 
@@ -80,6 +95,37 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
          */
         public double visionConfidenceHoldSec = 0.75;
 
+        /**
+         * Position standard deviation (inches) after initializing or {@link #setPose(Pose2d)}.
+         */
+        public double initialPositionStdInches = 2.0;
+
+        /**
+         * Heading standard deviation (radians) after initializing or {@link #setPose(Pose2d)}.
+         */
+        public double initialHeadingStdRad = Math.toRadians(3.0);
+
+        /**
+         * Odometry process noise: X and Y variance added per inch travelled (in^2/in).
+         */
+        public double odometryPositionVarPerInch = 0.01;
+
+        /**
+         * Odometry process noise: heading variance added per radian turned (rad^2/rad).
+         */
+        public double odometryHeadingVarPerRad = 1.2e-5;
+
+        /**
+         * Vision position std (inches) at quality 1, used when the vision estimate carries no
+         * covariance of its own. Divided by the vision quality below 1.
+         */
+        public double visionPositionStdInches = 2.0;
+
+        /**
+         * Vision heading std (radians) at quality 1, used like {@link #visionPositionStdInches}.
+         */
+        public double visionHeadingStdRad = Math.toRadians(3.0);
+
         private Config() {
             // Defaults assigned in field initializers.
         }
@@ -105,6 +151,12 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
             c.enableInitializeFromVision = this.enableInitializeFromVision;
             c.enablePushFusedPoseToOdometry = this.enablePushFusedPoseToOdometry;
             c.visionConfidenceHoldSec = this.visionConfidenceHoldSec;
+            c.initialPositionStdInches = this.initialPositionStdInches;
+            c.initialHeadingStdRad = this.initialHeadingStdRad;
+            c.odometryPositionVarPerInch = this.odometryPositionVarPerInch;
+            c.odometryHeadingVarPerRad = this.odometryHeadingVarPerRad;
+            c.visionPositionStdInches = this.visionPositionStdInches;
+            c.visionHeadingStdRad = this.visionHeadingStdRad;
             return c;
         }
     }
@@ -121,6 +173,9 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
 
     private PoseEstimate lastEstimate = PoseEstimate.noPose(0.0);
 
+    // Fused planar covariance, updated in place.
+    private final PoseCovariance covariance = new PoseCovariance();
+
     // Debug/telemetry helpers.
     private double lastVisionAcceptedSec = Double.NaN;
     private Pose3d lastVisionPose = Pose3d.zero();
@@ -192,6 +247,9 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
             if (visionEnabled && cfg.enableInitializeFromVision && isVisionAcceptable(visEst, nowSec)) {
                 fusedPose = planarize(visEst.fieldToRobotPose);
                 initialized = true;
+                if (!covariance.setFrom(visEst)) {
+                    covariance.reset(cfg.initialPositionStdInches, cfg.initialHeadingStdRad);
+                }
 
                 // Align odometry if possible.
                 if (cfg.enablePushFusedPoseToOdometry && odometry instanceof PoseResetter) {
@@ -212,6 +270,7 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
                 fusedPose = planarize(odomEst.fieldToRobotPose);
                 initialized = true;
                 lastOdomPose = fusedPose;
+                covariance.reset(cfg.initialPositionStdInches, cfg.initialHeadingStdRad);
             } else {
                 // No pose from either source yet.
                 lastEstimate = PoseEstimate.noPose(nowSec);
@@ -222,8 +281,16 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
             if (odomEst != null && odomEst.hasPose) {
                 Pose3d currOdomPose = planarize(odomEst.fieldToRobotPose);
                 Pose3d delta = lastOdomPose.inverse().then(currOdomPose);
+                Pose3d prevFused = fusedPose;
                 fusedPose = planarize(fusedPose.then(delta));
                 lastOdomPose = currOdomPose;
+
+                covariance.propagate(
+                        fusedPose.xInches - prevFused.xInches,
+                        fusedPose.yInches - prevFused.yInches,
+                        MathUtil.wrapToPi(fusedPose.yawRad - prevFused.yawRad),
+                        cfg.odometryPositionVarPerInch,
+                        cfg.odometryHeadingVarPerRad);
             }
         }
 
@@ -231,11 +298,14 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
         if (visionEnabled && isVisionAcceptable(visEst, nowSec)) {
             Pose3d visionPose = planarize(visEst.fieldToRobotPose);
 
-            double dx = visionPose.xInches - fusedPose.xInches;
-            double dy = visionPose.yInches - fusedPose.yInches;
+            // Compare against where we thought the robot was when the frame was captured.
+            Pose3d fusedAtCapture = fusedPoseAt(visEst.timestampSec, odomEst);
+
+            double dx = visionPose.xInches - fusedAtCapture.xInches;
+            double dy = visionPose.yInches - fusedAtCapture.yInches;
             double dPos = Math.hypot(dx, dy);
 
-            double dHeading = MathUtil.wrapToPi(visionPose.yawRad - fusedPose.yawRad);
+            double dHeading = MathUtil.wrapToPi(visionPose.yawRad - fusedAtCapture.yawRad);
 
             boolean jumpOk = dPos <= cfg.maxVisionPositionJumpIn
                     && Math.abs(dHeading) <= cfg.maxVisionHeadingJumpRad;
@@ -252,6 +322,7 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
                         MathUtil.wrapToPi(fusedPose.yawRad + dHeading * headingGain),
                         0.0,
                         0.0);
+                correctCovariance(visEst, q, posGain, headingGain);
 
                 // Keep the odometry aligned if possible.
                 if (cfg.enablePushFusedPoseToOdometry && odometry instanceof PoseResetter) {
@@ -279,7 +350,7 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
             }
         }
 
-        lastEstimate = new PoseEstimate(fusedPose, true, quality, 0.0, nowSec);
+        lastEstimate = new PoseEstimate(fusedPose, true, quality, 0.0, nowSec, covariance);
     }
 
     @Override
@@ -295,6 +366,7 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
 
         fusedPose = new Pose3d(pose.xInches, pose.yInches, 0.0, MathUtil.wrapToPi(pose.headingRad), 0.0, 0.0);
         initialized = true;
+        covariance.reset(cfg.initialPositionStdInches, cfg.initialHeadingStdRad);
 
         // Baseline odometry delta from its current pose.
         PoseEstimate odomEst = odometry.getEstimate();
@@ -332,6 +404,46 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
         return !(Double.isNaN(p.xInches) || Double.isNaN(p.yInches) || Double.isNaN(p.yawRad));
     }
 
+    /**
+     * Shrink the fused covariance for a vision blend with the given gains.
+     */
+    private void correctCovariance(PoseEstimate visEst, double quality, double posGain, double headingGain) {
+        double posVar;
+        double headingVar;
+        if (visEst.hasCovariance) {
+            posVar = 0.5 * (visEst.covXX + visEst.covYY);
+            headingVar = visEst.covHH;
+        } else {
+            double q = Math.max(quality, 1e-3);
+            double posStd = cfg.visionPositionStdInches / q;
+            double headingStd = cfg.visionHeadingStdRad / q;
+            posVar = posStd * posStd;
+            headingVar = headingStd * headingStd;
+        }
+        covariance.correct(posGain, headingGain, posVar, headingVar);
+    }
+
+    /**
+     * Fused pose at a past time, using odometry history when available.
+     *
+     * <p>If the odometry source is a {@link PoseHistory}, the odometry motion since
+     * {@code timestampSec} is undone from the current fused pose. Otherwise (or when the history
+     * does not reach back that far) the current fused pose is returned unchanged.</p>
+     */
+    private Pose3d fusedPoseAt(double timestampSec, PoseEstimate odomNow) {
+        if (!(odometry instanceof PoseHistory) || odomNow == null || !odomNow.hasPose
+                || !(timestampSec < odomNow.timestampSec)) {
+            return fusedPose;
+        }
+        PoseEstimate odomThen = ((PoseHistory) odometry).getEstimateAt(timestampSec);
+        if (odomThen == null || !odomThen.hasPose) {
+            return fusedPose;
+        }
+        Pose3d sinceThen = planarize(odomThen.fieldToRobotPose).inverse()
+                .then(planarize(odomNow.fieldToRobotPose));
+        return planarize(fusedPose.then(sinceThen.inverse()));
+    }
+
     private static Pose3d planarize(Pose3d pose) {
         if (pose == null) {
             return Pose3d.zero();
@@ -371,6 +483,8 @@ public class OdometryTagFusionPoseEstimator implements PoseEstimator, PoseResett
                 .addData(p + ".cfg.enablePushFusedPoseToOdometry", cfg.enablePushFusedPoseToOdometry)
                 .addData(p + ".cfg.visionConfidenceHoldSec", cfg.visionConfidenceHoldSec)
                 .addData(p + ".fusedPose", fusedPose)
+                .addData(p + ".posStdIn", covariance.positionStdInches())
+                .addData(p + ".headingStdRad", covariance.headingStdRad())
                 .addData(p + ".lastOdomPose", lastOdomPose)
                 .addData(p + ".lastVisionPose", lastVisionPose)
                 .addData(p + ".lastEstimate", lastEstimate);
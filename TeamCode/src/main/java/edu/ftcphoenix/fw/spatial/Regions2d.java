@@ -78,4 +78,95 @@ public final class Regions2d {
     public static Region2d clamped(Region2d region, double min, double max) {
         return (x, y) -> MathUtil.clamp(region.signedDistanceInches(x, y), min, max);
     }
+
+    /**
+     * Simple polygon region (convex or not), vertices in order (either winding).
+     *
+     * <p>Distance is to the nearest edge; the sign comes from an even-odd inside test.</p>
+     *
+     * @param xyInches vertex coordinates as {@code x0, y0, x1, y1, ...} (at least 3 vertices)
+     */
+    public static Region2d polygon(double... xyInches) {
+        if (xyInches == null || xyInches.length < 6 || (xyInches.length % 2) != 0) {
+            throw new IllegalArgumentException("polygon needs at least 3 (x, y) vertex pairs");
+        }
+        final double[] v = xyInches.clone();
+        final int n = v.length / 2;
+        return (x, y) -> {
+            double best = Double.POSITIVE_INFINITY;
+            boolean inside = false;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double xi = v[2 * i], yi = v[2 * i + 1];
+                double xj = v[2 * j], yj = v[2 * j + 1];
+
+                // Distance to segment (j -> i).
+                double ex = xi - xj, ey = yi - yj;
+                double len2 = ex * ex + ey * ey;
+                double t = (len2 > 0.0) ? MathUtil.clamp(((x - xj) * ex + (y - yj) * ey) / len2, 0.0, 1.0) : 0.0;
+                double d = Math.hypot(x - (xj + t * ex), y - (yj + t * ey));
+                if (d < best) {
+                    best = d;
+                }
+
+                // Even-odd crossing test.
+                if ((yi > y) != (yj > y) && x < xj + (y - yj) * ex / ey) {
+                    inside = !inside;
+                }
+            }
+            return inside ? best : -best;
+        };
+    }
+
+    /**
+     * Union of regions: inside if inside any of them.
+     *
+     * <p>Uses the maximum of the signed distances, which is exact outside all regions and a
+     * close approximation inside overlaps.</p>
+     */
+    public static Region2d union(Region2d... regions) {
+        final Region2d[] rs = requireRegions(regions);
+        return (x, y) -> {
+            double s = Double.NEGATIVE_INFINITY;
+            for (Region2d r : rs) {
+                s = Math.max(s, r.signedDistanceInches(x, y));
+            }
+            return s;
+        };
+    }
+
+    /**
+     * Intersection of regions: inside only if inside all of them (minimum signed distance).
+     */
+    public static Region2d intersection(Region2d... regions) {
+        final Region2d[] rs = requireRegions(regions);
+        return (x, y) -> {
+            double s = Double.POSITIVE_INFINITY;
+            for (Region2d r : rs) {
+                s = Math.min(s, r.signedDistanceInches(x, y));
+            }
+            return s;
+        };
+    }
+
+    /**
+     * {@code region} with {@code cut} removed.
+     */
+    public static Region2d subtract(Region2d region, Region2d cut) {
+        if (region == null || cut == null) {
+            throw new IllegalArgumentException("region and cut are required");
+        }
+        return (x, y) -> Math.min(region.signedDistanceInches(x, y), -cut.signedDistanceInches(x, y));
+    }
+
+    private static Region2d[] requireRegions(Region2d[] regions) {
+        if (regions == null || regions.length == 0) {
+            throw new IllegalArgumentException("at least one region is required");
+        }
+        for (Region2d r : regions) {
+            if (r == null) {
+                throw new IllegalArgumentException("regions must not be null");
+            }
+        }
+        return regions.clone();
+    }
 }
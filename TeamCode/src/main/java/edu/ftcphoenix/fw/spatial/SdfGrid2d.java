@@ -0,0 +1,427 @@
+package edu.ftcphoenix.fw.spatial;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import edu.ftcphoenix.fw.core.geometry.Pose2d;
+
+/**
+ * A {@link Region2d} backed by a precomputed signed-distance grid.
+ *
+ * <p>Analytic regions are cheap one at a time, but a loop that checks several launch zones,
+ * keep-out areas and assist shapes pays for every one of them on every query. An
+ * {@code SdfGrid2d} samples the signed distance of one or more regions once (at init, or loaded
+ * from a cache file) and answers every later query with a bilinear lookup, no matter how many
+ * regions went into it.</p>
+ *
+ * <p>Because it is a {@link Region2d}, a grid drops into anything that takes a region, such as
+ * {@link ZoneLatch}. On top of that it offers the boundary direction ({@link #gradient}) and a
+ * push-out vector ({@link #escapeVector}) for assists and planners.</p>
+ *
+ * <pre>{@code
+ * // init(): bake all keep-out areas into one grid covering the field.
+ * SdfGrid2d keepOut = SdfGrid2d.builder(-72, 72, -72, 72, 1.0)
+ *         .add(Regions2d.rectangleAabb(-12, 12, -12, 12))        // center structure
+ *         .add(Regions2d.polygon(72, 48, 72, 72, 48, 72))         // corner
+ *         .build();
+ *
+ * // loop(): one lookup no matter how many regions were added.
+ * if (keepOut.signedDistanceInches(pose) > -6.0) { ... too close ... }
+ * }</pre>
+ *
+ * <h2>Accuracy</h2>
+ * <ul>
+ *   <li>Values are exact at grid nodes and bilinear between them; with a 1" cell the error is
+ *       well under an inch except right at sharp corners.</li>
+ *   <li>Points outside the grid bounds are clamped onto the bounds and treated as farther
+ *       outside by the clamp distance.</li>
+ *   <li>Distances are stored as {@code float}; a 145 x 145 field grid is about 84 KB.</li>
+ * </ul>
+ *
+ * <p>Grids are immutable and safe to share between threads.</p>
+ */
+public final class SdfGrid2d implements Region2d {
+
+    private static final int MAGIC = 0x53444632; // "SDF2"
+    private static final int FORMAT_VERSION = 1;
+
+    private final double minX;
+    private final double minY;
+    private final double cell;
+    private final int nx;
+    private final int ny;
+    private final float[] values; // row-major: values[j * nx + i] at (minX + i*cell, minY + j*cell)
+
+    private SdfGrid2d(double minX, double minY, double cell, int nx, int ny, float[] values) {
+        this.minX = minX;
+        this.minY = minY;
+        this.cell = cell;
+        this.nx = nx;
+        this.ny = ny;
+        this.values = values;
+    }
+
+    /**
+     * Rasterize a single region.
+     *
+     * @param region     region to sample
+     * @param minXInches grid minimum X
+     * @param maxXInches grid maximum X
+     * @param minYInches grid minimum Y
+     * @param maxYInches grid maximum Y
+     * @param cellInches grid spacing (&gt; 0)
+     */
+    public static SdfGrid2d rasterize(Region2d region,
+                                      double minXInches, double maxXInches,
+                                      double minYInches, double maxYInches,
+                                      double cellInches) {
+        return builder(minXInches, maxXInches, minYInches, maxYInches, cellInches).add(region).build();
+    }
+
+    /**
+     * Start a grid covering the given bounds. Regions added to the builder are combined as a
+     * union ({@link Regions2d#union}).
+     *
+     * @param minXInches grid minimum X
+     * @param maxXInches grid maximum X
+     * @param minYInches grid minimum Y
+     * @param maxYInches grid maximum Y
+     * @param cellInches grid spacing (&gt; 0)
+     */
+    public static Builder builder(double minXInches, double maxXInches,
+                                  double minYInches, double maxYInches,
+                                  double cellInches) {
+        return new Builder(minXInches, maxXInches, minYInches, maxYInches, cellInches);
+    }
+
+    /**
+     * Builder that collects regions and rasterizes their union.
+     */
+    public static final class Builder {
+        private final double minX;
+        private final double minY;
+        private final double cell;
+        private final int nx;
+        private final int ny;
+        private final List<Region2d> regions = new ArrayList<>();
+
+        private Builder(double minX, double maxX, double minY, double maxY, double cell) {
+            if (!(cell > 0.0)) {
+                throw new IllegalArgumentException("cellInches must be > 0, got " + cell);
+            }
+            if (!(maxX > minX) || !(maxY > minY)) {
+                throw new IllegalArgumentException("grid bounds must have max > min");
+            }
+            this.minX = minX;
+            this.minY = minY;
+            this.cell = cell;
+            this.nx = (int) Math.ceil((maxX - minX) / cell) + 1;
+            this.ny = (int) Math.ceil((maxY - minY) / cell) + 1;
+        }
+
+        /**
+         * Register a region. Its inside becomes inside the grid.
+         */
+        public Builder add(Region2d region) {
+            if (region == null) {
+                throw new IllegalArgumentException("region is required");
+            }
+            regions.add(region);
+            return this;
+        }
+
+        /**
+         * Sample every registered region at each grid node.
+         *
+         * @throws IllegalStateException if no region was added
+         */
+        public SdfGrid2d build() {
+            if (regions.isEmpty()) {
+                throw new IllegalStateException("SdfGrid2d needs at least one region");
+            }
+            Region2d r = (regions.size() == 1)
+                    ? regions.get(0)
+                    : Regions2d.union(regions.toArray(new Region2d[0]));
+
+            float[] v = new float[nx * ny];
+            for (int j = 0; j < ny; j++) {
+                double y = minY + j * cell;
+                for (int i = 0; i < nx; i++) {
+                    v[j * nx + i] = (float) r.signedDistanceInches(minX + i * cell, y);
+                }
+            }
+            return new SdfGrid2d(minX, minY, cell, nx, ny, v);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------------------
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Bilinear lookup; constant time.</p>
+     */
+    @Override
+    public double signedDistanceInches(double xInches, double yInches) {
+        double cx = clampX(xInches);
+        double cy = clampY(yInches);
+        double outside = Math.hypot(xInches - cx, yInches - cy);
+
+        double gx = (cx - minX) / cell;
+        double gy = (cy - minY) / cell;
+        int i = Math.min((int) gx, nx - 2);
+        int j = Math.min((int) gy, ny - 2);
+        double fx = gx - i;
+        double fy = gy - j;
+
+        int k = j * nx + i;
+        double v00 = values[k];
+        double v10 = values[k + 1];
+        double v01 = values[k + nx];
+        double v11 = values[k + nx + 1];
+
+        double v = (v00 * (1.0 - fx) + v10 * fx) * (1.0 - fy)
+                + (v01 * (1.0 - fx) + v11 * fx) * fy;
+        return v - outside;
+    }
+
+    /**
+     * Direction of increasing signed distance (toward the inside) at a point, as a unit vector.
+     *
+     * @param xInches X coordinate
+     * @param yInches Y coordinate
+     * @param out     receives {@code {dx, dy}}; {@code {0, 0}} on a flat spot
+     * @return {@code out}
+     */
+    public double[] gradient(double xInches, double yInches, double[] out) {
+        double cx = clampX(xInches);
+        double cy = clampY(yInches);
+
+        double gx = (cx - minX) / cell;
+        double gy = (cy - minY) / cell;
+        int i = Math.min((int) gx, nx - 2);
+        int j = Math.min((int) gy, ny - 2);
+        double fx = gx - i;
+        double fy = gy - j;
+
+        int k = j * nx + i;
+        double v00 = values[k];
+        double v10 = values[k + 1];
+        double v01 = values[k + nx];
+        double v11 = values[k + nx + 1];
+
+        double dx = (v10 - v00) * (1.0 - fy) + (v11 - v01) * fy;
+        double dy = (v01 - v00) * (1.0 - fx) + (v11 - v10) * fx;
+
+        // Outside the grid, distance also shrinks moving back toward the bounds.
+        double ox = cx - xInches;
+        double oy = cy - yInches;
+        double o = Math.hypot(ox, oy);
+        if (o > 0.0) {
+            double g = Math.hypot(dx, dy);
+            dx = dx / Math.max(g, 1e-9) + ox / o;
+            dy = dy / Math.max(g, 1e-9) + oy / o;
+        }
+
+        double mag = Math.hypot(dx, dy);
+        if (mag < 1e-9) {
+            out[0] = 0.0;
+            out[1] = 0.0;
+        } else {
+            out[0] = dx / mag;
+            out[1] = dy / mag;
+        }
+        return out;
+    }
+
+    /**
+     * Displacement that would move a point to at least {@code marginInches} outside the region.
+     *
+     * <p>Useful for keep-out assists: add the vector (or a fraction of it) to a drive command.
+     * Returns {@code {0, 0}} when the point is already far enough outside.</p>
+     *
+     * @param xInches      X coordinate
+     * @param yInches      Y coordinate
+     * @param marginInches required clearance outside the boundary (&gt;= 0)
+     * @param out          receives {@code {dx, dy}} in inches
+     * @return {@code out}
+     */
+    public double[] escapeVector(double xInches, double yInches, double marginInches, double[] out) {
+        double s = signedDistanceInches(xInches, yInches);
+        double need = s + Math.max(0.0, marginInches);
+        if (need <= 0.0) {
+            out[0] = 0.0;
+            out[1] = 0.0;
+            return out;
+        }
+        gradient(xInches, yInches, out);
+        out[0] *= -need;
+        out[1] *= -need;
+        return out;
+    }
+
+    /**
+     * Convenience overload of {@link #escapeVector(double, double, double, double[])} for a pose.
+     */
+    public double[] escapeVector(Pose2d pose, double marginInches, double[] out) {
+        return escapeVector(pose.xInches, pose.yInches, marginInches, out);
+    }
+
+    /**
+     * Nearest point on the region boundary, estimated by stepping along the gradient.
+     *
+     * @param xInches X coordinate
+     * @param yInches Y coordinate
+     * @param out     receives {@code {x, y}}
+     * @return {@code out}
+     */
+    public double[] closestBoundaryPoint(double xInches, double yInches, double[] out) {
+        double s = signedDistanceInches(xInches, yInches);
+        gradient(xInches, yInches, out);
+        double bx = xInches - out[0] * s;
+        double by = yInches - out[1] * s;
+        out[0] = bx;
+        out[1] = by;
+        return out;
+    }
+
+    /**
+     * @return grid spacing in inches
+     */
+    public double cellInches() {
+        return cell;
+    }
+
+    /**
+     * @return number of grid nodes along X
+     */
+    public int nodesX() {
+        return nx;
+    }
+
+    /**
+     * @return number of grid nodes along Y
+     */
+    public int nodesY() {
+        return ny;
+    }
+
+    // ------------------------------------------------------------------------
+    // Cache file
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write this grid in a compact binary format.
+     *
+     * @param out     destination (not closed)
+     * @param version caller-defined tag identifying the regions this grid was built from
+     */
+    public void writeTo(OutputStream out, String version) throws IOException {
+        DataOutputStream d = new DataOutputStream(out);
+        d.writeInt(MAGIC);
+        d.writeInt(FORMAT_VERSION);
+        d.writeUTF(version == null ? "" : version);
+        d.writeDouble(minX);
+        d.writeDouble(minY);
+        d.writeDouble(cell);
+        d.writeInt(nx);
+        d.writeInt(ny);
+        for (float v : values) {
+            d.writeFloat(v);
+        }
+        d.flush();
+    }
+
+    /**
+     * Read a grid written by {@link #writeTo(OutputStream, String)}.
+     *
+     * @param in      source (not closed)
+     * @param version expected version tag
+     * @return the grid, or {@code null} if the stream holds a different version tag
+     * @throws IOException if the stream is not a grid file or is truncated
+     */
+    public static SdfGrid2d readFrom(InputStream in, String version) throws IOException {
+        DataInputStream d = new DataInputStream(in);
+        if (d.readInt() != MAGIC || d.readInt() != FORMAT_VERSION) {
+            throw new IOException("not an SdfGrid2d file");
+        }
+        String tag = d.readUTF();
+        if (!tag.equals(version == null ? "" : version)) {
+            return null;
+        }
+        double minX = d.readDouble();
+        double minY = d.readDouble();
+        double cell = d.readDouble();
+        int nx = d.readInt();
+        int ny = d.readInt();
+        if (!(cell > 0.0) || nx < 2 || ny < 2 || (long) nx * ny > 4_000_000L) {
+            throw new IOException("corrupt SdfGrid2d header");
+        }
+        float[] values = new float[nx * ny];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = d.readFloat();
+        }
+        return new SdfGrid2d(minX, minY, cell, nx, ny, values);
+    }
+
+    /**
+     * Load a grid from {@code file} if it was cached with the same {@code version}; otherwise
+     * build it and try to save it for next time.
+     *
+     * <p>Bump {@code version} whenever the regions or bounds change. Cache read/write failures
+     * are not fatal; the grid is simply rebuilt.</p>
+     *
+     * @param file    cache file location
+     * @param version tag identifying the regions and bounds
+     * @param build   builds the grid on a cache miss
+     */
+    public static SdfGrid2d loadOrBuild(File file, String version, Supplier<SdfGrid2d> build) {
+        if (file != null && file.isFile()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                SdfGrid2d g = readFrom(in, version);
+                if (g != null) {
+                    return g;
+                }
+            } catch (IOException ignored) {
+                // Fall through and rebuild.
+            }
+        }
+
+        SdfGrid2d g = build.get();
+        if (file != null) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                g.writeTo(out, version);
+            } catch (IOException ignored) {
+                // Cache is an optimization only.
+            }
+        }
+        return g;
+    }
+
+    // ------------------------------------------------------------------------
+    // Internals
+    // ------------------------------------------------------------------------
+
+    private double clampX(double x) {
+        double max = minX + (nx - 1) * cell;
+        return x < minX ? minX : (x > max ? max : x);
+    }
+
+    private double clampY(double y) {
+        double max = minY + (ny - 1) * cell;
+        return y < minY ? minY : (y > max ? max : y);
+    }
+}
@@ -8,6 +8,9 @@ import edu.ftcphoenix.fw.core.geometry.Pose2d;
  *
  * <p>This is a <b>spatial predicate</b>. It does not create motion commands. It simply
  * turns a geometric test into a stable boolean suitable for safety gating.</p>
+ *
+ * <p>When many latches run every loop, or the region is expensive (unions, polygons), pass an
+ * {@link SdfGrid2d} built at init as the region; each update is then a single grid lookup.</p>
  */
 public final class ZoneLatch {
 
@@ -16,7 +16,8 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  *
  * <p>Semantics:</p>
  * <ul>
- *   <li>The provided {@link Runnable} is guaranteed to run at most once.</li>
+ *   <li>The provided {@link Runnable} is guaranteed to run at most once per run
+ *       (see {@link #reset()}).</li>
  *   <li>If {@link #start(LoopClock)} is called multiple times (e.g. due to user
  *       error), the action will only run on the first call.</li>
  *   <li>{@link #update(LoopClock)} does nothing; the task is considered complete
@@ -25,7 +26,7 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  *       has not yet run, and {@link TaskOutcome#SUCCESS} once the action has run.</li>
  * </ul>
  */
-public final class InstantTask implements Task {
+public final class InstantTask implements ResettableTask {
 
     private final Runnable action;
     private boolean finished = false;
@@ -51,6 +52,12 @@ public final class InstantTask implements Task {
         finished = true;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void reset() {
+        finished = false;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void update(LoopClock clock) {
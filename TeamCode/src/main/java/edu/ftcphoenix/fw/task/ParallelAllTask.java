@@ -22,8 +22,10 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  * if you wish to stop a running parallel group early, you should implement
  * that logic in your own code (for example, by not calling
  * {@link #update(LoopClock)} any longer).</p>
+ *
+ * <p>A parallel group is resettable when all of its children are; see {@link ResettableTask}.</p>
  */
-public final class ParallelAllTask implements Task {
+public final class ParallelAllTask implements ResettableTask, TaskTemplate.Composite {
 
     private final List<Task> tasks = new ArrayList<>();
 
@@ -72,7 +74,7 @@ public final class ParallelAllTask implements Task {
     @Override
     public void start(LoopClock clock) {
         if (started) {
-            return; // single-use; ignore repeated start calls
+            return; // ignore repeated start calls until reset()
         }
         started = true;
 
@@ -88,6 +90,30 @@ public final class ParallelAllTask implements Task {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if a child is not a {@link ResettableTask}
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < tasks.size(); i++) {
+            ResettableTask.resetChild(tasks.get(i));
+        }
+        started = false;
+        finished = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void releaseChildren() {
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskTemplate.release(tasks.get(i));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
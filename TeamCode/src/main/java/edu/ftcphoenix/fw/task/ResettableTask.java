@@ -0,0 +1,39 @@
+package edu.ftcphoenix.fw.task;
+
+/**
+ * A {@link Task} that can be returned to its never-started state and run again.
+ *
+ * <p>Most tasks are single-use: once complete, a second {@link #start} does nothing. A resettable
+ * task can instead be built once (for example at init) and re-run on every button press, which
+ * avoids rebuilding the whole task graph each time. {@link TaskTemplate} uses this to pool task
+ * graphs for {@link TaskBindings}.</p>
+ *
+ * <p>Composite tasks ({@link SequenceTask}, {@link ParallelAllTask}, ...) reset their children and
+ * are therefore only resettable if every child is.</p>
+ */
+public interface ResettableTask extends Task {
+
+    /**
+     * Return this task (and any children) to the state it had before its first
+     * {@link #start}.
+     *
+     * <p>Do not call this while the task is still being updated by a runner; callers are expected
+     * to reset only completed or dropped tasks.</p>
+     *
+     * @throws IllegalStateException if a child task is not resettable
+     */
+    void reset();
+
+    /**
+     * Reset {@code task} if it is resettable.
+     *
+     * @throws IllegalStateException if {@code task} is not a {@link ResettableTask}
+     */
+    static void resetChild(Task task) {
+        if (!(task instanceof ResettableTask)) {
+            throw new IllegalStateException(
+                    "task " + task.getDebugName() + " is not a ResettableTask and cannot be re-run");
+        }
+        ((ResettableTask) task).reset();
+    }
+}
@@ -50,7 +50,7 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  * runner.enqueue(intakePulse);
  * }</pre>
  */
-public final class RunForSecondsTask implements Task {
+public final class RunForSecondsTask implements ResettableTask {
 
     private final double durationSec;
     private final Runnable onStart;
@@ -111,6 +111,16 @@ public final class RunForSecondsTask implements Task {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        started = false;
+        finished = false;
+        remainingSec = 0.0;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -30,8 +30,10 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  *     new InstantTask(() -> log("done"))
  * ));
  * }</pre>
+ *
+ * <p>A sequence is resettable when all of its children are; see {@link ResettableTask}.</p>
  */
-public final class SequenceTask implements Task {
+public final class SequenceTask implements ResettableTask, TaskTemplate.Composite {
 
     private final List<Task> tasks = new ArrayList<Task>();
 
@@ -117,6 +119,30 @@ public final class SequenceTask implements Task {
         advanceToNextTask(clock);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if a child is not a {@link ResettableTask}
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < tasks.size(); i++) {
+            ResettableTask.resetChild(tasks.get(i));
+        }
+        started = false;
+        index = -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void releaseChildren() {
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskTemplate.release(tasks.get(i));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
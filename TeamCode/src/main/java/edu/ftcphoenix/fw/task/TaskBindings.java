@@ -7,7 +7,8 @@ import edu.ftcphoenix.fw.input.Button;
 import edu.ftcphoenix.fw.input.binding.Bindings;
 
 /**
- * Convenience wrapper that binds {@link Button} events to {@link TaskRunner} enqueues.
+ * Convenience wrapper that binds {@link Button} events to {@link TaskRunner} enqueues
+ * (or {@link TaskScheduler} schedules).
  *
  * <p>This is a thin adapter around {@link Bindings} + {@link TaskRunner}. It exists
  * purely to make robot code more readable when most bindings just "enqueue a task".</p>
@@ -26,24 +27,55 @@ import edu.ftcphoenix.fw.input.binding.Bindings;
  *         shooter::instantStopTransfer);
  * }</pre>
  *
+ * <h2>With a TaskScheduler</h2>
+ *
+ * <p>Created with {@link #of(Bindings, TaskScheduler)}, bindings route into the scheduler so
+ * macros on different mechanisms run concurrently. Use the overloads that take a
+ * {@link TaskScheduler.Policy} and {@link TaskResource}s to declare what each binding needs:</p>
+ *
+ * <pre>{@code
+ * TaskBindings tb = TaskBindings.of(bindings, scheduler);
+ * tb.onPress(gamepads.p2().x(), shooter::shootMacro, TaskScheduler.Policy.SKIP_IF_BUSY, SHOOTER);
+ * tb.onPress(gamepads.p1().a(), drive::goToScoringPose, TaskScheduler.Policy.PREEMPT, DRIVE);
+ * }</pre>
+ *
+ * <p>Bindings without resources never conflict and start on the next scheduler update.</p>
+ *
  * <p><b>Important:</b> Tasks are generally single-use. For that reason, this API
- * takes {@link Supplier} factories so each button event can create a fresh {@link Task}.</p>
+ * takes {@link Supplier} factories so each button event can create a fresh {@link Task}.
+ * For macros that are pressed often, pass a {@link TaskTemplate} instead: it is a
+ * {@code Supplier<Task>} that builds the graph once and hands out reset, pooled instances,
+ * so presses do not allocate.</p>
+ *
+ * <pre>{@code
+ * TaskTemplate shootOne = TaskTemplate.of(shooter::buildShootOneMacro);
+ * tb.onPress(gamepads.p2().x(), shootOne);
+ * }</pre>
  */
 public final class TaskBindings {
 
     private final Bindings bindings;
-    private final TaskRunner runner;
+    private final TaskRunner runner;        // exactly one of runner / scheduler is non-null
+    private final TaskScheduler scheduler;
 
-    private TaskBindings(Bindings bindings, TaskRunner runner) {
+    private TaskBindings(Bindings bindings, TaskRunner runner, TaskScheduler scheduler) {
         this.bindings = Objects.requireNonNull(bindings, "bindings is required");
-        this.runner = Objects.requireNonNull(runner, "runner is required");
+        this.runner = runner;
+        this.scheduler = scheduler;
     }
 
     /**
      * Create a {@link TaskBindings} wrapper.
      */
     public static TaskBindings of(Bindings bindings, TaskRunner runner) {
-        return new TaskBindings(bindings, runner);
+        return new TaskBindings(bindings, Objects.requireNonNull(runner, "runner is required"), null);
+    }
+
+    /**
+     * Create a {@link TaskBindings} wrapper that schedules onto a {@link TaskScheduler}.
+     */
+    public static TaskBindings of(Bindings bindings, TaskScheduler scheduler) {
+        return new TaskBindings(bindings, null, Objects.requireNonNull(scheduler, "scheduler is required"));
     }
 
     /**
@@ -52,7 +84,7 @@ public final class TaskBindings {
     public void onPress(Button button, Supplier<Task> taskFactory) {
         Objects.requireNonNull(button, "button is required");
         Objects.requireNonNull(taskFactory, "taskFactory is required");
-        bindings.onPress(button, () -> runner.enqueue(taskFactory.get()));
+        bindings.onPress(button, () -> submit(taskFactory.get()));
     }
 
     /**
@@ -61,7 +93,7 @@ public final class TaskBindings {
     public void onRelease(Button button, Supplier<Task> taskFactory) {
         Objects.requireNonNull(button, "button is required");
         Objects.requireNonNull(taskFactory, "taskFactory is required");
-        bindings.onRelease(button, () -> runner.enqueue(taskFactory.get()));
+        bindings.onRelease(button, () -> submit(taskFactory.get()));
     }
 
     /**
@@ -74,8 +106,8 @@ public final class TaskBindings {
         Objects.requireNonNull(onRelease, "onRelease is required");
         bindings.onPressAndRelease(
                 button,
-                () -> runner.enqueue(onPress.get()),
-                () -> runner.enqueue(onRelease.get())
+                () -> submit(onPress.get()),
+                () -> submit(onRelease.get())
         );
     }
 
@@ -89,7 +121,7 @@ public final class TaskBindings {
     public void whileHeld(Button button, Supplier<Task> taskFactory) {
         Objects.requireNonNull(button, "button is required");
         Objects.requireNonNull(taskFactory, "taskFactory is required");
-        bindings.whileHeld(button, () -> runner.enqueue(taskFactory.get()));
+        bindings.whileHeld(button, () -> submit(taskFactory.get()));
     }
 
     /**
@@ -101,6 +133,66 @@ public final class TaskBindings {
         Objects.requireNonNull(onEnable, "onEnable is required");
         Objects.requireNonNull(onDisable, "onDisable is required");
 
-        bindings.onToggle(button, isOn -> runner.enqueue(isOn ? onEnable.get() : onDisable.get()));
+        bindings.onToggle(button, isOn -> submit(isOn ? onEnable.get() : onDisable.get()));
+    }
+
+    /**
+     * Schedule a task on the rising edge of the button, requiring {@code resources}.
+     *
+     * <p>Requires a {@link TaskScheduler} ({@link #of(Bindings, TaskScheduler)}).</p>
+     */
+    public void onPress(Button button, Supplier<Task> taskFactory,
+                        TaskScheduler.Policy policy, TaskResource... resources) {
+        Objects.requireNonNull(button, "button is required");
+        Objects.requireNonNull(taskFactory, "taskFactory is required");
+        final TaskScheduler.Policy pol = Objects.requireNonNull(policy, "policy is required");
+        final long mask = requireScheduler().maskOf(resources);
+        bindings.onPress(button, () -> scheduler.scheduleMask(taskFactory.get(), pol, mask));
+    }
+
+    /**
+     * Schedule a task on the falling edge of the button, requiring {@code resources}.
+     *
+     * <p>Requires a {@link TaskScheduler} ({@link #of(Bindings, TaskScheduler)}).</p>
+     */
+    public void onRelease(Button button, Supplier<Task> taskFactory,
+                          TaskScheduler.Policy policy, TaskResource... resources) {
+        Objects.requireNonNull(button, "button is required");
+        Objects.requireNonNull(taskFactory, "taskFactory is required");
+        final TaskScheduler.Policy pol = Objects.requireNonNull(policy, "policy is required");
+        final long mask = requireScheduler().maskOf(resources);
+        bindings.onRelease(button, () -> scheduler.scheduleMask(taskFactory.get(), pol, mask));
+    }
+
+    /**
+     * Toggle variant of {@link #onToggle(Button, Supplier, Supplier)} where both tasks require
+     * {@code resources}.
+     *
+     * <p>Requires a {@link TaskScheduler} ({@link #of(Bindings, TaskScheduler)}).</p>
+     */
+    public void onToggle(Button button, Supplier<Task> onEnable, Supplier<Task> onDisable,
+                         TaskScheduler.Policy policy, TaskResource... resources) {
+        Objects.requireNonNull(button, "button is required");
+        Objects.requireNonNull(onEnable, "onEnable is required");
+        Objects.requireNonNull(onDisable, "onDisable is required");
+        final TaskScheduler.Policy pol = Objects.requireNonNull(policy, "policy is required");
+        final long mask = requireScheduler().maskOf(resources);
+        bindings.onToggle(button, isOn ->
+                scheduler.scheduleMask(isOn ? onEnable.get() : onDisable.get(), pol, mask));
+    }
+
+    private void submit(Task task) {
+        if (scheduler != null) {
+            scheduler.scheduleMask(task, TaskScheduler.Policy.QUEUE, 0L);
+        } else {
+            runner.enqueue(task);
+        }
+    }
+
+    private TaskScheduler requireScheduler() {
+        if (scheduler == null) {
+            throw new IllegalStateException("resource-aware bindings require TaskBindings.of(bindings, TaskScheduler)");
+        }
+        return scheduler;
     }
 }
@@ -0,0 +1,52 @@
+package edu.ftcphoenix.fw.task;
+
+/**
+ * A named robot resource (drivebase, shooter, transfer, intake, ...) that tasks can require
+ * when scheduled on a {@link TaskScheduler}.
+ *
+ * <p>Resources are created by a scheduler via {@link TaskScheduler#resource(String)} and are
+ * only meaningful to that scheduler. Internally each resource is a single bit, so conflict
+ * checks between tasks are a constant-time mask test.</p>
+ *
+ * <pre>{@code
+ * TaskScheduler scheduler = new TaskScheduler();
+ * TaskResource DRIVE   = scheduler.resource("drive");
+ * TaskResource SHOOTER = scheduler.resource("shooter");
+ * }</pre>
+ */
+public final class TaskResource {
+
+    private final TaskScheduler owner;
+    private final String name;
+    private final int index;
+
+    TaskResource(TaskScheduler owner, String name, int index) {
+        this.owner = owner;
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * @return the debug name given when the resource was created
+     */
+    public String name() {
+        return name;
+    }
+
+    TaskScheduler owner() {
+        return owner;
+    }
+
+    int index() {
+        return index;
+    }
+
+    long mask() {
+        return 1L << index;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskResource{" + name + "}";
+    }
+}
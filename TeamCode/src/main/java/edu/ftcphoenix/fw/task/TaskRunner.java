@@ -1,7 +1,6 @@
 package edu.ftcphoenix.fw.task;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
 
 import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.core.time.LoopClock;
@@ -18,7 +17,13 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  * </ul>
  *
  * <p>Tasks are assumed to be single-use: once a {@link Task} has completed
- * ({@link Task#isComplete()} returns true), it should not be enqueued again.</p>
+ * ({@link Task#isComplete()} returns true), it should not be enqueued again.
+ * To reuse a task graph across button presses, enqueue instances from a
+ * {@link TaskTemplate}; the runner returns them to their pool when they finish
+ * or are cleared.</p>
+ *
+ * <p>For running independent tasks side by side (drive + shooter, ...), see
+ * {@link TaskScheduler}.</p>
  *
  * <h2>Per-cycle idempotency</h2>
  * <p>{@link #update(LoopClock)} is idempotent by {@link LoopClock#cycle()}.</p>
@@ -30,7 +35,7 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  */
 public final class TaskRunner {
 
-    private final List<Task> queue = new ArrayList<>();
+    private final ArrayDeque<Task> queue = new ArrayDeque<>();
     private Task current = null;
 
     /**
@@ -60,8 +65,10 @@ public final class TaskRunner {
      * when {@link Task#update(LoopClock)} is no longer called).</p>
      */
     public void clear() {
-        queue.clear();
-        current = null;
+        while (!queue.isEmpty()) {
+            TaskTemplate.release(queue.pollFirst());
+        }
+        finishCurrent();
         lastUpdatedCycle = Long.MIN_VALUE;
     }
 
@@ -100,6 +107,8 @@ public final class TaskRunner {
      *   <li>If there is an active (not complete) current task after this
      *       process, its {@link Task#update(LoopClock)} method is called
      *       exactly once.</li>
+     *   <li>A task that completes is dropped in the same call, so the runner
+     *       reports {@link #isIdle()} as soon as its last task finishes.</li>
      * </ul>
      *
      * <p>This method is idempotent by {@link LoopClock#cycle()}: if called twice in the same
@@ -120,12 +129,13 @@ public final class TaskRunner {
 
         // Ensure we have a current task that is not yet complete.
         while ((current == null || current.isComplete()) && !queue.isEmpty()) {
-            current = queue.remove(0);
+            finishCurrent();
+            current = queue.pollFirst();
             current.start(clock);
 
             // If the task completed immediately in start(), loop to pick another.
             if (current.isComplete()) {
-                current = null;
+                finishCurrent();
             }
         }
 
@@ -133,6 +143,16 @@ public final class TaskRunner {
         if (current != null && !current.isComplete()) {
             current.update(clock);
         }
+
+        // Let go of a finished task right away so pooled instances can be reused.
+        if (current != null && current.isComplete()) {
+            finishCurrent();
+        }
+    }
+
+    private void finishCurrent() {
+        TaskTemplate.release(current);
+        current = null;
     }
 
     /**
@@ -163,7 +183,7 @@ public final class TaskRunner {
         }
 
         if (!queue.isEmpty()) {
-            Task next = queue.get(0);
+            Task next = queue.peekFirst();
             dbg.addData(p + ".nextName", next.getDebugName())
                     .addData(p + ".nextClass", next.getClass().getSimpleName());
         }
@@ -0,0 +1,560 @@
+package edu.ftcphoenix.fw.task;
+
+import java.util.ArrayDeque;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+
+/**
+ * Resource-aware task scheduler: runs independent tasks concurrently and serializes only the
+ * tasks that need the same hardware.
+ *
+ * <p>{@link TaskRunner} runs one task at a time, so a shooter spin-up and a drive move queue
+ * behind each other unless they are hand-wrapped in a {@link ParallelAllTask}. With
+ * {@code TaskScheduler}, each task declares the {@link TaskResource}s it needs when it is
+ * scheduled. Tasks whose resources do not overlap run side by side; tasks that do overlap are
+ * handled by a {@link Policy}.</p>
+ *
+ * <pre>{@code
+ * TaskScheduler scheduler = new TaskScheduler();
+ * TaskResource DRIVE   = scheduler.resource("drive");
+ * TaskResource SHOOTER = scheduler.resource("shooter");
+ *
+ * scheduler.schedule(spinUpTask, SHOOTER);                        // runs now
+ * scheduler.schedule(goToPoseTask, DRIVE);                        // also runs now
+ * scheduler.schedule(shootTask, TaskScheduler.Policy.QUEUE, SHOOTER); // waits for spin-up
+ *
+ * // loop():
+ * scheduler.update(clock);
+ * }</pre>
+ *
+ * <h2>Semantics</h2>
+ * <ul>
+ *   <li>A task with <b>no resources</b> never conflicts and starts on the next update.</li>
+ *   <li>Queued tasks start in FIFO order <em>per resource</em>: a waiting task also blocks later
+ *       tasks that need any of the same resources, so requests are never reordered.</li>
+ *   <li>Preempted or cancelled tasks are simply dropped (no further {@code update()} calls), the
+ *       same as {@link TaskRunner#clear()}. Tasks must tolerate that. Finished and dropped
+ *       {@link TaskTemplate} instances go back to their pool.</li>
+ *   <li>Tasks may schedule, preempt or cancel from their own {@code start()}/{@code update()}.
+ *       Drops requested during {@link #update(LoopClock)} take effect at once (the dropped tasks
+ *       are not updated again and their resources are free), but their entries are only
+ *       recycled at the end of the cycle.</li>
+ *   <li>{@link #update(LoopClock)} is idempotent by {@link LoopClock#cycle()}.</li>
+ * </ul>
+ *
+ * <h2>Cost</h2>
+ * <p>Conflict checks are single {@code long} mask tests (up to 64 resources per scheduler).
+ * Pending tasks live in an {@link ArrayDeque} (O(1) enqueue/dequeue), running tasks in a small
+ * array, and bookkeeping entries are pooled, so steady-state scheduling does not allocate.</p>
+ *
+ * <h2>Utilization</h2>
+ * <p>The scheduler tracks how long each resource was held by a running task, so you can see
+ * how much of the time each mechanism is actually busy and how much concurrency you gained
+ * (see {@link #utilization(TaskResource)} and {@link #debugDump(DebugSink, String)}).</p>
+ */
+public final class TaskScheduler {
+
+    /**
+     * What to do when a newly scheduled task needs a resource that is already in use.
+     */
+    public enum Policy {
+        /**
+         * Wait until the resources are free (FIFO per resource).
+         */
+        QUEUE,
+
+        /**
+         * Drop every running or pending task that holds a conflicting resource and start this task
+         * instead. Typical for driver-triggered actions that should override a macro.
+         */
+        PREEMPT,
+
+        /**
+         * Drop this task if any of its resources is currently running or pending.
+         * Useful for "don't stack presses" bindings.
+         */
+        SKIP_IF_BUSY
+    }
+
+    private static final int MAX_RESOURCES = 64;
+
+    /**
+     * Bookkeeping for one scheduled task (pooled).
+     */
+    private static final class Entry {
+        Task task;
+        long mask;
+        boolean dropped; // dropped while update() was iterating; recycled at the end of the cycle
+    }
+
+    private final TaskResource[] resources = new TaskResource[MAX_RESOURCES];
+    private int resourceCount = 0;
+
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final ArrayDeque<Entry> pool = new ArrayDeque<>();
+
+    private Entry[] running = new Entry[8];
+    private int runningCount = 0;
+    private long runningMask = 0L;
+
+    private long lastUpdatedCycle = Long.MIN_VALUE;
+    // True while update() starts or updates tasks; drops are then deferred (see dropConflicting).
+    private boolean updating = false;
+
+    // Statistics.
+    private final double[] busySec = new double[MAX_RESOURCES];
+    private double totalSec = 0.0;
+    private int maxConcurrent = 0;
+    private long preemptedCount = 0;
+    private long skippedCount = 0;
+
+    /**
+     * Create a new resource owned by this scheduler.
+     *
+     * <p>Create resources once (typically as fields) and reuse them.</p>
+     *
+     * @param name debug name (e.g. "drive", "shooter")
+     * @return the new resource
+     * @throws IllegalStateException if more than 64 resources are created
+     */
+    public TaskResource resource(String name) {
+        if (resourceCount >= MAX_RESOURCES) {
+            throw new IllegalStateException("TaskScheduler supports at most " + MAX_RESOURCES + " resources");
+        }
+        String n = (name == null || name.isEmpty()) ? ("resource" + resourceCount) : name;
+        TaskResource r = new TaskResource(this, n, resourceCount);
+        resources[resourceCount++] = r;
+        return r;
+    }
+
+    /**
+     * Schedule a task with {@link Policy#QUEUE}.
+     *
+     * @param task      task to run (must not be {@code null})
+     * @param resources resources the task needs (may be empty)
+     * @return true if the task was accepted
+     */
+    public boolean schedule(Task task, TaskResource... resources) {
+        return schedule(task, Policy.QUEUE, resources);
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task      task to run (must not be {@code null})
+     * @param policy    conflict policy (must not be {@code null})
+     * @param resources resources the task needs (may be empty)
+     * @return true if the task was accepted (false only for {@link Policy#SKIP_IF_BUSY})
+     */
+    public boolean schedule(Task task, Policy policy, TaskResource... resources) {
+        return scheduleMask(task, policy, maskOf(resources));
+    }
+
+    /**
+     * Combine resources into a conflict mask, validating ownership.
+     */
+    long maskOf(TaskResource... rs) {
+        long mask = 0L;
+        if (rs == null) {
+            return mask;
+        }
+        for (TaskResource r : rs) {
+            mask |= owned(r).mask();
+        }
+        return mask;
+    }
+
+    private TaskResource owned(TaskResource r) {
+        if (r == null) {
+            throw new IllegalArgumentException("resource must not be null");
+        }
+        if (r.owner() != this) {
+            throw new IllegalArgumentException("resource " + r.name() + " belongs to a different TaskScheduler");
+        }
+        return r;
+    }
+
+    /**
+     * Allocation-free scheduling with a precomputed mask (used by {@link TaskBindings}).
+     */
+    boolean scheduleMask(Task task, Policy policy, long mask) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+
+        switch (policy) {
+            case SKIP_IF_BUSY:
+                if ((mask & (runningMask | pendingMask())) != 0L) {
+                    skippedCount++;
+                    TaskTemplate.release(task);
+                    return false;
+                }
+                pending.addLast(obtain(task, mask));
+                return true;
+
+            case PREEMPT:
+                if (mask != 0L) {
+                    preemptedCount += dropConflicting(mask);
+                }
+                pending.addFirst(obtain(task, mask));
+                return true;
+
+            case QUEUE:
+            default:
+                pending.addLast(obtain(task, mask));
+                return true;
+        }
+    }
+
+    /**
+     * Drop every running or pending task that holds any of the given resources.
+     *
+     * @param resources resources to free
+     */
+    public void cancel(TaskResource... resources) {
+        long mask = maskOf(resources);
+        if (mask != 0L) {
+            dropConflicting(mask);
+        }
+    }
+
+    /**
+     * Drop all running and pending tasks. Statistics are kept.
+     */
+    public void clear() {
+        if (updating) {
+            dropConflicting(~0L);
+            return;
+        }
+        for (int i = 0; i < runningCount; i++) {
+            recycle(running[i]);
+            running[i] = null;
+        }
+        runningCount = 0;
+        runningMask = 0L;
+        while (!pending.isEmpty()) {
+            recycle(pending.pollFirst());
+        }
+        lastUpdatedCycle = Long.MIN_VALUE;
+    }
+
+    /**
+     * @return true if nothing is running or pending
+     */
+    public boolean isIdle() {
+        return runningCount == 0 && pending.isEmpty();
+    }
+
+    /**
+     * @return true if at least one task is running and not complete
+     */
+    public boolean hasActiveTask() {
+        for (int i = 0; i < runningCount; i++) {
+            if (!running[i].dropped && !running[i].task.isComplete()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a running task currently holds {@code resource}
+     */
+    public boolean isBusy(TaskResource resource) {
+        return (runningMask & owned(resource).mask()) != 0L;
+    }
+
+    /**
+     * @return number of running tasks
+     */
+    public int runningCount() {
+        return runningCount;
+    }
+
+    /**
+     * @return number of tasks waiting to start
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Fraction of time (0..1) since the last {@link #resetStats()} that {@code resource} was
+     * held by a running task.
+     */
+    public double utilization(TaskResource resource) {
+        int i = owned(resource).index();
+        return (totalSec > 0.0) ? busySec[i] / totalSec : 0.0;
+    }
+
+    /**
+     * Reset utilization and counter statistics.
+     */
+    public void resetStats() {
+        for (int i = 0; i < resourceCount; i++) {
+            busySec[i] = 0.0;
+        }
+        totalSec = 0.0;
+        maxConcurrent = 0;
+        preemptedCount = 0;
+        skippedCount = 0;
+    }
+
+    /**
+     * Start any pending tasks whose resources are free, then update every running task once.
+     *
+     * <p>Newly started tasks are updated in the same cycle (matching {@link TaskRunner}). Tasks
+     * that complete release their resources at the end of the cycle.</p>
+     *
+     * @param clock loop clock (must not be {@code null})
+     */
+    public void update(LoopClock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("clock must not be null");
+        }
+
+        long c = clock.cycle();
+        if (c == lastUpdatedCycle) {
+            return;
+        }
+        lastUpdatedCycle = c;
+
+        removeCompleted();
+        updating = true;
+        try {
+            admitPending(clock);
+
+            // Tasks may cancel or preempt others from here; those entries stay in place, marked
+            // dropped, until removeCompleted() below.
+            for (int i = 0; i < runningCount; i++) {
+                Entry e = running[i];
+                if (!e.dropped && !e.task.isComplete()) {
+                    e.task.update(clock);
+                }
+            }
+        } finally {
+            updating = false;
+        }
+
+        // Statistics: resources held during this cycle.
+        double dt = clock.dtSec();
+        if (dt > 0.0) {
+            totalSec += dt;
+            long m = runningMask;
+            while (m != 0L) {
+                int bit = Long.numberOfTrailingZeros(m);
+                busySec[bit] += dt;
+                m &= m - 1;
+            }
+        }
+        if (runningCount > maxConcurrent) {
+            maxConcurrent = runningCount;
+        }
+
+        removeCompleted();
+    }
+
+    /**
+     * Emit scheduler state and per-resource utilization.
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "scheduler"
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "scheduler" : prefix;
+
+        dbg.addLine(p)
+                .addData(p + ".running", runningCount)
+                .addData(p + ".pending", pending.size())
+                .addData(p + ".maxConcurrent", maxConcurrent)
+                .addData(p + ".preempted", preemptedCount)
+                .addData(p + ".skipped", skippedCount)
+                .addData(p + ".statsSec", totalSec);
+
+        for (int i = 0; i < resourceCount; i++) {
+            TaskResource r = resources[i];
+            dbg.addData(p + ".util." + r.name(), (totalSec > 0.0) ? busySec[i] / totalSec : 0.0);
+        }
+
+        for (int i = 0; i < runningCount; i++) {
+            Task t = running[i].task;
+            dbg.addData(p + ".running" + i, t.getDebugName());
+        }
+        if (!pending.isEmpty()) {
+            dbg.addData(p + ".nextName", pending.peekFirst().task.getDebugName());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Internals
+    // ------------------------------------------------------------------------
+
+    private void admitPending(LoopClock clock) {
+        // Rotate through the deque once: start what can start, re-append what must wait.
+        long blocked = 0L;
+        int n = pending.size();
+        for (int k = 0; k < n; k++) {
+            Entry e = pending.pollFirst();
+            if (e.dropped) {
+                recycle(e);
+                continue;
+            }
+            if ((e.mask & (runningMask | blocked)) != 0L) {
+                blocked |= e.mask;
+                pending.addLast(e);
+                continue;
+            }
+
+            e.task.start(clock);
+            if (e.task.isComplete()) {
+                recycle(e);
+                continue;
+            }
+            addRunning(e);
+        }
+    }
+
+    private void addRunning(Entry e) {
+        if (runningCount == running.length) {
+            Entry[] grown = new Entry[running.length * 2];
+            System.arraycopy(running, 0, grown, 0, runningCount);
+            running = grown;
+        }
+        running[runningCount++] = e;
+        runningMask |= e.mask;
+    }
+
+    private void removeCompleted() {
+        int w = 0;
+        long mask = 0L;
+        for (int r = 0; r < runningCount; r++) {
+            Entry e = running[r];
+            if (e.dropped || e.task.isComplete()) {
+                recycle(e);
+            } else {
+                running[w++] = e;
+                mask |= e.mask;
+            }
+        }
+        for (int i = w; i < runningCount; i++) {
+            running[i] = null;
+        }
+        runningCount = w;
+        runningMask = mask;
+
+        // Pending entries dropped during the cycle.
+        int n = pending.size();
+        for (int k = 0; k < n; k++) {
+            Entry e = pending.pollFirst();
+            if (e.dropped) {
+                recycle(e);
+            } else {
+                pending.addLast(e);
+            }
+        }
+    }
+
+    private int dropConflicting(long mask) {
+        int dropped = 0;
+
+        if (updating) {
+            // update() is iterating running[] (and may be rotating pending): mark instead of
+            // compacting or recycling.
+            long keptMask = 0L;
+            for (int r = 0; r < runningCount; r++) {
+                Entry e = running[r];
+                if (e.dropped) {
+                    continue;
+                }
+                if ((e.mask & mask) != 0L) {
+                    e.dropped = true;
+                    dropped++;
+                } else {
+                    keptMask |= e.mask;
+                }
+            }
+            runningMask = keptMask;
+            // A full rotation leaves the order unchanged, so a rotation in progress is unaffected.
+            int n = pending.size();
+            for (int k = 0; k < n; k++) {
+                Entry e = pending.pollFirst();
+                if (!e.dropped && (e.mask & mask) != 0L) {
+                    e.dropped = true;
+                    dropped++;
+                }
+                pending.addLast(e);
+            }
+            return dropped;
+        }
+
+        int w = 0;
+        long keptMask = 0L;
+        for (int r = 0; r < runningCount; r++) {
+            Entry e = running[r];
+            if ((e.mask & mask) != 0L) {
+                recycle(e);
+                dropped++;
+            } else {
+                running[w++] = e;
+                keptMask |= e.mask;
+            }
+        }
+        for (int i = w; i < runningCount; i++) {
+            running[i] = null;
+        }
+        runningCount = w;
+        runningMask = keptMask;
+
+        int n = pending.size();
+        for (int k = 0; k < n; k++) {
+            Entry e = pending.pollFirst();
+            if ((e.mask & mask) != 0L) {
+                recycle(e);
+                dropped++;
+            } else {
+                pending.addLast(e);
+            }
+        }
+        return dropped;
+    }
+
+    private long pendingMask() {
+        // Rotate instead of iterating so this stays allocation-free.
+        long m = 0L;
+        int n = pending.size();
+        for (int k = 0; k < n; k++) {
+            Entry e = pending.pollFirst();
+            if (!e.dropped) {
+                m |= e.mask;
+            }
+            pending.addLast(e);
+        }
+        return m;
+    }
+
+    private Entry obtain(Task task, long mask) {
+        Entry e = pool.pollFirst();
+        if (e == null) {
+            e = new Entry();
+        }
+        e.task = task;
+        e.mask = mask;
+        e.dropped = false;
+        return e;
+    }
+
+    private void recycle(Entry e) {
+        TaskTemplate.release(e.task); // completed or dropped: pooled instances may be reused
+        e.task = null;
+        e.mask = 0L;
+        e.dropped = false;
+        pool.addLast(e);
+    }
+}
@@ -0,0 +1,275 @@
+package edu.ftcphoenix.fw.task;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import edu.ftcphoenix.fw.core.debug.DebugSink;
+import edu.ftcphoenix.fw.core.time.LoopClock;
+
+/**
+ * Build a task graph once and reuse it, instead of rebuilding it on every button press.
+ *
+ * <p>A template wraps a factory (usually a {@code buildXxxMacro()} method). The factory is called
+ * once up front; every {@link #get()} then hands out a reset copy of the already-built graph. If a
+ * previous copy is still running or queued (for example the driver pressed the button twice), the
+ * template builds another instance, up to {@code maxInstances}; after that it falls back to calling
+ * the factory for a throw-away instance so behavior is always correct.</p>
+ *
+ * <p>Since a template is a {@code Supplier<Task>}, it plugs straight into {@link TaskBindings}:</p>
+ *
+ * <pre>{@code
+ * // init(): build once
+ * TaskTemplate shootOne = TaskTemplate.of(this::buildShootOneBallMacro);
+ * tb.onPress(gamepads.p1().y(), shootOne);
+ *
+ * // or by hand
+ * runner.enqueue(shootOne.get());
+ * }</pre>
+ *
+ * <h2>Requirements</h2>
+ * <ul>
+ *   <li>The factory must return a {@link ResettableTask} whose children are all resettable (all
+ *       framework tasks are). This is checked when the template is created.</li>
+ *   <li>The factory must not capture values that change between presses; the graph is built
+ *       once. Read changing values inside the tasks instead (for example in a
+ *       {@code Tasks.runOnce(...)} lambda).</li>
+ *   <li>Hand tasks from {@link #get()} to a {@link TaskRunner} or {@link TaskScheduler}, either
+ *       directly or inside {@link Tasks#sequence}, {@link Tasks#parallelAll} or
+ *       {@link Tasks#branchOnOutcome}. When the top-level task completes or is dropped, the
+ *       executor returns it to the pool, together with any pooled tasks nested in those
+ *       composites. Code that runs template tasks itself should call {@link #release(Task)}
+ *       when done.</li>
+ *   <li>A composite holding pooled tasks is single use unless it is itself built by a template:
+ *       its pooled children go back to their pools when it is released, so running it again
+ *       would share them with other users. Graphs built by a template keep the pooled tasks
+ *       their factory took for as long as the template lives.</li>
+ * </ul>
+ */
+public final class TaskTemplate implements Supplier<Task> {
+
+    /**
+     * Default pool size used by {@link #of(Supplier)}.
+     */
+    public static final int DEFAULT_MAX_INSTANCES = 2;
+
+    private final Supplier<? extends Task> factory;
+    private final Slot[] slots;
+    private int slotCount = 0;
+
+    private long getCount = 0;
+    private long overflowCount = 0;
+
+    private TaskTemplate(Supplier<? extends Task> factory, int maxInstances) {
+        this.factory = factory;
+        this.slots = new Slot[maxInstances];
+        addSlot(); // build (and validate) the first instance eagerly
+    }
+
+    /**
+     * Create a template with up to {@link #DEFAULT_MAX_INSTANCES} pooled instances.
+     *
+     * @param factory builds the task graph; must return a {@link ResettableTask}
+     */
+    public static TaskTemplate of(Supplier<? extends Task> factory) {
+        return of(factory, DEFAULT_MAX_INSTANCES);
+    }
+
+    /**
+     * Create a template.
+     *
+     * @param factory      builds the task graph; must return a {@link ResettableTask}
+     * @param maxInstances how many instances may be pooled for overlapping use (&gt;= 1)
+     * @throws IllegalArgumentException if the factory's task is not fully resettable
+     */
+    public static TaskTemplate of(Supplier<? extends Task> factory, int maxInstances) {
+        Objects.requireNonNull(factory, "factory is required");
+        if (maxInstances < 1) {
+            throw new IllegalArgumentException("maxInstances must be >= 1, got " + maxInstances);
+        }
+        return new TaskTemplate(factory, maxInstances);
+    }
+
+    /**
+     * Return a ready-to-start instance of the task graph.
+     *
+     * <p>Allocation-free once the pool has grown to the number of instances that actually
+     * overlap.</p>
+     */
+    @Override
+    public Task get() {
+        getCount++;
+        for (int i = 0; i < slotCount; i++) {
+            Slot s = slots[i];
+            if (!s.inUse) {
+                s.acquire();
+                return s;
+            }
+        }
+        if (slotCount < slots.length) {
+            Slot s = addSlot();
+            s.acquire();
+            return s;
+        }
+        overflowCount++;
+        return build();
+    }
+
+    /**
+     * Return a task obtained from any template to its pool.
+     *
+     * <p>{@link TaskRunner} and {@link TaskScheduler} call this for every task they finish or
+     * drop. Framework composites ({@link SequenceTask}, {@link ParallelAllTask},
+     * {@link Tasks#branchOnOutcome}) are searched for pooled children, which are released too.
+     * A pooled instance's own graph is not searched: it keeps its children for reuse. Other tasks
+     * are ignored.</p>
+     *
+     * @param task task to release (may be {@code null})
+     */
+    public static void release(Task task) {
+        if (task instanceof Slot) {
+            ((Slot) task).inUse = false;
+        } else if (task instanceof Composite) {
+            ((Composite) task).releaseChildren();
+        }
+    }
+
+    /**
+     * @return number of instances built into the pool so far
+     */
+    public int instanceCount() {
+        return slotCount;
+    }
+
+    /**
+     * @return number of pooled instances currently handed out
+     */
+    public int inUseCount() {
+        int n = 0;
+        for (int i = 0; i < slotCount; i++) {
+            if (slots[i].inUse) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return number of {@link #get()} calls that had to build an unpooled instance
+     */
+    public long overflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Debug helper: emit pool usage.
+     *
+     * @param dbg    debug sink (may be {@code null}; if null, no output is produced)
+     * @param prefix base key prefix, e.g. "shootTemplate"
+     */
+    public void debugDump(DebugSink dbg, String prefix) {
+        if (dbg == null) {
+            return;
+        }
+        String p = (prefix == null || prefix.isEmpty()) ? "taskTemplate" : prefix;
+
+        dbg.addData(p + ".name", slots[0].getDebugName())
+                .addData(p + ".instances", slotCount)
+                .addData(p + ".maxInstances", slots.length)
+                .addData(p + ".inUse", inUseCount())
+                .addData(p + ".gets", getCount)
+                .addData(p + ".overflow", overflowCount);
+    }
+
+    // ------------------------------------------------------------------------
+    // Internals
+    // ------------------------------------------------------------------------
+
+    private Task build() {
+        Task t = factory.get();
+        if (t == null) {
+            throw new IllegalStateException("task factory returned null");
+        }
+        return t;
+    }
+
+    private Slot addSlot() {
+        Task t = build();
+        if (!(t instanceof ResettableTask)) {
+            throw new IllegalArgumentException(
+                    "TaskTemplate requires a ResettableTask, got " + t.getDebugName());
+        }
+        ResettableTask rt = (ResettableTask) t;
+        try {
+            rt.reset(); // fail now, not on the second button press
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("TaskTemplate task is not fully resettable: " + e.getMessage(), e);
+        }
+        Slot s = new Slot(rt);
+        slots[slotCount++] = s;
+        return s;
+    }
+
+    /**
+     * Framework composite whose children {@link #release(Task)} should search for pooled
+     * instances.
+     */
+    interface Composite {
+        /**
+         * Call {@link #release(Task)} on every child.
+         */
+        void releaseChildren();
+    }
+
+    /**
+     * Pooled instance handed out by {@link #get()}. Delegates to the built graph and tracks
+     * whether an executor still holds it.
+     */
+    private static final class Slot implements ResettableTask {
+        private final ResettableTask task;
+        private boolean inUse = false;
+
+        Slot(ResettableTask task) {
+            this.task = task;
+        }
+
+        void acquire() {
+            task.reset();
+            inUse = true;
+        }
+
+        @Override
+        public void reset() {
+            task.reset();
+        }
+
+        @Override
+        public void start(LoopClock clock) {
+            task.start(clock);
+        }
+
+        @Override
+        public void update(LoopClock clock) {
+            task.update(clock);
+        }
+
+        @Override
+        public boolean isComplete() {
+            return task.isComplete();
+        }
+
+        @Override
+        public TaskOutcome getOutcome() {
+            return task.getOutcome();
+        }
+
+        @Override
+        public String getDebugName() {
+            return task.getDebugName();
+        }
+
+        @Override
+        public void debugDump(DebugSink dbg, String prefix) {
+            task.debugDump(dbg, prefix);
+        }
+    }
+}
@@ -48,6 +48,42 @@ public final class Tasks {
         DONE
     }
 
+    /**
+     * Shared instance returned by {@link #noop()}; it has no state, so one is enough.
+     */
+    private static final Task NOOP = new ResettableTask() {
+        /** {@inheritDoc} */
+        @Override
+        public void start(LoopClock clock) {
+            // no-op
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void reset() {
+            // stateless
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void update(LoopClock clock) {
+            // no-op
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isComplete() {
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public TaskOutcome getOutcome() {
+            // A no-op task is always considered a successful no-op.
+            return TaskOutcome.SUCCESS;
+        }
+    };
+
     // ---------------------------------------------------------------------
     // Simple core tasks
     // ---------------------------------------------------------------------
@@ -65,34 +101,12 @@ public final class Tasks {
      * <p>Outcome semantics: this task reports
      * {@link TaskOutcome#SUCCESS} as soon as it is created, since there
      * is no failure mode.</p>
+     *
+     * <p>The task is stateless, so a single shared instance is returned
+     * (no allocation per call).</p>
      */
     public static Task noop() {
-        return new Task() {
-            /** {@inheritDoc} */
-            @Override
-            public void start(LoopClock clock) {
-                // no-op
-            }
-
-            /** {@inheritDoc} */
-            @Override
-            public void update(LoopClock clock) {
-                // no-op
-            }
-
-            /** {@inheritDoc} */
-            @Override
-            public boolean isComplete() {
-                return true;
-            }
-
-            /** {@inheritDoc} */
-            @Override
-            public TaskOutcome getOutcome() {
-                // A no-op task is always considered a successful no-op.
-                return TaskOutcome.SUCCESS;
-            }
-        };
+        return NOOP;
     }
 
     /**
@@ -199,6 +213,9 @@ public final class Tasks {
      * by running {@code onTimeout}, and from the outside, what matters is
      * whether that timeout-handling branch ultimately succeeded or not.</p>
      *
+     * <p>The returned task is a {@link ResettableTask}; {@code reset()} requires all three
+     * children to be resettable.</p>
+     *
      * @param move      the task to run first
      * @param onSuccess task to run if the move succeeds or completes normally
      * @param onTimeout task to run if the move ends with {@link TaskOutcome#TIMEOUT}
@@ -211,7 +228,7 @@ public final class Tasks {
         Objects.requireNonNull(onSuccess, "onSuccess is required");
         Objects.requireNonNull(onTimeout, "onTimeout is required");
 
-        return new Task() {
+        final class BranchTask implements ResettableTask, TaskTemplate.Composite {
             private BranchPhase phase = BranchPhase.MOVE;
             private Task current = move;
 
@@ -223,6 +240,25 @@ public final class Tasks {
                 current.start(clock);
             }
 
+            /** {@inheritDoc} */
+            @Override
+            public void reset() {
+                ResettableTask.resetChild(move);
+                ResettableTask.resetChild(onSuccess);
+                ResettableTask.resetChild(onTimeout);
+                phase = BranchPhase.MOVE;
+                current = move;
+                branchOutcome = TaskOutcome.UNKNOWN;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void releaseChildren() {
+                TaskTemplate.release(move);
+                TaskTemplate.release(onSuccess);
+                TaskTemplate.release(onTimeout);
+            }
+
             /** {@inheritDoc} */
             @Override
             public void update(LoopClock clock) {
@@ -289,6 +325,7 @@ public final class Tasks {
             public String getDebugName() {
                 return "BranchOnOutcome(" + move.getDebugName() + ")";
             }
-        };
+        }
+        return new BranchTask();
     }
 }
@@ -37,7 +37,7 @@ import edu.ftcphoenix.fw.core.time.LoopClock;
  *       is satisfied or a timeout occurs.</li>
  * </ul>
  */
-public final class WaitUntilTask implements Task {
+public final class WaitUntilTask implements ResettableTask {
 
     private final BooleanSupplier condition;
     private final double timeoutSec;
@@ -78,6 +78,14 @@ public final class WaitUntilTask implements Task {
      */
     @Override
     public void start(LoopClock clock) {
+        reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
         finished = false;
         timedOut = false;
         elapsedSec = 0.0;
@@ -23,6 +23,7 @@ import edu.ftcphoenix.fw.task.ParallelAllTask;
 import edu.ftcphoenix.fw.task.SequenceTask;
 import edu.ftcphoenix.fw.task.Task;
 import edu.ftcphoenix.fw.task.TaskRunner;
+import edu.ftcphoenix.fw.task.TaskTemplate;
 
 /**
  * <h1>Example 03: Shooter Macro (Tasks + PlantTasks)</h1>
@@ -56,6 +57,7 @@ import edu.ftcphoenix.fw.task.TaskRunner;
  *       <li>{@link TaskRunner} – run/update tasks each loop.</li>
  *       <li>{@link SequenceTask} – run tasks one after another.</li>
  *       <li>{@link ParallelAllTask} – run tasks in parallel until all finish.</li>
+ *       <li>{@link TaskTemplate} – build the macro once and reuse it on every press.</li>
  *     </ul>
  *   </li>
  *   <li><b>How to use {@link PlantTasks}</b> to create plant-related tasks:
@@ -207,6 +209,9 @@ public final class TeleOp_03_ShooterMacro extends OpMode {
     // Macro runner for shooting
     private final TaskRunner macroRunner = new TaskRunner();
 
+    // Shooting macro, built once in init() and reused on every press
+    private TaskTemplate shootOneBallMacro;
+
     // For telemetry
     private DriveSignal lastDrive = DriveSignal.zero();
 
@@ -253,6 +258,9 @@ public final class TeleOp_03_ShooterMacro extends OpMode {
         transfer.setTarget(0.0);
         pusher.setTarget(PUSHER_POS_RETRACT);
 
+        // Build the macro graph once; each press reuses it instead of allocating a new one.
+        shootOneBallMacro = TaskTemplate.of(this::buildShootOneBallMacro, 1);
+
         // === 4) Bindings: hook buttons to macro actions ===
 
         // Y → start "shoot one ball" macro.
@@ -373,9 +381,8 @@ public final class TeleOp_03_ShooterMacro extends OpMode {
             return;
         }
 
-        Task macro = buildShootOneBallMacro();
         macroRunner.clear();
-        macroRunner.enqueue(macro);
+        macroRunner.enqueue(shootOneBallMacro.get());
     }
 
     /**
@@ -1,11 +1,14 @@
 package edu.ftcphoenix.fw.tools.tester;
 
 import edu.ftcphoenix.fw.tools.tester.calibration.CameraMountCalibrator;
+import edu.ftcphoenix.fw.tools.tester.calibration.MotorSysIdTester;
+import edu.ftcphoenix.fw.tools.tester.calibration.VisionLatencyCalibrator;
 import edu.ftcphoenix.fw.tools.tester.localization.AprilTagLocalizationTester;
 import edu.ftcphoenix.fw.tools.tester.hardware.CrServoPowerTester;
 import edu.ftcphoenix.fw.tools.tester.hardware.DcMotorPositionTester;
 import edu.ftcphoenix.fw.tools.tester.hardware.DcMotorPowerTester;
 import edu.ftcphoenix.fw.tools.tester.hardware.DcMotorVelocityTester;
+import edu.ftcphoenix.fw.tools.tester.hardware.HardwareCallProfiler;
 import edu.ftcphoenix.fw.tools.tester.hardware.ServoPositionTester;
 
 /**
@@ -38,6 +41,18 @@ public final class StandardTesters {
                 CameraMountCalibrator::new
         );
 
+        suite.add(
+                "Calib: Motor SysId",
+                "Fit kS/kV/kA from quasistatic ramps + dynamic steps (includes motor picker).",
+                MotorSysIdTester::new
+        );
+
+        suite.add(
+                "Calib: Vision Latency",
+                "Measure AprilTag pipeline latency against Pinpoint heading; reports FtcVision latencySec.",
+                VisionLatencyCalibrator::new
+        );
+
         // Localization
         suite.add(
                 "Loc: AprilTag Localization",
@@ -45,6 +60,13 @@ public final class StandardTesters {
                 AprilTagLocalizationTester::new
         );
 
+        // Hardware - Profiling
+        suite.add(
+                "HW: Call Profiler",
+                "Time every device's SDK reads/writes under each bulk caching mode; saves CSV.",
+                HardwareCallProfiler::new
+        );
+
         // Hardware - Motors
         suite.add(
                 "HW: DcMotor Power",
@@ -0,0 +1,715 @@
+package edu.ftcphoenix.fw.tools.tester.calibration;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.Locale;
+import java.util.function.DoubleSupplier;
+
+import edu.ftcphoenix.fw.core.math.MathUtil;
+import edu.ftcphoenix.fw.ftc.FtcHardware;
+import edu.ftcphoenix.fw.tools.tester.BaseTeleOpTester;
+import edu.ftcphoenix.fw.tools.tester.ui.HardwareNamePicker;
+import edu.ftcphoenix.fw.tools.tester.ui.ScalarTuner;
+
+/**
+ * System identification tester: fits the motor feedforward model
+ *
+ * <pre>{@code
+ * volts = kS * sign(velocity) + kV * velocity + kA * acceleration
+ * }</pre>
+ *
+ * <p>from two kinds of runs recorded on the robot:</p>
+ * <ul>
+ *   <li><b>Quasistatic</b>: voltage ramps slowly ({@link Config#rampVoltsPerSec}), so acceleration
+ *       is negligible and the data pins down {@code kS} and {@code kV}.</li>
+ *   <li><b>Dynamic</b>: a voltage step ({@link Config#stepVolts} by default), where acceleration
+ *       dominates and pins down {@code kA}.</li>
+ * </ul>
+ *
+ * <p>Each loop records applied voltage (power × battery voltage), encoder velocity and time into
+ * preallocated primitive buffers. When a run ends, acceleration is filled in as a windowed
+ * least-squares slope of velocity, and the least-squares fit over all recorded runs is solved on the hub. Results are
+ * shown in volts (ticks/sec units) and as normalized power at {@link Config#nominalVolts}, the
+ * units used by {@link edu.ftcphoenix.fw.actuation.ProfiledPositionPlant}. Run quasistatic and
+ * dynamic tests in both directions for a symmetric fit; until a dynamic run exists only
+ * {@code kS} and {@code kV} are fitted.</p>
+ *
+ * <p>With several motor names (for example all four drive motors, or both flywheel motors) every
+ * motor gets the same power and the <b>first</b> motor's encoder is measured. Motors run in
+ * {@link DcMotor.RunMode#RUN_WITHOUT_ENCODER} so the SDK velocity loop does not interfere.</p>
+ *
+ * <h2>Controls (gamepad1)</h2>
+ * <ul>
+ *   <li><b>PICKER (no motor chosen yet)</b>: Dpad Up/Down highlight, A choose, B refresh</li>
+ *   <li><b>RUN (motor selected)</b>:
+ *     <ul>
+ *       <li><b>A</b>: start a quasistatic ramp</li>
+ *       <li><b>Y</b>: start a dynamic step</li>
+ *       <li><b>X</b>: toggle test direction (+/-)</li>
+ *       <li><b>Dpad Up/Down</b>: step voltage; <b>START</b>: fine/coarse</li>
+ *       <li><b>B</b>: abort the current run (its data is kept)</li>
+ *       <li><b>Right bumper</b>: clear all recorded data</li>
+ *       <li><b>BACK</b>: return to picker (change motor)</li>
+ *     </ul>
+ *   </li>
+ * </ul>
+ *
+ * <p><b>Safety:</b> runs end at {@link Config#maxVelocityTps} or {@link Config#maxTravelTicks}
+ * (set these for arms and slides) and on B / stop; original motor settings are restored.</p>
+ */
+public final class MotorSysIdTester extends BaseTeleOpTester {
+
+    /**
+     * Test settings.
+     */
+    public static final class Config {
+
+        /** Quasistatic ramp rate (volts/sec). Default: {@code 0.5}. */
+        public double rampVoltsPerSec = 0.5;
+
+        /** Voltage at which a quasistatic ramp ends. Default: {@code 8}. */
+        public double maxRampVolts = 8.0;
+
+        /** Initial dynamic step voltage (adjustable with the dpad). Default: {@code 6}. */
+        public double stepVolts = 6.0;
+
+        /** Length of a dynamic step (sec). Default: {@code 2}. */
+        public double stepDurationSec = 2.0;
+
+        /** End a run above this speed (ticks/sec); {@code <= 0} = no limit. Default: {@code 0}. */
+        public double maxVelocityTps = 0.0;
+
+        /**
+         * End a run after this much travel from its start (ticks); {@code <= 0} = no limit.
+         * Default: {@code 0}.
+         */
+        public double maxTravelTicks = 0.0;
+
+        /** Samples slower than this (ticks/sec) are left out of the fit. Default: {@code 20}. */
+        public double minVelocityTps = 20.0;
+
+        /** Samples after a step starts that are left out (voltage edge). Default: {@code 1}. */
+        public int skipStepSamples = 1;
+
+        /**
+         * Half-width of the window acceleration is fitted over (sec). Wider windows reject more
+         * encoder noise but blur the step edge. Default: {@code 0.04}.
+         */
+        public double accelHalfWindowSec = 0.04;
+
+        /** Sample buffer size (all runs together). Default: {@code 8000}. */
+        public int capacity = 8000;
+
+        /** Battery voltage the normalized-power constants are scaled to. Default: {@code 12}. */
+        public double nominalVolts = 12.0;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * @return a new config with default values
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * @return a deep copy of this config
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.rampVoltsPerSec = this.rampVoltsPerSec;
+            c.maxRampVolts = this.maxRampVolts;
+            c.stepVolts = this.stepVolts;
+            c.stepDurationSec = this.stepDurationSec;
+            c.maxVelocityTps = this.maxVelocityTps;
+            c.maxTravelTicks = this.maxTravelTicks;
+            c.minVelocityTps = this.minVelocityTps;
+            c.skipStepSamples = this.skipStepSamples;
+            c.accelHalfWindowSec = this.accelHalfWindowSec;
+            c.capacity = this.capacity;
+            c.nominalVolts = this.nominalVolts;
+            return c;
+        }
+    }
+
+    private enum Mode {IDLE, QUASISTATIC, DYNAMIC}
+
+    private final Config cfg;
+    private final String[] preferredNames;
+
+    private HardwareNamePicker picker;
+    private DoubleSupplier battery;
+
+    private String[] motorNames = null;
+    private DcMotorEx[] motors = null;
+    private DcMotor.RunMode[] origModes = null;
+    private DcMotor.ZeroPowerBehavior[] origZpbs = null;
+
+    private boolean ready = false;
+    private boolean started = false;
+    private long readyCycle = -1;
+    private String resolveError = null;
+    private double lastPower = 0.0;
+
+    private final ScalarTuner stepVolts;
+
+    // Recorded samples (all runs). acc[] is filled in when each run ends.
+    private final double[] t;
+    private final double[] volts;
+    private final double[] vel;
+    private final double[] acc;
+    private final boolean[] dynamic;
+    private final boolean[] excluded;
+    private int count = 0;
+    private int dynamicCount = 0;
+
+    // Current run.
+    private Mode mode = Mode.IDLE;
+    private double direction = +1.0;
+    private int runStart = 0;
+    private double runStartSec = 0.0;
+    private double runStartPos = 0.0;
+    private String lastRunEnd = null;
+
+    // Fit results.
+    private double kS = Double.NaN;
+    private double kV = Double.NaN;
+    private double kA = Double.NaN;
+    private double r2 = Double.NaN;
+    private int fitSamples = 0;
+
+    /**
+     * Create a sysid tester with default settings and a motor picker.
+     */
+    public MotorSysIdTester() {
+        this(Config.defaults());
+    }
+
+    /**
+     * Create a sysid tester for the given motors.
+     *
+     * <p>If no names are given (or one cannot be resolved), the tester falls back to the picker.</p>
+     *
+     * @param cfg        test settings (copied)
+     * @param motorNames configured motor names; the first one's encoder is measured
+     */
+    public MotorSysIdTester(Config cfg, String... motorNames) {
+        this.cfg = (cfg == null) ? Config.defaults() : cfg.copy();
+        this.preferredNames = motorNames;
+
+        int n = Math.max(16, this.cfg.capacity);
+        t = new double[n];
+        volts = new double[n];
+        vel = new double[n];
+        acc = new double[n];
+        dynamic = new boolean[n];
+        excluded = new boolean[n];
+
+        stepVolts = new ScalarTuner("StepVolts", 0.5, 12.0, 0.25, 1.0, this.cfg.stepVolts);
+        stepVolts.setEnableSupported(false);
+        stepVolts.setInvertSupported(false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String name() {
+        return "Motor SysId (kS/kV/kA)";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onInit() {
+        battery = FtcHardware.batteryVoltage(ctx.hw);
+
+        picker = new HardwareNamePicker(
+                ctx.hw,
+                DcMotor.class,
+                "Select Motor",
+                "Dpad: highlight | A: choose | B: refresh"
+        );
+        picker.refresh();
+
+        if (preferredNames != null && preferredNames.length > 0) {
+            tryResolveMotors(preferredNames);
+        }
+
+        picker.bind(
+                bindings,
+                gamepads.p1().dpadUp(),
+                gamepads.p1().dpadDown(),
+                gamepads.p1().a(),
+                gamepads.p1().b(),
+                () -> !ready,
+                chosen -> tryResolveMotors(new String[]{chosen})
+        );
+
+        stepVolts.bind(
+                bindings,
+                null,
+                null,
+                gamepads.p1().start(),
+                gamepads.p1().dpadUp(),
+                gamepads.p1().dpadDown(),
+                null,
+                () -> ready && mode == Mode.IDLE
+        );
+
+        bindings.onPress(gamepads.p1().a(), () -> {
+            if (!canStartRun()) return;
+            startRun(Mode.QUASISTATIC);
+        });
+
+        bindings.onPress(gamepads.p1().y(), () -> {
+            if (!canStartRun()) return;
+            startRun(Mode.DYNAMIC);
+        });
+
+        bindings.onPress(gamepads.p1().x(), () -> {
+            if (!ready || mode != Mode.IDLE) return;
+            direction = -direction;
+        });
+
+        bindings.onPress(gamepads.p1().b(), () -> {
+            if (!ready || mode == Mode.IDLE) return;
+            endRun("aborted");
+        });
+
+        bindings.onPress(gamepads.p1().rightBumper(), () -> {
+            if (!ready || mode != Mode.IDLE) return;
+            clearData();
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onStart() {
+        started = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean onBackPressed() {
+        if (!ready) {
+            return false;
+        }
+
+        if (mode != Mode.IDLE) {
+            endRun("aborted");
+        }
+        restoreOriginalSettings();
+
+        ready = false;
+        motors = null;
+        resolveError = null;
+        clearData();
+
+        picker.clearChoice();
+        picker.refresh();
+        if (motorNames != null && motorNames.length > 0) {
+            picker.setPreferredName(motorNames[0]);
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onInitLoop(double dtSec) {
+        if (!ready) {
+            renderPicker();
+            return;
+        }
+        // Motors only move once the OpMode is running.
+        renderTelemetry();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onLoop(double dtSec) {
+        if (!ready) {
+            renderPicker();
+            return;
+        }
+        if (mode != Mode.IDLE) {
+            stepRun();
+        }
+        renderTelemetry();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onStop() {
+        if (mode != Mode.IDLE) {
+            endRun("stopped");
+        }
+        restoreOriginalSettings();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Runs
+    // ---------------------------------------------------------------------------------------------
+
+    private boolean canStartRun() {
+        // Not during INIT, and not on the same press (A) that picked the motor.
+        return ready && started && mode == Mode.IDLE && clock.cycle() != readyCycle;
+    }
+
+    private void startRun(Mode m) {
+        if (count >= t.length - 1) {
+            lastRunEnd = "buffer full (RB clears)";
+            return;
+        }
+        mode = m;
+        runStart = count;
+        runStartSec = clock.nowSec();
+        runStartPos = safePosition();
+        lastRunEnd = null;
+    }
+
+    private void stepRun() {
+        double now = clock.nowSec();
+        double elapsed = now - runStartSec;
+
+        double v = safeVelocity();
+        double travel = Math.abs(safePosition() - runStartPos);
+        double batt = battery.getAsDouble();
+        if (!(batt > 1.0)) {
+            batt = cfg.nominalVolts;
+        }
+
+        // Record what the last command did before choosing the next one.
+        if (count >= t.length) {
+            endRun("buffer full");
+            return;
+        }
+        t[count] = now;
+        volts[count] = lastPower * batt;
+        vel[count] = v;
+        dynamic[count] = (mode == Mode.DYNAMIC);
+        // The first sample is taken before any voltage; in a step, also skip the voltage edge.
+        excluded[count] = (count - runStart) <= (mode == Mode.DYNAMIC ? cfg.skipStepSamples : 0);
+        count++;
+
+        if (cfg.maxVelocityTps > 0.0 && Math.abs(v) >= cfg.maxVelocityTps) {
+            endRun("velocity limit");
+            return;
+        }
+        if (cfg.maxTravelTicks > 0.0 && travel >= cfg.maxTravelTicks) {
+            endRun("travel limit");
+            return;
+        }
+
+        double cmdVolts;
+        if (mode == Mode.QUASISTATIC) {
+            cmdVolts = cfg.rampVoltsPerSec * elapsed;
+            if (cmdVolts >= cfg.maxRampVolts) {
+                endRun("ramp complete");
+                return;
+            }
+        } else {
+            if (elapsed >= cfg.stepDurationSec) {
+                endRun("step complete");
+                return;
+            }
+            cmdVolts = stepVolts.applied();
+        }
+        setPower(MathUtil.clampAbs(direction * cmdVolts / batt, 1.0));
+    }
+
+    private void endRun(String why) {
+        setPower(0.0);
+        fillAcceleration(runStart, count);
+        if (mode == Mode.DYNAMIC) {
+            dynamicCount += count - runStart;
+        }
+        mode = Mode.IDLE;
+        lastRunEnd = why + String.format(Locale.US, " (%d samples)", count - runStart);
+        fit();
+    }
+
+    private void clearData() {
+        count = 0;
+        dynamicCount = 0;
+        kS = kV = kA = r2 = Double.NaN;
+        fitSamples = 0;
+        lastRunEnd = null;
+    }
+
+    /**
+     * Acceleration over [from, to) as the least-squares slope of velocity within
+     * {@link Config#accelHalfWindowSec} of each sample. A plain one-step difference amplifies
+     * encoder velocity noise, which biases the fitted {@code kA} low.
+     */
+    private void fillAcceleration(int from, int to) {
+        double h = Math.max(0.0, cfg.accelHalfWindowSec);
+        int lo = from;
+        int hi = from;
+        for (int i = from; i < to; i++) {
+            while (t[i] - t[lo] > h) lo++;
+            while (hi + 1 < to && t[hi + 1] - t[i] <= h) hi++;
+            int a = Math.min(lo, Math.max(from, i - 1));
+            int b = Math.max(hi, Math.min(to - 1, i + 1));
+
+            double st = 0.0;
+            double sv = 0.0;
+            for (int j = a; j <= b; j++) {
+                st += t[j];
+                sv += vel[j];
+            }
+            int m = b - a + 1;
+            double tm = st / m;
+            double vm = sv / m;
+            double num = 0.0;
+            double den = 0.0;
+            for (int j = a; j <= b; j++) {
+                double dt = t[j] - tm;
+                num += dt * (vel[j] - vm);
+                den += dt * dt;
+            }
+            acc[i] = den > 1e-12 ? num / den : 0.0;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Fit
+    // ---------------------------------------------------------------------------------------------
+
+    private boolean usable(int i) {
+        return !excluded[i] && Math.abs(vel[i]) >= cfg.minVelocityTps;
+    }
+
+    /**
+     * Least squares for {@code V = kS*sign(v) + kV*v + kA*a} via 3x3 normal equations (2x2
+     * without dynamic data, where the acceleration column carries no information).
+     */
+    private void fit() {
+        boolean withAccel = dynamicCount > 0;
+        int k = withAccel ? 3 : 2;
+        double[][] m = new double[k][k + 1];
+        double sumY = 0.0;
+        double sumYY = 0.0;
+        int n = 0;
+
+        double[] x = new double[3];
+        for (int i = 0; i < count; i++) {
+            if (!usable(i)) continue;
+            x[0] = Math.signum(vel[i]);
+            x[1] = vel[i];
+            x[2] = acc[i];
+            double y = volts[i];
+            for (int r = 0; r < k; r++) {
+                for (int c = 0; c < k; c++) {
+                    m[r][c] += x[r] * x[c];
+                }
+                m[r][k] += x[r] * y;
+            }
+            sumY += y;
+            sumYY += y * y;
+            n++;
+        }
+
+        fitSamples = n;
+        kS = kV = kA = r2 = Double.NaN;
+        if (n < k + 2 || !solve(m, k)) {
+            return;
+        }
+        kS = m[0][k];
+        kV = m[1][k];
+        kA = withAccel ? m[2][k] : Double.NaN;
+
+        double ssRes = 0.0;
+        for (int i = 0; i < count; i++) {
+            if (!usable(i)) continue;
+            double pred = kS * Math.signum(vel[i]) + kV * vel[i] + (withAccel ? kA * acc[i] : 0.0);
+            double e = volts[i] - pred;
+            ssRes += e * e;
+        }
+        double ssTot = sumYY - sumY * sumY / n;
+        r2 = ssTot > 1e-12 ? 1.0 - ssRes / ssTot : Double.NaN;
+    }
+
+    /** Gauss-Jordan with partial pivoting on an augmented k x (k+1) matrix; solution in column k. */
+    private static boolean solve(double[][] m, int k) {
+        for (int col = 0; col < k; col++) {
+            int piv = col;
+            for (int r = col + 1; r < k; r++) {
+                if (Math.abs(m[r][col]) > Math.abs(m[piv][col])) piv = r;
+            }
+            if (Math.abs(m[piv][col]) < 1e-12) {
+                return false;
+            }
+            double[] tmp = m[col];
+            m[col] = m[piv];
+            m[piv] = tmp;
+
+            double d = m[col][col];
+            for (int c = col; c <= k; c++) {
+                m[col][c] /= d;
+            }
+            for (int r = 0; r < k; r++) {
+                if (r == col) continue;
+                double f = m[r][col];
+                for (int c = col; c <= k; c++) {
+                    m[r][c] -= f * m[col][c];
+                }
+            }
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Hardware
+    // ---------------------------------------------------------------------------------------------
+
+    private void tryResolveMotors(String[] names) {
+        resolveError = null;
+        ready = false;
+
+        int n = 0;
+        for (String s : names) {
+            if (s != null && !s.trim().isEmpty()) n++;
+        }
+        if (n == 0) {
+            return;
+        }
+
+        String[] trimmed = new String[n];
+        DcMotorEx[] ms = new DcMotorEx[n];
+        int i = 0;
+        for (String s : names) {
+            if (s == null || s.trim().isEmpty()) continue;
+            trimmed[i] = s.trim();
+            try {
+                ms[i] = ctx.hw.get(DcMotorEx.class, trimmed[i]);
+            } catch (Exception ex) {
+                resolveError = "Cannot use '" + trimmed[i] + "' as DcMotorEx: "
+                        + ex.getClass().getSimpleName() + ": " + ex.getMessage();
+                return;
+            }
+            i++;
+        }
+
+        motorNames = trimmed;
+        motors = ms;
+        origModes = new DcMotor.RunMode[n];
+        origZpbs = new DcMotor.ZeroPowerBehavior[n];
+        for (int j = 0; j < n; j++) {
+            try {
+                origModes[j] = ms[j].getMode();
+                origZpbs[j] = ms[j].getZeroPowerBehavior();
+                ms[j].setPower(0.0);
+                ms[j].setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.FLOAT);
+                ms[j].setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+            } catch (Exception ignored) {
+            }
+        }
+
+        lastPower = 0.0;
+        clearData();
+        readyCycle = clock.cycle();
+        ready = true;
+    }
+
+    private void setPower(double p) {
+        lastPower = p;
+        if (motors == null) return;
+        for (DcMotorEx m : motors) {
+            try {
+                m.setPower(p);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    private double safeVelocity() {
+        try {
+            return motors[0].getVelocity();
+        } catch (Exception ignored) {
+            return 0.0;
+        }
+    }
+
+    private double safePosition() {
+        try {
+            return motors[0].getCurrentPosition();
+        } catch (Exception ignored) {
+            return 0.0;
+        }
+    }
+
+    private void restoreOriginalSettings() {
+        if (motors == null) return;
+        setPower(0.0);
+        for (int j = 0; j < motors.length; j++) {
+            try {
+                if (origZpbs[j] != null) motors[j].setZeroPowerBehavior(origZpbs[j]);
+            } catch (Exception ignored) {
+            }
+            try {
+                if (origModes[j] != null) motors[j].setMode(origModes[j]);
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Telemetry
+    // ---------------------------------------------------------------------------------------------
+
+    private void renderPicker() {
+        Telemetry tm = ctx.telemetry;
+        tm.clearAll();
+
+        picker.render(tm);
+
+        if (resolveError != null) {
+            tm.addLine("");
+            tm.addLine("Resolve error:");
+            tm.addLine(resolveError);
+        }
+        tm.update();
+    }
+
+    private void renderTelemetry() {
+        Telemetry tm = ctx.telemetry;
+        tm.clearAll();
+
+        tm.addLine("=== Motor SysId ===");
+        tm.addLine("Motors: " + String.join(", ", motorNames) + " (encoder: " + motorNames[0] + ")");
+        tm.addLine(String.format(Locale.US,
+                "Mode=%s | Dir=%s | Samples=%d/%d (dynamic %d)",
+                mode, direction > 0 ? "+" : "-", count, t.length, dynamicCount));
+        if (mode != Mode.IDLE) {
+            tm.addLine(String.format(Locale.US,
+                    "Run: t=%.2fs power=%.3f vel=%.0f tps",
+                    clock.nowSec() - runStartSec, lastPower, safeVelocity()));
+        } else if (lastRunEnd != null) {
+            tm.addLine("Last run: " + lastRunEnd);
+        }
+
+        tm.addLine("");
+        stepVolts.render(tm);
+
+        tm.addLine("");
+        if (Double.isNaN(kS)) {
+            tm.addLine("Fit: not enough data (run a quasistatic ramp, then a dynamic step)");
+        } else {
+            double vn = cfg.nominalVolts;
+            tm.addLine(String.format(Locale.US, "Fit over %d samples, R^2=%.4f", fitSamples, r2));
+            tm.addLine(String.format(Locale.US,
+                    "Volts: kS=%.4f V  kV=%.6g V/tps  kA=%s",
+                    kS, kV, Double.isNaN(kA) ? "n/a" : String.format(Locale.US, "%.6g V/tps^2", kA)));
+            tm.addLine(String.format(Locale.US,
+                    "Power@%.0fV: kS=%.4f  kV=%.6g  kA=%s",
+                    vn, kS / vn, kV / vn, Double.isNaN(kA) ? "n/a" : String.format(Locale.US, "%.6g", kA / vn)));
+        }
+
+        tm.addLine("");
+        tm.addLine("Controls: A ramp | Y step | X dir | dpad U/D step V | START fine/coarse | B abort | RB clear | BACK picker");
+        tm.update();
+    }
+}
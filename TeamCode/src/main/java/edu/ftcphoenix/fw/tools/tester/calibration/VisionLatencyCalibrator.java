@@ -0,0 +1,632 @@
+package edu.ftcphoenix.fw.tools.tester.calibration;
+
+import android.util.Size;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import edu.ftcphoenix.fw.core.math.MathUtil;
+import edu.ftcphoenix.fw.drive.DriveSignal;
+import edu.ftcphoenix.fw.drive.MecanumDrivebase;
+import edu.ftcphoenix.fw.ftc.FtcDrives;
+import edu.ftcphoenix.fw.ftc.FtcVision;
+import edu.ftcphoenix.fw.ftc.localization.PinpointPoseEstimator;
+import edu.ftcphoenix.fw.localization.PoseEstimate;
+import edu.ftcphoenix.fw.sensing.vision.apriltag.AprilTagObservation;
+import edu.ftcphoenix.fw.sensing.vision.apriltag.AprilTagSensor;
+import edu.ftcphoenix.fw.tools.tester.BaseTeleOpTester;
+import edu.ftcphoenix.fw.tools.tester.ui.HardwareNamePicker;
+
+/**
+ * Measures end-to-end AprilTag latency by yawing the robot back and forth in front of a tag and
+ * lining up the camera bearing with the Pinpoint heading.
+ *
+ * <p>While the robot turns in place, the tag bearing mirrors the heading:
+ * {@code bearing(t) ~ c - k * heading(t)}. Each observation is stamped with the SDK frame time
+ * ({@code now - ageSec}); if that stamp is late by {@code L}, the bearing lines up with the
+ * heading at {@code frameTime - L}. The calibrator searches {@code L} for the best least-squares
+ * fit (with free offset {@code c} and gain {@code k}, which absorbs camera offset and parallax).
+ * {@code L} is the hidden latency (exposure, readout, USB) to store in
+ * {@link FtcVision.Config#latencySec}. The residual timing spread is reported as jitter, and the
+ * mean age at which our loop reads a detection gives the total latency the estimators see.</p>
+ *
+ * <p>The robot turns with a sinusoidal omega command so the tag stays in view. Without mecanum
+ * wiring, rotate the robot back and forth by hand during the sweep. Each combination of
+ * {@link Config#resolutions} and {@link Config#exposuresMs} is measured in turn (the portal is
+ * reopened for each). Pinpoint heading latency (a few ms) is not modeled.</p>
+ *
+ * <h2>Controls</h2>
+ * <ul>
+ *   <li><b>A</b>: start the sweep (after PLAY; choose a webcam first if prompted)</li>
+ *   <li><b>B</b>: abort</li>
+ * </ul>
+ *
+ * <p>Place the robot 30-60 inches in front of a tag, facing it.</p>
+ */
+public final class VisionLatencyCalibrator extends BaseTeleOpTester {
+
+    /**
+     * Configuration for the calibrator.
+     */
+    public static final class Config {
+
+        /** Webcam to use; if null, a picker is shown. */
+        public String preferredCameraName = null;
+
+        /** Pinpoint estimator config (heading reference). */
+        public PinpointPoseEstimator.Config pinpoint = PinpointPoseEstimator.Config.defaults();
+
+        /** Optional mecanum wiring. If null, rotate the robot by hand during the sweep. */
+        public FtcDrives.MecanumWiringConfig mecanumWiring = null;
+
+        /** Mecanum tuning config (only used when {@link #mecanumWiring} is non-null). */
+        public MecanumDrivebase.Config driveConfig = MecanumDrivebase.Config.defaults();
+
+        /** Resolutions to measure. */
+        public Size[] resolutions = {new Size(640, 480)};
+
+        /** Manual exposures to measure (ms); {@code <= 0} = auto exposure. */
+        public double[] exposuresMs = {0.0};
+
+        /** Rendering profile for the measurement portals. */
+        public FtcVision.Profile profile = FtcVision.Profile.COMPETITION;
+
+        /** Peak omega command of the sweep (normalized). */
+        public double sweepOmegaCmd = 0.35;
+
+        /** Sweep frequency (Hz). */
+        public double sweepHz = 0.4;
+
+        /** Sweep duration per setting (sec). */
+        public double sweepSec = 8.0;
+
+        /** Give up on a setting if no tag is seen within this time after opening (sec). */
+        public double openTimeoutSec = 10.0;
+
+        /** Latency search range (sec). */
+        public double minLatencySec = -0.05;
+        public double maxLatencySec = 0.30;
+
+        /** Samples turning slower than this (rad/s) are left out of the jitter estimate. */
+        public double minRateRadPerSec = 0.3;
+
+        /** Heading / vision buffer size per setting. */
+        public int capacity = 4096;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        public static Config defaults() {
+            return new Config();
+        }
+
+        public Config copy() {
+            Config c = new Config();
+            c.preferredCameraName = this.preferredCameraName;
+            c.pinpoint = this.pinpoint.copy();
+            c.mecanumWiring = this.mecanumWiring;
+            c.driveConfig = this.driveConfig;
+            c.resolutions = this.resolutions.clone();
+            c.exposuresMs = this.exposuresMs.clone();
+            c.profile = this.profile;
+            c.sweepOmegaCmd = this.sweepOmegaCmd;
+            c.sweepHz = this.sweepHz;
+            c.sweepSec = this.sweepSec;
+            c.openTimeoutSec = this.openTimeoutSec;
+            c.minLatencySec = this.minLatencySec;
+            c.maxLatencySec = this.maxLatencySec;
+            c.minRateRadPerSec = this.minRateRadPerSec;
+            c.capacity = this.capacity;
+            return c;
+        }
+    }
+
+    private enum Phase {IDLE, OPENING, SWEEP, DONE}
+
+    /** Result for one resolution / exposure setting. */
+    private static final class Result {
+        final String setting;
+        double latencySec = Double.NaN;
+        double meanReadAgeSec = Double.NaN;
+        double jitterSec = Double.NaN;
+        double gain = Double.NaN;
+        double rmsBearingRad = Double.NaN;
+        double fps = Double.NaN;
+        int samples = 0;
+        String note = null;
+
+        Result(String setting) {
+            this.setting = setting;
+        }
+    }
+
+    private final Config cfg;
+
+    private HardwareNamePicker cameraPicker;
+    private String cameraName;
+    private boolean cameraJustPicked = false;
+    private PinpointPoseEstimator pinpoint;
+    private MecanumDrivebase drive;
+    private AprilTagSensor sensor;
+
+    private boolean started = false;
+    private Phase phase = Phase.IDLE;
+    private int settingIndex = 0;
+    private double phaseStartSec = 0.0;
+    private double tagSeenSinceSec = Double.NaN;
+    private String status = null;
+    private final List<Result> results = new ArrayList<>();
+
+    // Heading history (clock seconds, unwrapped radians) and vision samples for one setting.
+    private final double[] ht;
+    private final double[] hv;
+    private int hn = 0;
+    private final double[] vt;
+    private final double[] vb;
+    private final double[] va;
+    private int vn = 0;
+
+    private double lastHeadingRad = Double.NaN;
+    private double unwrappedHeadingRad = 0.0;
+
+    public VisionLatencyCalibrator() {
+        this(Config.defaults());
+    }
+
+    public VisionLatencyCalibrator(Config cfg) {
+        this.cfg = (cfg != null) ? cfg.copy() : Config.defaults();
+        int n = Math.max(64, this.cfg.capacity);
+        ht = new double[n];
+        hv = new double[n];
+        vt = new double[n];
+        vb = new double[n];
+        va = new double[n];
+    }
+
+    @Override
+    public String name() {
+        return "Calib: Vision Latency";
+    }
+
+    @Override
+    protected void onInit() {
+        pinpoint = new PinpointPoseEstimator(ctx.hw, cfg.pinpoint);
+        if (cfg.mecanumWiring != null) {
+            drive = FtcDrives.mecanum(ctx.hw, cfg.mecanumWiring, cfg.driveConfig);
+        }
+
+        cameraName = cfg.preferredCameraName;
+        if (cameraName == null) {
+            cameraPicker = new HardwareNamePicker(ctx.hw, WebcamName.class, "Select a webcam");
+            cameraPicker.refresh();
+            cameraPicker.bind(
+                    bindings,
+                    gamepads.p1().dpadUp(),
+                    gamepads.p1().dpadDown(),
+                    gamepads.p1().a(),
+                    gamepads.p1().y(),
+                    () -> cameraName == null,
+                    name -> {
+                        cameraName = name;
+                        cameraJustPicked = true;
+                    }
+            );
+        }
+
+        bindings.onPress(gamepads.p1().a(), () -> {
+            // The picker's A also lands here on the press that chooses the camera; skip that one.
+            if (cameraJustPicked) {
+                cameraJustPicked = false;
+                return;
+            }
+            if (!started || cameraName == null) return;
+            if (phase == Phase.IDLE || phase == Phase.DONE) {
+                beginSweep();
+            }
+        });
+        bindings.onPress(gamepads.p1().b(), () -> {
+            if (phase == Phase.OPENING || phase == Phase.SWEEP) {
+                status = "aborted";
+                closeSetting();
+                phase = Phase.DONE;
+            }
+        });
+    }
+
+    @Override
+    protected void onStart() {
+        started = true;
+    }
+
+    @Override
+    protected void onInitLoop(double dtSec) {
+        pinpoint.update(ctx.clock);
+        cameraJustPicked = false;
+        render();
+    }
+
+    @Override
+    protected void onLoop(double dtSec) {
+        pinpoint.update(ctx.clock);
+        recordHeading();
+
+        switch (phase) {
+            case OPENING:
+                updateOpening();
+                break;
+            case SWEEP:
+                updateSweep();
+                break;
+            default:
+                stopDrive();
+                break;
+        }
+        cameraJustPicked = false;
+        render();
+    }
+
+    @Override
+    protected void onStop() {
+        closeSetting();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Sweep
+    // ---------------------------------------------------------------------------------------------
+
+    private int settingCount() {
+        return cfg.resolutions.length * Math.max(1, cfg.exposuresMs.length);
+    }
+
+    private Size settingResolution(int i) {
+        return cfg.resolutions[i / Math.max(1, cfg.exposuresMs.length)];
+    }
+
+    private double settingExposureMs(int i) {
+        return cfg.exposuresMs.length == 0 ? 0.0 : cfg.exposuresMs[i % cfg.exposuresMs.length];
+    }
+
+    private String settingLabel(int i) {
+        Size r = settingResolution(i);
+        double e = settingExposureMs(i);
+        return r.getWidth() + "x" + r.getHeight() + " exp=" + (e > 0.0 ? String.format(Locale.US, "%.1fms", e) : "auto");
+    }
+
+    private void beginSweep() {
+        results.clear();
+        status = null;
+        if (settingCount() == 0) {
+            status = "no resolutions configured";
+            phase = Phase.DONE;
+            return;
+        }
+        settingIndex = 0;
+        openSetting();
+    }
+
+    private void openSetting() {
+        closeSetting();
+        FtcVision.Config vc = FtcVision.Config.defaults()
+                .withCameraResolution(settingResolution(settingIndex))
+                .withProfile(cfg.profile)
+                .withLatencySec(0.0); // measure the raw pipeline
+        vc.exposureMs = settingExposureMs(settingIndex);
+        try {
+            sensor = FtcVision.aprilTags(ctx.hw, cameraName, vc);
+        } catch (Exception ex) {
+            Result r = new Result(settingLabel(settingIndex));
+            r.note = "open failed: " + ex.getClass().getSimpleName();
+            results.add(r);
+            nextSetting();
+            return;
+        }
+        phase = Phase.OPENING;
+        phaseStartSec = ctx.clock.nowSec();
+        tagSeenSinceSec = Double.NaN;
+    }
+
+    private void updateOpening() {
+        stopDrive();
+        double now = ctx.clock.nowSec();
+        AprilTagObservation obs = sensor.bestAny(0.5);
+        if (obs.hasTarget) {
+            if (Double.isNaN(tagSeenSinceSec)) tagSeenSinceSec = now;
+            // Let exposure settle before measuring.
+            if (now - tagSeenSinceSec > 1.0) {
+                phase = Phase.SWEEP;
+                phaseStartSec = now;
+                hn = 0;
+                vn = 0;
+            }
+        } else {
+            tagSeenSinceSec = Double.NaN;
+            if (now - phaseStartSec > cfg.openTimeoutSec) {
+                Result r = new Result(settingLabel(settingIndex));
+                r.note = "no tag seen";
+                results.add(r);
+                nextSetting();
+            }
+        }
+    }
+
+    private void updateSweep() {
+        double now = ctx.clock.nowSec();
+        double elapsed = now - phaseStartSec;
+
+        if (drive != null) {
+            double omega = cfg.sweepOmegaCmd * Math.sin(2.0 * Math.PI * cfg.sweepHz * elapsed);
+            drive.update(ctx.clock);
+            drive.drive(new DriveSignal(0.0, 0.0, omega));
+        }
+
+        AprilTagObservation obs = sensor.bestAny(0.5);
+        if (obs.hasTarget && vn < vt.length) {
+            double frameSec = now - obs.ageSec;
+            // One sample per camera frame (the same frame is returned until a new one arrives).
+            if (vn == 0 || frameSec > vt[vn - 1] + 1e-3) {
+                vt[vn] = frameSec;
+                vb[vn] = obs.cameraBearingRad();
+                va[vn] = obs.ageSec;
+                vn++;
+            }
+        }
+
+        if (elapsed >= cfg.sweepSec) {
+            stopDrive();
+            Result r = new Result(settingLabel(settingIndex));
+            FtcVision.PortalControl pc = FtcVision.portalControl(sensor);
+            r.fps = (pc != null) ? pc.fps() : Double.NaN;
+            fit(r);
+            results.add(r);
+            nextSetting();
+        }
+    }
+
+    private void nextSetting() {
+        closeSetting();
+        settingIndex++;
+        if (settingIndex >= settingCount()) {
+            phase = Phase.DONE;
+            status = "complete";
+            return;
+        }
+        openSetting();
+    }
+
+    private void closeSetting() {
+        stopDrive();
+        if (sensor != null) {
+            try {
+                sensor.close();
+            } catch (Exception ignored) {
+            }
+            sensor = null;
+        }
+    }
+
+    private void stopDrive() {
+        if (drive != null) {
+            drive.update(ctx.clock);
+            drive.drive(DriveSignal.zero());
+        }
+    }
+
+    private void recordHeading() {
+        PoseEstimate est = pinpoint.getEstimate();
+        if (est == null || !est.hasPose) {
+            return;
+        }
+        double h = est.toPose2d().headingRad;
+        if (Double.isNaN(lastHeadingRad)) {
+            unwrappedHeadingRad = h;
+        } else {
+            unwrappedHeadingRad += MathUtil.wrapToPi(h - lastHeadingRad);
+        }
+        lastHeadingRad = h;
+
+        if (phase == Phase.SWEEP && hn < ht.length
+                && (hn == 0 || est.timestampSec > ht[hn - 1])) {
+            ht[hn] = est.timestampSec;
+            hv[hn] = unwrappedHeadingRad;
+            hn++;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Fit
+    // ---------------------------------------------------------------------------------------------
+
+    /** Heading at time {@code t} by linear interpolation; NaN outside the recorded span. */
+    private double headingAt(double t) {
+        if (hn < 2 || t < ht[0] || t > ht[hn - 1]) {
+            return Double.NaN;
+        }
+        int lo = 0;
+        int hi = hn - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (ht[mid] <= t) lo = mid;
+            else hi = mid;
+        }
+        double span = ht[hi] - ht[lo];
+        double u = span > 0.0 ? (t - ht[lo]) / span : 0.0;
+        return hv[lo] + (hv[hi] - hv[lo]) * u;
+    }
+
+    /**
+     * Mean squared residual of {@code bearing = c + k * heading(frameTime - latency)} with the best
+     * {@code c, k}; {@code out} receives {@code c, k, n}. NaN if too few samples overlap.
+     */
+    private double residual(double latencySec, double[] out) {
+        double sx = 0, sy = 0, sxx = 0, sxy = 0, syy = 0;
+        int n = 0;
+        for (int i = 0; i < vn; i++) {
+            double x = headingAt(vt[i] - latencySec);
+            if (Double.isNaN(x)) continue;
+            double y = vb[i];
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+            syy += y * y;
+            n++;
+        }
+        // Compare candidates on (nearly) the same samples.
+        if (n < 20 || n < 0.8 * vn) {
+            return Double.NaN;
+        }
+        double vx = sxx - sx * sx / n;
+        double cxy = sxy - sx * sy / n;
+        double vy = syy - sy * sy / n;
+        if (vx <= 1e-9) {
+            return Double.NaN;
+        }
+        double k = cxy / vx;
+        if (out != null) {
+            out[0] = (sy - k * sx) / n;
+            out[1] = k;
+            out[2] = n;
+        }
+        return Math.max(0.0, vy - k * cxy) / n;
+    }
+
+    private void fit(Result r) {
+        r.samples = vn;
+        if (vn < 20 || hn < 20) {
+            r.note = "too few samples (keep the tag in view)";
+            return;
+        }
+
+        double step = 0.0005;
+        int steps = (int) Math.ceil((cfg.maxLatencySec - cfg.minLatencySec) / step);
+        double bestL = Double.NaN;
+        double bestE = Double.POSITIVE_INFINITY;
+        int bestI = -1;
+        double[] e = new double[steps + 1];
+        for (int i = 0; i <= steps; i++) {
+            double l = cfg.minLatencySec + i * step;
+            e[i] = residual(l, null);
+            if (!Double.isNaN(e[i]) && e[i] < bestE) {
+                bestE = e[i];
+                bestL = l;
+                bestI = i;
+            }
+        }
+        if (bestI < 0) {
+            r.note = "no overlap between vision and heading";
+            return;
+        }
+        // Parabolic refinement around the grid minimum.
+        if (bestI > 0 && bestI < steps && !Double.isNaN(e[bestI - 1]) && !Double.isNaN(e[bestI + 1])) {
+            double den = e[bestI - 1] - 2.0 * e[bestI] + e[bestI + 1];
+            if (den > 0.0) {
+                bestL += 0.5 * step * (e[bestI - 1] - e[bestI + 1]) / den;
+            }
+        }
+        if (bestI == 0 || bestI == steps) {
+            r.note = "latency at search limit";
+        }
+
+        double[] ck = new double[3];
+        double mse = residual(bestL, ck);
+        r.latencySec = bestL;
+        r.gain = -ck[1];
+        r.rmsBearingRad = Math.sqrt(mse);
+
+        // Per-sample timing error: residual / (k * heading rate), where the robot is turning.
+        double sumD = 0.0, sumDD = 0.0, sumAge = 0.0;
+        int nd = 0;
+        for (int i = 0; i < vn; i++) {
+            sumAge += va[i];
+            double t = vt[i] - bestL;
+            double h = headingAt(t);
+            double h0 = headingAt(t - 0.02);
+            double h1 = headingAt(t + 0.02);
+            if (Double.isNaN(h) || Double.isNaN(h0) || Double.isNaN(h1)) continue;
+            double rate = (h1 - h0) / 0.04;
+            if (Math.abs(rate) < cfg.minRateRadPerSec) continue;
+            double res = vb[i] - (ck[0] + ck[1] * h);
+            double d = -res / (ck[1] * rate);
+            sumD += d;
+            sumDD += d * d;
+            nd++;
+        }
+        r.meanReadAgeSec = sumAge / vn;
+        if (nd > 2) {
+            double mean = sumD / nd;
+            r.jitterSec = Math.sqrt(Math.max(0.0, sumDD / nd - mean * mean));
+        }
+        if (Math.abs(r.gain) < 0.5 || Math.abs(r.gain) > 2.0) {
+            r.note = "bearing/heading gain looks wrong; check the tag stays centered";
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Telemetry
+    // ---------------------------------------------------------------------------------------------
+
+    private void render() {
+        Telemetry t = ctx.telemetry;
+        t.clearAll();
+        t.addLine("=== Vision Latency Calibrator ===");
+
+        if (cameraName == null && cameraPicker != null) {
+            cameraPicker.render(t);
+            t.update();
+            return;
+        }
+
+        t.addLine("Camera: " + cameraName + " | Drive: " + (drive != null ? "auto sweep" : "rotate by hand"));
+        switch (phase) {
+            case IDLE:
+                t.addLine(started ? "Face a tag 30-60 in away, then press A." : "Press PLAY, then A to start.");
+                break;
+            case OPENING:
+                t.addLine(String.format(Locale.US, "Setting %d/%d %s: waiting for tag...",
+                        settingIndex + 1, settingCount(), settingLabel(settingIndex)));
+                break;
+            case SWEEP:
+                t.addLine(String.format(Locale.US, "Setting %d/%d %s: sweeping %.1f/%.1fs (frames %d)",
+                        settingIndex + 1, settingCount(), settingLabel(settingIndex),
+                        ctx.clock.nowSec() - phaseStartSec, cfg.sweepSec, vn));
+                if (drive == null) {
+                    t.addLine("Rotate the robot back and forth (about +/-20 deg, ~0.5 Hz).");
+                }
+                break;
+            default:
+                break;
+        }
+        if (status != null) {
+            t.addLine(status);
+        }
+
+        for (Result r : results) {
+            t.addLine("");
+            t.addLine(r.setting + (Double.isNaN(r.fps) ? "" : String.format(Locale.US, " (%.0f fps)", r.fps)));
+            if (!Double.isNaN(r.latencySec)) {
+                t.addLine(String.format(Locale.US,
+                        "  latencySec=%.4f | read age %.1f ms | total %.1f ms | jitter %.1f ms",
+                        r.latencySec, r.meanReadAgeSec * 1e3,
+                        (r.latencySec + r.meanReadAgeSec) * 1e3, r.jitterSec * 1e3));
+                t.addLine(String.format(Locale.US, "  gain %.2f | rms %.2f deg | frames %d",
+                        r.gain, Math.toDegrees(r.rmsBearingRad), r.samples));
+            }
+            if (r.note != null) {
+                t.addLine("  " + r.note);
+            }
+        }
+        if (phase == Phase.DONE && !results.isEmpty()) {
+            t.addLine("");
+            t.addLine("Store latencySec in FtcVision.Config for the setting you run.");
+        }
+
+        t.addLine("");
+        t.addLine("Controls: A start | B abort");
+        t.update();
+    }
+}
@@ -0,0 +1,696 @@
+package edu.ftcphoenix.fw.tools.tester.hardware;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.CRServo;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.function.BooleanSupplier;
+
+import edu.ftcphoenix.fw.ftc.FtcVision;
+import edu.ftcphoenix.fw.sensing.vision.apriltag.AprilTagSensor;
+import edu.ftcphoenix.fw.tools.tester.BaseTeleOpTester;
+
+/**
+ * Microbenchmarks the FTC SDK calls our loops make, for every configured device, under each
+ * {@link LynxModule.BulkCachingMode}.
+ *
+ * <p>Devices are found in the hardware map automatically:</p>
+ * <ul>
+ *   <li>{@link DcMotorEx}: {@code getCurrentPosition}, {@code getVelocity}, {@code getCurrent};
+ *       writes {@code setPower(0)} and {@code setVelocity(0)} (each motor's RunMode is restored
+ *       when the run ends)</li>
+ *   <li>{@link CRServo}: write {@code setPower(0)}; {@link Servo}: {@code getPosition} (servo
+ *       writes are skipped because they would move the servo)</li>
+ *   <li>{@link VoltageSensor#getVoltage()}, {@link IMU} and {@link BNO055IMU} reads,
+ *       {@link GoBildaPinpointDriver#update()}</li>
+ *   <li>Per hub: one bulk refresh ({@code clearBulkCache} + {@code getCurrentPosition})</li>
+ *   <li>With a webcam: {@code AprilTagProcessor.getDetections()} on the processor of an
+ *       {@link AprilTagSensor}, timed once the camera is streaming</li>
+ * </ul>
+ *
+ * <p>Robot-specific calls can be added with {@link #addCall(String, String, String, Runnable)}.
+ * Each call is timed with {@link System#nanoTime()} for {@link Config#iterations} iterations (or
+ * until {@link Config#maxSecPerCall}), after a short warmup; results show mean / p95 / max in
+ * microseconds. Benchmarking is sliced across loop cycles so telemetry and stop stay responsive.
+ * When the run completes the results are written as CSV to {@link Config#outputDir} for
+ * comparison across firmware and SDK versions.</p>
+ *
+ * <p>How to read the modes: with {@code OFF} every read is its own hub transaction. With
+ * {@code AUTO}, repeating the same read refreshes the bulk cache every time, so the number is
+ * the cost of a bulk read. With {@code MANUAL}, reads come from the cache; the per-hub
+ * "bulk refresh" row is the once-per-loop cost.</p>
+ *
+ * <h2>Controls (gamepad1)</h2>
+ * <ul>
+ *   <li><b>A</b>: start profiling (RUN only; motors are commanded to 0 during writes)</li>
+ *   <li><b>B</b>: abort</li>
+ *   <li><b>X</b>: toggle summary / detail view</li>
+ *   <li><b>Dpad Up/Down</b>: scroll results</li>
+ * </ul>
+ */
+public final class HardwareCallProfiler extends BaseTeleOpTester {
+
+    /**
+     * Profiler settings.
+     */
+    public static final class Config {
+
+        /** Timed iterations per call and mode. Default: {@code 2000}. */
+        public int iterations = 2000;
+
+        /** Untimed iterations before each call's timed run. Default: {@code 20}. */
+        public int warmupIterations = 20;
+
+        /** Time cap per call and mode (sec), so slow I2C calls finish. Default: {@code 2}. */
+        public double maxSecPerCall = 2.0;
+
+        /** Benchmark time per loop cycle (ms). Default: {@code 40}. */
+        public double sliceMs = 40.0;
+
+        /** Benchmark writes ({@code setPower(0)}, {@code setVelocity(0)}). Default: {@code true}. */
+        public boolean includeWrites = true;
+
+        /** Open the first webcam and benchmark AprilTag detections. Default: {@code true}. */
+        public boolean includeVision = true;
+
+        /**
+         * How long a call may wait to become ready (the webcam to start streaming) before it is
+         * skipped (sec). Default: {@code 10}.
+         */
+        public double maxReadyWaitSec = 10.0;
+
+        /** Bulk caching modes to run, in order. Default: {@code OFF, AUTO, MANUAL}. */
+        public LynxModule.BulkCachingMode[] modes = {
+                LynxModule.BulkCachingMode.OFF,
+                LynxModule.BulkCachingMode.AUTO,
+                LynxModule.BulkCachingMode.MANUAL
+        };
+
+        /** Free-form label written to the CSV header (e.g. SDK and firmware versions). */
+        public String label = "";
+
+        /** Output directory; {@code null} = {@code FIRST/phoenix} on the Robot Controller. */
+        public File outputDir = null;
+
+        private Config() {
+            // Defaults assigned in field initializers.
+        }
+
+        /**
+         * @return a new config with default values
+         */
+        public static Config defaults() {
+            return new Config();
+        }
+
+        /**
+         * @return a deep copy of this config
+         */
+        public Config copy() {
+            Config c = new Config();
+            c.iterations = this.iterations;
+            c.warmupIterations = this.warmupIterations;
+            c.maxSecPerCall = this.maxSecPerCall;
+            c.sliceMs = this.sliceMs;
+            c.includeWrites = this.includeWrites;
+            c.includeVision = this.includeVision;
+            c.maxReadyWaitSec = this.maxReadyWaitSec;
+            c.modes = this.modes.clone();
+            c.label = this.label;
+            c.outputDir = this.outputDir;
+            return c;
+        }
+    }
+
+    private enum Phase {IDLE, RUNNING, DONE}
+
+    private static final class Call {
+        final String hub;
+        final String device;
+        final String call;
+        final Runnable op;
+        final BooleanSupplier ready; // null = always ready
+
+        Call(String hub, String device, String call, Runnable op) {
+            this(hub, device, call, op, null);
+        }
+
+        Call(String hub, String device, String call, Runnable op, BooleanSupplier ready) {
+            this.hub = hub;
+            this.device = device;
+            this.call = call;
+            this.op = op;
+            this.ready = ready;
+        }
+    }
+
+    private static final class Result {
+        final String mode;
+        final Call c;
+        final int n;
+        final double meanUs;
+        final double p95Us;
+        final double maxUs;
+
+        Result(String mode, Call c, int n, double meanUs, double p95Us, double maxUs) {
+            this.mode = mode;
+            this.c = c;
+            this.n = n;
+            this.meanUs = meanUs;
+            this.p95Us = p95Us;
+            this.maxUs = maxUs;
+        }
+    }
+
+    private static final int LINES_PER_PAGE = 12;
+
+    private final Config cfg;
+    private final List<Call> extraCalls = new ArrayList<>();
+
+    private final List<Call> calls = new ArrayList<>();
+    private final List<Result> results = new ArrayList<>();
+    private final long[] samples;
+
+    private List<LynxModule> hubs = new ArrayList<>();
+    private final List<LynxModule.BulkCachingMode> origHubModes = new ArrayList<>();
+    // setVelocity() switches motors to RUN_USING_ENCODER; restored in finish().
+    private final List<DcMotorEx> writtenMotors = new ArrayList<>();
+    private final List<DcMotor.RunMode> origMotorModes = new ArrayList<>();
+    private AprilTagSensor vision = null;
+
+    private Phase phase = Phase.IDLE;
+    private boolean started = false;
+    private int modeIndex = 0;
+    private int callIndex = 0;
+    private int warmupDone = 0;
+    private int recorded = 0;
+    private long callStartNanos = 0L;
+    private boolean callReady = false;
+
+    private boolean detailView = false;
+    private int scroll = 0;
+    private String status = null;
+
+    /**
+     * Create a profiler with default settings.
+     */
+    public HardwareCallProfiler() {
+        this(Config.defaults());
+    }
+
+    /**
+     * Create a profiler.
+     *
+     * @param cfg profiler settings (copied)
+     */
+    public HardwareCallProfiler(Config cfg) {
+        this.cfg = (cfg == null) ? Config.defaults() : cfg.copy();
+        this.samples = new long[Math.max(1, this.cfg.iterations)];
+    }
+
+    /**
+     * Add a robot-specific call to benchmark alongside the hardware map devices.
+     *
+     * @param hub    hub or bus label for grouping (free-form, not {@code null})
+     * @param device device label
+     * @param call   call label
+     * @param op     the call; must be safe to repeat thousands of times
+     * @return this profiler for chaining
+     */
+    public HardwareCallProfiler addCall(String hub, String device, String call, Runnable op) {
+        if (hub == null) {
+            throw new IllegalArgumentException("hub is required");
+        }
+        if (op == null) {
+            throw new IllegalArgumentException("op is required");
+        }
+        extraCalls.add(new Call(hub, device, call, op));
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String name() {
+        return "Hardware Call Profiler";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onInit() {
+        bindings.onPress(gamepads.p1().a(), () -> {
+            if (!started || phase == Phase.RUNNING) return;
+            begin();
+        });
+        bindings.onPress(gamepads.p1().b(), () -> {
+            if (phase != Phase.RUNNING) return;
+            finish("aborted");
+        });
+        bindings.onPress(gamepads.p1().x(), () -> {
+            detailView = !detailView;
+            scroll = 0;
+        });
+        bindings.onPress(gamepads.p1().dpadDown(), () -> scroll += LINES_PER_PAGE / 2);
+        bindings.onPress(gamepads.p1().dpadUp(), () -> scroll = Math.max(0, scroll - LINES_PER_PAGE / 2));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onStart() {
+        started = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onInitLoop(double dtSec) {
+        render();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onLoop(double dtSec) {
+        if (phase == Phase.RUNNING) {
+            runSlice();
+        }
+        render();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void onStop() {
+        if (phase == Phase.RUNNING) {
+            finish("stopped");
+        }
+        closeVision();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Discovery
+    // ---------------------------------------------------------------------------------------------
+
+    private void discover() {
+        calls.clear();
+
+        hubs = safeGetAll(LynxModule.class);
+        origHubModes.clear();
+        for (LynxModule h : hubs) {
+            origHubModes.add(h.getBulkCachingMode());
+        }
+        writtenMotors.clear();
+        origMotorModes.clear();
+
+        Map<String, DcMotorEx> firstMotorPerHub = new LinkedHashMap<>();
+        for (String name : names(DcMotorEx.class)) {
+            final DcMotorEx m = ctx.hw.get(DcMotorEx.class, name);
+            String hub = hubOf(m.getController());
+            if (!firstMotorPerHub.containsKey(hub)) {
+                firstMotorPerHub.put(hub, m);
+            }
+            calls.add(new Call(hub, name, "DcMotor.getCurrentPosition", m::getCurrentPosition));
+            calls.add(new Call(hub, name, "DcMotorEx.getVelocity", m::getVelocity));
+            calls.add(new Call(hub, name, "DcMotorEx.getCurrent", () -> m.getCurrent(CurrentUnit.AMPS)));
+            if (cfg.includeWrites) {
+                writtenMotors.add(m);
+                origMotorModes.add(m.getMode());
+                calls.add(new Call(hub, name, "DcMotor.setPower(0)", () -> m.setPower(0.0)));
+                calls.add(new Call(hub, name, "DcMotorEx.setVelocity(0)", () -> m.setVelocity(0.0)));
+            }
+        }
+        for (Map.Entry<String, DcMotorEx> e : firstMotorPerHub.entrySet()) {
+            final DcMotorEx m = e.getValue();
+            calls.add(new Call(e.getKey(), "(hub)", "bulk refresh", () -> {
+                for (int i = 0; i < hubs.size(); i++) {
+                    hubs.get(i).clearBulkCache();
+                }
+                m.getCurrentPosition();
+            }));
+        }
+
+        if (cfg.includeWrites) {
+            for (String name : names(CRServo.class)) {
+                final CRServo s = ctx.hw.get(CRServo.class, name);
+                calls.add(new Call(hubOf(s.getController()), name, "CRServo.setPower(0)", () -> s.setPower(0.0)));
+            }
+        }
+        for (String name : names(Servo.class)) {
+            final Servo s = ctx.hw.get(Servo.class, name);
+            calls.add(new Call(hubOf(s.getController()), name, "Servo.getPosition", s::getPosition));
+        }
+        for (String name : names(VoltageSensor.class)) {
+            final VoltageSensor v = ctx.hw.get(VoltageSensor.class, name);
+            calls.add(new Call(hubOf(v), name, "VoltageSensor.getVoltage", v::getVoltage));
+        }
+        for (String name : names(IMU.class)) {
+            final IMU imu = ctx.hw.get(IMU.class, name);
+            calls.add(new Call(hubOf(imu), name, "IMU.getRobotYawPitchRollAngles", imu::getRobotYawPitchRollAngles));
+            calls.add(new Call(hubOf(imu), name, "IMU.getRobotAngularVelocity",
+                    () -> imu.getRobotAngularVelocity(AngleUnit.DEGREES)));
+        }
+        for (String name : names(BNO055IMU.class)) {
+            final BNO055IMU imu = ctx.hw.get(BNO055IMU.class, name);
+            calls.add(new Call(hubOf(imu), name, "BNO055IMU.getAngularOrientation", imu::getAngularOrientation));
+        }
+        for (String name : names(GoBildaPinpointDriver.class)) {
+            final GoBildaPinpointDriver p = ctx.hw.get(GoBildaPinpointDriver.class, name);
+            calls.add(new Call(hubOf(p), name, "Pinpoint.update", p::update));
+        }
+
+        if (cfg.includeVision) {
+            SortedSet<String> cams = ctx.hw.getAllNames(WebcamName.class);
+            if (cams != null && !cams.isEmpty()) {
+                String cam = cams.first();
+                try {
+                    vision = FtcVision.aprilTags(ctx.hw, cam, FtcVision.Config.defaults());
+                    final FtcVision.PortalControl pc = FtcVision.portalControl(vision);
+                    final AprilTagProcessor proc = pc.processor();
+                    // The portal opens asynchronously; time the processor only once frames flow.
+                    calls.add(new Call("usb", cam, "AprilTagProcessor.getDetections", proc::getDetections,
+                            () -> pc.cameraState() == VisionPortal.CameraState.STREAMING));
+                } catch (Exception ex) {
+                    status = "vision skipped: " + ex.getClass().getSimpleName();
+                }
+            }
+        }
+
+        calls.addAll(extraCalls);
+    }
+
+    private <T> List<String> names(Class<T> type) {
+        List<String> out = new ArrayList<>();
+        try {
+            SortedSet<String> all = ctx.hw.getAllNames(type);
+            if (all != null) out.addAll(all);
+        } catch (Exception ignored) {
+        }
+        return out;
+    }
+
+    private <T> List<T> safeGetAll(Class<T> type) {
+        try {
+            List<T> all = ctx.hw.getAll(type);
+            return all == null ? new ArrayList<T>() : new ArrayList<>(all);
+        } catch (Exception ignored) {
+            return new ArrayList<>();
+        }
+    }
+
+    private static String hubOf(Object d) {
+        try {
+            String info = (d instanceof HardwareDevice) ? ((HardwareDevice) d).getConnectionInfo() : null;
+            return (info == null || info.isEmpty()) ? "?" : info;
+        } catch (Exception ignored) {
+            return "?";
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Benchmark
+    // ---------------------------------------------------------------------------------------------
+
+    private void begin() {
+        results.clear();
+        status = null;
+        scroll = 0;
+        closeVision();
+        discover();
+        if (calls.isEmpty() || cfg.modes.length == 0) {
+            status = "nothing to profile";
+            phase = Phase.DONE;
+            return;
+        }
+        modeIndex = 0;
+        callIndex = 0;
+        applyMode(cfg.modes[0]);
+        startCall();
+        phase = Phase.RUNNING;
+    }
+
+    private void startCall() {
+        warmupDone = 0;
+        recorded = 0;
+        callReady = false;
+        callStartNanos = System.nanoTime();
+    }
+
+    private void runSlice() {
+        long sliceEnd = System.nanoTime() + (long) (cfg.sliceMs * 1e6);
+        long maxCallNanos = (long) (cfg.maxSecPerCall * 1e9);
+
+        while (phase == Phase.RUNNING && System.nanoTime() < sliceEnd) {
+            Call c = calls.get(callIndex);
+            if (!callReady) {
+                if (c.ready != null && !c.ready.getAsBoolean()) {
+                    if (System.nanoTime() - callStartNanos > (long) (cfg.maxReadyWaitSec * 1e9)) {
+                        status = c.device + " " + c.call + ": not ready, skipped";
+                        nextCall();
+                        continue;
+                    }
+                    return; // check again next loop
+                }
+                callReady = true;
+                callStartNanos = System.nanoTime(); // the wait does not count against maxSecPerCall
+            }
+            try {
+                if (warmupDone < cfg.warmupIterations) {
+                    c.op.run();
+                    warmupDone++;
+                    continue;
+                }
+                long t0 = System.nanoTime();
+                c.op.run();
+                samples[recorded++] = System.nanoTime() - t0;
+            } catch (Exception ex) {
+                status = c.device + " " + c.call + ": " + ex.getClass().getSimpleName();
+                recorded = 0;
+                nextCall();
+                continue;
+            }
+
+            if (recorded >= samples.length || System.nanoTime() - callStartNanos > maxCallNanos) {
+                recordResult(c);
+                nextCall();
+            }
+        }
+    }
+
+    private void recordResult(Call c) {
+        int n = recorded;
+        if (n == 0) {
+            return;
+        }
+        long sum = 0L;
+        for (int i = 0; i < n; i++) {
+            sum += samples[i];
+        }
+        Arrays.sort(samples, 0, n);
+        int p95 = Math.min(n - 1, (int) Math.ceil(0.95 * n) - 1);
+        results.add(new Result(cfg.modes[modeIndex].name(), c, n,
+                sum / (double) n / 1e3, samples[p95] / 1e3, samples[n - 1] / 1e3));
+    }
+
+    private void nextCall() {
+        callIndex++;
+        if (callIndex >= calls.size()) {
+            callIndex = 0;
+            modeIndex++;
+            if (modeIndex >= cfg.modes.length) {
+                finish("complete");
+                return;
+            }
+            applyMode(cfg.modes[modeIndex]);
+        }
+        startCall();
+    }
+
+    private void applyMode(LynxModule.BulkCachingMode mode) {
+        for (LynxModule h : hubs) {
+            try {
+                h.setBulkCachingMode(mode);
+                h.clearBulkCache();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    private void finish(String why) {
+        phase = Phase.DONE;
+        for (int i = 0; i < hubs.size(); i++) {
+            try {
+                LynxModule.BulkCachingMode m = origHubModes.get(i);
+                if (m != null) hubs.get(i).setBulkCachingMode(m);
+            } catch (Exception ignored) {
+            }
+        }
+        for (int i = 0; i < writtenMotors.size(); i++) {
+            try {
+                DcMotor.RunMode m = origMotorModes.get(i);
+                if (m != null) writtenMotors.get(i).setMode(m);
+            } catch (Exception ignored) {
+            }
+        }
+        closeVision();
+
+        String saved = results.isEmpty() ? "nothing saved" : save();
+        status = why + " (" + results.size() + " results); " + saved;
+    }
+
+    private void closeVision() {
+        if (vision != null) {
+            try {
+                vision.close();
+            } catch (Exception ignored) {
+            }
+            vision = null;
+        }
+    }
+
+    private String save() {
+        File dir = (cfg.outputDir != null) ? cfg.outputDir : new File(AppUtil.FIRST_FOLDER, "phoenix");
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(dir, "hwprofile-" + stamp + ".csv");
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                return "cannot create " + dir;
+            }
+            try (PrintWriter w = new PrintWriter(new FileWriter(file))) {
+                w.println("# Phoenix hardware call profile " + stamp);
+                if (cfg.label != null && !cfg.label.isEmpty()) {
+                    w.println("# " + cfg.label);
+                }
+                w.println("mode,hub,device,call,n,mean_us,p95_us,max_us");
+                for (Result r : results) {
+                    w.println(String.format(Locale.US, "%s,%s,%s,%s,%d,%.1f,%.1f,%.1f",
+                            r.mode, csv(r.c.hub), csv(r.c.device), csv(r.c.call),
+                            r.n, r.meanUs, r.p95Us, r.maxUs));
+                }
+            }
+            return "saved " + file.getPath();
+        } catch (IOException ex) {
+            return "save failed: " + ex.getMessage();
+        }
+    }
+
+    private static String csv(String s) {
+        if (s == null) return "";
+        return (s.indexOf(',') >= 0 || s.indexOf('"') >= 0) ? '"' + s.replace("\"", "\"\"") + '"' : s;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Telemetry
+    // ---------------------------------------------------------------------------------------------
+
+    private void render() {
+        Telemetry t = ctx.telemetry;
+        t.clearAll();
+        t.addLine("=== Hardware Call Profiler ===");
+
+        if (phase == Phase.RUNNING) {
+            Call c = calls.get(callIndex);
+            t.addLine(String.format(Locale.US, "Mode %s (%d/%d) | call %d/%d",
+                    cfg.modes[modeIndex], modeIndex + 1, cfg.modes.length, callIndex + 1, calls.size()));
+            t.addLine(c.device + ": " + c.call + " [" + recorded + "/" + samples.length + "]");
+        } else if (phase == Phase.IDLE) {
+            t.addLine(started ? "Press A to profile every configured device." : "Press START, then A to profile.");
+            t.addLine("Motors are commanded to 0 during write tests.");
+        }
+        if (status != null) {
+            t.addLine(status);
+        }
+
+        if (!results.isEmpty()) {
+            t.addLine("");
+            List<String> lines = detailView ? detailLines() : summaryLines();
+            int from = Math.min(scroll, Math.max(0, lines.size() - 1));
+            for (int i = from; i < Math.min(lines.size(), from + LINES_PER_PAGE); i++) {
+                t.addLine(lines.get(i));
+            }
+            t.addLine(String.format(Locale.US, "[%s %d-%d of %d]", detailView ? "detail" : "summary",
+                    from + 1, Math.min(lines.size(), from + LINES_PER_PAGE), lines.size()));
+        }
+
+        t.addLine("");
+        t.addLine("Controls: A start | B abort | X summary/detail | dpad U/D scroll");
+        t.update();
+    }
+
+    /** One line per mode and call type: mean of device means, worst p95 and max (us). */
+    private List<String> summaryLines() {
+        Map<String, double[]> agg = new LinkedHashMap<>();
+        for (Result r : results) {
+            String key = r.mode + " " + r.c.call;
+            double[] a = agg.get(key);
+            if (a == null) {
+                a = new double[4];
+                agg.put(key, a);
+            }
+            a[0] += r.meanUs;
+            a[1] = Math.max(a[1], r.p95Us);
+            a[2] = Math.max(a[2], r.maxUs);
+            a[3] += 1;
+        }
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, double[]> e : agg.entrySet()) {
+            double[] a = e.getValue();
+            out.add(String.format(Locale.US, "%s: mean %.0f p95 %.0f max %.0f us (x%d)",
+                    e.getKey(), a[0] / a[3], a[1], a[2], (int) a[3]));
+        }
+        return out;
+    }
+
+    /** One line per result, grouped by mode then hub. */
+    private List<String> detailLines() {
+        List<String> out = new ArrayList<>();
+        String lastGroup = null;
+        List<Result> byHub = new ArrayList<>(results);
+        Collections.sort(byHub, (a, b) -> a.c.hub.compareTo(b.c.hub)); // stable: call order kept
+        for (String mode : modeNames()) {
+            for (Result r : byHub) {
+                if (!r.mode.equals(mode)) continue;
+                String group = mode + " @ " + r.c.hub;
+                if (!group.equals(lastGroup)) {
+                    out.add("-- " + group);
+                    lastGroup = group;
+                }
+                out.add(String.format(Locale.US, "%s %s: %.0f/%.0f/%.0f us",
+                        r.c.device, r.c.call, r.meanUs, r.p95Us, r.maxUs));
+            }
+        }
+        return out;
+    }
+
+    private List<String> modeNames() {
+        List<String> out = new ArrayList<>();
+        for (LynxModule.BulkCachingMode m : cfg.modes) {
+            out.add(m.name());
+        }
+        return out;
+    }
+}
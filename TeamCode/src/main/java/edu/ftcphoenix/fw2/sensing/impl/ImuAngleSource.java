@@ -8,18 +8,73 @@ import edu.ftcphoenix.fw2.sensing.FeedbackSample;
 /**
  * Reads yaw angle (heading) from a BNO055 IMU.
  * Returns degrees by default.
+ *
+ * <p>Built with {@link #background(BNO055IMU)} (or an {@link ImuSampler}), reads come from the
+ * sampler's ring, extrapolated to the requested timestamp, so the loop never waits on I2C.
+ * Otherwise each new timestamp does a synchronous read. Either way, repeated queries with the
+ * same frame timestamp return the same sample without touching the IMU or allocating.</p>
  */
 public class ImuAngleSource implements AngleSource {
     private final BNO055IMU imu;
+    private final ImuSampler sampler; // null = synchronous reads
+
+    // Last result, reused for repeated queries within one frame (loop thread only).
+    private long lastNanoTime = Long.MIN_VALUE;
+    private FeedbackSample<Double> last = null;
 
     public ImuAngleSource(BNO055IMU imu) {
+        this(imu, null);
+    }
+
+    /**
+     * @param imu     the IMU (used directly if {@code sampler} is null or has failed)
+     * @param sampler background sampler for {@code imu}, or null for synchronous reads
+     */
+    public ImuAngleSource(BNO055IMU imu, ImuSampler sampler) {
         this.imu = imu;
+        this.sampler = sampler;
+    }
+
+    /** Source backed by a new background {@link ImuSampler} with default settings. */
+    public static ImuAngleSource background(BNO055IMU imu) {
+        return new ImuAngleSource(imu, new ImuSampler(imu));
+    }
+
+    /** The background sampler, or null for a synchronous source. */
+    public ImuSampler sampler() {
+        return sampler;
     }
 
     @Override
     public FeedbackSample<Double> getAngle(long nanoTime) {
+        if (last != null && nanoTime == lastNanoTime) {
+            return last;
+        }
+        double headingDeg = readDeg(nanoTime);
+        last = new FeedbackSample<Double>(!Double.isNaN(headingDeg), headingDeg, nanoTime);
+        lastNanoTime = nanoTime;
+        return last;
+    }
+
+    @Override
+    public double getAngleOrNaN(long nanoTime) {
+        if (last != null && nanoTime == lastNanoTime) {
+            return last.valid ? last.value : Double.NaN;
+        }
+        return getAngle(nanoTime).valid ? last.value : Double.NaN;
+    }
+
+    private double readDeg(long nanoTime) {
+        if (sampler != null && !sampler.hasFailed()) {
+            sampler.ensureRunning();
+            double deg = sampler.yawDegAt(nanoTime);
+            if (!Double.isNaN(deg)) {
+                return deg;
+            }
+            // No fresh background sample yet (first start, or restart after an idle stop):
+            // read the IMU directly this once.
+        }
         // Assuming IMU is configured with units = degrees
-        double headingDeg = imu.getAngularOrientation().firstAngle;
-        return new FeedbackSample<Double>(true, headingDeg, nanoTime);
+        return imu.getAngularOrientation().firstAngle;
     }
 }
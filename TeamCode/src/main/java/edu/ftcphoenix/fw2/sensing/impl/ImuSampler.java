@@ -0,0 +1,298 @@
+package edu.ftcphoenix.fw2.sensing.impl;
+
+import com.qualcomm.hardware.bosch.BNO055IMU;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Background sampling service for a BNO055 IMU.
+ *
+ * <p>Each {@code getAngularOrientation()} call is a multi-millisecond I2C read. This class does
+ * the reads on a daemon thread, back to back (the sensor fuses at ~100 Hz), and publishes yaw
+ * and yaw rate stamped with {@link System#nanoTime()} into a fixed primitive ring. Readers on
+ * the loop thread never touch the bus: {@link #yawDegAt(long)} interpolates inside the history
+ * and extrapolates past the newest sample by its yaw rate, so the heading matches the frame
+ * timestamp. A newest sample more than {@code maxExtrapolationMs} older than the requested time
+ * is stale (for example right after an idle stop and restart) and yields NaN, so callers fall
+ * back to a direct read instead of trusting an old heading.</p>
+ *
+ * <p>Threading: one writer (the sampling thread), readers on the loop thread. Ring slots are
+ * per-slot seqlocks over {@link AtomicLongArray}s; reads take no locks and do not allocate. The
+ * thread exits on its own after {@link #IDLE_STOP_NANOS} without reads (e.g. after the OpMode
+ * ends); the next read restarts it via {@link #ensureRunning()}.</p>
+ *
+ * <p>Units follow the IMU parameters; like {@link ImuAngleSource}, degrees are assumed.</p>
+ */
+public final class ImuSampler {
+
+    /** Ring capacity in samples (over half a second at 100 Hz). */
+    public static final int CAPACITY = 64;
+
+    /** Stop sampling when nobody has read for this long. */
+    public static final long IDLE_STOP_NANOS = 1_000_000_000L;
+
+    // Samples this close to being overwritten are not trusted by readers.
+    private static final int GUARD = 4;
+
+    // Slot layout: time (nanos), yaw and rate (raw double bits).
+    private static final int T = 0;
+    private static final int YAW = 1;
+    private static final int RATE = 2;
+    private static final int STRIDE = 3;
+
+    private final BNO055IMU imu;
+    private final long minPeriodNanos;
+    private final long maxExtrapolationNanos;
+
+    private final AtomicLongArray data = new AtomicLongArray(CAPACITY * STRIDE);
+    private final AtomicLongArray seq = new AtomicLongArray(CAPACITY);
+
+    // Number of samples published; sample n lives in slot n % CAPACITY.
+    private volatile long published = 0L;
+
+    private volatile boolean running = false;
+    // Bumped on every start/stop so an old thread that has not exited yet cannot keep sampling.
+    private volatile int generation = 0;
+    private volatile boolean failed = false;
+    private volatile String lastError = null;
+    private volatile long lastReadNanos = 0L;
+    private volatile double lastI2cMs = Double.NaN;
+    private Thread thread = null;
+
+    // Reader-only scratch (t, yaw, rate) for two samples.
+    private final long[] rt = new long[2];
+    private final double[] ryaw = new double[2];
+    private final double[] rrate = new double[2];
+
+    /** Sample as fast as the bus allows; extrapolate at most 50 ms. */
+    public ImuSampler(BNO055IMU imu) {
+        this(imu, 0.0, 50.0);
+    }
+
+    /**
+     * @param imu                the IMU (angle unit configured as degrees)
+     * @param minPeriodMs        minimum time between reads ({@code 0} = back to back)
+     * @param maxExtrapolationMs longest rate extrapolation past the newest sample; beyond it the
+     *                           history is treated as stale
+     */
+    public ImuSampler(BNO055IMU imu, double minPeriodMs, double maxExtrapolationMs) {
+        this.imu = imu;
+        this.minPeriodNanos = (long) (Math.max(0.0, minPeriodMs) * 1e6);
+        this.maxExtrapolationNanos = (long) (Math.max(0.0, maxExtrapolationMs) * 1e6);
+    }
+
+    /** Start the sampling thread if it is not running (and has not failed). Cheap to call every frame. */
+    public void ensureRunning() {
+        lastReadNanos = System.nanoTime();
+        if (running || failed) {
+            return;
+        }
+        running = true;
+        final int gen = ++generation;
+        thread = new Thread(() -> sampleLoop(gen), "ImuSampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Ask the sampling thread to exit. Does not wait. */
+    public void stop() {
+        generation++;
+        running = false;
+        Thread t = thread;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** True if sampling stopped because the driver threw; callers should read synchronously. */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    public String lastError() {
+        return lastError;
+    }
+
+    public long sampleCount() {
+        return published;
+    }
+
+    /** Duration of the most recent IMU read (ms). */
+    public double lastI2cMs() {
+        return lastI2cMs;
+    }
+
+    /**
+     * Yaw (degrees, wrapped to [-180, 180)) at {@code nanoTime}: interpolated inside the history,
+     * extrapolated by yaw rate past the newest sample. NaN if no usable sample exists, or if the
+     * newest sample is more than the extrapolation limit older than {@code nanoTime}.
+     */
+    public double yawDegAt(long nanoTime) {
+        lastReadNanos = System.nanoTime();
+        long newest = published - 1;
+        if (newest < 0 || !read(newest, 1)) {
+            return Double.NaN;
+        }
+        if (nanoTime >= rt[1]) {
+            long dt = nanoTime - rt[1];
+            if (dt > maxExtrapolationNanos) {
+                return Double.NaN; // stale: the sampler stopped or has not caught up since a restart
+            }
+            return wrapDeg(ryaw[1] + rrate[1] * dt * 1e-9);
+        }
+
+        long oldest = Math.max(0L, newest - (CAPACITY - GUARD) + 1);
+        if (!read(oldest, 0)) {
+            return Double.NaN;
+        }
+        if (nanoTime <= rt[0]) {
+            return ryaw[0]; // older than the history: best effort is the oldest sample
+        }
+
+        // Binary search for the last sample at or before nanoTime.
+        long lo = oldest;
+        long hi = newest;
+        while (hi - lo > 1) {
+            long mid = (lo + hi) >>> 1;
+            long tm = readTime(mid);
+            if (tm == Long.MIN_VALUE) {
+                return Double.NaN; // overwritten while searching
+            }
+            if (tm <= nanoTime) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        if (!read(lo, 0) || !read(hi, 1)) {
+            return Double.NaN;
+        }
+        double span = rt[1] - rt[0];
+        double u = span > 0 ? (nanoTime - rt[0]) / span : 0.0;
+        return wrapDeg(ryaw[0] + wrapDeg(ryaw[1] - ryaw[0]) * u);
+    }
+
+    /** Yaw rate (degrees/sec) from the newest sample, or NaN if none. */
+    public double latestRateDegPerSec() {
+        lastReadNanos = System.nanoTime();
+        long newest = published - 1;
+        return (newest >= 0 && read(newest, 1)) ? rrate[1] : Double.NaN;
+    }
+
+    /** Age of the newest sample relative to {@code nanoTime} (ms), or NaN if none. */
+    public double latestAgeMs(long nanoTime) {
+        long t = readTime(published - 1);
+        return t == Long.MIN_VALUE ? Double.NaN : (nanoTime - t) / 1e6;
+    }
+
+    /** Average sample rate over the retained history (Hz), NaN until two samples exist. */
+    public double sampleRateHz() {
+        long newest = published - 1;
+        long oldest = Math.max(0L, newest - (CAPACITY - GUARD) + 1);
+        if (newest - oldest < 1) {
+            return Double.NaN;
+        }
+        long t1 = readTime(newest);
+        long t0 = readTime(oldest);
+        if (t0 == Long.MIN_VALUE || t1 == Long.MIN_VALUE || t1 <= t0) {
+            return Double.NaN;
+        }
+        return (newest - oldest) * 1e9 / (t1 - t0);
+    }
+
+    // --- sampling thread ---
+
+    private void sampleLoop(int gen) {
+        try {
+            while (gen == generation && !Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                if (start - lastReadNanos > IDLE_STOP_NANOS) {
+                    break;
+                }
+
+                double yaw = imu.getAngularOrientation().firstAngle;
+                double rate = imu.getAngularVelocity().zRotationRate;
+                long t = System.nanoTime();
+                publish((start + t) >>> 1, yaw, rate);
+                lastI2cMs = (t - start) / 1e6;
+
+                if (minPeriodNanos > 0) {
+                    long remaining = minPeriodNanos - (System.nanoTime() - start);
+                    if (remaining > 0) {
+                        Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // stop() requested; exit quietly.
+        } catch (RuntimeException e) {
+            lastError = e.toString();
+            failed = true;
+        } finally {
+            if (gen == generation) {
+                running = false;
+            }
+        }
+    }
+
+    private void publish(long tNanos, double yawDeg, double rateDegPerSec) {
+        long n = published;
+        int slot = (int) (n % CAPACITY);
+        int base = slot * STRIDE;
+        seq.set(slot, 2 * n + 1); // writing
+        data.set(base + T, tNanos);
+        data.set(base + YAW, Double.doubleToRawLongBits(yawDeg));
+        data.set(base + RATE, Double.doubleToRawLongBits(rateDegPerSec));
+        seq.set(slot, 2 * n + 2); // done
+        published = n + 1;
+    }
+
+    // --- seqlock reads ---
+
+    private boolean read(long n, int into) {
+        if (n < 0) {
+            return false;
+        }
+        int slot = (int) (n % CAPACITY);
+        int base = slot * STRIDE;
+        long expect = 2 * n + 2;
+        if (seq.get(slot) != expect) {
+            return false;
+        }
+        long t = data.get(base + T);
+        double yaw = Double.longBitsToDouble(data.get(base + YAW));
+        double rate = Double.longBitsToDouble(data.get(base + RATE));
+        if (seq.get(slot) != expect) {
+            return false;
+        }
+        rt[into] = t;
+        ryaw[into] = yaw;
+        rrate[into] = rate;
+        return true;
+    }
+
+    private long readTime(long n) {
+        if (n < 0) {
+            return Long.MIN_VALUE;
+        }
+        int slot = (int) (n % CAPACITY);
+        long expect = 2 * n + 2;
+        if (seq.get(slot) != expect) {
+            return Long.MIN_VALUE;
+        }
+        long t = data.get(slot * STRIDE + T);
+        return seq.get(slot) == expect ? t : Long.MIN_VALUE;
+    }
+
+    private static double wrapDeg(double deg) {
+        double w = (deg + 180.0) % 360.0;
+        if (w < 0) {
+            w += 360.0;
+        }
+        return w - 180.0;
+    }
+}
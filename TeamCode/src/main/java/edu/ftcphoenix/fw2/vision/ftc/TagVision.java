@@ -20,21 +20,42 @@ public class TagVision {
     VisionPortal visionPortal;
     Telemetry telemetry;
     HardwareMap hardwareMap;
+    // Live view stopped (detection only); follows stopLiveView()/resumeLiveView().
+    boolean competition;
+    // Tag annotations are fixed when the portal is built.
+    final boolean annotated;
+
     public TagVision(HardwareMap hardwareMap, Telemetry telemetry, String strName) {
+        this(hardwareMap, telemetry, strName, false);
+    }
+
+    /**
+     * @param competition if true, skip tag annotations and the live preview so the camera thread
+     *                    only does detection (use in match OpModes); the preview can be brought
+     *                    back with {@link #resumeLiveView()}
+     */
+    public TagVision(HardwareMap hardwareMap, Telemetry telemetry, String strName, boolean competition) {
+        boolean draw = !competition;
         tagProcessor = new AprilTagProcessor.Builder()
-                .setDrawAxes(true)
-                .setDrawCubeProjection(true)
-                .setDrawTagID(true)
-                .setDrawTagOutline(true)
+                .setDrawAxes(draw)
+                .setDrawCubeProjection(draw)
+                .setDrawTagID(draw)
+                .setDrawTagOutline(draw)
                 .build();
 
         VisionPortal.Builder b = new VisionPortal.Builder()
-                .addProcessor(tagProcessor);
+                .addProcessor(tagProcessor)
+                .setShowStatsOverlay(draw);
         if (strName != null) {
             b.setCamera(hardwareMap.get(WebcamName.class, strName))
                     .setCameraResolution(new Size(640, 480));
         }
         visionPortal = b.build();
+        this.competition = competition;
+        this.annotated = draw;
+        if (competition) {
+            visionPortal.stopLiveView();
+        }
 
         // this.hardwareMap is referring to the one in the class
         this.hardwareMap = hardwareMap;
@@ -84,6 +105,34 @@ public class TagVision {
                 .min(Comparator.comparingDouble(d -> Math.abs(d.ftcPose.bearing)));
     }
 
+    /** Stop the live preview (detection keeps running); reported as the COMPETITION profile. */
+    public void stopLiveView() {
+        visionPortal.stopLiveView();
+        competition = true;
+    }
+
+    /**
+     * Resume the live preview; reported as the DEBUG profile. Tag annotations stay as built, so a
+     * portal built for competition shows a plain preview.
+     */
+    public void resumeLiveView() {
+        visionPortal.resumeLiveView();
+        competition = false;
+    }
+
+    /** Camera frame rate reported by the portal. */
+    public float getFps() {
+        return visionPortal.getFps();
+    }
+
+    /** Add profile and frame rate lines to telemetry. */
+    public void addTelemetry() {
+        telemetry.addData("vision.profile", competition ? "COMPETITION" : "DEBUG");
+        telemetry.addData("vision.annotations", annotated);
+        telemetry.addData("vision.fps", visionPortal.getFps());
+        telemetry.addData("vision.poseSolveMsPerTag", tagProcessor.getPerTagAvgPoseSolveTime());
+    }
+
     public void close() {
         visionPortal.close();
     }
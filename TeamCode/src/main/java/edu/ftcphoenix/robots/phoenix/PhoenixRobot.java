@@ -11,11 +11,14 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.BooleanSupplier;
 
+import edu.ftcphoenix.fw.actuation.PowerBudget;
 import edu.ftcphoenix.fw.core.control.HysteresisLatch;
 import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.core.geometry.Pose2d;
 import edu.ftcphoenix.fw.core.geometry.Pose3d;
+import edu.ftcphoenix.fw.core.init.InitOrchestrator;
 import edu.ftcphoenix.fw.core.time.LoopClock;
+import edu.ftcphoenix.fw.drive.DriveControlThread;
 import edu.ftcphoenix.fw.drive.DriveOverlayMask;
 import edu.ftcphoenix.fw.drive.DriveOverlayStack;
 import edu.ftcphoenix.fw.drive.DriveSignal;
@@ -27,9 +30,11 @@ import edu.ftcphoenix.fw.drive.source.GamepadDriveSource;
 import edu.ftcphoenix.fw.field.TagLayout;
 import edu.ftcphoenix.fw.ftc.FtcDrives;
 import edu.ftcphoenix.fw.ftc.FtcGameTagLayout;
+import edu.ftcphoenix.fw.ftc.FtcHardware;
 import edu.ftcphoenix.fw.ftc.FtcTelemetryDebugSink;
 import edu.ftcphoenix.fw.ftc.FtcVision;
 import edu.ftcphoenix.fw.ftc.localization.PinpointPoseEstimator;
+import edu.ftcphoenix.fw.localization.PredictivePoseEstimator;
 import edu.ftcphoenix.fw.input.Gamepads;
 import edu.ftcphoenix.fw.input.binding.Bindings;
 import edu.ftcphoenix.fw.sensing.observation.ObservationSource2d;
@@ -67,9 +72,12 @@ public final class PhoenixRobot {
     private final DebugSink dbg;
     private Shooter shooter;
     private MecanumDrivebase drivebase;
+    private PowerBudget powerBudget;
     private PinpointPoseEstimator pinpoint;
+    private PredictivePoseEstimator predictedPose;
     private DriveSource stickDrive;
     private DriveSource driveWithAim;
+    private DriveControlThread shootBrace;
     private CameraMountConfig cameraMountConfig;
     private AprilTagSensor tagSensor;
     private TagTarget scoringTarget;
@@ -130,31 +138,57 @@ public final class PhoenixRobot {
      */
     public void initTeleOp() {
 
-        // --- Create mechanisms ---
+        // --- Hardware ---
+        // The devices below do not depend on each other, and several of them mostly wait
+        // (Pinpoint reset, camera open), so initialize them in parallel.
+        InitOrchestrator init = new InitOrchestrator(4);
+
+        // Drive and shooter share one current budget so flywheel recovery wins under load.
+        powerBudget = new PowerBudget(RobotConfig.Power.budget, FtcHardware.batteryVoltage(hardwareMap));
+
         MecanumDrivebase.Config mecanumConfig = MecanumDrivebase.Config.defaults();
         FtcDrives.MecanumWiringConfig mecanumWiring = RobotConfig.DriveTrain.mecanumWiring();
-        drivebase = FtcDrives.mecanum(
+        InitOrchestrator.Step<MecanumDrivebase> driveStep = init.step("drive", () -> FtcDrives.mecanum(
                 hardwareMap,
                 mecanumWiring,
-                mecanumConfig);
+                mecanumConfig,
+                powerBudget,
+                RobotConfig.Power.priorityDrive,
+                RobotConfig.Power.motorDrive));
 
         // Use motor braking to help resist small pushes when commanded power is 0.
         // PoseLock will actively correct position, but BRAKE helps reduce "coast".
-        FtcDrives.setDriveBrake(hardwareMap, mecanumWiring, RobotConfig.DriveTrain.zeroPowerBrake);
-
-        shooter = new Shooter(hardwareMap, telemetry, gamepads);
+        init.run("driveBrake",
+                () -> FtcDrives.setDriveBrake(hardwareMap, mecanumWiring, RobotConfig.DriveTrain.zeroPowerBrake),
+                driveStep);
 
-        // --- Use the standard TeleOp stick mapping for mecanum.
-        stickDrive = GamepadDriveSource.teleOpMecanumSlowRb(gamepads);
+        InitOrchestrator.Step<Shooter> shooterStep =
+                init.step("shooter", () -> new Shooter(hardwareMap, telemetry, gamepads, powerBudget));
 
         // --- Odometry (goBILDA Pinpoint) ---
         // This is used for pose-lock (resist bumps while shooting). It can also be used for
         // autonomous / fusion later.
-        pinpoint = new PinpointPoseEstimator(hardwareMap, RobotConfig.Localization.pinpoint);
+        InitOrchestrator.Step<PinpointPoseEstimator> pinpointStep = init.step("pinpoint",
+                () -> new PinpointPoseEstimator(hardwareMap, RobotConfig.Localization.pinpoint));
 
         // --- Vision ---
+        InitOrchestrator.Step<AprilTagSensor> visionStep = init.step("vision",
+                () -> FtcVision.aprilTags(hardwareMap, RobotConfig.Vision.nameWebcam));
+
+        init.awaitAll();
+        drivebase = driveStep.get();
+        shooter = shooterStep.get();
+        pinpoint = pinpointStep.get();
+        tagSensor = visionStep.get();
+
+        // Pose lock reacts to where the robot will be when its command lands, not where the
+        // Pinpoint last sampled it.
+        predictedPose = new PredictivePoseEstimator(pinpoint, pinpoint, RobotConfig.Localization.prediction);
+
+        // --- Use the standard TeleOp stick mapping for mecanum.
+        stickDrive = GamepadDriveSource.teleOpMecanumSlowRb(gamepads);
+
         cameraMountConfig = RobotConfig.Vision.cameraMount;
-        tagSensor = FtcVision.aprilTags(hardwareMap, RobotConfig.Vision.nameWebcam);
 
         // Use the FTC-provided tag layout metadata (field coordinates + tag heading).
         // This is optional for pure “vision-only” aiming, but it becomes important when you
@@ -290,17 +324,6 @@ public final class PhoenixRobot {
         //
         // Order matters only when two enabled overlays claim the same DOF (the last layer wins).
         driveWithAim = DriveOverlayStack.on(stickDrive)
-                .add(
-                        "shootBrace",
-                        shootBraceLatch::get,
-                        DriveGuidance.poseLock(
-                                pinpoint,
-                                DriveGuidancePlan.Tuning.defaults()
-                                        .withTranslateKp(0.08)
-                                        .withMaxTranslateCmd(0.35)
-                        ),
-                        DriveOverlayMask.TRANSLATION_ONLY
-                )
                 .add(
                         "autoAimBlue",
                         () -> autoAimEnabled.getAsBoolean()
@@ -319,9 +342,25 @@ public final class PhoenixRobot {
                 )
                 .build();
 
+        // Shoot brace (pose lock, translation only) runs on a high-rate control thread on top of
+        // the stack above, so it holds position against bumps regardless of loop time.
+        shootBrace = new DriveControlThread(
+                drivebase,
+                predictedPose,
+                DriveGuidance.poseLock(
+                        predictedPose,
+                        DriveGuidancePlan.Tuning.defaults()
+                                .withTranslateKp(0.08)
+                                .withMaxTranslateCmd(0.35)
+                ),
+                DriveOverlayMask.TRANSLATION_ONLY,
+                RobotConfig.DriveTrain.controlThread
+        );
+
         telemetry.addLine("Phoenix TeleOp with AutoAim");
         telemetry.addLine("Left stick: drive, Right stick: turn, RB: slow mode");
         telemetry.addLine("P2 LB: auto-aim + lock translation (shoot brace)");
+        init.debugDump(dbg, "init");
         telemetry.update();
 
         // Create bindings
@@ -398,9 +437,8 @@ public final class PhoenixRobot {
         bindings.update(clock);
 
         // --- Odometry update (needed for pose lock) ---
-        if (pinpoint != null) {
-            pinpoint.update(clock);
-        }
+        // (The predictor updates the Pinpoint itself; the brace thread updates it while active.)
+        shootBrace.updatePose(clock);
 
         // --- Shoot-brace latch (pose lock translation only) ---
         updateShootBraceEnabled();
@@ -415,15 +453,19 @@ public final class PhoenixRobot {
 
         // --- 4) Drive: guidance overlay (P2 LB may override omega) ---
         DriveSignal cmd = driveWithAim.get(clock).clamped();
-        drivebase.update(clock);
-        drivebase.drive(cmd);
+        shootBrace.drive(clock, cmd, shootBraceLatch.get());
 
         // --- 4) Other mechanisms ---
 
+        // Reallocate current now that every output has been commanded for this loop.
+        powerBudget.update(clock);
+
 
         // --- 5) Telemetry / debug ---
         telemetry.addData("shooter velocity", shooter.getVelocity());
         telemetry.addData("shootBrace", shootBraceLatch.get());
+        telemetry.addData("power", "%.1fA/%.1fA%s", powerBudget.grantedAmps(), powerBudget.budgetAmps(),
+                powerBudget.isThrottling() ? " (throttling)" : "");
         if (pinpoint != null) {
             telemetry.addData("pose", pinpoint.getEstimate());
         }
@@ -524,6 +566,9 @@ public final class PhoenixRobot {
      * Stop hook shared by all OpModes.
      */
     public void stopAny() {
+        if (shootBrace != null) {
+            shootBrace.stop();
+        }
         drivebase.stop();
     }
 
@@ -2,9 +2,12 @@ package edu.ftcphoenix.robots.phoenix;
 
 import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
 
+import edu.ftcphoenix.fw.actuation.PowerBudget;
 import edu.ftcphoenix.fw.core.hal.Direction;
+import edu.ftcphoenix.fw.drive.DriveControlThread;
 import edu.ftcphoenix.fw.ftc.FtcDrives;
 import edu.ftcphoenix.fw.ftc.localization.PinpointPoseEstimator;
+import edu.ftcphoenix.fw.localization.PredictivePoseEstimator;
 import edu.ftcphoenix.fw.sensing.vision.CameraMountConfig;
 
 /**
@@ -43,6 +46,10 @@ public class RobotConfig {
          */
         public static final boolean zeroPowerBrake = true;
 
+        /**
+         * High-rate control thread used by the shoot brace (pose lock).
+         */
+        public static DriveControlThread.Config controlThread = DriveControlThread.Config.defaults();
 
         /**
          * Convenience wiring bundle for framework helpers/testers that want to instantiate a mecanum drive.
@@ -93,6 +100,34 @@ public class RobotConfig {
     }
 
 
+    /**
+     * Shared power budget: how much current the drive and mechanisms may draw together, and who
+     * gets it first when they cannot all have it.
+     *
+     * <p>The flywheel is served first so shot recovery stays fast while driving; the drive is
+     * throttled first. Motor models are per motor.</p>
+     */
+    public static class Power {
+        public static final PowerBudget.Config budget = PowerBudget.Config.defaults()
+                .withBudgetAmps(20.0);
+
+        public static final int priorityShooter = 3;
+        public static final int priorityTransfer = 2;
+        public static final int priorityDrive = 1;
+
+        /**
+         * goBILDA 5203, 312 RPM (537.7 ticks/rev).
+         */
+        public static final PowerBudget.MotorModel motorDrive = PowerBudget.MotorModel.goBilda5203(537.7, 312);
+
+        /**
+         * goBILDA 5203, 6000 RPM (28 ticks/rev).
+         */
+        public static final PowerBudget.MotorModel motorShooter = PowerBudget.MotorModel.goBilda5203(28, 6000);
+
+        public static final PowerBudget.MotorModel servoTransfer = PowerBudget.MotorModel.crServo();
+    }
+
     /**
      * Vision-related configuration for the Phoenix robot.
      *
@@ -159,6 +194,12 @@ public class RobotConfig {
             // pinpoint.withResetWaitMs(300);
             // pinpoint.withQuality(0.75);
         }
+
+        /**
+         * Pose prediction used by pose lock: projects the Pinpoint pose forward to when the
+         * drive command takes effect (about one loop plus motor response).
+         */
+        public static PredictivePoseEstimator.Config prediction = PredictivePoseEstimator.Config.defaults();
     }
 
     /**
@@ -8,8 +8,10 @@ import edu.ftcphoenix.fw.core.debug.DebugSink;
 import edu.ftcphoenix.fw.actuation.Actuators;
 import edu.ftcphoenix.fw.actuation.Plant;
 import edu.ftcphoenix.fw.actuation.PlantTasks;
+import edu.ftcphoenix.fw.actuation.PowerBudget;
 import edu.ftcphoenix.fw.input.Gamepads;
 import edu.ftcphoenix.fw.task.Task;
+import edu.ftcphoenix.fw.task.TaskTemplate;
 import edu.ftcphoenix.fw.task.Tasks;
 import edu.ftcphoenix.fw.core.math.InterpolatingTable1D;
 import edu.ftcphoenix.fw.core.math.MathUtil;
@@ -21,6 +23,9 @@ import edu.ftcphoenix.fw.core.math.MathUtil;
  * and exposes small, non-blocking {@link Task} helpers for TeleOp and autonomous.
  * Methods are named "instantX" to emphasize that they return tasks that can be
  * scheduled without blocking the main loop.</p>
+ *
+ * <p>The tasks are built once (as {@link TaskTemplate}s) in the constructor, so button presses
+ * reuse them instead of allocating a new task each time.</p>
  */
 public class Shooter {
 
@@ -39,6 +44,15 @@ public class Shooter {
     private double velocity;
     private boolean isShooterOn;
 
+    // Prebuilt tasks handed out by the instantX methods.
+    private final TaskTemplate taskApplyVelocity;
+    private final TaskTemplate taskStopShooter;
+    private final TaskTemplate taskPusherBack;
+    private final TaskTemplate taskPusherFront;
+    private final TaskTemplate taskTransferForward;
+    private final TaskTemplate taskTransferBackward;
+    private final TaskTemplate taskStopTransfer;
+
     // ----------------------------------------------------------------------
     // Calibration table: distance (in) → shooter velocity (native units)
     // ----------------------------------------------------------------------
@@ -73,6 +87,16 @@ public class Shooter {
      * Construct the shooter subsystem and wire all associated hardware.
      */
     public Shooter(HardwareMap hardwareMap, Telemetry telemetry, Gamepads gamepads) {
+        this(hardwareMap, telemetry, gamepads, null);
+    }
+
+    /**
+     * Construct the shooter subsystem with its flywheel and transfer registered in a shared
+     * power budget.
+     *
+     * @param powerBudget shared budget (may be {@code null} for no budgeting)
+     */
+    public Shooter(HardwareMap hardwareMap, Telemetry telemetry, Gamepads gamepads, PowerBudget powerBudget) {
         plantPusher = Actuators.plant(hardwareMap)
                 .servo(RobotConfig.Shooter.nameServoPusher,
                         RobotConfig.Shooter.directionServoPusher)
@@ -80,6 +104,8 @@ public class Shooter {
                 .build();
 
         plantTransfer = Actuators.plant(hardwareMap)
+                .powerBudget(powerBudget, "transfer",
+                        RobotConfig.Power.priorityTransfer, RobotConfig.Power.servoTransfer)
                 .crServo(RobotConfig.Shooter.nameCrServoTransferLeft,
                         RobotConfig.Shooter.directionServoTransferLeft)
                 .andCrServo(RobotConfig.Shooter.nameCrServoTransferRight,
@@ -88,6 +114,8 @@ public class Shooter {
                 .build();
 
         plantShooter = Actuators.plant(hardwareMap)
+                .powerBudget(powerBudget, "shooter",
+                        RobotConfig.Power.priorityShooter, RobotConfig.Power.motorShooter)
                 .motor(RobotConfig.Shooter.nameMotorShooterLeft,
                         RobotConfig.Shooter.directionMotorShooterLeft)
                 .andMotor(RobotConfig.Shooter.nameMotorShooterRight,
@@ -97,6 +125,17 @@ public class Shooter {
 
         isShooterOn = false;
         velocity = RobotConfig.Shooter.velocityMin;
+
+        // Velocity changes at runtime, so read it when the task runs rather than when it is built.
+        taskApplyVelocity = TaskTemplate.of(() -> Tasks.runOnce(() -> plantShooter.setTarget(velocity)));
+        taskStopShooter = TaskTemplate.of(() -> PlantTasks.setInstant(plantShooter, 0));
+        taskPusherBack = TaskTemplate.of(() -> PlantTasks.setInstant(plantPusher,
+                RobotConfig.Shooter.targetPusherBack));
+        taskPusherFront = TaskTemplate.of(() -> PlantTasks.setInstant(plantPusher,
+                RobotConfig.Shooter.targetPusherFront));
+        taskTransferForward = TaskTemplate.of(() -> PlantTasks.setInstant(plantTransfer, 1));
+        taskTransferBackward = TaskTemplate.of(() -> PlantTasks.setInstant(plantTransfer, -1));
+        taskStopTransfer = TaskTemplate.of(() -> PlantTasks.setInstant(plantTransfer, 0));
     }
 
     /**
@@ -174,7 +213,7 @@ public class Shooter {
      */
     public Task instantStartShooter() {
         isShooterOn = true;
-        return PlantTasks.setInstant(plantShooter, velocity);
+        return taskApplyVelocity.get();
     }
 
     /**
@@ -182,7 +221,7 @@ public class Shooter {
      */
     public Task instantStopShooter() {
         isShooterOn = false;
-        return PlantTasks.setInstant(plantShooter, 0);
+        return taskStopShooter.get();
     }
 
     /**
@@ -192,8 +231,7 @@ public class Shooter {
 //        return PlantTasks.holdFor(plantPusher,
 //                RobotConfig.Shooter.targetPusherBack,
 //                0.5);
-        return PlantTasks.setInstant(plantPusher,
-                RobotConfig.Shooter.targetPusherBack);
+        return taskPusherBack.get();
     }
 
     /**
@@ -203,8 +241,7 @@ public class Shooter {
 //        return PlantTasks.holdFor(plantPusher,
 //                RobotConfig.Shooter.targetPusherFront,
 //                0.5);
-        return PlantTasks.setInstant(plantPusher,
-                RobotConfig.Shooter.targetPusherFront);
+        return taskPusherFront.get();
     }
 
     /**
@@ -213,9 +250,9 @@ public class Shooter {
     public Task instantStartTransfer(TransferDirection direction) {
         switch (direction) {
             case FORWARD:
-                return PlantTasks.setInstant(plantTransfer, 1);
+                return taskTransferForward.get();
             case BACKWARD:
-                return PlantTasks.setInstant(plantTransfer, -1);
+                return taskTransferBackward.get();
         }
 
         throw new IllegalArgumentException("Unknown direction provided!!!");
@@ -225,7 +262,7 @@ public class Shooter {
      * Stop the transfer (indexer).
      */
     public Task instantStopTransfer() {
-        return PlantTasks.setInstant(plantTransfer, 0);
+        return taskStopTransfer.get();
     }
 
     /**
@@ -13,15 +13,40 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 
-import edu.ftcphoenix.fw2.util.ElapsedTimeMillis;
-
-public class ArmSubsystem {
+import edu.ftcphoenix.fw2.core.FrameClock;
+import edu.ftcphoenix.fw2.subsystems.Subsystem;
+
+/**
+ * ArmSubsystem — arm raiser, slides, roller intake and arm extender.
+ *
+ * <p>Nothing here blocks the loop. Timed moves ({@link #moveRollerIntake(double, int)},
+ * {@link #moveArmExtender(double, int)}) start the servo and return; the stop happens on a later
+ * frame from {@link #update(FrameClock)} or from the Action driving it. Position moves only talk
+ * to the motor when the target changes.</p>
+ *
+ * <p>For sequences, use the {@code get...Action} factories with {@code RobotBase.addTeleOpAction}
+ * or Road Runner's action runners; each advances one step per frame.</p>
+ */
+public class ArmSubsystem implements Subsystem {
     private final DcMotorEx armRaiserMotor;
     private final CRServo rollerIntake;
     private final DcMotorEx slideMotor;
     private final CRServo armExtender;
     private final Telemetry telemetry;
 
+    // Timed CR servo pulses, serviced each frame.
+    private final TimedPower rollerPulse;
+    private final TimedPower extenderPulse;
+
+    // Timestamp of the frame last passed to update(); pulses started during a frame are timed
+    // from it so start and stop use the same clock. Actions without a frame use System.nanoTime().
+    private boolean hasFrame = false;
+    private long frameNanos;
+
+    // Last RUN_TO_POSITION targets sent (null = not in RUN_TO_POSITION).
+    private Integer armRaiserTarget = null;
+    private Integer slidesTarget = null;
+
     public ArmSubsystem(HardwareMap hardwareMap, Telemetry telemetry) {
         this.telemetry = telemetry;
 
@@ -38,6 +63,40 @@ public class ArmSubsystem {
 
         armExtender = hardwareMap.get(CRServo.class, SERVO_NAME_EXTENDER);
         armExtender.setDirection(CRServo.Direction.FORWARD);
+
+        rollerPulse = new TimedPower(this::stopRollerIntake);
+        extenderPulse = new TimedPower(this::stopArmExtender);
+    }
+
+    /**
+     * Ends timed pulses whose time is up. Safe to call more than once per frame.
+     */
+    @Override
+    public void update(FrameClock clock) {
+        frameNanos = clock.nanoTime();
+        hasFrame = true;
+        updateTimers(frameNanos);
+    }
+
+    void updateTimers(long nowNanos) {
+        rollerPulse.update(nowNanos);
+        extenderPulse.update(nowNanos);
+    }
+
+    private long nowNanos() {
+        return hasFrame ? frameNanos : System.nanoTime();
+    }
+
+    @Override
+    public void stop() {
+        rollerPulse.cancel();
+        extenderPulse.cancel();
+        rollerIntake.setPower(0);
+        armExtender.setPower(0);
+        armRaiserMotor.setPower(0);
+        slideMotor.setPower(0);
+        armRaiserTarget = null;
+        slidesTarget = null;
     }
 
     public Telemetry getTelemetry() {
@@ -48,45 +107,74 @@ public class ArmSubsystem {
         return armRaiserMotor.getCurrentPosition();
     }
 
+    /**
+     * Drive the arm raiser to {@code position}. Repeated calls with the same target are free.
+     */
     public void moveArmRaiser(int position) {
+        if (armRaiserTarget != null && armRaiserTarget == position) {
+            return;
+        }
         armRaiserMotor.setTargetPosition(position);
-        armRaiserMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        armRaiserMotor.setPower(0.5);
+        if (armRaiserTarget == null) {
+            armRaiserMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
+            armRaiserMotor.setPower(0.5);
+        }
+        armRaiserTarget = position;
     }
 
-
-
     public Action getMoveArmRaiserAction(int position) {
         return new MoveArmRaiserAction(this, position);
     }
 
+    /**
+     * Move the arm raiser to {@code position}, then keep holding it there for
+     * {@code milliSeconds} before the action completes.
+     */
+    public Action getHoldArmRaiserAction(int position, int milliSeconds) {
+        return new HoldArmRaiserAction(this, position, milliSeconds);
+    }
+
     public void moveRollerIntake(double power) {
         // set power
+        rollerPulse.cancel();
         rollerIntake.setPower(power);
     }
     
     public void stopRollerIntake() {
+        rollerPulse.cancel();
         rollerIntake.setPower(0);
     }
 
+    /**
+     * Run the roller intake for {@code milliSeconds}. Returns immediately; the intake stops on the
+     * first {@link #update(FrameClock)} after the time is up.
+     */
     public void moveRollerIntake(double power, int milliSeconds) {
         moveRollerIntake(power);
-        try {
-            Thread.sleep(milliSeconds);
-        } catch (InterruptedException e) {
-//            throw new RuntimeException(e);
-        }
-        stopRollerIntake();
+        rollerPulse.start(nowNanos(), milliSeconds);
+    }
+
+    public boolean isRollerIntakePulsing() {
+        return rollerPulse.isActive();
     }
 
     public Action getMoveRollerIntakeAction(double power, int milliseconds) {
         return new MoveRollerIntakeAction(this, power, milliseconds);
     }
 
+    /**
+     * Drive the slides to {@code position}. Repeated calls with the same target are free.
+     */
     public void moveSlides(int position) {
+        if (slidesTarget != null && slidesTarget == position) {
+            return;
+        }
         slideMotor.setTargetPosition(position);
-        slideMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        slideMotor.setPower(1);
+        if (slidesTarget == null) {
+            slideMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
+            slideMotor.setPower(1);
+        }
+        slidesTarget = position;
     }
 
     public int getSlidesPosition() {
@@ -101,23 +189,28 @@ public class ArmSubsystem {
     public void moveArmExtender(double power) {
         telemetry.addData("Ext", "startMove");
         telemetry.update();
+        extenderPulse.cancel();
         armExtender.setPower(power);
     }
 
     public void stopArmExtender() {
         telemetry.addData("Ext", "stop");
         telemetry.update();
+        extenderPulse.cancel();
         armExtender.setPower(0);
     }
 
+    /**
+     * Run the arm extender for {@code milliSeconds}. Returns immediately; the extender stops on the
+     * first {@link #update(FrameClock)} after the time is up.
+     */
     public void moveArmExtender(double power, int milliSeconds) {
         moveArmExtender(power);
-        try {
-            Thread.sleep(milliSeconds);
-        } catch (InterruptedException e) {
-//            throw new RuntimeException(e);
-        }
-        stopArmExtender();
+        extenderPulse.start(nowNanos(), milliSeconds);
+    }
+
+    public boolean isArmExtenderPulsing() {
+        return extenderPulse.isActive();
     }
 
     public Action getArmExtenderAction(double power, int milliseconds) {
@@ -125,14 +218,46 @@ public class ArmSubsystem {
     }
 }
 
+/**
+ * Power for a fixed time: started by the subsystem, ended by whoever services it first
+ * (the subsystem's update or the action driving it).
+ */
+final class TimedPower {
+    private final Runnable stop;
+    private long endNanos;
+    private boolean active = false;
+
+    TimedPower(Runnable stop) {
+        this.stop = stop;
+    }
+
+    void start(long nowNanos, int milliSeconds) {
+        endNanos = nowNanos + Math.max(0, milliSeconds) * 1_000_000L;
+        active = true;
+    }
+
+    void update(long nowNanos) {
+        if (active && nowNanos - endNanos >= 0) {
+            active = false;
+            stop.run();
+        }
+    }
+
+    void cancel() {
+        active = false;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+}
+
 class MoveArmExtenderAction implements Action {
     private final double power;
     private final int milliSeconds;
     private final ArmSubsystem armSubsystem;
     private boolean initialized = false;
 
-    private ElapsedTimeMillis elapsedTimeMillis;
-
     public MoveArmExtenderAction(ArmSubsystem armSubsystem, double power, int milliSeconds) {
         this.power = power;
         this.milliSeconds = milliSeconds;
@@ -142,15 +267,11 @@ class MoveArmExtenderAction implements Action {
     @Override
     public boolean run(@NonNull TelemetryPacket packet) {
         if (!initialized) {
-            armSubsystem.moveArmExtender(power);
+            armSubsystem.moveArmExtender(power, milliSeconds);
             initialized = true;
-            elapsedTimeMillis = new ElapsedTimeMillis();
-        }
-        boolean bFinishedAction = elapsedTimeMillis.getElapsedMilliseconds() >= milliSeconds;
-        if (bFinishedAction) {
-            armSubsystem.stopArmExtender();
         }
-        return !bFinishedAction;
+        armSubsystem.updateTimers(System.nanoTime());
+        return armSubsystem.isArmExtenderPulsing();
     }
 }
 class MoveRollerIntakeAction implements Action {
@@ -159,8 +280,6 @@ class MoveRollerIntakeAction implements Action {
     private final ArmSubsystem armSubsystem;
     private boolean initialized = false;
 
-    private ElapsedTimeMillis elapsedTimeMillis;
-
     public MoveRollerIntakeAction(ArmSubsystem armSubsystem, double power, int milliSeconds) {
         this.power = power;
         this.milliSeconds = milliSeconds;
@@ -170,15 +289,11 @@ class MoveRollerIntakeAction implements Action {
     @Override
     public boolean run(@NonNull TelemetryPacket packet) {
         if (!initialized) {
-            armSubsystem.moveRollerIntake(power);
+            armSubsystem.moveRollerIntake(power, milliSeconds);
             initialized = true;
-            elapsedTimeMillis = new ElapsedTimeMillis();
-        }
-        boolean bFinishedAction = elapsedTimeMillis.getElapsedMilliseconds() >= milliSeconds;
-        if (bFinishedAction) {
-            armSubsystem.stopRollerIntake();
         }
-        return !bFinishedAction;
+        armSubsystem.updateTimers(System.nanoTime());
+        return armSubsystem.isRollerIntakePulsing();
     }
 }
 
@@ -236,3 +351,34 @@ class MoveArmRaiserAction implements Action {
         return Math.abs(targetPosition - armSubsystem.getArmRaiserPosition()) >= MOTOR_ERROR_THRESHOLD;
     }
 }
+
+class HoldArmRaiserAction implements Action {
+    private final int targetPosition;
+    private final long holdNanos;
+    private final ArmSubsystem armSubsystem;
+    private boolean initialized = false;
+    private long arrivedNanos = -1L;
+
+    public HoldArmRaiserAction(ArmSubsystem armSubsystem, int targetPosition, int milliSeconds) {
+        this.targetPosition = targetPosition;
+        this.holdNanos = Math.max(0, milliSeconds) * 1_000_000L;
+        this.armSubsystem = armSubsystem;
+    }
+
+    @Override
+    public boolean run(@NonNull TelemetryPacket packet) {
+        if (!initialized) {
+            armSubsystem.moveArmRaiser(targetPosition);
+            initialized = true;
+        }
+        long now = System.nanoTime();
+        if (arrivedNanos < 0) {
+            if (Math.abs(targetPosition - armSubsystem.getArmRaiserPosition()) >= MOTOR_ERROR_THRESHOLD) {
+                return true;
+            }
+            arrivedNanos = now;
+        }
+        // RUN_TO_POSITION keeps holding the target; just wait out the duration.
+        return now - arrivedNanos < holdNanos;
+    }
+}